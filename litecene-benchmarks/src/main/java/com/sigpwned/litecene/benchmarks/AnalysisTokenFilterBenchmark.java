@@ -0,0 +1,89 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import static java.util.stream.Collectors.toList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+import com.sigpwned.litecene.core.Token;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.analysis.AnalysisChain;
+import com.sigpwned.litecene.core.stream.token.ListTokenSource;
+import com.sigpwned.litecene.core.stream.token.filter.AnalysisTokenFilter;
+
+/**
+ * Compares the text analysis of the recommended query pipeline as a chain of four
+ * {@link com.sigpwned.litecene.core.stream.token.filter.TextProcessingTokenFilter}s against the
+ * same analysis fused into a single {@link AnalysisTokenFilter}. Both are fed the tokens the
+ * tokenizer produces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisTokenFilterBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private List<List<Token>> inputs;
+
+  private AnalysisChain chain;
+
+  @Setup
+  public void setup() {
+    inputs = corpus.getQueries().stream().map(TokenFilterStage.NORMALIZE::input).collect(toList());
+    chain = BigQuerySearching.recommendedAnalysisChain();
+  }
+
+  @Benchmark
+  public void chained(Blackhole bh) {
+    for (List<Token> input : inputs) {
+      TokenStream ts = new ListTokenSource(input);
+      for (TokenFilterStage stage : TokenFilterStage.values())
+        ts = stage.apply(ts);
+      while (ts.hasNext())
+        bh.consume(ts.next());
+    }
+  }
+
+  @Benchmark
+  public void fused(Blackhole bh) {
+    for (List<Token> input : inputs) {
+      TokenStream ts = new AnalysisTokenFilter(new ListTokenSource(input), chain);
+      while (ts.hasNext())
+        bh.consume(ts.next());
+    }
+  }
+}
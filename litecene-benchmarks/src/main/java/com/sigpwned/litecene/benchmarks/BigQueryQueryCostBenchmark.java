@@ -0,0 +1,79 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import static java.util.stream.Collectors.toList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.bigquery.BigQueryQueryCost;
+import com.sigpwned.litecene.bigquery.BigQuerySearchCompiler;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+import com.sigpwned.litecene.core.Query;
+
+/**
+ * Measures {@link BigQueryQueryCost#estimate(Query)}, which should cost a small fraction of
+ * compiling the same queries with {@link BigQuerySearchCompiler}. The estimator is fed queries
+ * parsed with the recommended query pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigQueryQueryCostBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private BigQuerySearchCompiler compiler;
+
+  private List<Query> inputs;
+
+  @Setup
+  public void setup() {
+    compiler = new BigQuerySearchCompiler("t.analyzed");
+    inputs = corpus.getQueries().stream().map(BigQuerySearching::recommendedParseQuery)
+        .collect(toList());
+  }
+
+  @Benchmark
+  public void estimate(Blackhole bh) {
+    for (Query input : inputs)
+      bh.consume(BigQueryQueryCost.estimate(input));
+  }
+
+  @Benchmark
+  public void compile(Blackhole bh) {
+    for (Query input : inputs)
+      bh.consume(compiler.compile(input));
+  }
+}
@@ -0,0 +1,87 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.bigquery.BigQuerySearchCompiler;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+import com.sigpwned.litecene.core.CachingQueryTranspiler;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryAnalyzer;
+
+/**
+ * Measures transpiling queries that have been transpiled before with a
+ * {@link BigQuerySearchCompiler}, directly versus through a warm {@link CachingQueryTranspiler}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingQueryTranspilerBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private Query[] queries;
+
+  private BigQuerySearchCompiler compiler;
+
+  private CachingQueryTranspiler cached;
+
+  @Setup
+  public void setup() {
+    QueryAnalyzer analyzer = BigQuerySearching.recommendedQueryAnalyzer();
+    List<String> texts = corpus.getQueries();
+    queries = new Query[texts.size()];
+    for (int i = 0; i < queries.length; i++)
+      queries[i] = analyzer.parse(texts.get(i));
+    compiler = new BigQuerySearchCompiler("t.text");
+    // Each segment enforces its own share of the bound, so leave room for uneven segments
+    cached = new CachingQueryTranspiler(compiler, 4 * queries.length);
+    for (Query query : queries)
+      cached.transpile(query);
+  }
+
+  @Benchmark
+  public void compiler(Blackhole bh) {
+    for (Query query : queries)
+      bh.consume(compiler.transpile(query));
+  }
+
+  @Benchmark
+  public void cached(Blackhole bh) {
+    for (Query query : queries)
+      bh.consume(cached.transpile(query));
+  }
+}
@@ -0,0 +1,93 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+
+/**
+ * Measures the code point stages of the recommended query pipeline. Each operation drains every
+ * query in the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodePointStreamBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private List<String> queries;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries();
+  }
+
+  @Benchmark
+  public void stringCodePointSource(Blackhole bh) {
+    for (String query : queries)
+      drain(new StringCodePointSource(query), bh);
+  }
+
+  @Benchmark
+  public void smartQuotesCodePointFilter(Blackhole bh) {
+    for (String query : queries)
+      drain(new SmartQuotesCodePointFilter(new StringCodePointSource(query)), bh);
+  }
+
+  @Benchmark
+  public void smartQuotesCodePointFilterBulk(Blackhole bh) {
+    for (String query : queries)
+      drainBulk(new SmartQuotesCodePointFilter(new StringCodePointSource(query)), bh);
+  }
+
+  private static void drain(CodePointStream cps, Blackhole bh) {
+    while (cps.hasNext())
+      bh.consume(cps.next());
+  }
+
+  private final int[] window = new int[256];
+
+  private void drainBulk(CodePointStream cps, Blackhole bh) {
+    for (int count = cps.read(window, 0, window.length); count != CodePointStream.EOF; count =
+        cps.read(window, 0, window.length)) {
+      for (int i = 0; i < count; i++)
+        bh.consume(window[i]);
+    }
+  }
+}
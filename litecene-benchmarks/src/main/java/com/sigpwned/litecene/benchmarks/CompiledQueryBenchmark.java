@@ -0,0 +1,169 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import static java.util.stream.Collectors.toList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+import com.sigpwned.litecene.core.util.CompiledQuery;
+import com.sigpwned.litecene.core.util.QueryProcessor;
+
+/**
+ * Measures matching queries against a set of documents by walking the query tree with a
+ * {@link QueryProcessor} versus interpreting a {@link CompiledQuery}. Each document is a bag of
+ * words drawn from the corpus, and a text node matches if all of its terms are in the bag, so the
+ * cost of the traversal dominates. Queries are parsed with the recommended query pipeline, and
+ * compiled once up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledQueryBenchmark {
+  private static final int DOCUMENTS = 64;
+
+  @Param
+  public QueryCorpus corpus;
+
+  private List<Query> queries;
+
+  private List<CompiledQuery> compiled;
+
+  private List<Set<String>> documents;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries().stream().map(BigQuerySearching::recommendedParseQuery)
+        .collect(toList());
+    compiled = queries.stream().map(CompiledQuery::compile).collect(toList());
+
+    List<String> words = new ArrayList<>();
+    for (CompiledQuery q : compiled)
+      for (int i = 0; i < q.getTermCount(); i++)
+        words.add(q.getTerm(i).getText());
+
+    // Every document gets a different, deterministic half of the words
+    documents = new ArrayList<>(DOCUMENTS);
+    for (int d = 0; d < DOCUMENTS; d++) {
+      Set<String> document = new HashSet<>();
+      for (int i = 0; i < words.size(); i++)
+        if (Integer.bitCount(i * 31 + d) % 2 == 0)
+          document.add(words.get(i));
+      documents.add(document);
+    }
+  }
+
+  @Benchmark
+  public void tree(Blackhole bh) {
+    for (Set<String> document : documents)
+      for (Query query : queries)
+        bh.consume(matches(query, document));
+  }
+
+  @Benchmark
+  public void compiled(Blackhole bh) {
+    for (Set<String> document : documents)
+      for (CompiledQuery query : compiled)
+        bh.consume(query.matches((q, node) -> {
+          for (int i = q.getTermStart(node); i < q.getTermEnd(node); i++)
+            if (!document.contains(q.getTerm(i).getText()))
+              return false;
+          return true;
+        }));
+  }
+
+  private static boolean matches(Query query, Set<String> document) {
+    return new QueryProcessor<Boolean>(new QueryProcessor.Processor<Boolean>() {
+      @Override
+      public Boolean and(AndQuery and) {
+        boolean result = true;
+        for (Query child : and.getChildren())
+          result = result & matches(child, document);
+        return result;
+      }
+
+      @Override
+      public Boolean or(OrQuery or) {
+        boolean result = false;
+        for (Query child : or.getChildren())
+          result = result | matches(child, document);
+        return result;
+      }
+
+      @Override
+      public Boolean not(NotQuery not) {
+        return !matches(not.getChild(), document);
+      }
+
+      @Override
+      public Boolean list(ListQuery list) {
+        boolean result = true;
+        for (Query child : list.getChildren())
+          result = result & matches(child, document);
+        return result;
+      }
+
+      @Override
+      public Boolean paren(ParenQuery paren) {
+        return matches(paren.getChild(), document);
+      }
+
+      @Override
+      public Boolean text(TextQuery text) {
+        for (Term term : text.getTerms())
+          if (!document.contains(term.getText()))
+            return false;
+        return true;
+      }
+
+      @Override
+      public Boolean vacuous(VacuousQuery vacuous) {
+        return true;
+      }
+    }).process(query);
+  }
+}
@@ -0,0 +1,112 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.litecene.core.util.DocSet;
+
+/**
+ * Measures evaluating {@code (a AND b) OR (c AND NOT d)} over sets of matching documents, by
+ * combining sets of document IDs with {@link Set#retainAll}, {@link Set#addAll}, and
+ * {@link Set#removeAll} versus combining {@link DocSet sets of document ordinals} and mapping the
+ * result back to IDs. Each clause matches a random fraction of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocSetBenchmark {
+  private static final long SEED = 20221231L;
+
+  @Param({"10000", "1000000"})
+  public int documents;
+
+  @Param({"0.01", "0.3"})
+  public double density;
+
+  private List<String> ids;
+
+  private List<Set<String>> idSets;
+
+  private List<DocSet> docSets;
+
+  @Setup
+  public void setup() {
+    ids = new ArrayList<>(documents);
+    for (int i = 0; i < documents; i++)
+      ids.add("document" + i);
+
+    Random rand = new Random(SEED);
+    idSets = new ArrayList<>();
+    docSets = new ArrayList<>();
+    for (int clause = 0; clause < 4; clause++) {
+      Set<String> idSet = new HashSet<>();
+      DocSet.Builder docSet = DocSet.builder();
+      for (int i = 0; i < documents; i++) {
+        if (rand.nextDouble() < density) {
+          idSet.add(ids.get(i));
+          docSet.add(i);
+        }
+      }
+      idSets.add(idSet);
+      docSets.add(docSet.build());
+    }
+  }
+
+  @Benchmark
+  public Set<String> hashSet() {
+    Set<String> left = new HashSet<>(idSets.get(0));
+    left.retainAll(idSets.get(1));
+
+    Set<String> right = new HashSet<>(idSets.get(2));
+    right.removeAll(idSets.get(3));
+
+    left.addAll(right);
+    return left;
+  }
+
+  @Benchmark
+  public Set<String> docSet() {
+    DocSet left = docSets.get(0).and(docSets.get(1));
+    DocSet right = docSets.get(2).andNot(docSets.get(3));
+
+    Set<String> result = new HashSet<>();
+    left.or(right).forEach(ordinal -> result.add(ids.get(ordinal)));
+    return result;
+  }
+}
@@ -0,0 +1,96 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import static java.util.Collections.emptyList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+import com.sigpwned.litecene.core.IncrementalQueryParser;
+import com.sigpwned.litecene.core.LiteceneException;
+import com.sigpwned.litecene.core.QueryAnalyzer;
+
+/**
+ * Measures validating a query on every keystroke as it is typed one character at a time, either by
+ * parsing the whole text after each keystroke or by applying each keystroke to an
+ * {@link IncrementalQueryParser}. Both use the recommended code point and token filters, and
+ * neither applies query filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementalQueryParserBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private List<String> queries;
+
+  private QueryAnalyzer analyzer;
+
+  private IncrementalQueryParser parser;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries();
+
+    QueryAnalyzer recommended = BigQuerySearching.recommendedQueryAnalyzer();
+    analyzer = new QueryAnalyzer(recommended.getCodePointFilters(), recommended.getTokenFilters(),
+        emptyList());
+    parser = new IncrementalQueryParser(recommended.getCodePointFilters(),
+        recommended.getTokenFilters());
+  }
+
+  @Benchmark
+  public void full(Blackhole bh) {
+    for (String query : queries) {
+      for (int i = 1; i <= query.length(); i++) {
+        try {
+          bh.consume(analyzer.parse(query.subSequence(0, i)));
+        } catch (LiteceneException e) {
+          bh.consume(e);
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void incremental(Blackhole bh) {
+    for (String query : queries) {
+      parser.parse("");
+      for (int i = 0; i < query.length(); i++)
+        bh.consume(parser.insert(i, query.subSequence(i, i + 1)));
+    }
+  }
+}
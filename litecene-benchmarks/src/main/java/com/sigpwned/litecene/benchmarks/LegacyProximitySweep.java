@@ -0,0 +1,53 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+/**
+ * A copy of the proximity sweep the in-memory matcher used before
+ * {@link com.sigpwned.litecene.core.util.ProximityWindows}, which finds the list with the smallest
+ * current position by scanning every list at every step. It is kept here only as a baseline for
+ * {@link ProximityWindowsBenchmark}.
+ */
+final class LegacyProximitySweep {
+  private LegacyProximitySweep() {}
+
+  public static boolean fits(int[][] positions, int width) {
+    for (int[] list : positions)
+      if (list.length == 0)
+        return false;
+
+    int[] cursors = new int[positions.length];
+    while (true) {
+      int min = 0;
+      int max = Integer.MIN_VALUE;
+      for (int i = 0; i < positions.length; i++) {
+        int position = positions[i][cursors[i]];
+        if (position < positions[min][cursors[min]])
+          min = i;
+        max = Math.max(max, position);
+      }
+      if (max - positions[min][cursors[min]] + 1 <= width)
+        return true;
+      cursors[min] = cursors[min] + 1;
+      if (cursors[min] == positions[min].length)
+        return false;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+/**
+ * A copy of {@link com.sigpwned.litecene.core.util.QueryProcessor} from before queries accepted
+ * visitors, which dispatches each node with a chain of {@code instanceof} checks. It is kept here
+ * only as a baseline for {@link QueryDispatchBenchmark}.
+ */
+class LegacyQueryProcessor<T> {
+  private final QueryVisitor<T> handler;
+
+  public LegacyQueryProcessor(QueryVisitor<T> handler) {
+    if (handler == null)
+      throw new NullPointerException();
+    this.handler = handler;
+  }
+
+  public T process(Query q) {
+    if (q instanceof AndQuery) {
+      AndQuery and = (AndQuery) q;
+      return handler.and(and);
+    } else if (q instanceof OrQuery) {
+      OrQuery or = (OrQuery) q;
+      return handler.or(or);
+    } else if (q instanceof NotQuery) {
+      NotQuery not = (NotQuery) q;
+      return handler.not(not);
+    } else if (q instanceof ListQuery) {
+      ListQuery list = (ListQuery) q;
+      return handler.list(list);
+    } else if (q instanceof ParenQuery) {
+      ParenQuery paren = (ParenQuery) q;
+      return handler.paren(paren);
+    } else if (q instanceof TextQuery) {
+      TextQuery text = (TextQuery) q;
+      return handler.text(text);
+    } else if (q instanceof VacuousQuery) {
+      VacuousQuery vacuous = (VacuousQuery) q;
+      return handler.vacuous(vacuous);
+    } else {
+      throw new AssertionError("unrecognized query " + q);
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import static java.util.stream.Collectors.toList;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.Token;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.exception.EofException;
+import com.sigpwned.litecene.core.exception.InvalidProximityException;
+import com.sigpwned.litecene.core.query.token.TextToken;
+import com.sigpwned.litecene.core.util.Syntax;
+
+/**
+ * A copy of the {@link com.sigpwned.litecene.core.stream.token.Tokenizer} from before it learned to
+ * build terms during its character scan. It builds a string for each token and then re-splits
+ * phrases with a regular expression. It is kept here only as a baseline for
+ * {@link TokenizerAllocationBenchmark}.
+ */
+class LegacyTokenizer implements TokenStream {
+  /**
+   * The number of code points to read from the stream at a time
+   */
+  private static final int WINDOW_SIZE = 64;
+
+  private final CodePointStream stream;
+  private Token next;
+  private StringBuilder buf;
+
+  /**
+   * Code points read from the stream in bulk. The code points from windowPosition (inclusive) to
+   * windowLimit (exclusive) have been read from the stream but not yet consumed.
+   */
+  private final int[] window;
+  private int windowPosition;
+  private int windowLimit;
+
+  public LegacyTokenizer(CodePointStream stream) {
+    this.stream = stream;
+    this.buf = new StringBuilder();
+    this.window = new int[WINDOW_SIZE];
+    this.windowPosition = 0;
+    this.windowLimit = 0;
+  }
+
+  public Token peek() {
+    if (next == null)
+      next = tok();
+    return next;
+  }
+
+  public Token next() {
+    Token result = peek();
+    next = null;
+    return result;
+  }
+
+  private static final int LPAREN = Syntax.LPAREN;
+  private static final int RPAREN = Syntax.RPAREN;
+  private static final int QUOTE = Syntax.QUOTE;
+  private static final int TILDE = Syntax.TILDE;
+
+  private static final String AND = Syntax.AND;
+  private static final String OR = Syntax.OR;
+  private static final String NOT = Syntax.NOT;
+
+  private Token tok() {
+    ws();
+
+    if (!hasNextCodePoint())
+      return Token.EOF;
+
+    int cp = nextCodePoint();
+    switch (cp) {
+      case LPAREN:
+        return Token.LPAREN;
+      case RPAREN:
+        return Token.RPAREN;
+      case QUOTE: {
+        buf.setLength(0);
+        while (hasNextCodePoint() && peekCodePoint() != QUOTE) {
+          buf.appendCodePoint(nextCodePoint());
+        }
+        if (!hasNextCodePoint())
+          throw new EofException();
+        nextCodePoint(); // QUOTE
+
+        String text = buf.toString();
+
+        Integer proximity;
+        if (peekCodePoint() == TILDE) {
+          nextCodePoint(); // TILDE
+          if (!Character.isDigit(peekCodePoint()))
+            throw new InvalidProximityException();
+
+          buf.setLength(0);
+          do {
+            buf.appendCodePoint(nextCodePoint());
+          } while (Character.isDigit(peekCodePoint()));
+
+          try {
+            proximity = Integer.parseInt(buf.toString());
+          } catch (NumberFormatException e) {
+            throw new InvalidProximityException();
+          }
+
+          if (proximity == 0)
+            throw new InvalidProximityException();
+        } else {
+          proximity = null;
+        }
+
+        return new TextToken(
+            Syntax.WHITESPACE.splitAsStream(text.strip()).map(Term::fromString).collect(toList()),
+            proximity);
+      }
+      default: {
+        buf.setLength(0);
+        buf.appendCodePoint(cp);
+        while (hasNextCodePoint() && termy(peekCodePoint())) {
+          buf.appendCodePoint(nextCodePoint());
+        }
+
+        String text = buf.toString();
+
+        switch (text) {
+          case AND:
+            return Token.AND;
+          case OR:
+            return Token.OR;
+          case NOT:
+            return Token.NOT;
+          default:
+            return new TextToken(Stream.of(text.strip()).map(Term::fromString).collect(toList()),
+                OptionalInt.empty());
+        }
+      }
+    }
+  }
+
+  /**
+   * Tokens are separated by whitespace or metacharacters
+   */
+  private boolean termy(int cp) {
+    if (Character.isWhitespace(cp)) {
+      // There is no version of reality where whitespace is included in terms.
+      return false;
+    } else {
+      switch (cp) {
+        case LPAREN:
+        case RPAREN:
+        case QUOTE:
+        case TILDE:
+          // These are metacharacters not allowed in a term
+          return false;
+        default:
+          // Everything else is allowed
+          return true;
+      }
+    }
+  }
+
+  private int peekCodePoint() {
+    if (windowPosition == windowLimit && !fill())
+      return CodePointStream.EOF;
+    return window[windowPosition];
+  }
+
+  private int nextCodePoint() {
+    int result = peekCodePoint();
+    if (result != CodePointStream.EOF)
+      windowPosition = windowPosition + 1;
+    return result;
+  }
+
+  private boolean hasNextCodePoint() {
+    return peekCodePoint() != CodePointStream.EOF;
+  }
+
+  /**
+   * Reads the next window of code points from the stream. Returns false if the stream is exhausted.
+   */
+  private boolean fill() {
+    int count = stream.read(window, 0, window.length);
+    if (count == CodePointStream.EOF)
+      return false;
+    windowPosition = 0;
+    windowLimit = count;
+    return true;
+  }
+
+  private void ws() {
+    while (hasNextCodePoint() && Character.isWhitespace(peekCodePoint()))
+      nextCodePoint();
+  }
+}
@@ -0,0 +1,50 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the litecene benchmarks with the GC profiler enabled, so that every stage reports its
+ * allocation rate (gc.alloc.rate.norm is bytes allocated per operation) alongside its throughput.
+ * The optional arguments are regular expressions that select benchmarks to run. By default, all
+ * benchmarks are run.
+ */
+public final class LiteceneBenchmarks {
+  private LiteceneBenchmarks() {}
+
+  public static void main(String[] args) throws RunnerException {
+    OptionsBuilder options = new OptionsBuilder();
+    if (args.length == 0) {
+      options.include(LiteceneBenchmarks.class.getPackageName() + ".*");
+    } else {
+      for (String arg : args)
+        options.include(arg);
+    }
+
+    Options opts = options.addProfiler(GCProfiler.class).build();
+
+    new Runner(opts).run();
+  }
+}
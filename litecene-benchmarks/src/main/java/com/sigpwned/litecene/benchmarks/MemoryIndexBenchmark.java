@@ -0,0 +1,128 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.memory.MemoryDocument;
+import com.sigpwned.litecene.memory.MemoryIndex;
+import com.sigpwned.litecene.memory.MemoryQuery;
+import com.sigpwned.litecene.memory.MemorySearching;
+
+/**
+ * Measures searching a corpus of generated documents, by matching every document against each
+ * query versus searching a {@link MemoryIndex}. Documents are mostly filler tokens with a skewed
+ * distribution, with the tokens of the corpus's queries mixed in now and then, so most query terms
+ * are rare and some filler terms are everywhere.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryIndexBenchmark {
+  private static final long SEED = 20221231L;
+
+  private static final int DOCUMENTS = 5000;
+
+  private static final int DOCUMENT_LENGTH = 50;
+
+  private static final int FILLER_TOKENS = 1000;
+
+  @Param
+  public QueryCorpus corpus;
+
+  private Query[] queries;
+
+  private MemoryQuery[] compiled;
+
+  private List<MemoryDocument> documents;
+
+  private MemoryIndex index;
+
+  @Setup
+  public void setup() {
+    List<String> texts = corpus.getQueries();
+    queries = new Query[texts.size()];
+    compiled = new MemoryQuery[texts.size()];
+    Set<String> queryTokens = new LinkedHashSet<>();
+    for (int i = 0; i < queries.length; i++) {
+      queries[i] = MemorySearching.recommendedParseQuery(texts.get(i));
+      compiled[i] = MemoryQuery.compile(queries[i]);
+      queryTokens.addAll(MemorySearching.recommendedAnalyzeDocument(texts.get(i)).getTokens());
+    }
+    queryTokens.remove("and");
+    queryTokens.remove("or");
+    queryTokens.remove("not");
+    List<String> vocabulary = new ArrayList<>(queryTokens);
+
+    Random rand = new Random(SEED);
+    documents = new ArrayList<>(DOCUMENTS);
+    MemoryIndex.Builder builder = MemoryIndex.builder();
+    for (int i = 0; i < DOCUMENTS; i++) {
+      List<String> tokens = new ArrayList<>(DOCUMENT_LENGTH);
+      for (int j = 0; j < DOCUMENT_LENGTH; j++) {
+        if (rand.nextInt(10) == 0)
+          tokens.add(vocabulary.get(rand.nextInt(vocabulary.size())));
+        else
+          tokens.add("w" + (int) (FILLER_TOKENS * Math.pow(rand.nextDouble(), 3.0)));
+      }
+      MemoryDocument document = MemoryDocument.of(tokens);
+      documents.add(document);
+      builder.add(Integer.toString(i), document);
+    }
+    index = builder.build();
+  }
+
+  @Benchmark
+  public void scan(Blackhole bh) {
+    for (MemoryQuery query : compiled) {
+      int count = 0;
+      for (MemoryDocument document : documents)
+        if (query.test(document))
+          count = count + 1;
+      bh.consume(count);
+    }
+  }
+
+  @Benchmark
+  public void index(Blackhole bh) {
+    for (Query query : queries)
+      bh.consume(index.search(query).size());
+  }
+}
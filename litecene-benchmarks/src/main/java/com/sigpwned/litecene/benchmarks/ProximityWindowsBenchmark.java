@@ -0,0 +1,79 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.litecene.core.util.ProximityWindows;
+
+/**
+ * Measures deciding a proximity match in a long document where every term occurs thousands of
+ * times, but never close enough to the others, so every position must be visited. Trying every
+ * combination of one position from each term, as a cartesian product does, would take at least a
+ * million steps even for two terms, so it is left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProximityWindowsBenchmark {
+  @Param({"2", "4", "8"})
+  public int terms;
+
+  @Param({"1000", "4000"})
+  public int occurrences;
+
+  private int[][] positions;
+
+  private int width;
+
+  @Setup
+  public void setup() {
+    // Each term occurs once in every run of 2 * terms tokens, two tokens after the previous term,
+    // so the narrowest window is one token wider than the proximity
+    positions = new int[terms][occurrences];
+    for (int i = 0; i < terms; i++)
+      for (int j = 0; j < occurrences; j++)
+        positions[i][j] = j * 2 * terms + 2 * i;
+    width = 2 * (terms - 1);
+  }
+
+  @Benchmark
+  public boolean windows() {
+    return ProximityWindows.fits(positions, width);
+  }
+
+  @Benchmark
+  public boolean sweep() {
+    return LegacyProximitySweep.fits(positions, width);
+  }
+}
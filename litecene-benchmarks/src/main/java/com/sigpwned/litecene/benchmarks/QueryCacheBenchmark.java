@@ -0,0 +1,81 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+import com.sigpwned.litecene.core.QueryAnalyzer;
+import com.sigpwned.litecene.core.QueryCache;
+
+/**
+ * Measures parsing queries that have been parsed before with the recommended query analyzer,
+ * directly versus through a warm {@link QueryCache}, which skips analysis entirely.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryCacheBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private List<String> queries;
+
+  private QueryAnalyzer analyzer;
+
+  private QueryCache cache;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries();
+    analyzer = BigQuerySearching.recommendedQueryAnalyzer();
+    // Each segment enforces its own share of the bound, so leave room for uneven segments
+    cache = new QueryCache(4 * queries.size());
+    for (String query : queries)
+      cache.parse(analyzer, query);
+  }
+
+  @Benchmark
+  public void analyzer(Blackhole bh) {
+    for (String query : queries)
+      bh.consume(analyzer.parse(query));
+  }
+
+  @Benchmark
+  public void cached(Blackhole bh) {
+    for (String query : queries)
+      bh.consume(cache.parse(analyzer, query));
+  }
+}
@@ -0,0 +1,181 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import static java.util.Collections.unmodifiableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The query workloads the benchmarks are driven by. Each corpus is a fixed list of queries that are
+ * valid under the recommended BigQuery query pipeline. Generated corpora use a fixed seed, so every
+ * run sees exactly the same queries.
+ */
+public enum QueryCorpus {
+  /**
+   * Short, hand-written queries like the ones users type into a search box
+   */
+  SHORT(Arrays.asList("hello", "hello world", "developer*", "\"machine learning\"",
+      "iphone OR android", "coffee AND NOT decaf", "coffee AND (latte OR espresso OR mocha)",
+      "“smart quotes”", "Thë råįñ ïń Špâîñ", "crow's nest", "\"It wa* the best of times\"", "#selfie OR @twitter")),
+
+  /**
+   * Long queries, like the ones users paste in from saved searches
+   */
+  LONG(Generators.longQueries()),
+
+  /**
+   * Queries with deeply nested groups and chained NOT operators
+   */
+  NESTED(Generators.nestedQueries()),
+
+  /**
+   * Queries made up mostly of proximity phrase clauses
+   */
+  PROXIMITY(Generators.proximityQueries());
+
+  private final List<String> queries;
+
+  private QueryCorpus(List<String> queries) {
+    this.queries = unmodifiableList(queries);
+  }
+
+  /**
+   * @return the queries
+   */
+  public List<String> getQueries() {
+    return queries;
+  }
+
+  /**
+   * Enum constants are initialized before any other static members of the enum, so the generators
+   * live in their own class.
+   */
+  private static final class Generators {
+    private static final long SEED = 20221231L;
+
+    private static final List<String> WORDS = Arrays.asList("smartphone", "phone", "iphone",
+        "apple", "android", "google", "windows", "app", "call", "dial", "surf", "browse", "camera",
+        "picture", "pic", "selfie", "café", "naïve", "résumé", "crow's", "nest", "mizzenmast",
+        "spirits", "cheese", "fontina", "melted", "cupcake", "jelly", "pudding", "bespoke", "kogi",
+        "seitan", "flagpole", "meeting", "sync", "ipsum", "dolor", "amet", "ramp", "pin");
+
+    private static String word(Random rand) {
+      String result = WORDS.get(rand.nextInt(WORDS.size()));
+      if (rand.nextInt(8) == 0)
+        result = result.substring(0, Math.max(1, result.length() / 2)) + "*";
+      return result;
+    }
+
+    private static String phrase(Random rand, int length) {
+      StringBuilder result = new StringBuilder().append('"');
+      for (int i = 0; i < length; i++) {
+        if (i != 0)
+          result.append(' ');
+        result.append(word(rand));
+      }
+      return result.append('"').toString();
+    }
+
+    private static String proximity(Random rand, int length) {
+      // Analysis can split terms, e.g. "crow's" becomes "crow s", so leave room for that
+      return phrase(rand, length) + "~" + (2 * length + 2 + rand.nextInt(8));
+    }
+
+    public static List<String> longQueries() {
+      Random rand = new Random(SEED);
+
+      List<String> result = new ArrayList<>();
+      result.add("(smartphone OR \"smart phone\" OR iphone OR \"apple phone\" OR android OR "
+          + "\"google phone\" OR \"windows phone\" OR \"phone app\"~8) AND (call OR dial OR app OR "
+          + "surf OR browse OR camera OR picture OR pic OR selfie)");
+      for (int i = 0; i < 8; i++) {
+        StringBuilder query = new StringBuilder();
+        for (int j = 0; j < 64; j++) {
+          if (j != 0)
+            query.append(j % 8 == 0 ? " AND " : " OR ");
+          switch (rand.nextInt(4)) {
+            case 0:
+              query.append(phrase(rand, 2 + rand.nextInt(3)));
+              break;
+            case 1:
+              query.append(proximity(rand, 2 + rand.nextInt(2)));
+              break;
+            default:
+              query.append(word(rand));
+              break;
+          }
+        }
+        result.add(query.toString());
+      }
+
+      return result;
+    }
+
+    public static List<String> nestedQueries() {
+      Random rand = new Random(SEED);
+
+      List<String> result = new ArrayList<>();
+      for (int depth : new int[] {8, 16, 32, 64}) {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+          query.append(word(rand)).append(i % 2 == 0 ? " AND (" : " OR (");
+        }
+        query.append(word(rand));
+        for (int i = 0; i < depth; i++) {
+          query.append(')');
+        }
+        result.add(query.toString());
+
+        StringBuilder nots = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+          nots.append("NOT (");
+        }
+        nots.append(phrase(rand, 2));
+        for (int i = 0; i < depth; i++) {
+          nots.append(')');
+        }
+        result.add(nots.toString());
+      }
+
+      return result;
+    }
+
+    public static List<String> proximityQueries() {
+      Random rand = new Random(SEED);
+
+      List<String> result = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        StringBuilder query = new StringBuilder();
+        int clauses = 1 + rand.nextInt(8);
+        for (int j = 0; j < clauses; j++) {
+          if (j != 0)
+            query.append(rand.nextBoolean() ? " OR " : " AND ");
+          query.append(proximity(rand, 2 + rand.nextInt(4)));
+        }
+        result.add(query.toString());
+      }
+
+      return result;
+    }
+  }
+}
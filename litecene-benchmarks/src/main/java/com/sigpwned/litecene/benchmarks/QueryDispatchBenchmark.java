@@ -0,0 +1,170 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+import com.sigpwned.litecene.core.stream.token.ListTokenSource;
+
+/**
+ * Measures the cost of dispatching every node of one very wide query, built by joining the queries
+ * of the corpus, each in parentheses, with OR until there are the given number of clauses. The pass
+ * only counts nodes, so dispatch dominates. Double dispatch with {@link Query#accept(QueryVisitor)}
+ * is compared to the chain of {@code instanceof} checks in the {@link LegacyQueryProcessor} it
+ * replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryDispatchBenchmark {
+  public static enum Implementation {
+    INSTANCEOF, VISITOR;
+  }
+
+  /**
+   * Counts the nodes of a query, dispatching each child with {@link #count(Query)}
+   */
+  private abstract static class NodeCounter implements QueryVisitor<Integer> {
+    public abstract int count(Query q);
+
+    @Override
+    public Integer and(AndQuery and) {
+      return 1 + countAll(and.getChildren());
+    }
+
+    @Override
+    public Integer or(OrQuery or) {
+      return 1 + countAll(or.getChildren());
+    }
+
+    @Override
+    public Integer not(NotQuery not) {
+      return 1 + count(not.getChild());
+    }
+
+    @Override
+    public Integer list(ListQuery list) {
+      return 1 + countAll(list.getChildren());
+    }
+
+    @Override
+    public Integer paren(ParenQuery paren) {
+      return 1 + count(paren.getChild());
+    }
+
+    @Override
+    public Integer text(TextQuery text) {
+      return 1;
+    }
+
+    @Override
+    public Integer vacuous(VacuousQuery vacuous) {
+      return 1;
+    }
+
+    private int countAll(List<Query> qs) {
+      int result = 0;
+      for (Query q : qs)
+        result = result + count(q);
+      return result;
+    }
+  }
+
+  @Param
+  public QueryCorpus corpus;
+
+  @Param({"1000", "10000"})
+  public int clauses;
+
+  @Param
+  public Implementation implementation;
+
+  private Query input;
+
+  private NodeCounter counter;
+
+  @Setup
+  public void setup() {
+    List<String> queries = corpus.getQueries();
+
+    StringBuilder query = new StringBuilder();
+    for (int i = 0; i < clauses; i++) {
+      if (i != 0)
+        query.append(" OR ");
+      query.append('(').append(queries.get(i % queries.size())).append(')');
+    }
+
+    // The query is far bigger than the default limits allow
+    input = new QueryParser(new ListTokenSource(TokenFilterStage.output(query.toString())),
+        QueryParser.Limits.UNLIMITED).query();
+
+    switch (implementation) {
+      case INSTANCEOF:
+        counter = new NodeCounter() {
+          private final LegacyQueryProcessor<Integer> processor = new LegacyQueryProcessor<>(this);
+
+          @Override
+          public int count(Query q) {
+            return processor.process(q);
+          }
+        };
+        break;
+      case VISITOR:
+        counter = new NodeCounter() {
+          @Override
+          public int count(Query q) {
+            return q.accept(this);
+          }
+        };
+        break;
+      default:
+        throw new AssertionError(implementation);
+    }
+  }
+
+  @Benchmark
+  public int dispatch() {
+    return counter.count(input);
+  }
+}
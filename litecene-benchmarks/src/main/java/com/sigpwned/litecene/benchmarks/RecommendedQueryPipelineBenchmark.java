@@ -0,0 +1,81 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.bigquery.BigQuerySearchCompiler;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+
+/**
+ * Measures the full recommended query pipeline end to end, from query string to parsed query and
+ * from query string to SQL predicate. Parsing is measured both with a new pipeline per query and
+ * with the shared query analyzer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendedQueryPipelineBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private List<String> queries;
+
+  private BigQuerySearchCompiler compiler;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries();
+    compiler = new BigQuerySearchCompiler("t.analyzed");
+  }
+
+  @Benchmark
+  public void parse(Blackhole bh) {
+    for (String query : queries)
+      bh.consume(BigQuerySearching.recommendedQueryPipeline(query).query());
+  }
+
+  @Benchmark
+  public void analyze(Blackhole bh) {
+    for (String query : queries)
+      bh.consume(BigQuerySearching.recommendedQueryAnalyzer().parse(query));
+  }
+
+  @Benchmark
+  public void parseAndCompile(Blackhole bh) {
+    for (String query : queries)
+      bh.consume(compiler.compile(BigQuerySearching.recommendedParseQuery(query)));
+  }
+}
@@ -0,0 +1,70 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import static java.util.stream.Collectors.toList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline;
+import com.sigpwned.litecene.core.stream.token.ListTokenSource;
+
+/**
+ * Measures the {@link SimplifyQueryFilterPipeline} stage of the recommended query pipeline in
+ * isolation. The stage is fed parsed, unsimplified queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplifyQueryFilterPipelineBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private List<Query> inputs;
+
+  @Setup
+  public void setup() {
+    inputs = corpus.getQueries().stream()
+        .map(q -> new QueryParser(new ListTokenSource(TokenFilterStage.output(q))).query())
+        .collect(toList());
+  }
+
+  @Benchmark
+  public void simplify(Blackhole bh) {
+    for (Query input : inputs)
+      bh.consume(new SimplifyQueryFilterPipeline(() -> input).query());
+  }
+}
@@ -0,0 +1,98 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline;
+import com.sigpwned.litecene.core.stream.token.ListTokenSource;
+
+/**
+ * Measures the {@link SimplifyQueryFilterPipeline} on one very wide query, built by joining the
+ * queries of the corpus, each in parentheses, with OR until there are the given number of clauses.
+ * Every fourth clause is an empty phrase, which simplifies away. The current implementation is
+ * compared to the {@link LegacySimplifyQueryFilterPipeline} it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplifyWideQueryBenchmark {
+  public static enum Implementation {
+    LEGACY, CURRENT;
+  }
+
+  @Param
+  public QueryCorpus corpus;
+
+  @Param({"1000", "5000"})
+  public int clauses;
+
+  @Param
+  public Implementation implementation;
+
+  private Query input;
+
+  @Setup
+  public void setup() {
+    List<String> queries = corpus.getQueries();
+
+    StringBuilder query = new StringBuilder();
+    for (int i = 0; i < clauses; i++) {
+      if (i != 0)
+        query.append(" OR ");
+      if (i % 4 == 3)
+        query.append("\"\"");
+      else
+        query.append('(').append(queries.get(i % queries.size())).append(')');
+    }
+
+    // The query is far bigger than the default limits allow
+    input = new QueryParser(new ListTokenSource(TokenFilterStage.output(query.toString())),
+        QueryParser.Limits.UNLIMITED).query();
+  }
+
+  @Benchmark
+  public Query simplify() {
+    switch (implementation) {
+      case LEGACY:
+        return new LegacySimplifyQueryFilterPipeline(() -> input).query();
+      case CURRENT:
+        return new SimplifyQueryFilterPipeline(() -> input).query();
+      default:
+        throw new AssertionError(implementation);
+    }
+  }
+}
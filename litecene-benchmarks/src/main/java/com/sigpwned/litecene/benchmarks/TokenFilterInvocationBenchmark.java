@@ -0,0 +1,175 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.core.Token;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+import com.sigpwned.litecene.core.stream.token.TokenFilter;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+import com.sigpwned.litecene.core.stream.token.filter.text.LetterNumberTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.LowercaseTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.NormalizeTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.PrintableAsciiTokenFilter;
+
+/**
+ * Counts how often the text processing in the recommended pipeline runs per parse. Each text
+ * processing filter is replaced with a subclass that counts calls to its process method, i.e., its
+ * regular expression or {@link java.text.Normalizer} invocations. The counters are reported as
+ * rates, so dividing the {@code processCalls} rate by the {@code parses} rate gives the number of
+ * invocations per parse, and dividing it by the {@code terms} rate gives the number of invocations
+ * per term. Because {@link TokenFilter} memoizes filtered tokens, every filter should process each
+ * term at most once, so there should be at most four invocations per term no matter how often the
+ * parser peeks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenFilterInvocationBenchmark {
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long parses;
+
+    public long terms;
+
+    public long processCalls;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      parses = 0;
+      terms = 0;
+      processCalls = 0;
+    }
+  }
+
+  @Param
+  public QueryCorpus corpus;
+
+  private List<String> queries;
+
+  private long[] termCounts;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries();
+    termCounts = queries.stream()
+        .mapToLong(q -> TokenFilterStage.NORMALIZE.input(q).stream()
+            .filter(t -> t.getType() == Token.Type.TEXT)
+            .mapToLong(t -> t.asText().getTerms().size()).sum())
+        .toArray();
+  }
+
+  @Benchmark
+  public void parse(Counters counters, Blackhole bh) {
+    for (int i = 0; i < queries.size(); i++) {
+      TokenStream ts = new Tokenizer(
+          new SmartQuotesCodePointFilter(new StringCodePointSource(queries.get(i))));
+      ts = new CountingNormalizeTokenFilter(ts, counters);
+      ts = new CountingPrintableAsciiTokenFilter(ts, counters);
+      ts = new CountingLetterNumberTokenFilter(ts, counters);
+      ts = new CountingLowercaseTokenFilter(ts, counters);
+      bh.consume(new QueryParser(ts).query());
+      counters.parses = counters.parses + 1;
+      counters.terms = counters.terms + termCounts[i];
+    }
+  }
+
+  private static class CountingNormalizeTokenFilter extends NormalizeTokenFilter {
+    private final Counters counters;
+
+    public CountingNormalizeTokenFilter(TokenStream upstream, Counters counters) {
+      super(upstream);
+      this.counters = counters;
+    }
+
+    @Override
+    protected String process(String text) {
+      counters.processCalls = counters.processCalls + 1;
+      return super.process(text);
+    }
+  }
+
+  private static class CountingPrintableAsciiTokenFilter extends PrintableAsciiTokenFilter {
+    private final Counters counters;
+
+    public CountingPrintableAsciiTokenFilter(TokenStream upstream, Counters counters) {
+      super(upstream);
+      this.counters = counters;
+    }
+
+    @Override
+    protected String process(String text) {
+      counters.processCalls = counters.processCalls + 1;
+      return super.process(text);
+    }
+  }
+
+  private static class CountingLetterNumberTokenFilter extends LetterNumberTokenFilter {
+    private final Counters counters;
+
+    public CountingLetterNumberTokenFilter(TokenStream upstream, Counters counters) {
+      super(upstream);
+      this.counters = counters;
+    }
+
+    @Override
+    protected String process(String text) {
+      counters.processCalls = counters.processCalls + 1;
+      return super.process(text);
+    }
+  }
+
+  private static class CountingLowercaseTokenFilter extends LowercaseTokenFilter {
+    private final Counters counters;
+
+    public CountingLowercaseTokenFilter(TokenStream upstream, Counters counters) {
+      super(upstream);
+      this.counters = counters;
+    }
+
+    @Override
+    protected String process(String text) {
+      counters.processCalls = counters.processCalls + 1;
+      return super.process(text);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+import com.sigpwned.litecene.core.Token;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+import com.sigpwned.litecene.core.stream.token.filter.text.LetterNumberTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.LowercaseTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.NormalizeTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.PrintableAsciiTokenFilter;
+import com.sigpwned.litecene.core.util.TokenStreams;
+
+/**
+ * The token filter stages of the recommended BigQuery query pipeline, in pipeline order.
+ */
+public enum TokenFilterStage {
+  NORMALIZE(NormalizeTokenFilter::new),
+  PRINTABLE_ASCII(PrintableAsciiTokenFilter::new),
+  LETTER_NUMBER(LetterNumberTokenFilter::new),
+  LOWERCASE(LowercaseTokenFilter::new);
+
+  private final UnaryOperator<TokenStream> factory;
+
+  private TokenFilterStage(UnaryOperator<TokenStream> factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Wraps the given stream in this stage's filter
+   */
+  public TokenStream apply(TokenStream upstream) {
+    return factory.apply(upstream);
+  }
+
+  /**
+   * Returns the tokens for the given query exactly as this stage would see them in the recommended
+   * pipeline, i.e., after tokenization and all previous stages.
+   */
+  public List<Token> input(String query) {
+    TokenStream result =
+        new Tokenizer(new SmartQuotesCodePointFilter(new StringCodePointSource(query)));
+    for (TokenFilterStage stage : values()) {
+      if (stage == this)
+        break;
+      result = stage.apply(result);
+    }
+    return TokenStreams.toList(result);
+  }
+
+  /**
+   * Returns the tokens for the given query as the parser sees them in the recommended pipeline,
+   * i.e., after all stages.
+   */
+  public static List<Token> output(String query) {
+    TokenStream result =
+        new Tokenizer(new SmartQuotesCodePointFilter(new StringCodePointSource(query)));
+    for (TokenFilterStage stage : values())
+      result = stage.apply(result);
+    return TokenStreams.toList(result);
+  }
+}
@@ -0,0 +1,121 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+
+/**
+ * Measures the garbage the tokenizer produces per token, compared to the {@link LegacyTokenizer},
+ * which builds a string for each token and re-splits phrases with a regular expression. The
+ * counters are reported as rates, so dividing the {@code allocatedBytes} rate by the {@code tokens}
+ * rate gives the number of bytes allocated per token. The tokens themselves are included, since
+ * they are part of the tokenizer's output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerAllocationBenchmark {
+  public static enum Implementation {
+    LEGACY(LegacyTokenizer::new), CURRENT(Tokenizer::new);
+
+    private final Function<CodePointStream, TokenStream> factory;
+
+    private Implementation(Function<CodePointStream, TokenStream> factory) {
+      this.factory = factory;
+    }
+
+    public TokenStream tokenize(String query) {
+      return factory.apply(new StringCodePointSource(query));
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public long tokens;
+
+    public long allocatedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      tokens = 0;
+      allocatedBytes = 0;
+    }
+
+    private static long allocatedBytesSoFar() {
+      return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+
+  @Param
+  public QueryCorpus corpus;
+
+  @Param
+  public Implementation implementation;
+
+  private List<String> queries;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries();
+  }
+
+  @Benchmark
+  public void tokenize(Counters counters, Blackhole bh) {
+    long before = Counters.allocatedBytesSoFar();
+    long tokens = 0;
+    for (String query : queries) {
+      TokenStream ts = implementation.tokenize(query);
+      while (ts.hasNext()) {
+        bh.consume(ts.next());
+        tokens = tokens + 1;
+      }
+    }
+    counters.allocatedBytes += Counters.allocatedBytesSoFar() - before;
+    counters.tokens += tokens;
+  }
+}
@@ -0,0 +1,71 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+
+/**
+ * Measures the {@link Tokenizer} stage of the recommended query pipeline. The tokenizer cannot run
+ * without a code point source, so the cost of the code point stages is included here, too. Compare
+ * against {@link CodePointStreamBenchmark} to isolate the tokenizer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+  @Param
+  public QueryCorpus corpus;
+
+  private List<String> queries;
+
+  @Setup
+  public void setup() {
+    queries = corpus.getQueries();
+  }
+
+  @Benchmark
+  public void tokenizer(Blackhole bh) {
+    for (String query : queries) {
+      TokenStream ts = new Tokenizer(new SmartQuotesCodePointFilter(new StringCodePointSource(query)));
+      while (ts.hasNext())
+        bh.consume(ts.next());
+    }
+  }
+}
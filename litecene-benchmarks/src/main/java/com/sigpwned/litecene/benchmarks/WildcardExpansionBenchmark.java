@@ -0,0 +1,102 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-benchmarks
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.memory.MemoryDocument;
+import com.sigpwned.litecene.memory.MemoryIndex;
+import com.sigpwned.litecene.memory.MemorySearching;
+
+/**
+ * Measures searching a {@link MemoryIndex} for wildcards with broad and narrow prefixes, with and
+ * without merged posting lists for broad prefixes. Documents are random words, so a prefix of one
+ * letter matches thousands of distinct tokens and a prefix of three letters matches a handful.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WildcardExpansionBenchmark {
+  private static final long SEED = 20221231L;
+
+  private static final int DOCUMENTS = 5000;
+
+  private static final int DOCUMENT_LENGTH = 50;
+
+  private static final int WORD_LENGTH = 6;
+
+  /**
+   * The maximum number of tokens a wildcard expands to. The largest value never merges, which is
+   * the same as expanding every wildcard to all of its tokens.
+   */
+  @Param({"64", "2147483647"})
+  public int maxExpansions;
+
+  @Param({"1", "2", "3"})
+  public int prefixLength;
+
+  private Query query;
+
+  private MemoryIndex index;
+
+  @Setup
+  public void setup() {
+    Random rand = new Random(SEED);
+    MemoryIndex.Builder builder = MemoryIndex.builder().maxExpansions(maxExpansions);
+    for (int i = 0; i < DOCUMENTS; i++) {
+      List<String> tokens = new ArrayList<>(DOCUMENT_LENGTH);
+      for (int j = 0; j < DOCUMENT_LENGTH; j++)
+        tokens.add(word(rand));
+      builder.add(Integer.toString(i), MemoryDocument.of(tokens));
+    }
+    index = builder.build();
+
+    query = MemorySearching.recommendedParseQuery("abc".substring(0, prefixLength) + "*");
+  }
+
+  private static String word(Random rand) {
+    StringBuilder result = new StringBuilder(WORD_LENGTH);
+    for (int i = 0; i < WORD_LENGTH; i++)
+      result.append((char) ('a' + rand.nextInt(26)));
+    return result.toString();
+  }
+
+  @Benchmark
+  public int search() {
+    return index.search(query).size();
+  }
+}
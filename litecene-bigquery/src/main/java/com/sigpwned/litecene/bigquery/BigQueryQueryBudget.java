@@ -0,0 +1,152 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-bigquery
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.bigquery;
+
+import java.util.Objects;
+import com.sigpwned.litecene.bigquery.exception.QueryBudgetExceededException;
+import com.sigpwned.litecene.bigquery.exception.QueryBudgetExceededException.Dimension;
+import com.sigpwned.litecene.core.Query;
+
+/**
+ * The most a query may cost, as estimated by {@link BigQueryQueryCost}, in each dimension of cost.
+ * Rejecting expensive queries with a budget takes microseconds, where running them can take
+ * minutes.
+ */
+public class BigQueryQueryBudget {
+  public static final BigQueryQueryBudget UNLIMITED = new BigQueryQueryBudget(Integer.MAX_VALUE,
+      Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+  private final int maxWildcardTerms;
+  private final int maxProximityClauses;
+  private final int maxCrossJoinWidth;
+  private final int maxRegexPredicates;
+  private final int maxOrFanOut;
+
+  public BigQueryQueryBudget(int maxWildcardTerms, int maxProximityClauses, int maxCrossJoinWidth,
+      int maxRegexPredicates, int maxOrFanOut) {
+    if (maxWildcardTerms < 0 || maxProximityClauses < 0 || maxCrossJoinWidth < 0
+        || maxRegexPredicates < 0 || maxOrFanOut < 0)
+      throw new IllegalArgumentException("limits must not be negative");
+    this.maxWildcardTerms = maxWildcardTerms;
+    this.maxProximityClauses = maxProximityClauses;
+    this.maxCrossJoinWidth = maxCrossJoinWidth;
+    this.maxRegexPredicates = maxRegexPredicates;
+    this.maxOrFanOut = maxOrFanOut;
+  }
+
+  /**
+   * Throws if the estimated cost of the given query is over budget
+   *
+   * @throws QueryBudgetExceededException if the query is over budget
+   */
+  public void enforce(Query q) {
+    Dimension exceeded = exceeded(BigQueryQueryCost.estimate(q));
+    if (exceeded != null)
+      throw new QueryBudgetExceededException(exceeded, q.getSpan());
+  }
+
+  /**
+   * Returns true if the given cost is within budget in every dimension, e.g., to decide whether to
+   * run a query as given or fall back to something cheaper
+   */
+  public boolean allows(BigQueryQueryCost cost) {
+    return exceeded(cost) == null;
+  }
+
+  /**
+   * Returns the first dimension in which the given cost is over budget, or null if there is none
+   */
+  private Dimension exceeded(BigQueryQueryCost cost) {
+    if (cost.getWildcardTerms() > getMaxWildcardTerms())
+      return Dimension.WILDCARD_TERMS;
+    if (cost.getProximityClauses() > getMaxProximityClauses())
+      return Dimension.PROXIMITY_CLAUSES;
+    if (cost.getCrossJoinWidth() > getMaxCrossJoinWidth())
+      return Dimension.CROSS_JOIN_WIDTH;
+    if (cost.getRegexPredicates() > getMaxRegexPredicates())
+      return Dimension.REGEX_PREDICATES;
+    if (cost.getOrFanOut() > getMaxOrFanOut())
+      return Dimension.OR_FAN_OUT;
+    return null;
+  }
+
+  /**
+   * @return the maxWildcardTerms
+   */
+  public int getMaxWildcardTerms() {
+    return maxWildcardTerms;
+  }
+
+  /**
+   * @return the maxProximityClauses
+   */
+  public int getMaxProximityClauses() {
+    return maxProximityClauses;
+  }
+
+  /**
+   * @return the maxCrossJoinWidth
+   */
+  public int getMaxCrossJoinWidth() {
+    return maxCrossJoinWidth;
+  }
+
+  /**
+   * @return the maxRegexPredicates
+   */
+  public int getMaxRegexPredicates() {
+    return maxRegexPredicates;
+  }
+
+  /**
+   * @return the maxOrFanOut
+   */
+  public int getMaxOrFanOut() {
+    return maxOrFanOut;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxCrossJoinWidth, maxOrFanOut, maxProximityClauses, maxRegexPredicates,
+        maxWildcardTerms);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    BigQueryQueryBudget other = (BigQueryQueryBudget) obj;
+    return maxCrossJoinWidth == other.maxCrossJoinWidth && maxOrFanOut == other.maxOrFanOut
+        && maxProximityClauses == other.maxProximityClauses
+        && maxRegexPredicates == other.maxRegexPredicates
+        && maxWildcardTerms == other.maxWildcardTerms;
+  }
+
+  @Override
+  public String toString() {
+    return "BigQueryQueryBudget [maxWildcardTerms=" + maxWildcardTerms + ", maxProximityClauses="
+        + maxProximityClauses + ", maxCrossJoinWidth=" + maxCrossJoinWidth
+        + ", maxRegexPredicates=" + maxRegexPredicates + ", maxOrFanOut=" + maxOrFanOut + "]";
+  }
+}
@@ -0,0 +1,200 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-bigquery
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.bigquery;
+
+import java.util.Objects;
+import com.sigpwned.litecene.bigquery.util.MoreQueries;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+/**
+ * An estimate of how expensive the SQL {@link BigQuerySearchCompiler} generates for a query will be
+ * for BigQuery to run. It counts the features of the query that drive the cost of the generated
+ * predicate, so it can be computed in one cheap pass over the query without compiling it.
+ *
+ * @see BigQueryQueryBudget
+ */
+public class BigQueryQueryCost {
+  /**
+   * Estimates the cost of the given query, which should be simplified
+   */
+  public static BigQueryQueryCost estimate(Query q) {
+    Estimator estimator = new Estimator();
+    q.accept(estimator);
+
+    // Fully searchable queries compile to a single SEARCH call, with no regular expressions
+    int regexPredicates = MoreQueries.isFullySearchable(q) ? 0 : estimator.regexPredicates;
+
+    return new BigQueryQueryCost(estimator.wildcardTerms, estimator.proximityClauses,
+        estimator.crossJoinWidth, regexPredicates, estimator.orFanOut);
+  }
+
+  private static class Estimator implements QueryVisitor<Void> {
+    public int wildcardTerms;
+    public int proximityClauses;
+    public int crossJoinWidth;
+    public int regexPredicates;
+    public int orFanOut;
+
+    @Override
+    public Void and(AndQuery and) {
+      for (Query child : and.getChildren())
+        child.accept(this);
+      return null;
+    }
+
+    @Override
+    public Void or(OrQuery or) {
+      orFanOut = Math.max(orFanOut, or.getChildren().size());
+      for (Query child : or.getChildren())
+        child.accept(this);
+      return null;
+    }
+
+    @Override
+    public Void not(NotQuery not) {
+      return not.getChild().accept(this);
+    }
+
+    @Override
+    public Void list(ListQuery list) {
+      for (Query child : list.getChildren())
+        child.accept(this);
+      return null;
+    }
+
+    @Override
+    public Void paren(ParenQuery paren) {
+      return paren.getChild().accept(this);
+    }
+
+    @Override
+    public Void text(TextQuery text) {
+      for (Term term : text.getTerms())
+        if (term.isWildcard())
+          wildcardTerms = wildcardTerms + 1;
+
+      if (text.getProximity().isPresent()) {
+        // Each term becomes a table of matching tokens built with REGEXP_EXTRACT_ALL and filtered
+        // with REGEXP_CONTAINS, and then all the tables are cross joined
+        int width = text.getTerms().size();
+        proximityClauses = proximityClauses + 1;
+        crossJoinWidth = Math.max(crossJoinWidth, width);
+        regexPredicates = regexPredicates + 2 * width;
+      } else {
+        // All terms are matched with one REGEXP_CONTAINS
+        regexPredicates = regexPredicates + 1;
+      }
+
+      return null;
+    }
+
+    @Override
+    public Void vacuous(VacuousQuery vacuous) {
+      return null;
+    }
+  }
+
+  private final int wildcardTerms;
+  private final int proximityClauses;
+  private final int crossJoinWidth;
+  private final int regexPredicates;
+  private final int orFanOut;
+
+  public BigQueryQueryCost(int wildcardTerms, int proximityClauses, int crossJoinWidth,
+      int regexPredicates, int orFanOut) {
+    this.wildcardTerms = wildcardTerms;
+    this.proximityClauses = proximityClauses;
+    this.crossJoinWidth = crossJoinWidth;
+    this.regexPredicates = regexPredicates;
+    this.orFanOut = orFanOut;
+  }
+
+  /**
+   * @return the number of wildcard terms, each of which is an open-ended regular expression match
+   */
+  public int getWildcardTerms() {
+    return wildcardTerms;
+  }
+
+  /**
+   * @return the number of proximity clauses, each of which is a correlated subquery
+   */
+  public int getProximityClauses() {
+    return proximityClauses;
+  }
+
+  /**
+   * @return the largest number of token tables cross joined by any one proximity clause. The size
+   *         of the join grows exponentially with this width.
+   */
+  public int getCrossJoinWidth() {
+    return crossJoinWidth;
+  }
+
+  /**
+   * @return the number of regular expression functions in the generated predicate
+   */
+  public int getRegexPredicates() {
+    return regexPredicates;
+  }
+
+  /**
+   * @return the largest number of alternatives of any one OR
+   */
+  public int getOrFanOut() {
+    return orFanOut;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(crossJoinWidth, orFanOut, proximityClauses, regexPredicates,
+        wildcardTerms);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    BigQueryQueryCost other = (BigQueryQueryCost) obj;
+    return crossJoinWidth == other.crossJoinWidth && orFanOut == other.orFanOut
+        && proximityClauses == other.proximityClauses && regexPredicates == other.regexPredicates
+        && wildcardTerms == other.wildcardTerms;
+  }
+
+  @Override
+  public String toString() {
+    return "BigQueryQueryCost [wildcardTerms=" + wildcardTerms + ", proximityClauses="
+        + proximityClauses + ", crossJoinWidth=" + crossJoinWidth + ", regexPredicates="
+        + regexPredicates + ", orFanOut=" + orFanOut + "]";
+  }
+}
@@ -27,6 +27,8 @@ import java.util.Set;
 import java.util.stream.IntStream;
 import com.sigpwned.litecene.bigquery.util.MoreQueries;
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryTranspiler;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.Term;
 import com.sigpwned.litecene.core.query.AndQuery;
 import com.sigpwned.litecene.core.query.ListQuery;
@@ -35,10 +37,9 @@ import com.sigpwned.litecene.core.query.OrQuery;
 import com.sigpwned.litecene.core.query.ParenQuery;
 import com.sigpwned.litecene.core.query.TextQuery;
 import com.sigpwned.litecene.core.query.VacuousQuery;
-import com.sigpwned.litecene.core.util.QueryProcessor;
 import com.sigpwned.litecene.core.util.Syntax;
 
-public class BigQuerySearchCompiler {
+public class BigQuerySearchCompiler implements QueryTranspiler {
   /**
    * By default, fields are treated as if they are not indexed
    */
@@ -95,6 +96,15 @@ public class BigQuerySearchCompiler {
     }
   }
 
+  /**
+   * Same as {@link #compile(Query)}, so compilers can be used anywhere a transpiler can, e.g., in a
+   * {@link com.sigpwned.litecene.core.CachingQueryTranspiler}
+   */
+  @Override
+  public String transpile(Query q) {
+    return compile(q);
+  }
+
   /**
    * BigQuery is inching towards full-text search indexing. For now, we can only filter by terms
    * that must all appear in the text being searched. This implements that predicate when possible.
@@ -116,71 +126,73 @@ public class BigQuerySearchCompiler {
    * given Query using regular expressions
    */
   private String regexPredicate(Query q) {
-    return new QueryProcessor<String>(new QueryProcessor.Processor<String>() {
-      @Override
-      public String and(AndQuery and) {
-        return and.getChildren().stream().map(c -> "(" + regexPredicate(c) + ")")
-            .collect(joining(" AND "));
-      }
+    return q.accept(regexPredicateVisitor);
+  }
 
-      @Override
-      public String or(OrQuery or) {
-        return or.getChildren().stream().map(c -> "(" + regexPredicate(c) + ")")
-            .collect(joining(" OR "));
-      }
+  private final QueryVisitor<String> regexPredicateVisitor = new QueryVisitor<String>() {
+    @Override
+    public String and(AndQuery and) {
+      return and.getChildren().stream().map(c -> "(" + regexPredicate(c) + ")")
+          .collect(joining(" AND "));
+    }
 
-      @Override
-      public String not(NotQuery not) {
-        return String.format("NOT (%s)", regexPredicate(not.getChild()));
-      }
+    @Override
+    public String or(OrQuery or) {
+      return or.getChildren().stream().map(c -> "(" + regexPredicate(c) + ")")
+          .collect(joining(" OR "));
+    }
 
-      @Override
-      public String list(ListQuery list) {
-        return list.getChildren().stream().map(c -> "(" + regexPredicate(c) + ")")
-            .collect(joining(" AND "));
-      }
+    @Override
+    public String not(NotQuery not) {
+      return String.format("NOT (%s)", regexPredicate(not.getChild()));
+    }
 
-      @Override
-      public String paren(ParenQuery paren) {
-        return String.format("(%s)", regexPredicate(paren.getChild()));
-      }
+    @Override
+    public String list(ListQuery list) {
+      return list.getChildren().stream().map(c -> "(" + regexPredicate(c) + ")")
+          .collect(joining(" AND "));
+    }
 
-      /**
-       * We use a combination of regular expressions to find the string tokens
-       */
-      @Override
-      public String text(TextQuery text) {
-        if (text.getProximity().isPresent()) {
-          // The tokens don't have to be in order, but they do have to be close to each other. We
-          // create a table of acceptable tokens for each search term and then filter the cartesian
-          // product based on proximity.
-          int proximity = text.getProximity().getAsInt();
-
-          List<ProximityTerm> terms = IntStream.range(0, text.getTerms().size())
-              .mapToObj(i -> proximityTermFromTermIndex(i, text.getTerms().get(i)))
-              .collect(toList());
-
-          return String.format("EXISTS (SELECT 1 FROM %s WHERE GREATEST(%s)-LEAST(%s)+1 <= %d)",
-              terms.stream().map(t -> t.tableExpr).collect(joining(" CROSS JOIN ")),
-              terms.stream().map(t -> t.tableName + "." + INDEX_FIELD_NAME).collect(joining(", ")),
-              terms.stream().map(t -> t.tableName + "." + INDEX_FIELD_NAME).collect(joining(", ")),
-              proximity);
-        } else {
-          // The tokens must be in order. We simply search for all the regular expressions in order
-          return String.format("REGEXP_CONTAINS(%s, r\"%s\")", field, text.getTerms().stream()
-              .map(BigQuerySearchCompiler.this::pattern).collect(joining(" ")));
-        }
-      }
+    @Override
+    public String paren(ParenQuery paren) {
+      return String.format("(%s)", regexPredicate(paren.getChild()));
+    }
 
-      /**
-       * Always match
-       */
-      @Override
-      public String vacuous(VacuousQuery vacuous) {
-        return "TRUE";
+    /**
+     * We use a combination of regular expressions to find the string tokens
+     */
+    @Override
+    public String text(TextQuery text) {
+      if (text.getProximity().isPresent()) {
+        // The tokens don't have to be in order, but they do have to be close to each other. We
+        // create a table of acceptable tokens for each search term and then filter the cartesian
+        // product based on proximity.
+        int proximity = text.getProximity().getAsInt();
+
+        List<ProximityTerm> terms = IntStream.range(0, text.getTerms().size())
+            .mapToObj(i -> proximityTermFromTermIndex(i, text.getTerms().get(i)))
+            .collect(toList());
+
+        return String.format("EXISTS (SELECT 1 FROM %s WHERE GREATEST(%s)-LEAST(%s)+1 <= %d)",
+            terms.stream().map(t -> t.tableExpr).collect(joining(" CROSS JOIN ")),
+            terms.stream().map(t -> t.tableName + "." + INDEX_FIELD_NAME).collect(joining(", ")),
+            terms.stream().map(t -> t.tableName + "." + INDEX_FIELD_NAME).collect(joining(", ")),
+            proximity);
+      } else {
+        // The tokens must be in order. We simply search for all the regular expressions in order
+        return String.format("REGEXP_CONTAINS(%s, r\"%s\")", field, text.getTerms().stream()
+            .map(BigQuerySearchCompiler.this::pattern).collect(joining(" ")));
       }
-    }).process(q);
-  }
+    }
+
+    /**
+     * Always match
+     */
+    @Override
+    public String vacuous(VacuousQuery vacuous) {
+      return "TRUE";
+    }
+  };
 
   private String pattern(Term term) {
     return pattern(term.getText(), term.isWildcard());
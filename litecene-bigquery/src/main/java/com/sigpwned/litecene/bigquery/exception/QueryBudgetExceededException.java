@@ -0,0 +1,53 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-bigquery
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.bigquery.exception;
+
+import com.sigpwned.litecene.bigquery.BigQueryQueryBudget;
+import com.sigpwned.litecene.core.LiteceneException;
+
+/**
+ * Thrown when the estimated cost of a query exceeds a {@link BigQueryQueryBudget}. The span covers
+ * the whole query.
+ */
+public class QueryBudgetExceededException extends LiteceneException {
+  private static final long serialVersionUID = -2312468096263713045L;
+
+  public static enum Dimension {
+    WILDCARD_TERMS, PROXIMITY_CLAUSES, CROSS_JOIN_WIDTH, REGEX_PREDICATES, OR_FAN_OUT;
+  }
+
+  private final Dimension dimension;
+
+  public QueryBudgetExceededException(Dimension dimension) {
+    this.dimension = dimension;
+  }
+
+  public QueryBudgetExceededException(Dimension dimension, long span) {
+    super(span);
+    this.dimension = dimension;
+  }
+
+  /**
+   * @return the dimension of the budget that was exceeded
+   */
+  public Dimension getDimension() {
+    return dimension;
+  }
+}
@@ -0,0 +1,55 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-bigquery
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.bigquery.pipeline.query.filter;
+
+import com.sigpwned.litecene.bigquery.BigQueryQueryBudget;
+import com.sigpwned.litecene.bigquery.exception.QueryBudgetExceededException;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryPipeline;
+import com.sigpwned.litecene.core.pipeline.query.FilterQueryPipeline;
+
+/**
+ * Rejects queries that are over the given budget with a {@link QueryBudgetExceededException}, and
+ * passes all others through unchanged. Costs are estimated for the query as it arrives, so this
+ * filter should come after any filters that rewrite the query, e.g., simplification.
+ */
+public class BudgetQueryFilterPipeline extends FilterQueryPipeline {
+  private final BigQueryQueryBudget budget;
+
+  public BudgetQueryFilterPipeline(QueryPipeline upstream, BigQueryQueryBudget budget) {
+    super(upstream);
+    if (budget == null)
+      throw new NullPointerException();
+    this.budget = budget;
+  }
+
+  @Override
+  protected Query filter(Query query) {
+    getBudget().enforce(query);
+    return query;
+  }
+
+  /**
+   * @return the budget
+   */
+  public BigQueryQueryBudget getBudget() {
+    return budget;
+  }
+}
@@ -19,42 +19,72 @@
  */
 package com.sigpwned.litecene.bigquery.util;
 
+import static java.util.Collections.singletonList;
 import java.io.UncheckedIOException;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.BigQueryOptions;
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryAnalyzer;
 import com.sigpwned.litecene.core.QueryPipeline;
+import com.sigpwned.litecene.core.analysis.AnalysisChain;
+import com.sigpwned.litecene.core.analysis.LetterNumberAnalysisStage;
+import com.sigpwned.litecene.core.analysis.LowercaseAnalysisStage;
+import com.sigpwned.litecene.core.analysis.NormalizeAnalysisStage;
+import com.sigpwned.litecene.core.analysis.PrintableAsciiAnalysisStage;
 import com.sigpwned.litecene.core.pipeline.query.QueryParser;
 import com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline;
 import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
 import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
 import com.sigpwned.litecene.core.stream.token.Tokenizer;
-import com.sigpwned.litecene.core.stream.token.filter.text.LetterNumberTokenFilter;
-import com.sigpwned.litecene.core.stream.token.filter.text.LowercaseTokenFilter;
-import com.sigpwned.litecene.core.stream.token.filter.text.NormalizeTokenFilter;
-import com.sigpwned.litecene.core.stream.token.filter.text.PrintableAsciiTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.AnalysisTokenFilter;
 
 public final class BigQuerySearching {
   private BigQuerySearching() {}
 
+  private static final QueryAnalyzer RECOMMENDED_QUERY_ANALYZER =
+      new QueryAnalyzer(singletonList(SmartQuotesCodePointFilter::new),
+          singletonList(ts -> new AnalysisTokenFilter(ts, recommendedAnalysisChain())),
+          singletonList(SimplifyQueryFilterPipeline::new));
+
   /**
-   * Matches recommended BigQuery analysis expression
+   * Matches recommended BigQuery analysis expression. Builds a new pipeline for the given query, so
+   * prefer {@link #recommendedQueryAnalyzer()} for parsing many queries.
    * 
    * @see #recommendedAnalysisExpr(String)
    */
   public static QueryPipeline recommendedQueryPipeline(String q) {
-    return new SimplifyQueryFilterPipeline(new QueryParser(new LowercaseTokenFilter(
-        new LetterNumberTokenFilter(new PrintableAsciiTokenFilter(new NormalizeTokenFilter(
-            new Tokenizer(new SmartQuotesCodePointFilter(new StringCodePointSource(q)))))))));
+    return new SimplifyQueryFilterPipeline(new QueryParser(new AnalysisTokenFilter(
+        new Tokenizer(new SmartQuotesCodePointFilter(new StringCodePointSource(q))),
+        recommendedAnalysisChain())));
+  }
+
+  /**
+   * Matches recommended BigQuery analysis expression. Equivalent to chaining a
+   * {@code NormalizeTokenFilter}, {@code PrintableAsciiTokenFilter}, {@code LetterNumberTokenFilter},
+   * and {@code LowercaseTokenFilter}, in that order, but analyzes each term in a single pass.
+   * 
+   * @see #recommendedAnalysisExpr(String)
+   */
+  public static AnalysisChain recommendedAnalysisChain() {
+    return AnalysisChain.of(new NormalizeAnalysisStage(), new PrintableAsciiAnalysisStage(),
+        new LetterNumberAnalysisStage(), new LowercaseAnalysisStage());
+  }
+
+  /**
+   * Returns a shared, thread-safe analyzer that parses queries exactly like
+   * {@link #recommendedQueryPipeline(String)}.
+   */
+  public static QueryAnalyzer recommendedQueryAnalyzer() {
+    return RECOMMENDED_QUERY_ANALYZER;
   }
 
   /**
-   * Parses a query using the recommended query pipeline
+   * Parses a query using the recommended query analyzer
    * 
-   * @see #recommendedQueryPipeline(String)
+   * @see #recommendedQueryAnalyzer()
    */
   public static Query recommendedParseQuery(String q) {
-    return recommendedQueryPipeline(q).query();
+    return recommendedQueryAnalyzer().parse(q);
   }
 
   /**
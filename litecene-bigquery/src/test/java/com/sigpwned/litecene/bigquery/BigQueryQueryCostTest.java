@@ -0,0 +1,77 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-bigquery
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.bigquery;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+import com.sigpwned.litecene.bigquery.exception.QueryBudgetExceededException;
+import com.sigpwned.litecene.bigquery.pipeline.query.filter.BudgetQueryFilterPipeline;
+import com.sigpwned.litecene.bigquery.util.BigQuerySearching;
+import com.sigpwned.litecene.core.QueryAnalyzer;
+import com.sigpwned.litecene.core.util.Spans;
+
+public class BigQueryQueryCostTest {
+  private static BigQueryQueryCost estimate(String q) {
+    return BigQueryQueryCost.estimate(BigQuerySearching.recommendedParseQuery(q));
+  }
+
+  @Test
+  public void shouldEstimateFullySearchableQuery() {
+    assertThat(estimate("hello world AND foo"), is(new BigQueryQueryCost(0, 0, 0, 0, 0)));
+  }
+
+  @Test
+  public void shouldEstimateComplexQuery() {
+    // One regex for each of hell* and x, and two for each term of the proximity clause
+    assertThat(estimate("hell* OR \"alpha bravo charlie*\"~10 OR (x AND NOT y)"),
+        is(new BigQueryQueryCost(2, 1, 3, 9, 3)));
+  }
+
+  @Test
+  public void shouldEstimateWidestClauses() {
+    BigQueryQueryCost cost =
+        estimate("(\"a b\"~4 OR c OR d OR e) AND (\"f g h i\"~10 OR j) AND \"k l m\"~8");
+    assertThat(cost.getProximityClauses(), is(3));
+    assertThat(cost.getCrossJoinWidth(), is(4));
+    assertThat(cost.getOrFanOut(), is(4));
+  }
+
+  @Test
+  public void shouldEnforceBudget() {
+    BigQueryQueryBudget budget = new BigQueryQueryBudget(4, 4, 3, 100, 100);
+    assertThat(budget.allows(estimate("\"a b c\"~8 OR d*")), is(true));
+    assertThat(budget.allows(estimate("\"a b c d\"~8 OR e*")), is(false));
+
+    QueryAnalyzer analyzer = new QueryAnalyzer(
+        BigQuerySearching.recommendedQueryAnalyzer().getCodePointFilters(),
+        BigQuerySearching.recommendedQueryAnalyzer().getTokenFilters(),
+        singletonList(p -> new BudgetQueryFilterPipeline(p, budget)));
+    analyzer.parse("\"a b c\"~8 OR d*");
+    try {
+      analyzer.parse("x OR \"a b c d\"~8");
+      throw new AssertionError("expected failure");
+    } catch (QueryBudgetExceededException e) {
+      assertThat(e.getDimension(), is(QueryBudgetExceededException.Dimension.CROSS_JOIN_WIDTH));
+      assertThat(e.getSpan(), is(Spans.of(0, 16)));
+    }
+  }
+}
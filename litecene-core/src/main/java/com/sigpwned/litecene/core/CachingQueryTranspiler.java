@@ -0,0 +1,105 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.BoundedCache;
+import com.sigpwned.litecene.core.util.CacheStats;
+
+/**
+ * Decorates a {@link QueryTranspiler} with a cache of the output it has already generated, so
+ * that a query that is transpiled over and over, e.g., the same saved search run on a schedule,
+ * only pays for transpilation the first time. Each cache wraps exactly one transpiler, so its
+ * configuration, e.g., the field a {@code BigQuerySearchCompiler} targets, is part of every key.
+ *
+ * Entries are keyed by {@link Query#equals(Object) query equality}, which ignores spans, so queries
+ * that differ only in where they came from share one entry. Queries that are written differently
+ * but mean the same thing, e.g., with extra parentheses, only share an entry once a filter such as
+ * {@link com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline} has brought
+ * them to the same canonical form, so queries should be simplified before they get here.
+ *
+ * The cache is bounded by its number of entries and by the total length of its output, and evicts
+ * the least recently used entries first. It is thread-safe if the wrapped transpiler is.
+ */
+public class CachingQueryTranspiler implements QueryTranspiler {
+  /**
+   * The number of entries a cache holds unless told otherwise
+   */
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  private final QueryTranspiler delegate;
+  private final BoundedCache<Query, String> cache;
+
+  public CachingQueryTranspiler(QueryTranspiler delegate) {
+    this(delegate, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public CachingQueryTranspiler(QueryTranspiler delegate, int maximumSize) {
+    this(delegate, maximumSize, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param maximumWeight the most characters of output to hold across all entries
+   */
+  public CachingQueryTranspiler(QueryTranspiler delegate, int maximumSize, long maximumWeight) {
+    if (delegate == null)
+      throw new NullPointerException();
+    this.delegate = delegate;
+    this.cache = new BoundedCache<>(maximumSize, maximumWeight,
+        (query, output) -> output.length(), BoundedCache.DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Returns the wrapped transpiler's output for the given query, transpiling it only if it is not
+   * already cached.
+   */
+  @Override
+  public String transpile(Query query) {
+    if (query == null)
+      throw new NullPointerException();
+    return cache.get(query, delegate::transpile);
+  }
+
+  /**
+   * Removes every entry from the cache. Statistics are not reset.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * @return the number of entries in the cache
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  public CacheStats getStats() {
+    return cache.getStats();
+  }
+
+  /**
+   * @return the delegate
+   */
+  @Generated
+  public QueryTranspiler getDelegate() {
+    return delegate;
+  }
+}
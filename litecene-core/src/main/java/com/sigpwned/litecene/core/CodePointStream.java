@@ -52,4 +52,29 @@ public interface CodePointStream {
   default boolean hasNext() {
     return peek() != EOF;
   }
+
+  /**
+   * Reads up to {@code len} code points into the given buffer starting at {@code off}, consuming
+   * them, and returns the number of code points read. If {@code len} is positive and there are code
+   * points left, then reads at least one. If the end of input has been reached, then returns exactly
+   * {@link #EOF}. If a code point has been peeked, then it is the first code point read.
+   * 
+   * This is equivalent to calling {@link #next()} repeatedly, but implementations can generally
+   * read many code points much faster than one at a time, especially when streams are stacked.
+   */
+  default int read(int[] buf, int off, int len) {
+    if (len == 0)
+      return 0;
+
+    int count = 0;
+    while (count < len) {
+      int cp = next();
+      if (cp == EOF)
+        break;
+      buf[off + count] = cp;
+      count = count + 1;
+    }
+
+    return count == 0 ? EOF : count;
+  }
 }
@@ -0,0 +1,906 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import static java.util.Collections.unmodifiableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.UnaryOperator;
+import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+import com.sigpwned.litecene.core.stream.codepoint.CharSequenceCodePointSource;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+import com.sigpwned.litecene.core.util.Spans;
+
+/**
+ * Parses a query that changes one edit at a time, e.g., as a user types it into a search box. The
+ * tokens and parse tree of the previous version of the query are kept, and after each edit only the
+ * tokens around the edit are re-tokenized, and only the innermost parenthesized group containing
+ * the changed tokens is re-parsed. If that group no longer parses on its own, e.g. because the edit
+ * added or removed a parenthesis, then its enclosing group is re-parsed instead, and so on up to
+ * the whole query. The result is always exactly what a {@link QueryParser} with the same
+ * {@link QueryParser.Limits limits} would produce for the whole text, including which error is
+ * reported. Groups are re-parsed without limits while the tokens show that the whole query cannot
+ * possibly cross them, and the whole query is re-parsed with them otherwise.
+ *
+ * Code point filters must map code points one-to-one without changing their length in UTF-16 code
+ * units, so that token offsets line up with the text. Token filters are applied to one token at a
+ * time, which the {@link com.sigpwned.litecene.core.stream.token.TokenFilter} contract allows.
+ * Query filters generally work on the whole query, so they are left to the caller.
+ *
+ * Unchanged tokens and query nodes are reused even when an edit moves them, so they do not record
+ * spans. Use {@link Result#getErrorPosition()} to locate errors instead.
+ *
+ * Instances are not thread-safe.
+ */
+public class IncrementalQueryParser {
+  /**
+   * The outcome of parsing one version of the query
+   */
+  public static class Result {
+    private final Query query;
+    private final LiteceneException error;
+    private final int errorPosition;
+
+    private Result(Query query, LiteceneException error, int errorPosition) {
+      this.query = query;
+      this.error = error;
+      this.errorPosition = errorPosition;
+    }
+
+    public boolean isValid() {
+      return query != null;
+    }
+
+    /**
+     * @return the parsed query, if the text is a valid query
+     */
+    public Optional<Query> getQuery() {
+      return Optional.ofNullable(query);
+    }
+
+    /**
+     * @return the error, if the text is not a valid query
+     */
+    public Optional<LiteceneException> getError() {
+      return Optional.ofNullable(error);
+    }
+
+    /**
+     * @return the offset in UTF-16 code units of the start of the token that caused the error, or
+     *         of the end of the text if the error was caused by the end of the text, if the text is
+     *         not a valid query
+     */
+    public OptionalInt getErrorPosition() {
+      return error != null ? OptionalInt.of(errorPosition) : OptionalInt.empty();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+      return "Result [query=" + query + ", error=" + error + ", errorPosition=" + errorPosition
+          + "]";
+    }
+  }
+
+  /**
+   * A parenthesized group of tokens. The root group stands for the whole query, and opens just
+   * before the first token and closes at the end of the tokens.
+   */
+  private static class Group {
+    public Group parent;
+
+    /**
+     * The index of this group's LPAREN token
+     */
+    public int open;
+
+    /**
+     * The index of this group's RPAREN token
+     */
+    public int close;
+
+    /**
+     * The query this group parsed into. For the root group, this is the whole query. For other
+     * groups, this is the {@link ParenQuery}.
+     */
+    public Query query;
+
+    public Group(Group parent, int open, int close) {
+      this.parent = parent;
+      this.open = open;
+      this.close = close;
+    }
+
+    public boolean isRoot() {
+      return parent == null;
+    }
+
+    /**
+     * Returns the query this group's tokens parsed into, not including the parentheses
+     */
+    public Query getInterior() {
+      return isRoot() ? query : ((ParenQuery) query).getChild();
+    }
+
+    public void setInterior(Query interior) {
+      query = isRoot() ? interior : new ParenQuery(interior);
+    }
+  }
+
+  /**
+   * A code point source that can be pointed at a new range of the text
+   */
+  private static class TextSource implements CodePointStream {
+    private static final CodePointStream EMPTY = new CharSequenceCodePointSource("");
+
+    private CodePointStream text;
+
+    public TextSource() {
+      this.text = EMPTY;
+    }
+
+    public void reset(CodePointStream text) {
+      this.text = text;
+    }
+
+    public void clear() {
+      this.text = EMPTY;
+    }
+
+    @Override
+    public int peek() {
+      return text.peek();
+    }
+
+    @Override
+    public int next() {
+      return text.next();
+    }
+
+    @Override
+    public int read(int[] buf, int off, int len) {
+      return text.read(buf, off, len);
+    }
+  }
+
+  /**
+   * Feeds one token at a time through the token filters
+   */
+  private static class TokenSlot implements TokenStream {
+    private Token token = Token.EOF;
+
+    @Override
+    public Token peek() {
+      return token;
+    }
+
+    @Override
+    public Token next() {
+      Token result = token;
+      token = Token.EOF;
+      return result;
+    }
+  }
+
+  private final List<UnaryOperator<CodePointStream>> codePointFilters;
+  private final List<UnaryOperator<TokenStream>> tokenFilters;
+  private final TextSource source;
+  private final Tokenizer tokenizer;
+  private final TokenSlot tokenSlot;
+  private final TokenStream filteredTokens;
+  private final QueryParser.Limits limits;
+
+  /**
+   * The current version of the query text
+   */
+  private final StringBuilder text;
+
+  /**
+   * The filtered tokens of the text, not including EOF, and the offsets of the start (inclusive)
+   * and end (exclusive) of each token in the text. If {@link #lexed} is false, then tokenization
+   * failed, and these are only the tokens before the failure.
+   */
+  private final List<Token> tokens;
+  private int[] starts;
+  private int[] ends;
+  private boolean lexed;
+
+  /**
+   * The number of NOT and LPAREN tokens and the number of terms in the tokens, which bound the
+   * depth and term count of the query
+   */
+  private int openers;
+  private int terms;
+
+  /**
+   * The root group of the last successful parse, or null if the last parse failed
+   */
+  private Group root;
+
+  /**
+   * The non-root groups of the last successful parse, in order of their opening parenthesis
+   */
+  private final List<Group> groups;
+
+  private Result result;
+
+  public IncrementalQueryParser() {
+    this(List.of(), List.of());
+  }
+
+  public IncrementalQueryParser(List<UnaryOperator<CodePointStream>> codePointFilters,
+      List<UnaryOperator<TokenStream>> tokenFilters) {
+    this(codePointFilters, tokenFilters, QueryParser.Limits.DEFAULT);
+  }
+
+  public IncrementalQueryParser(List<UnaryOperator<CodePointStream>> codePointFilters,
+      List<UnaryOperator<TokenStream>> tokenFilters, QueryParser.Limits limits) {
+    if (limits == null)
+      throw new NullPointerException();
+    this.codePointFilters = unmodifiableList(new ArrayList<>(codePointFilters));
+    this.tokenFilters = unmodifiableList(new ArrayList<>(tokenFilters));
+    if (this.codePointFilters.contains(null) || this.tokenFilters.contains(null))
+      throw new NullPointerException();
+
+    // The tokenizer only ever reads its stream in bulk, so no code point filter holds on to a
+    // peeked code point when the source is pointed somewhere else
+    this.source = new TextSource();
+    CodePointStream codePoints = source;
+    for (UnaryOperator<CodePointStream> codePointFilter : codePointFilters)
+      codePoints = codePointFilter.apply(codePoints);
+    this.tokenizer = new Tokenizer(codePoints);
+
+    this.tokenSlot = new TokenSlot();
+    TokenStream filtered = tokenSlot;
+    for (UnaryOperator<TokenStream> tokenFilter : tokenFilters)
+      filtered = tokenFilter.apply(filtered);
+    this.filteredTokens = filtered;
+    this.limits = limits;
+
+    this.text = new StringBuilder();
+    this.tokens = new ArrayList<>();
+    this.starts = new int[16];
+    this.ends = new int[16];
+    this.groups = new ArrayList<>();
+    clear();
+  }
+
+  /**
+   * Replaces the whole text of the query and parses it from scratch
+   */
+  public Result parse(CharSequence text) {
+    if (text == null)
+      throw new NullPointerException();
+    clear();
+    return edit(0, 0, text);
+  }
+
+  public Result insert(int offset, CharSequence s) {
+    return edit(offset, 0, s);
+  }
+
+  public Result delete(int offset, int length) {
+    return edit(offset, length, "");
+  }
+
+  /**
+   * Replaces the given range of the text with the given replacement and parses the result.
+   *
+   * @param offset the offset of the first UTF-16 code unit to replace
+   * @param length the number of UTF-16 code units to replace
+   */
+  public Result edit(int offset, int length, CharSequence replacement) {
+    if (replacement == null)
+      throw new NullPointerException();
+    Objects.checkFromIndexSize(offset, length, text.length());
+
+    text.replace(offset, offset + length, replacement.toString());
+
+    // Re-tokenize. Tokens that end before the edit are unaffected, even counting lookahead. Since
+    // the tokenizer keeps no state between tokens, once it starts a token after the edit at the
+    // same place an old token started, the rest of the tokens are unchanged, too.
+    int delta = replacement.length() - length;
+    int first = firstTokenEndingAtOrAfter(offset);
+    int restart = first > 0 ? ends[first - 1] : 0;
+
+    List<Token> newTokens = new ArrayList<>();
+    int[] newStarts = new int[8];
+    int[] newEnds = new int[8];
+    int last = first;
+    LiteceneException lexError = null;
+    int lexErrorPosition = -1;
+    try {
+      source.reset(new CharSequenceCodePointSource(text, restart, text.length()));
+      tokenizer.reset(restart);
+      boolean synced = false;
+      while (!synced) {
+        Token token;
+        try {
+          token = tokenizer.next();
+        } catch (LiteceneException e) {
+          lexError = e;
+          lexErrorPosition = Spans.start(e.getSpan());
+          break;
+        }
+
+        if (token.getType() == Token.Type.EOF) {
+          last = tokens.size();
+          break;
+        }
+
+        int start = Spans.start(token.getSpan());
+        int end = Spans.end(token.getSpan());
+        if (lexed && start >= offset + replacement.length()) {
+          while (last < tokens.size() && starts[last] < start - delta)
+            last = last + 1;
+          synced = last < tokens.size() && starts[last] == start - delta;
+        }
+
+        if (!synced) {
+          int count = newTokens.size();
+          if (count == newStarts.length) {
+            newStarts = Arrays.copyOf(newStarts, 2 * count);
+            newEnds = Arrays.copyOf(newEnds, 2 * count);
+          }
+          newTokens.add(filter(token.withSpan(Spans.NONE)));
+          newStarts[count] = start;
+          newEnds[count] = end;
+        }
+      }
+    } catch (RuntimeException e) {
+      // Not a problem with the query, but keep what we know is still good
+      truncateTokens(first);
+      throw e;
+    } finally {
+      // Don't hold on to the text's old length
+      source.clear();
+    }
+
+    if (lexError != null) {
+      truncateTokens(first);
+      replaceTokens(first, first, newTokens, newStarts, newEnds, 0);
+
+      // A QueryParser reads tokens lazily, so it reports the tokenizer's error only if it doesn't
+      // find an error in the tokens before it first
+      RecordingTokenSource source = new RecordingTokenSource(0, tokens.size(), lexError);
+      try {
+        new QueryParser(source, limits).query();
+        throw new AssertionError("parsed past tokenizer error");
+      } catch (LiteceneException e) {
+        if (e == lexError)
+          return result = new Result(null, lexError, lexErrorPosition);
+        return result = new Result(null, e, position(source.getTouched()));
+      }
+    }
+
+    // Find the innermost group that contains the changed tokens, but not its own parentheses
+    Group group;
+    if (root != null && lexed) {
+      group = lastGroupOpeningBefore(first);
+      while (group.close < last)
+        group = group.parent;
+    } else {
+      group = null;
+    }
+
+    replaceTokens(first, last, newTokens, newStarts, newEnds, delta);
+    lexed = true;
+
+    if (group == null) {
+      root = new Group(null, -1, tokens.size());
+      groups.clear();
+      group = root;
+    } else {
+      int tokenDelta = newTokens.size() - (last - first);
+      for (Group g = group; g != null; g = g.parent)
+        g.close = g.close + tokenDelta;
+      for (int i = groups.size() - 1; i >= 0 && groups.get(i).open >= last; i--) {
+        Group g = groups.get(i);
+        g.open = g.open + tokenDelta;
+        g.close = g.close + tokenDelta;
+      }
+    }
+
+    return result = reparse(group);
+  }
+
+  /**
+   * Parses the given group's tokens, falling back to its enclosing groups until one parses
+   */
+  private Result reparse(Group group) {
+    QueryParser.Limits groupLimits;
+    if (isWithinLimits()) {
+      groupLimits = QueryParser.Limits.UNLIMITED;
+    } else {
+      // Only a parse of the whole query can say where it crosses a limit
+      group = root;
+      groupLimits = limits;
+    }
+
+    while (true) {
+      if (!group.isRoot() && group.close == group.open + 1) {
+        // An empty group is an error, but parses on its own as a vacuous query
+        group = group.parent;
+        continue;
+      }
+
+      RecordingTokenSource source = new RecordingTokenSource(group.open + 1, group.close, null);
+      Query interior;
+      try {
+        interior = new QueryParser(source, groupLimits).query();
+      } catch (LiteceneException e) {
+        if (group.isRoot()) {
+          root = null;
+          groups.clear();
+          return new Result(null, e, position(source.getTouched()));
+        }
+        group = group.parent;
+        continue;
+      } catch (RuntimeException e) {
+        root = null;
+        groups.clear();
+        throw e;
+      }
+
+      // Replace the group's old nested groups with the new ones. The old ones may have stale
+      // indexes, so go by ancestry.
+      int index = group.isRoot() ? 0 : groups.indexOf(group) + 1;
+      int end = index;
+      while (end < groups.size() && isNested(groups.get(end), group))
+        end = end + 1;
+      groups.subList(index, end).clear();
+      groups.addAll(index, source.groups(group, interior));
+
+      // Rebuild the path from the group up to the root
+      Query query = interior;
+      while (true) {
+        Query old = group.query;
+        group.setInterior(query);
+        if (group.isRoot())
+          break;
+        Query updated = group.query;
+        group = group.parent;
+        query = replace(group.getInterior(), old, updated);
+      }
+
+      return new Result(root.query, null, -1);
+    }
+  }
+
+  /**
+   * Returns true if the current tokens cannot parse into a query that crosses any limit. Every
+   * token becomes at most one leaf, NOT, or parenthesized node, and every AND, OR, or list node has
+   * at least two children, so there are at most twice as many nodes as tokens.
+   */
+  private boolean isWithinLimits() {
+    return openers <= limits.getMaxDepth() && 2L * tokens.size() <= limits.getMaxNodes()
+        && terms <= limits.getMaxTerms();
+  }
+
+  /**
+   * @return the result of the most recent parse
+   */
+  public Result getResult() {
+    return result;
+  }
+
+  /**
+   * @return the current text of the query
+   */
+  public String getText() {
+    return text.toString();
+  }
+
+  /**
+   * @return the codePointFilters
+   */
+  @Generated
+  public List<UnaryOperator<CodePointStream>> getCodePointFilters() {
+    return codePointFilters;
+  }
+
+  /**
+   * @return the tokenFilters
+   */
+  @Generated
+  public List<UnaryOperator<TokenStream>> getTokenFilters() {
+    return tokenFilters;
+  }
+
+  /**
+   * @return the limits
+   */
+  @Generated
+  public QueryParser.Limits getLimits() {
+    return limits;
+  }
+
+  private void clear() {
+    text.setLength(0);
+    tokens.clear();
+    openers = 0;
+    terms = 0;
+    lexed = true;
+    root = new Group(null, -1, 0);
+    root.query = VacuousQuery.INSTANCE;
+    groups.clear();
+    result = new Result(root.query, null, -1);
+  }
+
+  private Token filter(Token token) {
+    tokenSlot.token = token;
+    return filteredTokens.next();
+  }
+
+  /**
+   * Returns the offset of the start of the given token, or the end of the text for EOF
+   */
+  private int position(int index) {
+    return index < tokens.size() ? starts[index] : text.length();
+  }
+
+  /**
+   * Returns the index of the first token that ends at or after the given offset, or the number of
+   * tokens if there is no such token
+   */
+  private int firstTokenEndingAtOrAfter(int offset) {
+    int lo = 0, hi = tokens.size();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (ends[mid] < offset)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+
+  /**
+   * Returns the last group that opens before the given token, or the root group if there is none
+   */
+  private Group lastGroupOpeningBefore(int index) {
+    int lo = 0, hi = groups.size();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (groups.get(mid).open < index)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo > 0 ? groups.get(lo - 1) : root;
+  }
+
+  private static boolean isNested(Group group, Group ancestor) {
+    for (Group g = group.parent; g != null; g = g.parent)
+      if (g == ancestor)
+        return true;
+    return false;
+  }
+
+  private void truncateTokens(int size) {
+    if (size < tokens.size()) {
+      for (int i = size; i < tokens.size(); i++)
+        tally(tokens.get(i), -1);
+      tokens.subList(size, tokens.size()).clear();
+    }
+    lexed = false;
+    root = null;
+    groups.clear();
+  }
+
+  /**
+   * Replaces the tokens from first (inclusive) to last (exclusive) with the given new tokens, and
+   * moves the tokens after them by the given number of code units.
+   */
+  private void replaceTokens(int first, int last, List<Token> newTokens, int[] newStarts,
+      int[] newEnds, int delta) {
+    int size = tokens.size();
+    int count = newTokens.size();
+    int newSize = size - (last - first) + count;
+    if (newSize > starts.length) {
+      int capacity = Math.max(newSize, 2 * starts.length);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+    }
+
+    System.arraycopy(starts, last, starts, first + count, size - last);
+    System.arraycopy(ends, last, ends, first + count, size - last);
+    for (int i = first + count; i < newSize; i++) {
+      starts[i] = starts[i] + delta;
+      ends[i] = ends[i] + delta;
+    }
+    System.arraycopy(newStarts, 0, starts, first, count);
+    System.arraycopy(newEnds, 0, ends, first, count);
+
+    for (int i = first; i < last; i++)
+      tally(tokens.get(i), -1);
+    for (int i = 0; i < count; i++)
+      tally(newTokens.get(i), +1);
+
+    tokens.subList(first, last).clear();
+    tokens.addAll(first, newTokens);
+  }
+
+  /**
+   * Adds the given token to, or with a sign of -1 removes it from, the counts bounding the limits
+   */
+  private void tally(Token token, int sign) {
+    switch (token.getType()) {
+      case NOT:
+      case LPAREN:
+        openers = openers + sign;
+        break;
+      case TEXT:
+        terms = terms + sign * token.asText().getTerms().size();
+        break;
+      // $CASES-OMITTED$
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Returns the given query with the given target replaced by the given replacement. Does not look
+   * inside parenthesized groups other than the target, since the target is a direct child group.
+   */
+  private static Query replace(Query query, Query target, Query replacement) {
+    return new Replacer(target, replacement).replace(query);
+  }
+
+  private static final class Replacer implements QueryVisitor<Query> {
+    private final Query target;
+    private final Query replacement;
+
+    public Replacer(Query target, Query replacement) {
+      this.target = target;
+      this.replacement = replacement;
+    }
+
+    public Query replace(Query query) {
+      return query == target ? replacement : query.accept(this);
+    }
+
+    @Override
+    public Query and(AndQuery and) {
+      List<Query> children = replace(and.getChildren());
+      return children != null ? new AndQuery(children) : and;
+    }
+
+    @Override
+    public Query or(OrQuery or) {
+      List<Query> children = replace(or.getChildren());
+      return children != null ? new OrQuery(children) : or;
+    }
+
+    @Override
+    public Query not(NotQuery not) {
+      Query replaced = replace(not.getChild());
+      return replaced != not.getChild() ? new NotQuery(replaced) : not;
+    }
+
+    @Override
+    public Query list(ListQuery list) {
+      List<Query> children = replace(list.getChildren());
+      return children != null ? new ListQuery(children) : list;
+    }
+
+    @Override
+    public Query paren(ParenQuery paren) {
+      return paren;
+    }
+
+    @Override
+    public Query text(TextQuery text) {
+      return text;
+    }
+
+    @Override
+    public Query vacuous(VacuousQuery vacuous) {
+      return vacuous;
+    }
+
+    /**
+     * Returns a copy of the given children with the target replaced, or null if the target is not
+     * among them
+     */
+    private List<Query> replace(List<Query> children) {
+      for (int i = 0; i < children.size(); i++) {
+        Query child = children.get(i);
+        Query replaced = replace(child);
+        if (replaced != child) {
+          List<Query> result = new ArrayList<>(children);
+          result.set(i, replaced);
+          return result;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Feeds a range of tokens to a {@link QueryParser}, keeping track of the furthest token the
+   * parser looked at and the parenthesized groups it consumed
+   */
+  private class RecordingTokenSource implements TokenStream {
+    private final int limit;
+    private final LiteceneException limitError;
+    private int position;
+    private int touched;
+    private int[] opens;
+    private int depth;
+
+    /**
+     * The indexes of the opening and closing parentheses of each group, interleaved, in the order
+     * the groups were closed
+     */
+    private int[] pairs;
+    private int pairCount;
+
+    /**
+     * @param limitError if not null, the error to throw instead of returning EOF at the limit
+     */
+    public RecordingTokenSource(int start, int limit, LiteceneException limitError) {
+      this.limit = limit;
+      this.limitError = limitError;
+      this.position = start;
+      this.touched = start;
+      this.opens = new int[8];
+      this.pairs = new int[8];
+    }
+
+    @Override
+    public Token peek() {
+      touched = Math.max(touched, position);
+      if (position < limit)
+        return tokens.get(position);
+      if (limitError != null)
+        throw limitError;
+      return Token.EOF;
+    }
+
+    @Override
+    public Token next() {
+      Token result = peek();
+      if (position < limit) {
+        if (result.getType() == Token.Type.LPAREN) {
+          if (depth == opens.length)
+            opens = Arrays.copyOf(opens, 2 * depth);
+          opens[depth++] = position;
+        } else if (result.getType() == Token.Type.RPAREN && depth > 0) {
+          if (2 * pairCount + 2 > pairs.length)
+            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+          pairs[2 * pairCount + 0] = opens[--depth];
+          pairs[2 * pairCount + 1] = position;
+          pairCount = pairCount + 1;
+        }
+        position = position + 1;
+      }
+      return result;
+    }
+
+    /**
+     * @return the index of the furthest token the parser looked at
+     */
+    public int getTouched() {
+      return touched;
+    }
+
+    /**
+     * Returns the groups nested inside the given parent that the parser consumed while parsing the
+     * given query, in order of their opening parenthesis
+     */
+    public List<Group> groups(Group parent, Query query) {
+      // The parser builds each ParenQuery when it consumes the closing parenthesis, so the groups
+      // were closed in the same order as the ParenQuery nodes appear in post-order
+      List<ParenQuery> parens = new ArrayList<>(pairCount);
+      collectParens(query, parens);
+      if (parens.size() != pairCount)
+        throw new AssertionError("parens do not match groups");
+
+      Group[] result = new Group[pairCount];
+      for (int i = 0; i < pairCount; i++) {
+        result[i] = new Group(null, pairs[2 * i + 0], pairs[2 * i + 1]);
+        result[i].query = parens.get(i);
+      }
+      Arrays.sort(result, (a, b) -> Integer.compare(a.open, b.open));
+
+      Group[] stack = new Group[pairCount];
+      int height = 0;
+      for (Group group : result) {
+        while (height > 0 && stack[height - 1].close < group.open)
+          height = height - 1;
+        group.parent = height > 0 ? stack[height - 1] : parent;
+        stack[height++] = group;
+      }
+
+      return Arrays.asList(result);
+    }
+  }
+
+  private static void collectParens(Query query, List<ParenQuery> parens) {
+    query.accept(new ParenCollector(parens));
+  }
+
+  /**
+   * Adds each {@link ParenQuery} to a list in post-order
+   */
+  private static final class ParenCollector implements QueryVisitor<Void> {
+    private final List<ParenQuery> parens;
+
+    public ParenCollector(List<ParenQuery> parens) {
+      this.parens = parens;
+    }
+
+    @Override
+    public Void and(AndQuery and) {
+      return children(and.getChildren());
+    }
+
+    @Override
+    public Void or(OrQuery or) {
+      return children(or.getChildren());
+    }
+
+    @Override
+    public Void not(NotQuery not) {
+      return not.getChild().accept(this);
+    }
+
+    @Override
+    public Void list(ListQuery list) {
+      return children(list.getChildren());
+    }
+
+    @Override
+    public Void paren(ParenQuery paren) {
+      paren.getChild().accept(this);
+      parens.add(paren);
+      return null;
+    }
+
+    @Override
+    public Void text(TextQuery text) {
+      return null;
+    }
+
+    @Override
+    public Void vacuous(VacuousQuery vacuous) {
+      return null;
+    }
+
+    private Void children(List<Query> children) {
+      for (Query child : children)
+        child.accept(this);
+      return null;
+    }
+  }
+}
@@ -19,7 +19,29 @@
  */
 package com.sigpwned.litecene.core;
 
+import com.sigpwned.litecene.core.util.Spans;
+
+/**
+ * The base class of problems with a query. Exceptions raised while tokenizing or parsing query text
+ * record the span of text that caused them (see {@link Spans}), so callers can point it out.
+ */
 public class LiteceneException extends RuntimeException {
   private static final long serialVersionUID = -3166617545196184541L;
 
+  private final long span;
+
+  public LiteceneException() {
+    this(Spans.NONE);
+  }
+
+  public LiteceneException(long span) {
+    this.span = span;
+  }
+
+  /**
+   * @return the span of query text that caused this exception, or {@link Spans#NONE}
+   */
+  public long getSpan() {
+    return span;
+  }
 }
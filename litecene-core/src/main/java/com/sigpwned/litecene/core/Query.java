@@ -19,7 +19,41 @@
  */
 package com.sigpwned.litecene.core;
 
+import com.sigpwned.litecene.core.util.Spans;
+
+/**
+ * A node of a parsed query. Nodes produced by a parser record the span of query text they came
+ * from (see {@link Spans}). Spans are not part of a node's identity, so queries with the same
+ * structure are equal no matter where they came from.
+ *
+ * Nodes are immutable, so each one computes its hash code only once, and equality checks compare
+ * hash codes before they compare whole subtrees. A
+ * {@link com.sigpwned.litecene.core.util.QueryInterner} goes further and shares structurally
+ * identical subtrees, so that equal nodes are identical.
+ */
 public abstract class Query {
+  private final long span;
+
+  protected Query() {
+    this(Spans.NONE);
+  }
+
+  protected Query(long span) {
+    this.span = span;
+  }
+
+  /**
+   * @return the span of query text this node came from, or {@link Spans#NONE}
+   */
+  public long getSpan() {
+    return span;
+  }
+
+  /**
+   * Calls the method of the given visitor for this node's type, and returns the result
+   */
+  public abstract <T> T accept(QueryVisitor<T> visitor);
+
   /**
    * Returns a syntactically-correct String representation of this query.
    */
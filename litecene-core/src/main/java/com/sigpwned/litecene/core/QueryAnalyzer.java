@@ -0,0 +1,225 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import static java.util.Collections.unmodifiableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.stream.codepoint.CharSequenceCodePointSource;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+
+/**
+ * Parses queries using a fixed pipeline of code point filters, token filters, and query filters.
+ * Where a {@link QueryPipeline} is built for one query and then thrown away, a query analyzer is
+ * built once and then shared. It is immutable and thread-safe.
+ * 
+ * The pipeline is given as lists of factories, e.g. {@code SmartQuotesCodePointFilter::new}. Each
+ * thread builds its own copy of the pipeline the first time it parses a query, and then reuses that
+ * copy for every subsequent query, so the factories must return a new object each time they are
+ * called. The filters appear in the pipeline in the order given, i.e., the first code point filter
+ * reads from the source text, and the last query filter produces the final query.
+ * 
+ * Each analyzer keeps per-thread state for as long as it lives, so applications should create one
+ * analyzer for each pipeline they use and then share it, rather than creating one for each query.
+ */
+public class QueryAnalyzer {
+  private final List<UnaryOperator<CodePointStream>> codePointFilters;
+  private final List<UnaryOperator<TokenStream>> tokenFilters;
+  private final List<UnaryOperator<QueryPipeline>> queryFilters;
+  private final QueryParser.Limits limits;
+  private final ThreadLocal<Session> sessions;
+
+  public QueryAnalyzer(List<UnaryOperator<CodePointStream>> codePointFilters,
+      List<UnaryOperator<TokenStream>> tokenFilters,
+      List<UnaryOperator<QueryPipeline>> queryFilters) {
+    this(codePointFilters, tokenFilters, queryFilters, QueryParser.Limits.DEFAULT);
+  }
+
+  public QueryAnalyzer(List<UnaryOperator<CodePointStream>> codePointFilters,
+      List<UnaryOperator<TokenStream>> tokenFilters,
+      List<UnaryOperator<QueryPipeline>> queryFilters, QueryParser.Limits limits) {
+    if (limits == null)
+      throw new NullPointerException();
+    this.codePointFilters = unmodifiableList(new ArrayList<>(codePointFilters));
+    this.tokenFilters = unmodifiableList(new ArrayList<>(tokenFilters));
+    this.queryFilters = unmodifiableList(new ArrayList<>(queryFilters));
+    this.limits = limits;
+    if (this.codePointFilters.contains(null) || this.tokenFilters.contains(null)
+        || this.queryFilters.contains(null))
+      throw new NullPointerException();
+    this.sessions = ThreadLocal.withInitial(this::newSession);
+  }
+
+  /**
+   * Parses the given text into a query using this analyzer's pipeline.
+   * 
+   * @throws LiteceneException if the text is not a valid query
+   */
+  public Query parse(CharSequence text) {
+    return parse(new CharSequenceCodePointSource(text));
+  }
+
+  /**
+   * Parses the text of the given stream into a query using this analyzer's pipeline. This allows
+   * parsing text that is not a {@link CharSequence}, e.g. UTF-8 bytes from the network, without
+   * copying it into a {@link String} first.
+   * 
+   * @throws LiteceneException if the text is not a valid query
+   */
+  public Query parse(CodePointStream text) {
+    if (text == null)
+      throw new NullPointerException();
+
+    Session session = sessions.get();
+    if (session.busy) {
+      // A filter is parsing a query from within a parse on this thread. This should be rare, so
+      // just build a one-off session rather than corrupt the current one.
+      session = newSession();
+    }
+
+    session.busy = true;
+    try {
+      return session.parse(text);
+    } finally {
+      session.busy = false;
+    }
+  }
+
+  private Session newSession() {
+    Session.Source source = new Session.Source();
+
+    CodePointStream codePoints = source;
+    for (UnaryOperator<CodePointStream> codePointFilter : codePointFilters)
+      codePoints = codePointFilter.apply(codePoints);
+
+    Tokenizer tokenizer = new Tokenizer(codePoints);
+
+    TokenStream tokens = tokenizer;
+    for (UnaryOperator<TokenStream> tokenFilter : tokenFilters)
+      tokens = tokenFilter.apply(tokens);
+
+    QueryPipeline pipeline = new QueryParser(tokens, limits);
+    for (UnaryOperator<QueryPipeline> queryFilter : queryFilters)
+      pipeline = queryFilter.apply(pipeline);
+
+    return new Session(source, tokenizer, pipeline);
+  }
+
+  /**
+   * @return the codePointFilters
+   */
+  @Generated
+  public List<UnaryOperator<CodePointStream>> getCodePointFilters() {
+    return codePointFilters;
+  }
+
+  /**
+   * @return the tokenFilters
+   */
+  @Generated
+  public List<UnaryOperator<TokenStream>> getTokenFilters() {
+    return tokenFilters;
+  }
+
+  /**
+   * @return the queryFilters
+   */
+  @Generated
+  public List<UnaryOperator<QueryPipeline>> getQueryFilters() {
+    return queryFilters;
+  }
+
+  /**
+   * @return the limits
+   */
+  @Generated
+  public QueryParser.Limits getLimits() {
+    return limits;
+  }
+
+  /**
+   * One thread's copy of the pipeline
+   */
+  private static class Session {
+    /**
+     * A code point source that can be pointed at new text
+     */
+    private static class Source implements CodePointStream {
+      private static final CodePointStream EMPTY = new CharSequenceCodePointSource("");
+
+      private CodePointStream text;
+
+      public Source() {
+        this.text = EMPTY;
+      }
+
+      public void reset(CodePointStream text) {
+        this.text = text;
+      }
+
+      public void clear() {
+        this.text = EMPTY;
+      }
+
+      @Override
+      public int peek() {
+        return text.peek();
+      }
+
+      @Override
+      public int next() {
+        return text.next();
+      }
+
+      @Override
+      public int read(int[] buf, int off, int len) {
+        return text.read(buf, off, len);
+      }
+    }
+
+    private final Source source;
+    private final Tokenizer tokenizer;
+    private final QueryPipeline pipeline;
+    private boolean busy;
+
+    public Session(Source source, Tokenizer tokenizer, QueryPipeline pipeline) {
+      this.source = source;
+      this.tokenizer = tokenizer;
+      this.pipeline = pipeline;
+    }
+
+    public Query parse(CodePointStream text) {
+      // A previous parse may have failed partway through, so always start from a clean slate. The
+      // tokenizer only ever reads its stream in bulk, so no code point filter is holding on to a
+      // peeked code point from the old text.
+      source.reset(text);
+      tokenizer.reset();
+      try {
+        return pipeline.query();
+      } finally {
+        // Don't hold on to the caller's text
+        source.clear();
+      }
+    }
+  }
+}
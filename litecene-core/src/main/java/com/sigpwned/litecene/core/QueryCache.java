@@ -0,0 +1,170 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.BoundedCache;
+import com.sigpwned.litecene.core.util.CacheStats;
+
+/**
+ * Caches the queries parsed from query text, so that text that is parsed over and over, e.g., saved
+ * searches, skips analysis after the first time. Entries are keyed by the analyzer that parsed them
+ * and the exact text, so one cache can serve many analyzers. Analyzers are compared by identity,
+ * which is another reason to create one analyzer for each pipeline and share it.
+ *
+ * The cache is bounded both by its number of entries and by the total weight of its entries, as
+ * measured by a {@link Weigher}, and evicts the least recently used entries first to stay within
+ * both bounds. Queries are immutable, so the same query is safely handed to every caller that parses
+ * the same text. Text that fails to parse is not cached, so the next parse of it fails again.
+ *
+ * Caches are thread-safe. Entries are split across segments by hash, each with its own lock, so
+ * threads parsing different text rarely contend. No lock is held while parsing, so two threads
+ * that miss on the same text at the same time may both parse it.
+ */
+public class QueryCache {
+  /**
+   * Measures how much of the cache an entry uses. Weights must not be negative.
+   */
+  @FunctionalInterface
+  public static interface Weigher {
+    public int weigh(String text, Query query);
+  }
+
+  /**
+   * Weighs each entry by the length of its text, which grows with the size of its query
+   */
+  public static final Weigher TEXT_LENGTH = (text, query) -> text.length();
+
+  /**
+   * The number of segments a cache has unless told otherwise
+   */
+  public static final int DEFAULT_CONCURRENCY_LEVEL = BoundedCache.DEFAULT_CONCURRENCY_LEVEL;
+
+  private final Weigher weigher;
+  private final BoundedCache<Key, Query> cache;
+
+  /**
+   * Creates a cache that holds at most the given number of entries, weighing each by the length of
+   * its text
+   */
+  public QueryCache(int maximumSize) {
+    this(maximumSize, Long.MAX_VALUE, TEXT_LENGTH);
+  }
+
+  public QueryCache(int maximumSize, long maximumWeight, Weigher weigher) {
+    this(maximumSize, maximumWeight, weigher, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Creates a cache with the given bounds split across the given number of segments. Each segment
+   * enforces its share of the size bound on its own, so more segments means less contention but
+   * less exact eviction. The weight bound is shared by all segments.
+   */
+  public QueryCache(int maximumSize, long maximumWeight, Weigher weigher, int concurrencyLevel) {
+    if (weigher == null)
+      throw new NullPointerException();
+    this.weigher = weigher;
+    this.cache = new BoundedCache<>(maximumSize, maximumWeight,
+        (key, query) -> weigher.weigh(key.text, query), concurrencyLevel);
+  }
+
+  /**
+   * Returns the query the given analyzer parses from the given text, parsing it only if it is not
+   * already cached.
+   *
+   * @throws LiteceneException if the text is not a valid query
+   */
+  public Query parse(QueryAnalyzer analyzer, CharSequence text) {
+    if (analyzer == null)
+      throw new NullPointerException();
+    if (text == null)
+      throw new NullPointerException();
+
+    return cache.get(new Key(analyzer, text.toString()), key -> key.analyzer.parse(key.text));
+  }
+
+  /**
+   * Removes every entry from the cache. Statistics are not reset.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * @return the number of entries in the cache
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * @return the total weight of the entries in the cache
+   */
+  public long weight() {
+    return cache.weight();
+  }
+
+  public CacheStats getStats() {
+    return cache.getStats();
+  }
+
+  public int getMaximumSize() {
+    return cache.getMaximumSize();
+  }
+
+  public long getMaximumWeight() {
+    return cache.getMaximumWeight();
+  }
+
+  /**
+   * @return the weigher
+   */
+  @Generated
+  public Weigher getWeigher() {
+    return weigher;
+  }
+
+  private static final class Key {
+    public final QueryAnalyzer analyzer;
+    public final String text;
+    private final int hash;
+
+    public Key(QueryAnalyzer analyzer, String text) {
+      this.analyzer = analyzer;
+      this.text = text;
+      this.hash = 31 * System.identityHashCode(analyzer) + text.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof Key))
+        return false;
+      Key other = (Key) obj;
+      return analyzer == other.analyzer && hash == other.hash && text.equals(other.text);
+    }
+  }
+}
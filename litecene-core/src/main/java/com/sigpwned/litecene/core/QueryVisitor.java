@@ -0,0 +1,53 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+/**
+ * Computes a value for a query node, with one method for each type of node. Each node passes
+ * itself to the method for its type in {@link Query#accept(QueryVisitor)}, so dispatching a node
+ * takes one virtual call instead of a chain of type checks. Visitors recurse into children by
+ * having each child accept the visitor in turn.
+ *
+ * Visitors with no state of their own can be shared, and should be created once rather than once
+ * per call.
+ */
+public interface QueryVisitor<T> {
+  public T and(AndQuery and);
+
+  public T or(OrQuery or);
+
+  public T not(NotQuery not);
+
+  public T list(ListQuery list);
+
+  public T paren(ParenQuery paren);
+
+  public T text(TextQuery text);
+
+  public T vacuous(VacuousQuery vacuous);
+}
@@ -45,6 +45,7 @@ public class Term {
 
   private final String text;
   private final boolean wildcard;
+  private int hash;
 
   public Term(String text, boolean wildcard) {
     if (text == null)
@@ -70,9 +71,13 @@ public class Term {
   }
 
   @Override
-  @Generated
   public int hashCode() {
-    return Objects.hash(text, wildcard);
+    int h = hash;
+    if (h == 0) {
+      h = Objects.hash(text, wildcard);
+      hash = h;
+    }
+    return h;
   }
 
   @Override
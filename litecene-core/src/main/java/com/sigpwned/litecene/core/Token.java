@@ -22,18 +22,37 @@ package com.sigpwned.litecene.core;
 import java.util.Objects;
 import com.sigpwned.litecene.core.linting.Generated;
 import com.sigpwned.litecene.core.query.token.TextToken;
+import com.sigpwned.litecene.core.util.Spans;
 import com.sigpwned.litecene.core.util.Syntax;
 
+/**
+ * A lexical unit of a query. Tokens produced by a tokenizer record the span of query text they came
+ * from (see {@link Spans}). Spans are not part of a token's identity, so tokens with the same type
+ * and content are equal no matter where they came from.
+ */
 public abstract class Token {
   private static class ConstantToken extends Token {
     private final String text;
 
     @Generated
     public ConstantToken(Type type, String text) {
-      super(type);
+      this(type, text, Spans.NONE);
+    }
+
+    public ConstantToken(Type type, String text, long span) {
+      super(type, span);
       this.text = text;
     }
 
+    @Override
+    public Token withSpan(long span) {
+      if (getType() == Type.EOF) {
+        // There is exactly one EOF token
+        return this;
+      }
+      return new ConstantToken(getType(), text, span);
+    }
+
     @Override
     @Generated
     public int hashCode() {
@@ -101,13 +120,25 @@ public abstract class Token {
   }
 
   private final Type type;
+  private final long span;
 
   protected Token(Type type) {
+    this(type, Spans.NONE);
+  }
+
+  protected Token(Type type, long span) {
     if (type == null)
       throw new NullPointerException();
     this.type = type;
+    this.span = span;
   }
 
+  /**
+   * Returns a copy of this token that records the given span. {@link #EOF} is unique, so it never
+   * records a span.
+   */
+  public abstract Token withSpan(long span);
+
   public TextToken asText() {
     return (TextToken) this;
   }
@@ -120,6 +151,13 @@ public abstract class Token {
     return type;
   }
 
+  /**
+   * @return the span of query text this token came from, or {@link Spans#NONE}
+   */
+  public long getSpan() {
+    return span;
+  }
+
   @Override
   public int hashCode() {
     return Objects.hash(type);
@@ -0,0 +1,243 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a sequence of {@link AnalysisStage}s over text in a single pass. Each code point of the input
+ * flows through every stage before the next code point is read, and only the last stage writes to
+ * the shared output buffer, so analyzing a text costs one traversal and at most one allocation
+ * regardless of the number of stages. The result is always identical to applying each stage's
+ * {@link AnalysisStage#analyze(String)} in turn. If any stage cannot analyze a code point in
+ * isolation, then the chain falls back to exactly that.
+ *
+ * Like its stages, an analysis chain keeps scratch state, so it is not thread-safe.
+ */
+public class AnalysisChain {
+  public static AnalysisChain of(AnalysisStage... stages) {
+    return new AnalysisChain(asList(stages));
+  }
+
+  private final List<AnalysisStage> stages;
+
+  /**
+   * The input of each stage, i.e., links.get(i) receives the output of stages.get(i-1) and feeds
+   * stages.get(i). The first link receives the input text.
+   */
+  private final List<Link> links;
+
+  private final StringBuilder output;
+
+  /**
+   * Set when a stage cannot analyze a code point in isolation
+   */
+  private boolean fallback;
+
+  public AnalysisChain(List<AnalysisStage> stages) {
+    this.stages = unmodifiableList(new ArrayList<>(stages));
+    this.output = new StringBuilder();
+    this.links = new ArrayList<>(stages.size());
+
+    AnalysisSink downstream = new OutputSink();
+    for (int i = stages.size() - 1; i >= 0; i--) {
+      AnalysisStage stage = requireNonNull(stages.get(i));
+      Link link = new Link(stage, stage.isStripping() ? new StrippingSink(downstream) : downstream);
+      links.add(0, link);
+      downstream = link;
+    }
+  }
+
+  /**
+   * Analyzes the given text. Returns the given string itself if analysis does not change it.
+   */
+  public String analyze(String text) {
+    if (stages.isEmpty())
+      return text;
+    if (AsciiText.isAscii(text)) {
+      // The built-in stages have hand-written ASCII paths that usually return their input as-is,
+      // which beats pushing each code point through the chain.
+      return fallback(text);
+    }
+
+    output.setLength(0);
+    fallback = false;
+    for (Link link : links)
+      link.reset();
+
+    Link head = links.get(0);
+    for (int i = 0; i < text.length();) {
+      int cp = text.codePointAt(i);
+      head.emit(cp);
+      if (fallback)
+        return fallback(text);
+      i = i + Character.charCount(cp);
+    }
+
+    for (Link link : links)
+      link.finish();
+
+    return text.contentEquals(output) ? text : output.toString();
+  }
+
+  /**
+   * Applies each stage to the whole text in turn
+   */
+  private String fallback(String text) {
+    String result = text;
+    for (AnalysisStage stage : stages)
+      result = stage.analyze(result);
+    return result;
+  }
+
+  /**
+   * @return the stages
+   */
+  public List<AnalysisStage> getStages() {
+    return stages;
+  }
+
+  /**
+   * Feeds one stage
+   */
+  private final class Link implements AnalysisSink {
+    private final AnalysisStage stage;
+    private final AnalysisSink stageOutput;
+    private final Separators stageOutputSeparators;
+
+    public Link(AnalysisStage stage, AnalysisSink stageOutput) {
+      this.stage = stage;
+      this.stageOutput = stageOutput;
+      this.stageOutputSeparators = new Separators(stageOutput);
+    }
+
+    @Override
+    public void emit(int cp) {
+      if (!fallback && !stage.analyze(cp, stageOutputSeparators))
+        fallback = true;
+    }
+
+    @Override
+    public void separator() {
+      emit(' ');
+    }
+
+    public void reset() {
+      stageOutputSeparators.reset();
+      if (stageOutput instanceof StrippingSink)
+        ((StrippingSink) stageOutput).reset();
+    }
+
+    public void finish() {
+      if (stageOutput instanceof StrippingSink)
+        ((StrippingSink) stageOutput).finish();
+    }
+  }
+
+  /**
+   * Turns a run of separators from a stage into a single space
+   */
+  private static final class Separators implements AnalysisSink {
+    private final AnalysisSink downstream;
+    private boolean separated;
+
+    public Separators(AnalysisSink downstream) {
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void emit(int cp) {
+      separated = false;
+      downstream.emit(cp);
+    }
+
+    @Override
+    public void separator() {
+      if (!separated) {
+        downstream.emit(' ');
+        separated = true;
+      }
+    }
+
+    public void reset() {
+      separated = false;
+    }
+  }
+
+  /**
+   * Implements {@link String#strip()} in a streaming fashion by dropping leading whitespace and
+   * holding back whitespace until some non-whitespace code point follows it.
+   */
+  private static final class StrippingSink implements AnalysisSink {
+    private final AnalysisSink downstream;
+    private final StringBuilder pending;
+    private boolean started;
+
+    public StrippingSink(AnalysisSink downstream) {
+      this.downstream = downstream;
+      this.pending = new StringBuilder();
+    }
+
+    @Override
+    public void emit(int cp) {
+      if (Character.isWhitespace(cp)) {
+        if (started)
+          pending.appendCodePoint(cp);
+      } else {
+        for (int i = 0; i < pending.length(); i++)
+          downstream.emit(pending.charAt(i));
+        pending.setLength(0);
+        started = true;
+        downstream.emit(cp);
+      }
+    }
+
+    @Override
+    public void separator() {
+      emit(' ');
+    }
+
+    public void reset() {
+      pending.setLength(0);
+      started = false;
+    }
+
+    public void finish() {
+      // Trailing whitespace is dropped
+      pending.setLength(0);
+    }
+  }
+
+  private final class OutputSink implements AnalysisSink {
+    @Override
+    public void emit(int cp) {
+      output.appendCodePoint(cp);
+    }
+
+    @Override
+    public void separator() {
+      emit(' ');
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+/**
+ * Receives the output of an {@link AnalysisStage}, one code point at a time.
+ */
+public interface AnalysisSink {
+  /**
+   * Writes the given code point.
+   */
+  public void emit(int cp);
+
+  /**
+   * Writes a separator, i.e., a replacement for a code point that the stage removes in favor of
+   * whitespace. Contiguous separators are collapsed into a single space, just like
+   * {@code pattern.matcher(text).replaceAll(" ")} collapses a run of matching code points.
+   */
+  public void separator();
+}
@@ -0,0 +1,51 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+/**
+ * One step of text analysis, e.g. normalization or lowercasing. Every stage has two equivalent
+ * implementations: a whole-string implementation, which defines the stage's behavior, and a
+ * per-code-point implementation, which allows an {@link AnalysisChain} to fuse several stages into
+ * a single pass over the text. Stages may keep scratch state, so they are not thread-safe.
+ */
+public interface AnalysisStage {
+  /**
+   * Analyzes the given text as a whole. This is the reference implementation of the stage.
+   */
+  public String analyze(String text);
+
+  /**
+   * Analyzes one code point in isolation, writing the result to the given sink. Returns true if the
+   * code point was analyzed, or false if this stage cannot analyze the given code point without
+   * context, in which case the caller must fall back to {@link #analyze(String)} for the whole
+   * text. The output of this method for each code point in a text, taken together and stripped if
+   * {@link #isStripping()} is true, must be identical to the output of {@link #analyze(String)} for
+   * that text.
+   */
+  public boolean analyze(int cp, AnalysisSink sink);
+
+  /**
+   * Returns true if this stage strips leading and trailing whitespace from its output, in the
+   * manner of {@link String#strip()}, or false otherwise.
+   */
+  default boolean isStripping() {
+    return false;
+  }
+}
@@ -0,0 +1,79 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+/**
+ * Hand-written equivalents of the regular expressions the analysis stages use, for ASCII-only text.
+ */
+final class AsciiText {
+  private AsciiText() {}
+
+  public static boolean isAscii(String text) {
+    for (int i = 0; i < text.length(); i++)
+      if (text.charAt(i) >= 0x80)
+        return false;
+    return true;
+  }
+
+  /**
+   * Equivalent to {@code Pattern.compile("[^keep]+").matcher(text).replaceAll(" ").strip()} for
+   * ASCII text, where {@code keep} is given as a table of the ASCII characters to keep. The only
+   * whitespace character {@code keep} may contain is space. Returns the given text itself if the
+   * result would be equal to it, and otherwise uses the given buffer to build the result.
+   */
+  public static String replaceRunsAndStrip(String text, boolean[] keep, StringBuilder buf) {
+    int length = text.length();
+    if (length == 0)
+      return text;
+
+    // Most text is clean, so check for that first and skip the copy.
+    boolean clean = text.charAt(0) != ' ' && text.charAt(length - 1) != ' ';
+    for (int i = 0; clean && i < length; i++)
+      clean = keep[text.charAt(i)];
+    if (clean)
+      return text;
+
+    buf.setLength(0);
+    boolean replacing = false;
+    for (int i = 0; i < length; i++) {
+      char ch = text.charAt(i);
+      if (keep[ch]) {
+        buf.append(ch);
+        replacing = false;
+      } else if (!replacing) {
+        buf.append(' ');
+        replacing = true;
+      }
+    }
+
+    // Space is the only whitespace character left, so stripping is easy
+    int start = 0;
+    while (start < buf.length() && buf.charAt(start) == ' ')
+      start = start + 1;
+    int end = buf.length();
+    while (end > start && buf.charAt(end - 1) == ' ')
+      end = end - 1;
+
+    if (end - start == length && text.contentEquals(buf))
+      return text;
+
+    return buf.substring(start, end);
+  }
+}
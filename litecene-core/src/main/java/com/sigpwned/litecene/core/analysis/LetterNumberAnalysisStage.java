@@ -0,0 +1,82 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+import java.util.regex.Pattern;
+
+/**
+ * Retains all code points in the Unicode letter and number categories and converts runs of all
+ * other code points to a single ASCII space character (dec 32). Strips whitespace from beginning
+ * and end of result.
+ */
+public class LetterNumberAnalysisStage implements AnalysisStage {
+  private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  /**
+   * The only ASCII letters and numbers are [a-zA-Z0-9]
+   */
+  private static final boolean[] ASCII_ALNUM = new boolean[0x80];
+  static {
+    for (int ch = 0; ch < 0x80; ch++)
+      ASCII_ALNUM[ch] = isLetterOrNumber(ch);
+  }
+
+  private final StringBuilder buf = new StringBuilder();
+
+  @Override
+  public String analyze(String text) {
+    if (AsciiText.isAscii(text))
+      return AsciiText.replaceRunsAndStrip(text, ASCII_ALNUM, buf);
+    return NON_ALNUM.matcher(text).replaceAll(" ").strip();
+  }
+
+  @Override
+  public boolean analyze(int cp, AnalysisSink sink) {
+    if (isLetterOrNumber(cp))
+      sink.emit(cp);
+    else
+      sink.separator();
+    return true;
+  }
+
+  @Override
+  public boolean isStripping() {
+    return true;
+  }
+
+  /**
+   * Matches {@code [\p{L}\p{N}]}
+   */
+  private static boolean isLetterOrNumber(int cp) {
+    switch (Character.getType(cp)) {
+      case Character.UPPERCASE_LETTER:
+      case Character.LOWERCASE_LETTER:
+      case Character.TITLECASE_LETTER:
+      case Character.MODIFIER_LETTER:
+      case Character.OTHER_LETTER:
+      case Character.DECIMAL_DIGIT_NUMBER:
+      case Character.LETTER_NUMBER:
+      case Character.OTHER_NUMBER:
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+import java.util.Locale;
+
+/**
+ * Converts text to its lowercase representation using the rules of {@link Locale#US}.
+ */
+public class LowercaseAnalysisStage implements AnalysisStage {
+  /**
+   * LATIN CAPITAL LETTER I WITH DOT ABOVE lowercases to two code points
+   */
+  private static final int CAPITAL_I_WITH_DOT_ABOVE = 0x0130;
+
+  private static final int COMBINING_DOT_ABOVE = 0x0307;
+
+  /**
+   * GREEK CAPITAL LETTER SIGMA lowercases differently at the end of a word
+   */
+  private static final int CAPITAL_SIGMA = 0x03A3;
+
+  private final StringBuilder buf = new StringBuilder();
+
+  @Override
+  public String analyze(String text) {
+    if (AsciiText.isAscii(text))
+      return asciiToLowerCase(text);
+    return text.toLowerCase(Locale.US);
+  }
+
+  private String asciiToLowerCase(String text) {
+    int firstUpper = 0;
+    while (firstUpper < text.length() && !isAsciiUpper(text.charAt(firstUpper)))
+      firstUpper = firstUpper + 1;
+    if (firstUpper == text.length())
+      return text;
+
+    buf.setLength(0);
+    buf.append(text, 0, firstUpper);
+    for (int i = firstUpper; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      buf.append(isAsciiUpper(ch) ? (char) (ch + ('a' - 'A')) : ch);
+    }
+
+    return buf.toString();
+  }
+
+  private static boolean isAsciiUpper(char ch) {
+    return ch >= 'A' && ch <= 'Z';
+  }
+
+  /**
+   * For the US locale, {@link String#toLowerCase(Locale)} lowercases every code point independently,
+   * except for a couple of special cases.
+   */
+  @Override
+  public boolean analyze(int cp, AnalysisSink sink) {
+    if (cp == CAPITAL_SIGMA) {
+      // Final sigma depends on context, so we need the whole text.
+      return false;
+    } else if (cp == CAPITAL_I_WITH_DOT_ABOVE) {
+      sink.emit('i');
+      sink.emit(COMBINING_DOT_ABOVE);
+    } else {
+      sink.emit(Character.toLowerCase(cp));
+    }
+    return true;
+  }
+}
@@ -0,0 +1,77 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces text with its "simplified" latin representation by performing NFKD normalization and
+ * then removing all code points in the Unicode mark category. For example, replaces "fůňķŷ" with
+ * "funky".
+ */
+public class NormalizeAnalysisStage implements AnalysisStage {
+  /**
+   * Recognizes a single character in the Unicode mark category
+   */
+  private static final Pattern MARK = Pattern.compile("\\p{M}");
+
+  /**
+   * ASCII text is already normalized and contains no marks, so it passes through untouched.
+   */
+  @Override
+  public String analyze(String text) {
+    if (AsciiText.isAscii(text))
+      return text;
+    return MARK.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+  }
+
+  /**
+   * NFKD normalization decomposes each code point independently and then sorts runs of combining
+   * code points into canonical order. All combining code points are marks, and we remove all marks,
+   * so decomposing each code point independently gives the same result.
+   */
+  @Override
+  public boolean analyze(int cp, AnalysisSink sink) {
+    if (cp < 0x80) {
+      // ASCII characters decompose to themselves, and none of them are marks
+      sink.emit(cp);
+    } else {
+      String decomposed = Normalizer.normalize(new String(Character.toChars(cp)), Normalizer.Form.NFKD);
+      for (int i = 0; i < decomposed.length(); i = i + Character.charCount(decomposed.codePointAt(i))) {
+        int dcp = decomposed.codePointAt(i);
+        if (!isMark(dcp))
+          sink.emit(dcp);
+      }
+    }
+    return true;
+  }
+
+  private static boolean isMark(int cp) {
+    switch (Character.getType(cp)) {
+      case Character.NON_SPACING_MARK:
+      case Character.ENCLOSING_MARK:
+      case Character.COMBINING_SPACING_MARK:
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+import java.util.regex.Pattern;
+
+/**
+ * Retains all code points between 0x20 and 0x7E and converts all other code points to the ASCII
+ * space character (dec 32). Strips whitespace from beginning and end of result and replaces runs of
+ * non-printable code points with a single space.
+ */
+public class PrintableAsciiAnalysisStage implements AnalysisStage {
+  private static final Pattern NON_PRINTABLE_ASCII = Pattern.compile("[^\\u0020-\\u007E]+");
+
+  private static final boolean[] PRINTABLE_ASCII = new boolean[0x80];
+  static {
+    for (int ch = 0x20; ch <= 0x7E; ch++)
+      PRINTABLE_ASCII[ch] = true;
+  }
+
+  private final StringBuilder buf = new StringBuilder();
+
+  @Override
+  public String analyze(String text) {
+    if (AsciiText.isAscii(text))
+      return AsciiText.replaceRunsAndStrip(text, PRINTABLE_ASCII, buf);
+    return NON_PRINTABLE_ASCII.matcher(text).replaceAll(" ").strip();
+  }
+
+  @Override
+  public boolean analyze(int cp, AnalysisSink sink) {
+    if (cp >= 0x20 && cp <= 0x7E)
+      sink.emit(cp);
+    else
+      sink.separator();
+    return true;
+  }
+
+  @Override
+  public boolean isStripping() {
+    return true;
+  }
+}
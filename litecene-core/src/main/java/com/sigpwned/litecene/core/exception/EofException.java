@@ -24,4 +24,9 @@ import com.sigpwned.litecene.core.LiteceneException;
 public class EofException extends LiteceneException {
   private static final long serialVersionUID = 3869894389490612709L;
 
+  public EofException() {}
+
+  public EofException(long span) {
+    super(span);
+  }
 }
@@ -23,4 +23,10 @@ import com.sigpwned.litecene.core.LiteceneException;
 
 public class InvalidProximityException extends LiteceneException {
   private static final long serialVersionUID = -7867077684205105547L;
+
+  public InvalidProximityException() {}
+
+  public InvalidProximityException(long span) {
+    super(span);
+  }
 }
@@ -23,4 +23,10 @@ import com.sigpwned.litecene.core.LiteceneException;
 
 public class InvalidWildcardException extends LiteceneException {
   private static final long serialVersionUID = -515897617683871600L;
+
+  public InvalidWildcardException() {}
+
+  public InvalidWildcardException(long span) {
+    super(span);
+  }
 }
@@ -0,0 +1,65 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.exception;
+
+import com.sigpwned.litecene.core.LiteceneException;
+
+/**
+ * Thrown when a query exceeds one of the parser's limits, e.g., because it is nested too deeply.
+ * The span points at the token where the limit was crossed.
+ */
+public class QueryTooComplexException extends LiteceneException {
+  private static final long serialVersionUID = 4650223171458330826L;
+
+  public static enum Limit {
+    /**
+     * The query nests parentheses and NOT operators too deeply
+     */
+    DEPTH,
+
+    /**
+     * The query has too many nodes
+     */
+    NODES,
+
+    /**
+     * The query has too many terms
+     */
+    TERMS;
+  }
+
+  private final Limit limit;
+
+  public QueryTooComplexException(Limit limit) {
+    this.limit = limit;
+  }
+
+  public QueryTooComplexException(Limit limit, long span) {
+    super(span);
+    this.limit = limit;
+  }
+
+  /**
+   * @return the limit that was exceeded
+   */
+  public Limit getLimit() {
+    return limit;
+  }
+}
@@ -24,4 +24,9 @@ import com.sigpwned.litecene.core.LiteceneException;
 public class UnexpectedCharacterException extends LiteceneException {
   private static final long serialVersionUID = 3869894389490612709L;
 
+  public UnexpectedCharacterException() {}
+
+  public UnexpectedCharacterException(long span) {
+    super(span);
+  }
 }
@@ -24,4 +24,9 @@ import com.sigpwned.litecene.core.LiteceneException;
 public class UnmatchedParenthesisException extends LiteceneException {
   private static final long serialVersionUID = 3869894389490612709L;
 
+  public UnmatchedParenthesisException() {}
+
+  public UnmatchedParenthesisException(long span) {
+    super(span);
+  }
 }
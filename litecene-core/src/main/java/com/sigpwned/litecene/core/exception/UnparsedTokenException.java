@@ -23,4 +23,10 @@ import com.sigpwned.litecene.core.LiteceneException;
 
 public class UnparsedTokenException extends LiteceneException {
   private static final long serialVersionUID = -6405764486572531860L;
+
+  public UnparsedTokenException() {}
+
+  public UnparsedTokenException(long span) {
+    super(span);
+  }
 }
@@ -23,4 +23,10 @@ import com.sigpwned.litecene.core.LiteceneException;
 
 public class UnrecognizedTokenException extends LiteceneException {
   private static final long serialVersionUID = -6405764486572531860L;
+
+  public UnrecognizedTokenException() {}
+
+  public UnrecognizedTokenException(long span) {
+    super(span);
+  }
 }
@@ -19,19 +19,19 @@
  */
 package com.sigpwned.litecene.core.pipeline.query;
 
-import static java.util.Collections.unmodifiableSet;
 import java.util.ArrayList;
-import java.util.EnumSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
 import com.sigpwned.litecene.core.Query;
 import com.sigpwned.litecene.core.QueryPipeline;
 import com.sigpwned.litecene.core.Token;
 import com.sigpwned.litecene.core.TokenStream;
 import com.sigpwned.litecene.core.exception.EofException;
+import com.sigpwned.litecene.core.exception.QueryTooComplexException;
 import com.sigpwned.litecene.core.exception.UnmatchedParenthesisException;
 import com.sigpwned.litecene.core.exception.UnparsedTokenException;
 import com.sigpwned.litecene.core.exception.UnrecognizedTokenException;
+import com.sigpwned.litecene.core.linting.Generated;
 import com.sigpwned.litecene.core.query.AndQuery;
 import com.sigpwned.litecene.core.query.ListQuery;
 import com.sigpwned.litecene.core.query.NotQuery;
@@ -40,15 +40,196 @@ import com.sigpwned.litecene.core.query.ParenQuery;
 import com.sigpwned.litecene.core.query.TextQuery;
 import com.sigpwned.litecene.core.query.VacuousQuery;
 import com.sigpwned.litecene.core.query.token.TextToken;
+import com.sigpwned.litecene.core.util.Spans;
 
+/**
+ * Parses a query from a stream of tokens. Each query node records the span of query text it came
+ * from, i.e., the union of the spans of its tokens, and so does each exception for invalid syntax.
+ *
+ * The grammar is the usual one, from loosest to tightest binding:
+ *
+ * <pre>
+ * query1 := query2 (OR query2)*
+ * query2 := query3 (AND query3)*
+ * query3 := query4 query4*
+ * query4 := NOT query4 | atom
+ * atom   := TEXT | LPAREN query1 RPAREN
+ * </pre>
+ *
+ * The parser does not recurse. It keeps the productions it is in the middle of on an explicit stack
+ * instead, so deeply nested queries and long chains of NOT operators cannot overflow the thread
+ * stack. It reads tokens in the same order and builds the same tree a recursive descent parser
+ * would, and so reports the same errors. The parser also enforces {@link Limits} as it goes, and
+ * throws a {@link QueryTooComplexException} as soon as the query crosses one.
+ */
 public class QueryParser implements QueryPipeline {
+  /**
+   * Limits on the size of the queries a parser will accept. Depth counts the parentheses and NOT
+   * operators that enclose a point in the query, nodes counts the nodes in the parsed query, and
+   * terms counts the terms across all text nodes.
+   */
+  public static class Limits {
+    /**
+     * No limits at all. Queries parsed with these limits can be arbitrarily deep, so they should
+     * only be handed to code that does not recurse over the query tree.
+     */
+    public static final Limits UNLIMITED =
+        new Limits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * Generous limits that no hand-written query comes close to, but that keep the rest of the
+     * library, which does recurse over the query tree, well clear of the bottom of the stack.
+     */
+    public static final Limits DEFAULT = new Limits(256, 65536, 65536);
+
+    private final int maxDepth;
+    private final int maxNodes;
+    private final int maxTerms;
+
+    public Limits(int maxDepth, int maxNodes, int maxTerms) {
+      if (maxDepth < 0)
+        throw new IllegalArgumentException("maxDepth must not be negative");
+      if (maxNodes < 1)
+        throw new IllegalArgumentException("maxNodes must be positive");
+      if (maxTerms < 0)
+        throw new IllegalArgumentException("maxTerms must not be negative");
+      this.maxDepth = maxDepth;
+      this.maxNodes = maxNodes;
+      this.maxTerms = maxTerms;
+    }
+
+    /**
+     * @return the maxDepth
+     */
+    @Generated
+    public int getMaxDepth() {
+      return maxDepth;
+    }
+
+    /**
+     * @return the maxNodes
+     */
+    @Generated
+    public int getMaxNodes() {
+      return maxNodes;
+    }
+
+    /**
+     * @return the maxTerms
+     */
+    @Generated
+    public int getMaxTerms() {
+      return maxTerms;
+    }
+
+    @Override
+    @Generated
+    public int hashCode() {
+      return Objects.hash(maxDepth, maxNodes, maxTerms);
+    }
+
+    @Override
+    @Generated
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      Limits other = (Limits) obj;
+      return maxDepth == other.maxDepth && maxNodes == other.maxNodes
+          && maxTerms == other.maxTerms;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+      return "Limits [maxDepth=" + maxDepth + ", maxNodes=" + maxNodes + ", maxTerms=" + maxTerms
+          + "]";
+    }
+  }
+
+  /**
+   * A production the parser is in the middle of. OR, AND, and LIST frames collect the children of a
+   * boolean or list query. NOT and PAREN frames wait for their single child.
+   */
+  private static final class Frame {
+    public static final int OR = 0;
+    public static final int AND = 1;
+    public static final int LIST = 2;
+    public static final int NOT = 3;
+    public static final int PAREN = 4;
+
+    public int kind;
+
+    /**
+     * The NOT or LPAREN token that opened this frame
+     */
+    public Token token;
+
+    /**
+     * The first child, which is all most frames ever see
+     */
+    public Query first;
+
+    /**
+     * All children, once there is more than one
+     */
+    public List<Query> children;
+
+    public void add(Query child) {
+      if (first == null) {
+        first = child;
+      } else {
+        if (children == null) {
+          children = new ArrayList<>();
+          children.add(first);
+        }
+        children.add(child);
+      }
+    }
+  }
+
   private final TokenStream ts;
 
+  private final Limits limits;
+
+  /**
+   * The span of the last token consumed, so errors at the end of input can be placed just after it
+   */
+  private long lastSpan;
+
+  /**
+   * The frames of the productions in progress, from frames[0] to frames[top-1]. Frame objects are
+   * reused across calls to {@link #query()}.
+   */
+  private final List<Frame> frames;
+  private int top;
+
+  private int depth;
+  private int nodes;
+  private int terms;
+
   public QueryParser(TokenStream ts) {
+    this(ts, Limits.DEFAULT);
+  }
+
+  public QueryParser(TokenStream ts, Limits limits) {
+    if (limits == null)
+      throw new NullPointerException();
     this.ts = ts;
+    this.limits = limits;
+    this.lastSpan = Spans.NONE;
+    this.frames = new ArrayList<>();
   }
 
   public Query query() {
+    top = 0;
+    depth = 0;
+    nodes = 0;
+    terms = 0;
+
     Query result;
     if (ts.peek().getType() == Token.Type.EOF) {
       result = VacuousQuery.INSTANCE;
@@ -56,97 +237,179 @@ public class QueryParser implements QueryPipeline {
       result = query1();
     }
     if (ts.peek().getType() != Token.Type.EOF)
-      throw new UnparsedTokenException();
+      throw new UnparsedTokenException(span(ts.peek()));
     return result;
   }
 
-  // X OR Y OR Z ...
   private Query query1() {
-    Query q = query2();
-    if (ts.peek().getType() == Token.Type.OR) {
-      List<Query> children = new ArrayList<>();
-      children.add(q);
-      do {
-        ts.next(); // OR
-        children.add(query2());
-      } while (ts.peek().getType() == Token.Type.OR);
-      return new OrQuery(children);
-    } else {
-      return q;
+    push(Frame.OR, null);
+    push(Frame.AND, null);
+    push(Frame.LIST, null);
+
+    while (true) {
+      // Descend to the next atom, opening any NOT operators and parentheses on the way
+      Query q = null;
+      while (q == null) {
+        Token t = next();
+        switch (t.getType()) {
+          case NOT:
+            open(Frame.NOT, t);
+            break;
+          case TEXT:
+            q = text(t.asText());
+            break;
+          case LPAREN:
+            open(Frame.PAREN, t);
+            push(Frame.OR, null);
+            push(Frame.AND, null);
+            push(Frame.LIST, null);
+            break;
+          case EOF:
+            throw new EofException(span(t));
+          // $CASES-OMITTED$
+          default:
+            throw new UnrecognizedTokenException(span(t));
+        }
+      }
+
+      // Climb back up, finishing every production that has nothing more to read
+      climb: while (true) {
+        Frame f = frames.get(top - 1);
+        switch (f.kind) {
+          case Frame.NOT:
+            q = node(new NotQuery(q, Spans.union(f.token.getSpan(), q.getSpan())), f.token);
+            depth = depth - 1;
+            pop();
+            break;
+          case Frame.PAREN: {
+            Token close = next();
+            if (close.getType() != Token.Type.RPAREN) {
+              // Point at the parenthesis that was never closed
+              throw new UnmatchedParenthesisException(f.token.getSpan());
+            }
+            q = node(new ParenQuery(q, Spans.union(f.token.getSpan(), close.getSpan())), close);
+            depth = depth - 1;
+            pop();
+            break;
+          }
+          case Frame.LIST:
+            // term term term ...
+            f.add(q);
+            if (isListable(ts.peek().getType()))
+              break climb;
+            q = f.children == null ? f.first
+                : node(new ListQuery(f.children, span(f.children)), null);
+            pop();
+            break;
+          case Frame.AND:
+            // X AND Y AND Z ...
+            f.add(q);
+            if (ts.peek().getType() == Token.Type.AND) {
+              next(); // AND
+              push(Frame.LIST, null);
+              break climb;
+            }
+            q = f.children == null ? f.first
+                : node(new AndQuery(f.children, span(f.children)), null);
+            pop();
+            break;
+          case Frame.OR:
+            // X OR Y OR Z ...
+            f.add(q);
+            if (ts.peek().getType() == Token.Type.OR) {
+              next(); // OR
+              push(Frame.AND, null);
+              push(Frame.LIST, null);
+              break climb;
+            }
+            q = f.children == null ? f.first
+                : node(new OrQuery(f.children, span(f.children)), null);
+            pop();
+            if (top == 0)
+              return q;
+            break;
+          default:
+            throw new AssertionError(f.kind);
+        }
+      }
     }
   }
 
-  // X AND Y AND Z ...
-  private Query query2() {
-    Query q = query3();
-    if (ts.peek().getType() == Token.Type.AND) {
-      List<Query> children = new ArrayList<>();
-      children.add(q);
-      do {
-        ts.next(); // AND
-        children.add(query3());
-      } while (ts.peek().getType() == Token.Type.AND);
-      return new AndQuery(children);
-    } else {
-      return q;
-    }
+  private Query text(TextToken tt) {
+    if (tt.getTerms().isEmpty())
+      return node(new VacuousQuery(tt.getSpan()), tt);
+
+    if (tt.getTerms().size() > limits.getMaxTerms() - terms)
+      throw new QueryTooComplexException(QueryTooComplexException.Limit.TERMS, tt.getSpan());
+    terms = terms + tt.getTerms().size();
+
+    return node(new TextQuery(tt.getTerms(), tt.getProximity(), tt.getSpan()), tt);
   }
 
-  private static final Set<Token.Type> LISTABLES =
-      unmodifiableSet(EnumSet.of(Token.Type.LPAREN, Token.Type.NOT, Token.Type.TEXT));
-
-  // term term term ...
-  private Query query3() {
-    Query q = query4();
-    if (LISTABLES.contains(ts.peek().getType())) {
-      List<Query> children = new ArrayList<>();
-      children.add(q);
-      do {
-        children.add(query4());
-      } while (LISTABLES.contains(ts.peek().getType()));
-      return new ListQuery(children);
-    } else {
-      return q;
+  /**
+   * Counts the given new node against the node limit. The token, if any, is where the node was
+   * finished, and is what the error points at.
+   */
+  private Query node(Query q, Token t) {
+    if (nodes == limits.getMaxNodes()) {
+      throw new QueryTooComplexException(QueryTooComplexException.Limit.NODES,
+          t != null ? span(t) : q.getSpan());
     }
+    nodes = nodes + 1;
+    return q;
   }
 
-  // NOT X
-  private Query query4() {
-    if (ts.peek().getType() == Token.Type.NOT) {
-      ts.next(); // NOT
-      return new NotQuery(query4());
-    } else {
-      return query5();
-    }
+  /**
+   * Opens a NOT operator or parenthesis, which counts against the depth limit
+   */
+  private void open(int kind, Token t) {
+    if (depth == limits.getMaxDepth())
+      throw new QueryTooComplexException(QueryTooComplexException.Limit.DEPTH, span(t));
+    depth = depth + 1;
+    push(kind, t);
   }
 
-  // atoms
-  private Query query5() {
-    return atom();
+  private void push(int kind, Token t) {
+    if (top == frames.size())
+      frames.add(new Frame());
+    Frame f = frames.get(top);
+    f.kind = kind;
+    f.token = t;
+    f.first = null;
+    f.children = null;
+    top = top + 1;
   }
 
-  private Query atom() {
-    Token t = ts.next();
-    switch (t.getType()) {
-      case TEXT: {
-        TextToken tt = t.asText();
-        if (tt.getTerms().isEmpty()) {
-          return VacuousQuery.INSTANCE;
-        } else {
-          return new TextQuery(tt.getTerms(), tt.getProximity());
-        }
-      }
-      case LPAREN: {
-        Query result = query1();
-        if (ts.next().getType() != Token.Type.RPAREN)
-          throw new UnmatchedParenthesisException();
-        return new ParenQuery(result);
-      }
-      case EOF:
-        throw new EofException();
-      // $CASES-OMITTED$
-      default:
-        throw new UnrecognizedTokenException();
-    }
+  private void pop() {
+    Frame f = frames.get(top - 1);
+    f.token = null;
+    f.first = null;
+    f.children = null;
+    top = top - 1;
+  }
+
+  private static boolean isListable(Token.Type type) {
+    return type == Token.Type.LPAREN || type == Token.Type.NOT || type == Token.Type.TEXT;
+  }
+
+  private Token next() {
+    Token result = ts.next();
+    if (result.getType() != Token.Type.EOF)
+      lastSpan = result.getSpan();
+    return result;
+  }
+
+  /**
+   * Returns the span of the given token. {@link Token#EOF} has no span of its own, so it is placed
+   * just after the last token consumed.
+   */
+  private long span(Token t) {
+    if (t.getType() == Token.Type.EOF)
+      return Spans.isPresent(lastSpan) ? Spans.at(Spans.end(lastSpan)) : Spans.NONE;
+    return t.getSpan();
+  }
+
+  private static long span(List<Query> children) {
+    return Spans.union(children.get(0).getSpan(), children.get(children.size() - 1).getSpan());
   }
 }
@@ -0,0 +1,53 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.pipeline.query.filter;
+
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryPipeline;
+import com.sigpwned.litecene.core.pipeline.query.FilterQueryPipeline;
+import com.sigpwned.litecene.core.util.QueryInterner;
+
+/**
+ * Interns queries with the given interner, so that queries parsed by the same pipeline share
+ * structurally identical subtrees. The interned queries do not record spans, so this filter should
+ * come last.
+ */
+public class InternQueryFilterPipeline extends FilterQueryPipeline {
+  private final QueryInterner interner;
+
+  public InternQueryFilterPipeline(QueryPipeline upstream, QueryInterner interner) {
+    super(upstream);
+    if (interner == null)
+      throw new NullPointerException();
+    this.interner = interner;
+  }
+
+  @Override
+  protected Query filter(Query query) {
+    return getInterner().intern(query);
+  }
+
+  /**
+   * @return the interner
+   */
+  public QueryInterner getInterner() {
+    return interner;
+  }
+}
@@ -0,0 +1,473 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.pipeline.query.filter;
+
+import static java.util.Collections.singletonList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryPipeline;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.pipeline.query.FilterQueryPipeline;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+import com.sigpwned.litecene.core.util.Spans;
+
+/**
+ * Rewrites boolean queries into smaller equivalent queries. AND and list queries are both
+ * conjunctions, so they are flattened into each other. Then the children of each conjunction and
+ * disjunction are:
+ *
+ * <ul>
+ * <li>sorted by their query text, so equivalent queries come out the same, e.g. {@code b OR a} and
+ * {@code a OR b} both become {@code a OR b}</li>
+ * <li>deduplicated, e.g. {@code a OR a} becomes {@code a}</li>
+ * <li>absorbed, e.g. {@code a OR (a AND b)} becomes {@code a} and {@code a AND (a OR b)} becomes
+ * {@code a}. A single term implies any prefix of it, so this also merges single terms, e.g.
+ * {@code app* OR apple} becomes {@code app*} and {@code app* AND apple} becomes {@code apple}.</li>
+ * <li>factored, for disjunctions, e.g. {@code (a AND b) OR (a AND c)} becomes
+ * {@code a AND (b OR c)}</li>
+ * </ul>
+ *
+ * The input should be simplified, and the output is, too. Nodes that are not rewritten keep their
+ * spans, and so do rewritten nodes that stand for a node of the input, but nodes created by
+ * factoring have no span.
+ *
+ * @see SimplifyQueryFilterPipeline
+ */
+public class OptimizeQueryFilterPipeline extends FilterQueryPipeline {
+  /**
+   * The most children to compare pairwise when looking for redundant children
+   */
+  private static final int SMALL = 8;
+
+  private static final Comparator<Child> CANONICAL_ORDER =
+      Comparator.comparing((Child c) -> c.key);
+
+  /**
+   * A child of a conjunction or disjunction, with its sort key and the operands of its own
+   * disjunction or conjunction, if any
+   */
+  private static class Child {
+    public final Query query;
+    public final String key;
+    public final List<Query> operands;
+
+    public Child(Query query, List<Query> operands) {
+      this.query = query;
+      this.key = query.toString();
+      this.operands = operands;
+    }
+  }
+
+  private final QueryVisitor<Query> visitor;
+
+  public OptimizeQueryFilterPipeline(QueryPipeline upstream) {
+    super(upstream);
+    this.visitor = new QueryVisitor<Query>() {
+      @Override
+      public Query and(AndQuery and) {
+        return conjunction(and, optimizeAll(and.getChildren()), and.getSpan(), false);
+      }
+
+      @Override
+      public Query or(OrQuery or) {
+        return disjunction(or, optimizeAll(or.getChildren()), or.getSpan());
+      }
+
+      @Override
+      public Query list(ListQuery list) {
+        return conjunction(list, optimizeAll(list.getChildren()), list.getSpan(), true);
+      }
+
+      @Override
+      public Query not(NotQuery not) {
+        Query c = optimize(not.getChild());
+        if (c instanceof NotQuery) {
+          // Removing duplicates can leave a double negative behind, e.g. NOT (NOT a NOT a)
+          return ((NotQuery) c).getChild();
+        } else if (c == not.getChild())
+          return not;
+        else
+          return new NotQuery(c, not.getSpan());
+      }
+
+      @Override
+      public Query paren(ParenQuery paren) {
+        Query c = optimize(paren.getChild());
+        if (c instanceof ParenQuery || c instanceof TextQuery || c instanceof NotQuery
+            || c instanceof VacuousQuery) {
+          // These queries are atomic and can safely be unpacked
+          return c;
+        } else if (c == paren.getChild())
+          return paren;
+        else
+          return new ParenQuery(c, paren.getSpan());
+      }
+
+      @Override
+      public Query text(TextQuery text) {
+        return text;
+      }
+
+      @Override
+      public Query vacuous(VacuousQuery vacuous) {
+        return vacuous;
+      }
+    };
+  }
+
+  @Override
+  protected Query filter(Query query) {
+    return optimize(query);
+  }
+
+  protected Query optimize(Query q) {
+    return q.accept(visitor);
+  }
+
+  private List<Query> optimizeAll(List<Query> qs) {
+    List<Query> result = new ArrayList<>(qs.size());
+    for (Query q : qs)
+      result.add(optimize(q));
+    return result;
+  }
+
+  /**
+   * Combines the given optimized operands into a conjunction. Returns the original node if nothing
+   * changed.
+   *
+   * @param original the node being optimized, or null if there is none
+   */
+  private Query conjunction(Query original, List<Query> operands, long span, boolean list) {
+    List<Child> children = new ArrayList<>(operands.size());
+    for (Query operand : operands) {
+      for (Query q : conjuncts(operand)) {
+        if (q instanceof OrQuery)
+          q = new ParenQuery(q);
+        children.add(new Child(q, disjuncts(q)));
+      }
+    }
+
+    children = absorb(dedupe(children), false);
+
+    if (children.size() == 1)
+      return children.get(0).query;
+
+    List<Query> cs = queries(children);
+    if (original != null && original.getClass() == (list ? ListQuery.class : AndQuery.class)
+        && identical(cs, children(original)))
+      return original;
+
+    return list ? new ListQuery(cs, span) : new AndQuery(cs, span);
+  }
+
+  /**
+   * Combines the given optimized operands into a disjunction, factoring out common conjuncts.
+   * Returns the original node if nothing changed.
+   *
+   * @param original the node being optimized, or null if there is none
+   */
+  private Query disjunction(Query original, List<Query> operands, long span) {
+    List<Child> children = new ArrayList<>(operands.size());
+    for (Query operand : operands)
+      for (Query q : disjuncts(operand))
+        children.add(new Child(q, conjuncts(q)));
+
+    children = absorb(dedupe(children), true);
+
+    if (children.size() == 1)
+      return children.get(0).query;
+
+    Set<Query> common = common(children);
+    if (!common.isEmpty()) {
+      // (a AND b) OR (a AND c) -> a AND (b OR c). No operand is left with nothing after factoring,
+      // since it would have absorbed all the others.
+      List<Query> rest = new ArrayList<>(children.size());
+      for (Child child : children) {
+        List<Query> remaining = new ArrayList<>(child.operands.size());
+        for (Query operand : child.operands)
+          if (!common.contains(operand))
+            remaining.add(operand);
+        rest.add(remaining.size() == 1 ? remaining.get(0) : new AndQuery(remaining));
+      }
+
+      List<Query> factored = new ArrayList<>(common.size() + 1);
+      for (Query operand : children.get(0).operands)
+        if (common.contains(operand))
+          factored.add(operand);
+      factored.add(disjunction(null, rest, Spans.NONE));
+
+      return conjunction(null, factored, span, false);
+    }
+
+    List<Query> cs = queries(children);
+    if (original instanceof OrQuery && identical(cs, children(original)))
+      return original;
+
+    return new OrQuery(cs, span);
+  }
+
+  /**
+   * Sorts the given children into canonical order and drops duplicates
+   */
+  private static List<Child> dedupe(List<Child> children) {
+    children.sort(CANONICAL_ORDER);
+
+    List<Child> result = new ArrayList<>(children.size());
+    for (Child child : children) {
+      if (result.isEmpty() || !result.get(result.size() - 1).query.equals(child.query))
+        result.add(child);
+    }
+    return result;
+  }
+
+  /**
+   * Drops the children that make no difference to the given disjunction or conjunction. In a
+   * disjunction, a child is redundant if it implies another child, i.e., each of the other
+   * child's conjuncts is implied by one of its conjuncts. In a conjunction, a child is redundant if
+   * another child implies it, i.e., each of the other child's disjuncts implies one of its
+   * disjuncts. If two children imply each other, the first is kept.
+   *
+   * Rather than compare every pair of children, each child is indexed by its rarest operand. A
+   * child can only make another redundant if its key matches one of the other's operands, either
+   * exactly or as a prefix, so only children with matching keys are compared. Small queries are
+   * cheaper to compare pairwise than to index.
+   */
+  private static List<Child> absorb(List<Child> children, boolean disjunction) {
+    if (children.size() <= SMALL) {
+      List<Child> result = new ArrayList<>(children.size());
+      for (int i = 0; i < children.size(); i++) {
+        boolean redundant = false;
+        for (int j = 0; j < children.size() && !redundant; j++)
+          redundant = j != i && absorbs(children, j, i, disjunction);
+        if (!redundant)
+          result.add(children.get(i));
+      }
+      return result;
+    }
+
+    Map<Query, Integer> frequencies = new HashMap<>();
+    for (Child child : children)
+      for (Query operand : child.operands)
+        frequencies.merge(operand, 1, Integer::sum);
+
+    Map<Query, List<Integer>> byKey = new HashMap<>();
+    Map<String, List<Integer>> byWildcardKey = new HashMap<>();
+    NavigableMap<String, List<Integer>> byTermKey = new TreeMap<>();
+    for (int i = 0; i < children.size(); i++) {
+      Query key = null;
+      for (Query operand : children.get(i).operands)
+        if (key == null || frequencies.get(operand) < frequencies.get(key))
+          key = operand;
+
+      byKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(i);
+
+      Term term = term(key);
+      if (term != null && term.isWildcard())
+        byWildcardKey.computeIfAbsent(term.getText(), k -> new ArrayList<>(1)).add(i);
+      if (term != null)
+        byTermKey.computeIfAbsent(term.getText(), k -> new ArrayList<>(1)).add(i);
+    }
+
+    List<Child> result = new ArrayList<>(children.size());
+    for (int i = 0; i < children.size(); i++) {
+      if (!isRedundant(children, i, byKey, byWildcardKey, byTermKey, disjunction))
+        result.add(children.get(i));
+    }
+    return result;
+  }
+
+  private static boolean isRedundant(List<Child> children, int i, Map<Query, List<Integer>> byKey,
+      Map<String, List<Integer>> byWildcardKey, NavigableMap<String, List<Integer>> byTermKey,
+      boolean disjunction) {
+    for (Query operand : children.get(i).operands) {
+      if (absorbsAny(children, byKey.get(operand), i, disjunction))
+        return true;
+
+      // Terms imply their prefixes, so keys can match without being equal
+      Term term = term(operand);
+      if (term == null)
+        continue;
+      String text = term.getText();
+      if (disjunction) {
+        // In a disjunction, the key may be a prefix of this operand
+        for (int n = 0; n <= text.length(); n++)
+          if (absorbsAny(children, byWildcardKey.get(text.substring(0, n)), i, disjunction))
+            return true;
+      } else if (term.isWildcard()) {
+        // In a conjunction, this operand may be a prefix of the key
+        for (Map.Entry<String, List<Integer>> e : byTermKey.tailMap(text, true).entrySet()) {
+          if (!e.getKey().startsWith(text))
+            break;
+          if (absorbsAny(children, e.getValue(), i, disjunction))
+            return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean absorbsAny(List<Child> children, List<Integer> candidates, int i,
+      boolean disjunction) {
+    if (candidates != null)
+      for (int j : candidates)
+        if (j != i && absorbs(children, j, i, disjunction))
+          return true;
+    return false;
+  }
+
+  /**
+   * Returns true if child j makes child i redundant
+   */
+  private static boolean absorbs(List<Child> children, int j, int i, boolean disjunction) {
+    Child absorber = children.get(j);
+    Child absorbed = children.get(i);
+    if (!covers(absorbed, absorber, disjunction))
+      return false;
+    // If they are equivalent, keep the first
+    return j < i || !covers(absorber, absorbed, disjunction);
+  }
+
+  /**
+   * In a disjunction, returns true if x implies y. In a conjunction, returns true if y implies x.
+   */
+  private static boolean covers(Child x, Child y, boolean disjunction) {
+    for (Query b : y.operands) {
+      boolean covered = false;
+      for (Query a : x.operands) {
+        if (disjunction ? implies(a, b) : implies(b, a)) {
+          covered = true;
+          break;
+        }
+      }
+      if (!covered)
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if a implies b, as far as can be told without looking inside either, i.e., if
+   * they are equal, or if they are single terms and b is a prefix of a.
+   */
+  private static boolean implies(Query a, Query b) {
+    if (a.equals(b))
+      return true;
+
+    Term ta = term(a);
+    Term tb = term(b);
+    if (ta == null || tb == null || !tb.isWildcard())
+      return false;
+
+    String text = ta.getText();
+    String prefix = tb.getText();
+    if (!text.startsWith(prefix))
+      return false;
+
+    // Every backend agrees that a prefix matches at least letters and digits, so only count those
+    for (int i = prefix.length(); i < text.length(); i++) {
+      char ch = text.charAt(i);
+      if (!(ch >= 'a' && ch <= 'z') && !(ch >= '0' && ch <= '9'))
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the term of the given single-term query, or null if it is not a single-term query
+   */
+  private static Term term(Query q) {
+    if (q instanceof TextQuery) {
+      TextQuery text = (TextQuery) q;
+      if (text.getTerms().size() == 1 && text.getProximity().isEmpty())
+        return text.getTerms().get(0);
+    }
+    return null;
+  }
+
+  /**
+   * Returns the conjuncts all the given children have in common
+   */
+  private static Set<Query> common(List<Child> children) {
+    for (Child child : children)
+      if (child.operands.size() == 1)
+        return Set.of();
+
+    Set<Query> result = new HashSet<>(children.get(0).operands);
+    for (int i = 1; i < children.size() && !result.isEmpty(); i++)
+      result.retainAll(new HashSet<>(children.get(i).operands));
+    return result;
+  }
+
+  private static List<Query> conjuncts(Query q) {
+    Query c = q instanceof ParenQuery ? ((ParenQuery) q).getChild() : q;
+    if (c instanceof AndQuery)
+      return ((AndQuery) c).getChildren();
+    if (c instanceof ListQuery)
+      return ((ListQuery) c).getChildren();
+    return singletonList(q);
+  }
+
+  private static List<Query> disjuncts(Query q) {
+    Query c = q instanceof ParenQuery ? ((ParenQuery) q).getChild() : q;
+    if (c instanceof OrQuery)
+      return ((OrQuery) c).getChildren();
+    return singletonList(q);
+  }
+
+  private static List<Query> children(Query q) {
+    if (q instanceof AndQuery)
+      return ((AndQuery) q).getChildren();
+    if (q instanceof OrQuery)
+      return ((OrQuery) q).getChildren();
+    return ((ListQuery) q).getChildren();
+  }
+
+  private static List<Query> queries(List<Child> children) {
+    List<Query> result = new ArrayList<>(children.size());
+    for (Child child : children)
+      result.add(child.query);
+    return result;
+  }
+
+  private static boolean identical(List<Query> xs, List<Query> ys) {
+    if (xs.size() != ys.size())
+      return false;
+    for (int i = 0; i < xs.size(); i++)
+      if (xs.get(i) != ys.get(i))
+        return false;
+    return true;
+  }
+}
@@ -19,11 +19,12 @@
  */
 package com.sigpwned.litecene.core.pipeline.query.filter;
 
-import static java.util.stream.Collectors.toList;
 import java.util.ArrayList;
 import java.util.List;
 import com.sigpwned.litecene.core.Query;
 import com.sigpwned.litecene.core.QueryPipeline;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.Term;
 import com.sigpwned.litecene.core.pipeline.query.FilterQueryPipeline;
 import com.sigpwned.litecene.core.query.AndQuery;
 import com.sigpwned.litecene.core.query.ListQuery;
@@ -32,142 +33,109 @@ import com.sigpwned.litecene.core.query.OrQuery;
 import com.sigpwned.litecene.core.query.ParenQuery;
 import com.sigpwned.litecene.core.query.TextQuery;
 import com.sigpwned.litecene.core.query.VacuousQuery;
-import com.sigpwned.litecene.core.util.Queries;
-import com.sigpwned.litecene.core.util.QueryProcessor;
 import com.sigpwned.litecene.core.util.Terms;
 
 /**
- * Eliminates vacuous query nodes
+ * Eliminates vacuous query nodes. Rewritten nodes keep the spans of the nodes they replace.
+ *
+ * Simplification is a single bottom-up pass. A simplified query is vacuous exactly when it is a
+ * {@link VacuousQuery}, since every other result has at least one non-vacuous descendant, so no
+ * subtree is ever walked twice to check its vacuity. Subtrees that need no simplification are
+ * returned as they are, without copying.
  */
 public class SimplifyQueryFilterPipeline extends FilterQueryPipeline {
+  private final QueryVisitor<Query> visitor;
+
   public SimplifyQueryFilterPipeline(QueryPipeline upstream) {
     super(upstream);
-  }
-
-  @Override
-  protected Query filter(Query query) {
-    return simplify(query);
-  }
-
-  protected Query simplify(Query q) {
-    return new QueryProcessor<Query>(new QueryProcessor.Processor<Query>() {
+    this.visitor = new QueryVisitor<Query>() {
       @Override
       public Query and(AndQuery and) {
-        List<Query> children = and.getChildren().stream()
-            .map(SimplifyQueryFilterPipeline.this::simplify).map(c -> unpack(c, AndQuery.class))
-            .filter(c -> !Queries.isVacuous(c)).collect(toList());
-
-        List<Query> cs = new ArrayList<>();
-        for (Query child : children) {
-          if (child instanceof AndQuery) {
-            cs.addAll(((AndQuery) child).getChildren());
-          } else {
-            cs.add(child);
-          }
-        }
-
-        if (cs.isEmpty())
+        List<Query> cs = flatten(and.getChildren(), AndQuery.class);
+        if (cs == null)
+          return and;
+        else if (cs.isEmpty())
           return VacuousQuery.INSTANCE;
         else if (cs.size() == 1)
           return cs.get(0);
         else
-          return new AndQuery(cs);
+          return new AndQuery(cs, and.getSpan());
       }
 
       @Override
       public Query or(OrQuery or) {
-        List<Query> children = or.getChildren().stream()
-            .map(SimplifyQueryFilterPipeline.this::simplify).map(c -> unpack(c, OrQuery.class))
-            .filter(c -> !Queries.isVacuous(c)).collect(toList());
-
-        List<Query> cs = new ArrayList<>();
-        for (Query child : children) {
-          if (child instanceof OrQuery) {
-            cs.addAll(((OrQuery) child).getChildren());
-          } else {
-            cs.add(child);
-          }
-        }
-
-        if (cs.isEmpty())
+        List<Query> cs = flatten(or.getChildren(), OrQuery.class);
+        if (cs == null)
+          return or;
+        else if (cs.isEmpty())
           return VacuousQuery.INSTANCE;
         else if (cs.size() == 1)
           return cs.get(0);
         else
-          return new OrQuery(cs);
+          return new OrQuery(cs, or.getSpan());
       }
 
       @Override
       public Query list(ListQuery list) {
-        List<Query> children = list.getChildren().stream()
-            .map(SimplifyQueryFilterPipeline.this::simplify).map(c -> unpack(c, ListQuery.class))
-            .filter(c -> !Queries.isVacuous(c)).collect(toList());
-
-        List<Query> cs = new ArrayList<>();
-        for (Query child : children) {
-          if (child instanceof ListQuery) {
-            cs.addAll(((ListQuery) child).getChildren());
-          } else {
-            cs.add(child);
-          }
-        }
-
-        if (cs.isEmpty())
+        List<Query> cs = flatten(list.getChildren(), ListQuery.class);
+        if (cs == null)
+          return list;
+        else if (cs.isEmpty())
           return VacuousQuery.INSTANCE;
         else if (cs.size() == 1)
           return cs.get(0);
         else
-          return new ListQuery(cs);
-      }
-
-      /**
-       * Unpack exactly one level of parentheses around a query of a given type. This is to unpack,
-       * for example, child AND queries into parent AND queries.
-       */
-      protected Query unpack(Query q, Class<? extends Query> c) {
-        if (q instanceof ParenQuery) {
-          ParenQuery pq = (ParenQuery) q;
-          if (c.isInstance(pq.getChild())) {
-            return pq.getChild();
-          }
-        }
-        return q;
+          return new ListQuery(cs, list.getSpan());
       }
 
       @Override
       public Query not(NotQuery not) {
         Query c = simplify(not.getChild());
-        if (Queries.isVacuous(c))
+        if (c instanceof VacuousQuery)
           return VacuousQuery.INSTANCE;
         else if (c instanceof NotQuery) {
           NotQuery not2 = (NotQuery) c;
           return not2.getChild();
-        } else if (c.equals(not.getChild()))
+        } else if (c == not.getChild())
           return not;
         else
-          return new NotQuery(c);
+          return new NotQuery(c, not.getSpan());
       }
 
       @Override
       public Query paren(ParenQuery paren) {
         Query c = simplify(paren.getChild());
-        if (Queries.isVacuous(c))
+        if (c instanceof VacuousQuery)
           return VacuousQuery.INSTANCE;
         else if (c instanceof ParenQuery || c instanceof TextQuery || c instanceof NotQuery) {
           // These queries are atomic and can safely be unpacked
           return c;
-        } else if (c.equals(paren.getChild()))
+        } else if (c == paren.getChild())
           return paren;
         else
-          return new ParenQuery(c);
+          return new ParenQuery(c, paren.getSpan());
       }
 
       @Override
       public Query text(TextQuery text) {
-        text = new TextQuery(
-            text.getTerms().stream().filter(t -> !Terms.isVacuous(t)).collect(toList()),
-            text.getProximity());
-        if (Queries.isVacuous(text))
+        List<Term> terms = text.getTerms();
+
+        int vacuous = 0;
+        for (int i = 0; i < terms.size(); i++)
+          if (Terms.isVacuous(terms.get(i)))
+            vacuous = vacuous + 1;
+
+        if (vacuous == 0 && !terms.isEmpty())
+          return text;
+
+        List<Term> ts = new ArrayList<>(terms.size() - vacuous);
+        for (int i = 0; i < terms.size(); i++)
+          if (!Terms.isVacuous(terms.get(i)))
+            ts.add(terms.get(i));
+
+        // The constructor checks the remaining terms against the proximity, if any
+        text = new TextQuery(ts, text.getProximity(), text.getSpan());
+        if (ts.isEmpty())
           return VacuousQuery.INSTANCE;
         else
           return text;
@@ -177,6 +145,68 @@ public class SimplifyQueryFilterPipeline extends FilterQueryPipeline {
       public Query vacuous(VacuousQuery vacuous) {
         return vacuous;
       }
-    }).process(q);
+    };
+  }
+
+  @Override
+  protected Query filter(Query query) {
+    return simplify(query);
+  }
+
+  protected Query simplify(Query q) {
+    return q.accept(visitor);
+  }
+
+  /**
+   * Simplifies the given children of an AND, OR, or LIST query of the given type. Vacuous children
+   * are dropped, and children of the same type, with or without one level of parentheses, are
+   * replaced by their own children. Returns null if no child changed, so the parent can be kept as
+   * it is, or else the new children. The new list is only built once the first change is found.
+   */
+  private List<Query> flatten(List<Query> children, Class<? extends Query> type) {
+    List<Query> result = null;
+    for (int i = 0; i < children.size(); i++) {
+      Query child = children.get(i);
+      Query c = unpack(simplify(child), type);
+
+      if (result == null) {
+        if (c == child && !(c instanceof VacuousQuery) && !type.isInstance(c))
+          continue;
+        result = new ArrayList<>(children.size());
+        result.addAll(children.subList(0, i));
+      }
+
+      if (c instanceof VacuousQuery) {
+        // Drop it
+      } else if (type.isInstance(c)) {
+        // Simplified children are already flat, so one level of flattening is enough
+        result.addAll(children(c));
+      } else {
+        result.add(c);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Unpack exactly one level of parentheses around a query of a given type. This is to unpack, for
+   * example, child AND queries into parent AND queries.
+   */
+  private static Query unpack(Query q, Class<? extends Query> c) {
+    if (q instanceof ParenQuery) {
+      ParenQuery pq = (ParenQuery) q;
+      if (c.isInstance(pq.getChild())) {
+        return pq.getChild();
+      }
+    }
+    return q;
+  }
+
+  private static List<Query> children(Query q) {
+    if (q instanceof AndQuery)
+      return ((AndQuery) q).getChildren();
+    if (q instanceof OrQuery)
+      return ((OrQuery) q).getChildren();
+    return ((ListQuery) q).getChildren();
   }
 }
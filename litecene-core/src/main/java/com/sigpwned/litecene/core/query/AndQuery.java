@@ -24,12 +24,20 @@ import static java.util.stream.Collectors.joining;
 import java.util.List;
 import java.util.Objects;
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.Spans;
 
 public class AndQuery extends Query {
   private final List<Query> children;
+  private int hash;
 
   public AndQuery(List<Query> children) {
+    this(children, Spans.NONE);
+  }
+
+  public AndQuery(List<Query> children, long span) {
+    super(span);
     if (children.size() < 2)
       throw new IllegalArgumentException("not enough children");
     this.children = unmodifiableList(children);
@@ -44,13 +52,21 @@ public class AndQuery extends Query {
   }
 
   @Override
-  @Generated
+  public <T> T accept(QueryVisitor<T> visitor) {
+    return visitor.and(this);
+  }
+
+  @Override
   public int hashCode() {
-    return Objects.hash(children);
+    int h = hash;
+    if (h == 0) {
+      h = Objects.hash(children);
+      hash = h;
+    }
+    return h;
   }
 
   @Override
-  @Generated
   public boolean equals(Object obj) {
     if (this == obj)
       return true;
@@ -59,6 +75,8 @@ public class AndQuery extends Query {
     if (getClass() != obj.getClass())
       return false;
     AndQuery other = (AndQuery) obj;
+    if (hashCode() != other.hashCode())
+      return false;
     return Objects.equals(children, other.children);
   }
 
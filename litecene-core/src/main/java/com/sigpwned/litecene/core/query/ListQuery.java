@@ -24,12 +24,20 @@ import static java.util.stream.Collectors.joining;
 import java.util.List;
 import java.util.Objects;
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.Spans;
 
 public class ListQuery extends Query {
   private final List<Query> children;
+  private int hash;
 
   public ListQuery(List<Query> children) {
+    this(children, Spans.NONE);
+  }
+
+  public ListQuery(List<Query> children, long span) {
+    super(span);
     if (children == null)
       throw new NullPointerException();
     if (children.isEmpty())
@@ -46,13 +54,21 @@ public class ListQuery extends Query {
   }
 
   @Override
-  @Generated
+  public <T> T accept(QueryVisitor<T> visitor) {
+    return visitor.list(this);
+  }
+
+  @Override
   public int hashCode() {
-    return Objects.hash(children);
+    int h = hash;
+    if (h == 0) {
+      h = Objects.hash(children);
+      hash = h;
+    }
+    return h;
   }
 
   @Override
-  @Generated
   public boolean equals(Object obj) {
     if (this == obj)
       return true;
@@ -61,6 +77,8 @@ public class ListQuery extends Query {
     if (getClass() != obj.getClass())
       return false;
     ListQuery other = (ListQuery) obj;
+    if (hashCode() != other.hashCode())
+      return false;
     return Objects.equals(children, other.children);
   }
 
@@ -21,12 +21,20 @@ package com.sigpwned.litecene.core.query;
 
 import java.util.Objects;
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.Spans;
 
 public class NotQuery extends Query {
   private final Query child;
+  private int hash;
 
   public NotQuery(Query child) {
+    this(child, Spans.NONE);
+  }
+
+  public NotQuery(Query child, long span) {
+    super(span);
     if (child == null)
       throw new NullPointerException();
     this.child = child;
@@ -41,13 +49,21 @@ public class NotQuery extends Query {
   }
 
   @Override
-  @Generated
+  public <T> T accept(QueryVisitor<T> visitor) {
+    return visitor.not(this);
+  }
+
+  @Override
   public int hashCode() {
-    return Objects.hash(child);
+    int h = hash;
+    if (h == 0) {
+      h = Objects.hash(child);
+      hash = h;
+    }
+    return h;
   }
 
   @Override
-  @Generated
   public boolean equals(Object obj) {
     if (this == obj)
       return true;
@@ -56,6 +72,8 @@ public class NotQuery extends Query {
     if (getClass() != obj.getClass())
       return false;
     NotQuery other = (NotQuery) obj;
+    if (hashCode() != other.hashCode())
+      return false;
     return Objects.equals(child, other.child);
   }
 
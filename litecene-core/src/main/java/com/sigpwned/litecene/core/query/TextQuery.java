@@ -25,18 +25,30 @@ import java.util.List;
 import java.util.Objects;
 import java.util.OptionalInt;
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.Term;
 import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.Spans;
 
 public class TextQuery extends Query {
   private final List<Term> terms;
   private final Integer proximity;
+  private int hash;
 
   public TextQuery(List<Term> terms, OptionalInt proximity) {
-    this(terms, proximity.isPresent() ? proximity.getAsInt() : null);
+    this(terms, proximity, Spans.NONE);
+  }
+
+  public TextQuery(List<Term> terms, OptionalInt proximity, long span) {
+    this(terms, proximity.isPresent() ? proximity.getAsInt() : null, span);
   }
 
   public TextQuery(List<Term> terms, Integer proximity) {
+    this(terms, proximity, Spans.NONE);
+  }
+
+  public TextQuery(List<Term> terms, Integer proximity, long span) {
+    super(span);
     if (terms == null)
       throw new NullPointerException();
     if (terms.isEmpty() && proximity != null)
@@ -65,13 +77,21 @@ public class TextQuery extends Query {
   }
 
   @Override
-  @Generated
+  public <T> T accept(QueryVisitor<T> visitor) {
+    return visitor.text(this);
+  }
+
+  @Override
   public int hashCode() {
-    return Objects.hash(proximity, terms);
+    int h = hash;
+    if (h == 0) {
+      h = Objects.hash(proximity, terms);
+      hash = h;
+    }
+    return h;
   }
 
   @Override
-  @Generated
   public boolean equals(Object obj) {
     if (this == obj)
       return true;
@@ -80,6 +100,8 @@ public class TextQuery extends Query {
     if (getClass() != obj.getClass())
       return false;
     TextQuery other = (TextQuery) obj;
+    if (hashCode() != other.hashCode())
+      return false;
     return Objects.equals(proximity, other.proximity) && Objects.equals(terms, other.terms);
   }
 
@@ -20,11 +20,47 @@
 package com.sigpwned.litecene.core.query;
 
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.Spans;
 
 public class VacuousQuery extends Query {
   public static final VacuousQuery INSTANCE = new VacuousQuery();
 
+  public VacuousQuery() {
+    this(Spans.NONE);
+  }
+
+  /**
+   * Creates a vacuous query that records where it came from, e.g., a phrase whose terms were all
+   * removed by analysis. Otherwise, prefer {@link #INSTANCE}.
+   */
+  public VacuousQuery(long span) {
+    super(span);
+  }
+
+  @Override
+  public <T> T accept(QueryVisitor<T> visitor) {
+    return visitor.vacuous(this);
+  }
+
+  @Override
+  public int hashCode() {
+    return VacuousQuery.class.hashCode();
+  }
+
+  /**
+   * All vacuous queries are equal
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    return getClass() == obj.getClass();
+  }
+
   @Override
   @Generated
   public String toString() {
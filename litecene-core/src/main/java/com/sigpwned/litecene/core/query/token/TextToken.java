@@ -26,17 +26,26 @@ import java.util.OptionalInt;
 import com.sigpwned.litecene.core.Term;
 import com.sigpwned.litecene.core.Token;
 import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.util.Spans;
 
 public class TextToken extends Token {
   private final List<Term> terms;
   private final Integer proximity;
 
   public TextToken(List<Term> terms, OptionalInt proximity) {
-    this(terms, proximity.isPresent() ? Integer.valueOf(proximity.getAsInt()) : null);
+    this(terms, proximity, Spans.NONE);
+  }
+
+  public TextToken(List<Term> terms, OptionalInt proximity, long span) {
+    this(terms, proximity.isPresent() ? Integer.valueOf(proximity.getAsInt()) : null, span);
   }
 
   public TextToken(List<Term> terms, Integer proximity) {
-    super(Token.Type.TEXT);
+    this(terms, proximity, Spans.NONE);
+  }
+
+  public TextToken(List<Term> terms, Integer proximity, long span) {
+    super(Token.Type.TEXT, span);
     if (terms == null)
       throw new NullPointerException();
     if (terms.isEmpty() && proximity != null)
@@ -49,6 +58,11 @@ public class TextToken extends Token {
     this.proximity = proximity;
   }
 
+  @Override
+  public TextToken withSpan(long span) {
+    return new TextToken(terms, proximity, span);
+  }
+
   public OptionalInt getProximity() {
     return proximity != null ? OptionalInt.of(proximity.intValue()) : OptionalInt.empty();
   }
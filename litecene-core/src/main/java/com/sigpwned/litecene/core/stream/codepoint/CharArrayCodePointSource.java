@@ -0,0 +1,83 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint;
+
+import java.util.Objects;
+import com.sigpwned.litecene.core.CodePointStream;
+
+/**
+ * Creates a stream of code points from a range of the given char array without copying it.
+ * Surrogate pairs that straddle the end of the range are not combined. Unpaired surrogates are
+ * returned as-is. The array must not change while it is being read.
+ */
+public class CharArrayCodePointSource implements CodePointStream {
+  private final char[] text;
+  private final int end;
+  private int index;
+
+  public CharArrayCodePointSource(char[] text) {
+    this(text, 0, text.length);
+  }
+
+  /**
+   * @param offset the index of the first char to read
+   * @param length the number of chars to read
+   */
+  public CharArrayCodePointSource(char[] text, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, text.length);
+    this.text = text;
+    this.end = offset + length;
+    this.index = offset;
+  }
+
+  @Override
+  public int peek() {
+    if (index >= end)
+      return EOF;
+    else
+      return Character.codePointAt(text, index, end);
+  }
+
+  @Override
+  public int next() {
+    int result = peek();
+    if (result != EOF)
+      index = index + Character.charCount(result);
+    return result;
+  }
+
+  @Override
+  public int read(int[] buf, int off, int len) {
+    if (len == 0)
+      return 0;
+    if (index >= end)
+      return EOF;
+
+    int count = 0;
+    while (count < len && index < end) {
+      int cp = Character.codePointAt(text, index, end);
+      buf[off + count] = cp;
+      count = count + 1;
+      index = index + Character.charCount(cp);
+    }
+
+    return count;
+  }
+}
@@ -0,0 +1,83 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint;
+
+import java.nio.CharBuffer;
+import com.sigpwned.litecene.core.CodePointStream;
+
+/**
+ * Creates a stream of code points from the remaining chars of the given {@link CharBuffer}, i.e.,
+ * from its position to its limit, without copying it. Works with heap, direct, and read-only
+ * buffers alike. Reads are absolute, so the buffer's position is never changed, and later changes
+ * to the buffer's position or limit have no effect on this stream. Surrogate pairs that straddle the
+ * limit are not combined. Unpaired surrogates are returned as-is.
+ */
+public class CharBufferCodePointSource implements CodePointStream {
+  private final CharBuffer text;
+  private final int end;
+  private int index;
+
+  public CharBufferCodePointSource(CharBuffer text) {
+    this.text = text;
+    this.end = text.limit();
+    this.index = text.position();
+  }
+
+  @Override
+  public int peek() {
+    if (index >= end)
+      return EOF;
+
+    char ch = text.get(index);
+    if (Character.isHighSurrogate(ch) && index + 1 < end) {
+      char lo = text.get(index + 1);
+      if (Character.isLowSurrogate(lo))
+        return Character.toCodePoint(ch, lo);
+    }
+
+    return ch;
+  }
+
+  @Override
+  public int next() {
+    int result = peek();
+    if (result != EOF)
+      index = index + Character.charCount(result);
+    return result;
+  }
+
+  @Override
+  public int read(int[] buf, int off, int len) {
+    if (len == 0)
+      return 0;
+    if (index >= end)
+      return EOF;
+
+    int count = 0;
+    while (count < len && index < end) {
+      int cp = peek();
+      buf[off + count] = cp;
+      count = count + 1;
+      index = index + Character.charCount(cp);
+    }
+
+    return count;
+  }
+}
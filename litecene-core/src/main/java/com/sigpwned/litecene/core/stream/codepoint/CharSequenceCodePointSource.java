@@ -0,0 +1,91 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint;
+
+import java.util.Objects;
+import com.sigpwned.litecene.core.CodePointStream;
+
+/**
+ * Creates a stream of code points from a range of the given {@link CharSequence}, e.g., a
+ * {@link StringBuilder}, without copying it. Surrogate pairs that straddle the end of the range are
+ * not combined, just as if the range had been copied out with {@link CharSequence#subSequence}.
+ * Unpaired surrogates are returned as-is. The text must not change while it is being read.
+ */
+public class CharSequenceCodePointSource implements CodePointStream {
+  private final CharSequence text;
+  private final int end;
+  private int index;
+
+  public CharSequenceCodePointSource(CharSequence text) {
+    this(text, 0, text.length());
+  }
+
+  /**
+   * @param start the index of the first char to read, inclusive
+   * @param end the index of the last char to read, exclusive
+   */
+  public CharSequenceCodePointSource(CharSequence text, int start, int end) {
+    Objects.checkFromToIndex(start, end, text.length());
+    this.text = text;
+    this.end = end;
+    this.index = start;
+  }
+
+  @Override
+  public int peek() {
+    if (index >= end)
+      return EOF;
+
+    char ch = text.charAt(index);
+    if (Character.isHighSurrogate(ch) && index + 1 < end) {
+      char lo = text.charAt(index + 1);
+      if (Character.isLowSurrogate(lo))
+        return Character.toCodePoint(ch, lo);
+    }
+
+    return ch;
+  }
+
+  @Override
+  public int next() {
+    int result = peek();
+    if (result != EOF)
+      index = index + Character.charCount(result);
+    return result;
+  }
+
+  @Override
+  public int read(int[] buf, int off, int len) {
+    if (len == 0)
+      return 0;
+    if (index >= end)
+      return EOF;
+
+    int count = 0;
+    while (count < len && index < end) {
+      int cp = peek();
+      buf[off + count] = cp;
+      count = count + 1;
+      index = index + Character.charCount(cp);
+    }
+
+    return count;
+  }
+}
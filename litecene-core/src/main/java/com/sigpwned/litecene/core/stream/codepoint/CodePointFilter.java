@@ -24,22 +24,69 @@ import com.sigpwned.litecene.core.CodePointStream;
 /**
  * Modifies the upstream {@link CodePointStream} by optionally rewriting characters on a one-to-one
  * basis. Implementations must be stateless and idempotent.
+ * 
+ * The filtered value of a peeked code point is memoized, so repeated calls to {@link #peek()}
+ * followed by a call to {@link #next()} filter each code point only once. Bulk reads filter whole
+ * windows of code points at a time using {@link #filter(int[], int, int)}.
  */
 public abstract class CodePointFilter implements CodePointStream {
+  /**
+   * Marks that no code point has been peeked. Must not be a valid code point or {@link #EOF}.
+   */
+  private static final int NOT_PEEKED = -2;
+
   private final CodePointStream upstream;
 
+  /**
+   * The filtered value of the upstream's current code point, or {@link #NOT_PEEKED}
+   */
+  private int peeked;
+
   protected CodePointFilter(CodePointStream upstream) {
     this.upstream = upstream;
+    this.peeked = NOT_PEEKED;
   }
 
   @Override
   public final int peek() {
-    return filter(getUpstream().peek());
+    if (peeked == NOT_PEEKED)
+      peeked = filter(getUpstream().peek());
+    return peeked;
   }
 
   @Override
   public final int next() {
-    return filter(getUpstream().next());
+    if (peeked == NOT_PEEKED)
+      return filter(getUpstream().next());
+
+    int result = peeked;
+    peeked = NOT_PEEKED;
+    getUpstream().next();
+    return result;
+  }
+
+  @Override
+  public final int read(int[] buf, int off, int len) {
+    if (len == 0)
+      return 0;
+
+    int count = 0;
+    if (peeked != NOT_PEEKED) {
+      if (peeked == EOF)
+        return EOF;
+      buf[off] = peeked;
+      peeked = NOT_PEEKED;
+      getUpstream().next();
+      count = 1;
+    }
+
+    int n = getUpstream().read(buf, off + count, len - count);
+    if (n == EOF)
+      return count == 0 ? EOF : count;
+
+    filter(buf, off + count, n);
+
+    return count + n;
   }
 
   private CodePointStream getUpstream() {
@@ -57,4 +104,14 @@ public abstract class CodePointFilter implements CodePointStream {
   protected int filter(int cp) {
     return cp;
   }
+
+  /**
+   * Filters the given window of code points in place. The default implementation simply calls
+   * {@link #filter(int)} for each code point, but subclasses can override this method with a
+   * faster implementation, which must give the same results.
+   */
+  protected void filter(int[] buf, int off, int len) {
+    for (int i = off; i < off + len; i++)
+      buf[i] = filter(buf[i]);
+  }
 }
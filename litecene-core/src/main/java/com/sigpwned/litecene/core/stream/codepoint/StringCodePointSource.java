@@ -48,4 +48,33 @@ public class StringCodePointSource implements CodePointStream {
       index = index + Character.charCount(result);
     return result;
   }
+
+  @Override
+  public int read(int[] buf, int off, int len) {
+    if (len == 0)
+      return 0;
+
+    String text = this.text;
+    int length = text.length();
+    int index = this.index;
+    if (index >= length)
+      return EOF;
+
+    int count = 0;
+    while (count < len && index < length) {
+      char ch = text.charAt(index);
+      if (Character.isSurrogate(ch)) {
+        int cp = text.codePointAt(index);
+        buf[off + count] = cp;
+        index = index + Character.charCount(cp);
+      } else {
+        buf[off + count] = ch;
+        index = index + 1;
+      }
+      count = count + 1;
+    }
+    this.index = index;
+
+    return count;
+  }
 }
@@ -0,0 +1,205 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint;
+
+import java.nio.ByteBuffer;
+import com.sigpwned.litecene.core.CodePointStream;
+
+/**
+ * Creates a stream of code points by decoding UTF-8 bytes on the fly, without materializing a
+ * {@link String}. Reads the remaining bytes of a {@link ByteBuffer}, i.e., from its position to its
+ * limit, using absolute reads, so the buffer's position is never changed. Works with heap, direct,
+ * and read-only buffers alike.
+ * 
+ * Malformed input is replaced with U+FFFD REPLACEMENT CHARACTER, with exactly the same result as
+ * {@code new String(bytes, StandardCharsets.UTF_8)}, so parsing bytes with this source and parsing
+ * the decoded string always give the same query.
+ */
+public class Utf8CodePointSource implements CodePointStream {
+  public static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+  private static final int UNDECODED = -2;
+
+  private final ByteBuffer bytes;
+  private final int end;
+  private int index;
+
+  /**
+   * The code point at index, or {@link #UNDECODED} if it has not been decoded yet
+   */
+  private int nextCodePoint;
+
+  /**
+   * The number of bytes nextCodePoint was decoded from
+   */
+  private int nextLength;
+
+  public Utf8CodePointSource(byte[] bytes) {
+    this(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * @param offset the index of the first byte to read
+   * @param length the number of bytes to read
+   */
+  public Utf8CodePointSource(byte[] bytes, int offset, int length) {
+    this(ByteBuffer.wrap(bytes, offset, length));
+  }
+
+  public Utf8CodePointSource(ByteBuffer bytes) {
+    this.bytes = bytes;
+    this.end = bytes.limit();
+    this.index = bytes.position();
+    this.nextCodePoint = UNDECODED;
+  }
+
+  @Override
+  public int peek() {
+    if (nextCodePoint == UNDECODED)
+      decode();
+    return nextCodePoint;
+  }
+
+  @Override
+  public int next() {
+    int result = peek();
+    index = index + nextLength;
+    nextCodePoint = UNDECODED;
+    return result;
+  }
+
+  @Override
+  public int read(int[] buf, int off, int len) {
+    if (len == 0)
+      return 0;
+    if (peek() == EOF)
+      return EOF;
+
+    int count = 0;
+    while (count < len && index < end) {
+      // ASCII is by far the most common case, so skip the decoder
+      int b = bytes.get(index);
+      if (b >= 0 && nextCodePoint == UNDECODED) {
+        buf[off + count] = b;
+        index = index + 1;
+      } else {
+        buf[off + count] = next();
+      }
+      count = count + 1;
+    }
+
+    return count;
+  }
+
+  /**
+   * Decodes the code point at index. The handling of malformed input mirrors the JDK's decoder
+   * exactly, which differs from the Unicode recommended practice in a couple of edge cases, e.g.,
+   * encoded surrogates are replaced with one replacement character, not three.
+   */
+  private void decode() {
+    int remaining = end - index;
+    if (remaining <= 0) {
+      decoded(EOF, 0);
+      return;
+    }
+
+    int b1 = byteAt(0);
+    if (b1 < 0x80) {
+      decoded(b1, 1);
+    } else if (b1 >= 0xC2 && b1 <= 0xDF) {
+      if (remaining < 2 || !isContinuation(byteAt(1)))
+        decoded(REPLACEMENT_CHARACTER, 1);
+      else
+        decoded(((b1 & 0x1F) << 6) | (byteAt(1) & 0x3F), 2);
+    } else if (b1 >= 0xE0 && b1 <= 0xEF) {
+      if (remaining >= 3) {
+        int b2 = byteAt(1);
+        int b3 = byteAt(2);
+        if (isOverlong3(b1, b2) || !isContinuation(b2)) {
+          decoded(REPLACEMENT_CHARACTER, 1);
+        } else if (!isContinuation(b3)) {
+          decoded(REPLACEMENT_CHARACTER, 2);
+        } else {
+          int cp = ((b1 & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+          decoded(Character.isSurrogate((char) cp) ? REPLACEMENT_CHARACTER : cp, 3);
+        }
+      } else if (remaining == 2 && (isOverlong3(b1, byteAt(1)) || !isContinuation(byteAt(1)))) {
+        decoded(REPLACEMENT_CHARACTER, 1);
+      } else {
+        // Truncated sequence at end of input
+        decoded(REPLACEMENT_CHARACTER, remaining);
+      }
+    } else if (b1 >= 0xF0 && b1 <= 0xF7) {
+      if (remaining >= 4) {
+        int b2 = byteAt(1);
+        int b3 = byteAt(2);
+        int b4 = byteAt(3);
+        int cp = ((b1 & 0x07) << 18) | ((b2 & 0x3F) << 12) | ((b3 & 0x3F) << 6) | (b4 & 0x3F);
+        if (isContinuation(b2) && isContinuation(b3) && isContinuation(b4)
+            && Character.isSupplementaryCodePoint(cp)) {
+          decoded(cp, 4);
+        } else if (isMalformed4(b1, b2)) {
+          decoded(REPLACEMENT_CHARACTER, 1);
+        } else if (!isContinuation(b3)) {
+          decoded(REPLACEMENT_CHARACTER, 2);
+        } else {
+          decoded(REPLACEMENT_CHARACTER, 3);
+        }
+      } else if (b1 > 0xF4 || (remaining >= 2 && isMalformed4(b1, byteAt(1)))) {
+        decoded(REPLACEMENT_CHARACTER, 1);
+      } else if (remaining == 3 && !isContinuation(byteAt(2))) {
+        decoded(REPLACEMENT_CHARACTER, 2);
+      } else {
+        // Truncated sequence at end of input
+        decoded(REPLACEMENT_CHARACTER, remaining);
+      }
+    } else {
+      decoded(REPLACEMENT_CHARACTER, 1);
+    }
+  }
+
+  private void decoded(int cp, int length) {
+    nextCodePoint = cp;
+    nextLength = length;
+  }
+
+  private int byteAt(int offset) {
+    return bytes.get(index + offset) & 0xFF;
+  }
+
+  private static boolean isContinuation(int b) {
+    return (b & 0xC0) == 0x80;
+  }
+
+  /**
+   * Three-byte sequences starting with E0 must have a second byte of at least A0
+   */
+  private static boolean isOverlong3(int b1, int b2) {
+    return b1 == 0xE0 && (b2 & 0xE0) == 0x80;
+  }
+
+  /**
+   * Returns true if the given first two bytes of a four-byte sequence cannot start a valid sequence
+   */
+  private static boolean isMalformed4(int b1, int b2) {
+    return b1 > 0xF4 || (b1 == 0xF0 && (b2 < 0x90 || b2 > 0xBF))
+        || (b1 == 0xF4 && (b2 & 0xF0) != 0x80) || !isContinuation(b2);
+  }
+}
@@ -0,0 +1,153 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint.filter;
+
+import static java.util.Collections.unmodifiableMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import com.sigpwned.litecene.core.linting.Generated;
+
+/**
+ * An immutable one-to-one mapping of code points to code points, for use with
+ * {@link MappingCodePointFilter}. Code points not in the mapping map to themselves. Lookups cost the
+ * same no matter how many code points are mapped.
+ * 
+ * BMP code points are looked up in a two-level table of 256-entry pages, where only pages that
+ * contain mapped code points are allocated. Supplementary code points are rare, so they are looked
+ * up in a sorted table with binary search instead.
+ * 
+ * Mappings must be idempotent, i.e., every code point a code point maps to must map to itself, so
+ * that filtering text twice gives the same result as filtering it once.
+ */
+public class CodePointMapping {
+  private static final int PAGE_SHIFT = 8;
+  private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+  private static final int PAGE_COUNT = (Character.MAX_VALUE + 1) >>> PAGE_SHIFT;
+
+  public static CodePointMapping of(Map<Integer, Integer> mappings) {
+    return new CodePointMapping(mappings);
+  }
+
+  /**
+   * Returns a mapping that contains all of the mappings of the given mappings. The mappings must not
+   * conflict with each other.
+   */
+  public static CodePointMapping union(CodePointMapping... mappings) {
+    Map<Integer, Integer> result = new TreeMap<>();
+    for (CodePointMapping mapping : mappings) {
+      for (Map.Entry<Integer, Integer> e : mapping.getMappings().entrySet()) {
+        Integer existing = result.putIfAbsent(e.getKey(), e.getValue());
+        if (existing != null && !existing.equals(e.getValue()))
+          throw new IllegalArgumentException("conflicting mappings for code point " + e.getKey());
+      }
+    }
+    return new CodePointMapping(result);
+  }
+
+  private final Map<Integer, Integer> mappings;
+
+  /**
+   * Pages of the BMP table, or null for pages with no mapped code points
+   */
+  private final int[][] pages;
+
+  /**
+   * Mapped supplementary code points, sorted
+   */
+  private final int[] supplementaryKeys;
+
+  /**
+   * The code points the corresponding supplementaryKeys map to
+   */
+  private final int[] supplementaryValues;
+
+  public CodePointMapping(Map<Integer, Integer> mappings) {
+    Map<Integer, Integer> sorted = new TreeMap<>(mappings);
+    for (Map.Entry<Integer, Integer> e : sorted.entrySet()) {
+      int from = e.getKey();
+      int to = e.getValue();
+      if (!Character.isValidCodePoint(from) || !Character.isValidCodePoint(to))
+        throw new IllegalArgumentException("invalid code point in mapping " + from + " -> " + to);
+      if (from != to && sorted.containsKey(to) && sorted.get(to).intValue() != to)
+        throw new IllegalArgumentException("mapping is not idempotent for code point " + from);
+    }
+
+    int[][] pages = new int[PAGE_COUNT][];
+    int supplementaryCount = 0;
+    for (Map.Entry<Integer, Integer> e : sorted.entrySet()) {
+      int from = e.getKey();
+      if (Character.isBmpCodePoint(from)) {
+        int[] page = pages[from >>> PAGE_SHIFT];
+        if (page == null) {
+          page = new int[PAGE_SIZE];
+          int base = from & ~PAGE_MASK;
+          for (int i = 0; i < PAGE_SIZE; i++)
+            page[i] = base + i;
+          pages[from >>> PAGE_SHIFT] = page;
+        }
+        page[from & PAGE_MASK] = e.getValue();
+      } else {
+        supplementaryCount = supplementaryCount + 1;
+      }
+    }
+
+    int[] supplementaryKeys = new int[supplementaryCount];
+    int[] supplementaryValues = new int[supplementaryCount];
+    int i = 0;
+    for (Map.Entry<Integer, Integer> e : sorted.entrySet()) {
+      if (!Character.isBmpCodePoint(e.getKey())) {
+        supplementaryKeys[i] = e.getKey();
+        supplementaryValues[i] = e.getValue();
+        i = i + 1;
+      }
+    }
+
+    this.mappings = unmodifiableMap(sorted);
+    this.pages = pages;
+    this.supplementaryKeys = supplementaryKeys;
+    this.supplementaryValues = supplementaryValues;
+  }
+
+  /**
+   * Returns the code point the given code point maps to. Values that are not code points, like
+   * {@link com.sigpwned.litecene.core.CodePointStream#EOF}, map to themselves.
+   */
+  public int map(int cp) {
+    if (cp >= 0 && cp <= Character.MAX_VALUE) {
+      int[] page = pages[cp >>> PAGE_SHIFT];
+      return page == null ? cp : page[cp & PAGE_MASK];
+    } else if (cp > Character.MAX_VALUE && supplementaryKeys.length != 0) {
+      int index = Arrays.binarySearch(supplementaryKeys, cp);
+      return index >= 0 ? supplementaryValues[index] : cp;
+    } else {
+      return cp;
+    }
+  }
+
+  /**
+   * @return the mappings
+   */
+  @Generated
+  public Map<Integer, Integer> getMappings() {
+    return mappings;
+  }
+}
@@ -0,0 +1,61 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint.filter;
+
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.stream.codepoint.CodePointFilter;
+
+/**
+ * Replaces code points according to a {@link CodePointMapping}. Code points the mapping does not
+ * mention pass through unchanged. Filtering costs the same per code point no matter how many code
+ * points the mapping covers, so prefer one filter with a combined mapping, e.g. from
+ * {@link CodePointMapping#union(CodePointMapping...)}, over a stack of filters.
+ */
+public class MappingCodePointFilter extends CodePointFilter {
+  private final CodePointMapping mapping;
+
+  public MappingCodePointFilter(CodePointStream upstream, CodePointMapping mapping) {
+    super(upstream);
+    if (mapping == null)
+      throw new NullPointerException();
+    this.mapping = mapping;
+  }
+
+  @Override
+  protected int filter(int cp) {
+    return mapping.map(cp);
+  }
+
+  @Override
+  protected void filter(int[] buf, int off, int len) {
+    CodePointMapping mapping = this.mapping;
+    for (int i = off; i < off + len; i++)
+      buf[i] = mapping.map(buf[i]);
+  }
+
+  /**
+   * @return the mapping
+   */
+  @Generated
+  public CodePointMapping getMapping() {
+    return mapping;
+  }
+}
@@ -19,14 +19,14 @@
  */
 package com.sigpwned.litecene.core.stream.codepoint.filter;
 
+import java.util.Map;
 import com.sigpwned.litecene.core.CodePointStream;
-import com.sigpwned.litecene.core.stream.codepoint.CodePointFilter;
 import com.sigpwned.litecene.core.util.Syntax;
 
 /**
  * Replaces "smart quotes" with "dumb quotes"
  */
-public class SmartQuotesCodePointFilter extends CodePointFilter {
+public class SmartQuotesCodePointFilter extends MappingCodePointFilter {
   /**
    * The double quote metacharacter in litecene syntax
    */
@@ -46,16 +46,14 @@ public class SmartQuotesCodePointFilter extends CodePointFilter {
    */
   public static final int RIGHT_DOUBLE_QUOTATION_MARK = '\u201D';
 
-  public SmartQuotesCodePointFilter(CodePointStream upstream) {
-    super(upstream);
-  }
+  /**
+   * Maps both smart quotes to the straight quote
+   */
+  public static final CodePointMapping MAPPING =
+      CodePointMapping.of(Map.of(LEFT_DOUBLE_QUOTATION_MARK, QUOTATION_MARK,
+          RIGHT_DOUBLE_QUOTATION_MARK, QUOTATION_MARK));
 
-  @Override
-  protected int filter(int cp) {
-    if (cp == LEFT_DOUBLE_QUOTATION_MARK)
-      return QUOTATION_MARK;
-    if (cp == RIGHT_DOUBLE_QUOTATION_MARK)
-      return QUOTATION_MARK;
-    return cp;
+  public SmartQuotesCodePointFilter(CodePointStream upstream) {
+    super(upstream, MAPPING);
   }
 }
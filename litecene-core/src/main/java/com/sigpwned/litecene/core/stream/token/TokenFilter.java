@@ -25,22 +25,49 @@ import com.sigpwned.litecene.core.TokenStream;
 /**
  * Modifies the upstream {@link TokenStream} by optionally rewriting tokens on a one-to-one basis.
  * Implementations must be stateless and idempotent.
+ * 
+ * Filtered tokens are memoized, so repeated calls to {@link #peek()} followed by a call to
+ * {@link #next()} filter each upstream token only once, no matter how many filters are chained.
  */
 public abstract class TokenFilter implements TokenStream {
   private final TokenStream upstream;
 
+  /**
+   * The upstream token most recently passed to {@link #filter(Token)}, or null
+   */
+  private Token upstreamToken;
+
+  /**
+   * The result of filtering {@link #upstreamToken}
+   */
+  private Token filteredToken;
+
   protected TokenFilter(TokenStream upstream) {
     this.upstream = upstream;
   }
 
   @Override
   public final Token peek() {
-    return filter(getUpstream().peek());
+    return memoizedFilter(getUpstream().peek());
   }
 
   @Override
   public final Token next() {
-    return filter(getUpstream().next());
+    return memoizedFilter(getUpstream().next());
+  }
+
+  /**
+   * Streams generally return the same token instance from {@link #peek()} and the following
+   * {@link #next()}, and {@link #filter(Token)} is stateless, so we only need to filter a token when
+   * we see a new instance. If an upstream stream returns a new instance anyway, then we simply
+   * filter it again.
+   */
+  private Token memoizedFilter(Token token) {
+    if (token != upstreamToken) {
+      filteredToken = filter(token);
+      upstreamToken = token;
+    }
+    return filteredToken;
   }
 
   /**
@@ -19,21 +19,27 @@
  */
 package com.sigpwned.litecene.core.stream.token;
 
-import static java.util.stream.Collectors.toList;
+import static java.util.Collections.singletonList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.OptionalInt;
-import java.util.stream.Stream;
 import com.sigpwned.litecene.core.CodePointStream;
 import com.sigpwned.litecene.core.Term;
 import com.sigpwned.litecene.core.Token;
 import com.sigpwned.litecene.core.TokenStream;
 import com.sigpwned.litecene.core.exception.EofException;
 import com.sigpwned.litecene.core.exception.InvalidProximityException;
+import com.sigpwned.litecene.core.exception.InvalidWildcardException;
 import com.sigpwned.litecene.core.query.token.TextToken;
 import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.util.Spans;
 import com.sigpwned.litecene.core.util.Syntax;
 
 /**
- * Implements whitespace-separated and metacharacter recognition tokenization.
+ * Implements whitespace-separated and metacharacter recognition tokenization. Every token except
+ * {@link Token#EOF} records its span, in UTF-16 code units from the start of the stream, and so does
+ * every exception for invalid syntax.
  */
 public class Tokenizer implements TokenStream {
   public static Tokenizer forString(String s) {
@@ -45,13 +51,40 @@ public class Tokenizer implements TokenStream {
   }
 
 
+  /**
+   * The number of code points to read from the stream at a time
+   */
+  private static final int WINDOW_SIZE = 64;
+
   private final CodePointStream stream;
   private Token next;
   private StringBuilder buf;
 
+  /**
+   * Code points read from the stream in bulk. The code points from windowPosition (inclusive) to
+   * windowLimit (exclusive) have been read from the stream but not yet consumed.
+   */
+  private final int[] window;
+  private int windowPosition;
+  private int windowLimit;
+
+  /**
+   * The offset, in UTF-16 code units from the start of the stream, of the next code point to be
+   * consumed
+   */
+  private int offset;
+
+  /**
+   * The offset of the first code point of the token being scanned
+   */
+  private int start;
+
   public Tokenizer(CodePointStream stream) {
     this.stream = stream;
     this.buf = new StringBuilder();
+    this.window = new int[WINDOW_SIZE];
+    this.windowPosition = 0;
+    this.windowLimit = 0;
   }
 
   public Token peek() {
@@ -66,11 +99,34 @@ public class Tokenizer implements TokenStream {
     return result;
   }
 
+  /**
+   * Discards any lookahead, including code points read from the stream but not yet consumed, and
+   * starts counting offsets from zero again. Useful when the underlying stream has been pointed at
+   * new text.
+   */
+  public void reset() {
+    reset(0);
+  }
+
+  /**
+   * Like {@link #reset()}, but starts counting offsets from the given offset. Useful when the
+   * underlying stream has been pointed at the middle of a text, so spans are relative to the whole
+   * text.
+   */
+  public void reset(int offset) {
+    this.next = null;
+    this.windowPosition = 0;
+    this.windowLimit = 0;
+    this.offset = offset;
+  }
+
   private static final int LPAREN = Syntax.LPAREN;
   private static final int RPAREN = Syntax.RPAREN;
   private static final int QUOTE = Syntax.QUOTE;
   private static final int TILDE = Syntax.TILDE;
 
+  private static final int STAR = '*';
+
   private static final String AND = Syntax.AND;
   private static final String OR = Syntax.OR;
   private static final String NOT = Syntax.NOT;
@@ -78,75 +134,193 @@ public class Tokenizer implements TokenStream {
   private Token tok() {
     ws();
 
-    if (!stream.hasNext())
+    if (!hasNextCodePoint())
       return Token.EOF;
 
-    int cp = stream.next();
+    start = offset;
+    int cp = nextCodePoint();
     switch (cp) {
       case LPAREN:
-        return Token.LPAREN;
+        return Token.LPAREN.withSpan(span());
       case RPAREN:
-        return Token.RPAREN;
-      case QUOTE: {
-        buf.setLength(0);
-        while (stream.hasNext() && stream.peek() != QUOTE) {
-          buf.appendCodePoint(stream.next());
-        }
-        if (!stream.hasNext())
-          throw new EofException();
-        stream.next(); // QUOTE
-
-        String text = buf.toString();
-
-        Integer proximity;
-        if (stream.peek() == TILDE) {
-          stream.next(); // TILDE
-          if (!Character.isDigit(stream.peek()))
-            throw new InvalidProximityException();
-
-          buf.setLength(0);
-          do {
-            buf.appendCodePoint(stream.next());
-          } while (Character.isDigit(stream.peek()));
-
-          try {
-            proximity = Integer.parseInt(buf.toString());
-          } catch (NumberFormatException e) {
-            throw new InvalidProximityException();
-          }
-
-          if (proximity == 0)
-            throw new InvalidProximityException();
-        } else {
-          proximity = null;
-        }
+        return Token.RPAREN.withSpan(span());
+      case QUOTE:
+        return phrase();
+      default:
+        return term(cp);
+    }
+  }
 
-        return new TextToken(
-            Syntax.WHITESPACE.splitAsStream(text.strip()).map(Term::fromString).collect(toList()),
-            proximity);
-      }
-      default: {
-        buf.setLength(0);
-        buf.appendCodePoint(cp);
-        while (stream.hasNext() && termy(stream.peek())) {
-          buf.appendCodePoint(stream.next());
-        }
+  /**
+   * Scans a phrase, i.e., quoted terms with optional proximity. The opening quote has already been
+   * consumed. The terms are built directly from the scan: whitespace ends terms, and each term's
+   * wildcard is checked as it ends.
+   */
+  private Token phrase() {
+    buf.setLength(0);
+    termCount = 0;
+    boolean invalidWildcard = false;
 
-        String text = buf.toString();
-
-        switch (text) {
-          case AND:
-            return Token.AND;
-          case OR:
-            return Token.OR;
-          case NOT:
-            return Token.NOT;
-          default:
-            return new TextToken(Stream.of(text.strip()).map(Term::fromString).collect(toList()),
-                OptionalInt.empty());
+    int termStart = -1;
+    int stars = 0;
+    while (hasNextCodePoint() && peekCodePoint() != QUOTE) {
+      int cp = nextCodePoint();
+      if (Character.isWhitespace(cp)) {
+        if (termStart != -1) {
+          invalidWildcard = endTerm(termStart, stars) || invalidWildcard;
+          termStart = -1;
+          stars = 0;
         }
+      } else {
+        if (termStart == -1)
+          termStart = buf.length();
+        if (cp == STAR)
+          stars = stars + 1;
+        buf.appendCodePoint(cp);
+      }
+    }
+    if (!hasNextCodePoint())
+      throw new EofException(span());
+    nextCodePoint(); // QUOTE
+    if (termStart != -1)
+      invalidWildcard = endTerm(termStart, stars) || invalidWildcard;
+
+    Integer proximity;
+    if (peekCodePoint() == TILDE) {
+      nextCodePoint(); // TILDE
+      proximity = proximity();
+    } else {
+      proximity = null;
+    }
+
+    // A proximity must leave room for all the terms. An empty phrase still has one term.
+    if (proximity != null && proximity < Math.max(termCount, 1))
+      throw new InvalidProximityException(span());
+
+    // Proximity errors take precedence over wildcard errors
+    if (invalidWildcard)
+      throw new InvalidWildcardException(span());
+
+    List<Term> terms;
+    if (termCount == 0) {
+      // An empty phrase has one empty term
+      terms = singletonList(new Term("", false));
+    } else if (termCount == 1) {
+      terms = singletonList(scannedTerm(0));
+    } else {
+      terms = new ArrayList<>(termCount);
+      for (int i = 0; i < termCount; i++)
+        terms.add(scannedTerm(i));
+    }
+
+    return new TextToken(terms, proximity, span());
+  }
+
+  /**
+   * Scans a proximity, i.e., the digits after a phrase's tilde, which has already been consumed.
+   */
+  private int proximity() {
+    if (!Character.isDigit(peekCodePoint()))
+      throw new InvalidProximityException(span());
+
+    long result = 0;
+    boolean valid = true;
+    do {
+      int cp = nextCodePoint();
+      if (Character.isBmpCodePoint(cp) && valid) {
+        result = 10 * result + Character.digit(cp, 10);
+        valid = result <= Integer.MAX_VALUE;
+      } else {
+        // Integer.parseInt only understands digits in the BMP
+        valid = false;
       }
+    } while (Character.isDigit(peekCodePoint()));
+
+    if (!valid || result == 0)
+      throw new InvalidProximityException(span());
+
+    return (int) result;
+  }
+
+  /**
+   * Scans a bare term or keyword. The given first code point has already been consumed.
+   */
+  private Token term(int cp) {
+    buf.setLength(0);
+    buf.appendCodePoint(cp);
+    int stars = cp == STAR ? 1 : 0;
+    while (hasNextCodePoint() && termy(peekCodePoint())) {
+      int next = nextCodePoint();
+      if (next == STAR)
+        stars = stars + 1;
+      buf.appendCodePoint(next);
     }
+
+    if (bufferEquals(AND))
+      return Token.AND.withSpan(span());
+    if (bufferEquals(OR))
+      return Token.OR.withSpan(span());
+    if (bufferEquals(NOT))
+      return Token.NOT.withSpan(span());
+
+    termCount = 0;
+    if (endTerm(0, stars))
+      throw new InvalidWildcardException(span());
+
+    return new TextToken(singletonList(scannedTerm(0)), OptionalInt.empty(), span());
+  }
+
+  /**
+   * The number of terms scanned so far in the current token
+   */
+  private int termCount;
+
+  /**
+   * The start (inclusive) and end (exclusive) offsets in buf of each scanned term's text, not
+   * including any trailing wildcard, interleaved, followed by 1 if the term is a wildcard or 0
+   * otherwise
+   */
+  private int[] termBounds = new int[3 * 8];
+
+  /**
+   * Records the term from the given offset to the end of buf. Returns true if the term has an
+   * invalid wildcard, i.e., a star anywhere other than at the end, or false otherwise.
+   */
+  private boolean endTerm(int start, int stars) {
+    int end = buf.length();
+    boolean wildcard = buf.charAt(end - 1) == STAR;
+
+    if (3 * termCount + 3 > termBounds.length)
+      termBounds = Arrays.copyOf(termBounds, 2 * termBounds.length);
+    termBounds[3 * termCount + 0] = start;
+    termBounds[3 * termCount + 1] = wildcard ? end - 1 : end;
+    termBounds[3 * termCount + 2] = wildcard ? 1 : 0;
+    termCount = termCount + 1;
+
+    return stars > (wildcard ? 1 : 0);
+  }
+
+  private Term scannedTerm(int index) {
+    int start = termBounds[3 * index + 0];
+    int end = termBounds[3 * index + 1];
+    boolean wildcard = termBounds[3 * index + 2] != 0;
+    return new Term(buf.substring(start, end), wildcard);
+  }
+
+  /**
+   * Returns the span from the start of the current token to the current offset
+   */
+  private long span() {
+    return Spans.of(start, offset);
+  }
+
+  private boolean bufferEquals(String s) {
+    if (buf.length() != s.length())
+      return false;
+    for (int i = 0; i < s.length(); i++)
+      if (buf.charAt(i) != s.charAt(i))
+        return false;
+    return true;
   }
 
   /**
@@ -171,8 +345,39 @@ public class Tokenizer implements TokenStream {
     }
   }
 
+  private int peekCodePoint() {
+    if (windowPosition == windowLimit && !fill())
+      return CodePointStream.EOF;
+    return window[windowPosition];
+  }
+
+  private int nextCodePoint() {
+    int result = peekCodePoint();
+    if (result != CodePointStream.EOF) {
+      windowPosition = windowPosition + 1;
+      offset = offset + Character.charCount(result);
+    }
+    return result;
+  }
+
+  private boolean hasNextCodePoint() {
+    return peekCodePoint() != CodePointStream.EOF;
+  }
+
+  /**
+   * Reads the next window of code points from the stream. Returns false if the stream is exhausted.
+   */
+  private boolean fill() {
+    int count = stream.read(window, 0, window.length);
+    if (count == CodePointStream.EOF)
+      return false;
+    windowPosition = 0;
+    windowLimit = count;
+    return true;
+  }
+
   private void ws() {
-    while (stream.hasNext() && Character.isWhitespace(stream.peek()))
-      stream.next();
+    while (hasNextCodePoint() && Character.isWhitespace(peekCodePoint()))
+      nextCodePoint();
   }
 }
@@ -0,0 +1,53 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.token.filter;
+
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.analysis.AnalysisChain;
+import com.sigpwned.litecene.core.linting.Generated;
+
+/**
+ * Processes the terms of text tokens with an {@link AnalysisChain}. Produces exactly the same tokens
+ * as a chain of {@link TextProcessingTokenFilter}s running the same stages, but analyzes each term
+ * in a single pass and builds at most one new token per text token.
+ */
+public class AnalysisTokenFilter extends TextProcessingTokenFilter {
+  private final AnalysisChain chain;
+
+  public AnalysisTokenFilter(TokenStream upstream, AnalysisChain chain) {
+    super(upstream);
+    if (chain == null)
+      throw new NullPointerException();
+    this.chain = chain;
+  }
+
+  @Override
+  protected String process(String text) {
+    return chain.analyze(text);
+  }
+
+  /**
+   * @return the chain
+   */
+  @Generated
+  public AnalysisChain getChain() {
+    return chain;
+  }
+}
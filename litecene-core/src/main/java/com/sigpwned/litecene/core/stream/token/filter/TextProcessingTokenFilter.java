@@ -19,7 +19,7 @@
  */
 package com.sigpwned.litecene.core.stream.token.filter;
 
-import static java.util.stream.Collectors.toList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalInt;
 import com.sigpwned.litecene.core.Term;
@@ -30,7 +30,8 @@ import com.sigpwned.litecene.core.stream.token.TokenFilter;
 import com.sigpwned.litecene.core.util.Terms;
 
 /**
- * Rewrite text tokens only (i.e., term and phrase)
+ * Rewrite text tokens only (i.e., term and phrase). Tokens that processing does not change are
+ * returned as-is.
  */
 public abstract class TextProcessingTokenFilter extends TokenFilter {
   protected TextProcessingTokenFilter(TokenStream upstream) {
@@ -45,20 +46,38 @@ public abstract class TextProcessingTokenFilter extends TokenFilter {
 
         List<Term> originalTerms = text.getTerms();
 
-        int originalSize = originalTerms.stream().mapToInt(Terms::size).sum();
+        int originalSize = 0;
+        int processedSize = 0;
+        boolean changed = false;
+        List<Term> processedTerms = new ArrayList<>(originalTerms.size());
+        for (Term originalTerm : originalTerms) {
+          originalSize = originalSize + Terms.size(originalTerm);
 
-        List<Term> processedTerms =
-            originalTerms.stream().map(t -> new Term(process(t.getText()), t.isWildcard()))
-                .filter(t -> !Terms.isVacuous(t)).collect(toList());
+          // Processing returns the original text when it has nothing to do, which is the common
+          // case, so we can keep the original term.
+          String processedText = process(originalTerm.getText());
+          if (processedText == originalTerm.getText()) {
+            processedSize = processedSize + Terms.size(originalTerm);
+            processedTerms.add(originalTerm);
+          } else {
+            changed = true;
+            Term processedTerm = new Term(processedText, originalTerm.isWildcard());
+            if (!Terms.isVacuous(processedTerm)) {
+              processedSize = processedSize + Terms.size(processedTerm);
+              processedTerms.add(processedTerm);
+            }
+          }
+        }
 
-        int processedSize = processedTerms.stream().mapToInt(Terms::size).sum();
+        if (!changed)
+          return token;
 
         if (text.getProximity().isPresent()) {
           int originalProximity = text.getProximity().getAsInt();
           int processedProximity = originalProximity + processedSize - originalSize;
-          return new TextToken(processedTerms, processedProximity);
+          return new TextToken(processedTerms, processedProximity, text.getSpan());
         } else {
-          return new TextToken(processedTerms, OptionalInt.empty());
+          return new TextToken(processedTerms, OptionalInt.empty(), text.getSpan());
         }
       }
       case AND:
@@ -73,5 +92,9 @@ public abstract class TextProcessingTokenFilter extends TokenFilter {
     }
   }
 
+  /**
+   * Processes the text of one term. Implementations should return the given string itself if
+   * processing does not change it, in which case the term, and possibly the whole token, is reused.
+   */
   protected abstract String process(String text);
 }
@@ -19,8 +19,8 @@
  */
 package com.sigpwned.litecene.core.stream.token.filter.text;
 
-import java.util.regex.Pattern;
 import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.analysis.LetterNumberAnalysisStage;
 import com.sigpwned.litecene.core.stream.token.filter.TextProcessingTokenFilter;
 
 /**
@@ -32,10 +32,10 @@ public class LetterNumberTokenFilter extends TextProcessingTokenFilter {
     super(upstream);
   }
 
-  private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private final LetterNumberAnalysisStage stage = new LetterNumberAnalysisStage();
 
   @Override
   protected String process(String text) {
-    return NON_ALNUM.matcher(text).replaceAll(" ").strip();
+    return stage.analyze(text);
   }
 }
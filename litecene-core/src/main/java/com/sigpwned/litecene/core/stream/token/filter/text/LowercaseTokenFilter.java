@@ -19,8 +19,8 @@
  */
 package com.sigpwned.litecene.core.stream.token.filter.text;
 
-import java.util.Locale;
 import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.analysis.LowercaseAnalysisStage;
 import com.sigpwned.litecene.core.stream.token.filter.TextProcessingTokenFilter;
 
 /**
@@ -31,8 +31,10 @@ public class LowercaseTokenFilter extends TextProcessingTokenFilter {
     super(upstream);
   }
 
+  private final LowercaseAnalysisStage stage = new LowercaseAnalysisStage();
+
   @Override
   protected String process(String text) {
-    return text.toLowerCase(Locale.US);
+    return stage.analyze(text);
   }
 }
@@ -19,9 +19,8 @@
  */
 package com.sigpwned.litecene.core.stream.token.filter.text;
 
-import java.text.Normalizer;
-import java.util.regex.Pattern;
 import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.analysis.NormalizeAnalysisStage;
 import com.sigpwned.litecene.core.stream.token.filter.TextProcessingTokenFilter;
 
 /**
@@ -33,14 +32,10 @@ public class NormalizeTokenFilter extends TextProcessingTokenFilter {
     super(upstream);
   }
 
-  /**
-   * Recognizes a single character in the Unicode mark category
-   */
-  private static final Pattern MARK = Pattern.compile("\\p{M}");
-
+  private final NormalizeAnalysisStage stage = new NormalizeAnalysisStage();
 
   @Override
   protected String process(String text) {
-    return MARK.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+    return stage.analyze(text);
   }
 }
@@ -19,8 +19,8 @@
  */
 package com.sigpwned.litecene.core.stream.token.filter.text;
 
-import java.util.regex.Pattern;
 import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.analysis.PrintableAsciiAnalysisStage;
 import com.sigpwned.litecene.core.stream.token.filter.TextProcessingTokenFilter;
 
 /**
@@ -33,10 +33,10 @@ public class PrintableAsciiTokenFilter extends TextProcessingTokenFilter {
     super(upstream);
   }
 
-  private static final Pattern NON_PRINTABLE_ASCII = Pattern.compile("[^\\u0020-\\u007E]+");
+  private final PrintableAsciiAnalysisStage stage = new PrintableAsciiAnalysisStage();
 
   @Override
   protected String process(String text) {
-    return NON_PRINTABLE_ASCII.matcher(text).replaceAll(" ").strip();
+    return stage.analyze(text);
   }
 }
@@ -0,0 +1,280 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+import com.sigpwned.litecene.core.linting.Generated;
+
+/**
+ * A thread-safe cache bounded both by its number of entries and by the total weight of its entries,
+ * which evicts the least recently used entries first to stay within both bounds. Values are
+ * computed on a miss by a loader, and a value that fails to load is not cached.
+ *
+ * Entries are split across segments by hash, each with its own lock, so threads looking up
+ * different keys rarely contend. Each segment enforces its own share of the size bound, so more
+ * segments means less contention but less exact eviction. The weight bound is shared by all
+ * segments, so any entry no heavier than the whole bound can be cached: when an entry pushes the
+ * total weight over the bound, entries are evicted from its own segment first, least recently used
+ * first, and then from the other segments in turn. The total weight can briefly exceed the bound
+ * while this happens. No lock is held while loading, so two threads that miss on the same key at
+ * the same time may both load it, and the first to finish wins.
+ */
+public class BoundedCache<K, V> {
+  /**
+   * The number of segments a cache has unless told otherwise
+   */
+  public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+  private final int maximumSize;
+  private final long maximumWeight;
+  private final ToIntBiFunction<? super K, ? super V> weigher;
+  private final Segment[] segments;
+
+  /**
+   * The total weight of the entries in all segments
+   */
+  private final AtomicLong weight;
+
+  private final LongAdder hitCount;
+  private final LongAdder missCount;
+  private final LongAdder evictionCount;
+
+  /**
+   * @param weigher measures how much of the cache an entry uses, which must not be negative
+   */
+  public BoundedCache(int maximumSize, long maximumWeight,
+      ToIntBiFunction<? super K, ? super V> weigher, int concurrencyLevel) {
+    if (maximumSize < 1)
+      throw new IllegalArgumentException("maximumSize must be positive");
+    if (maximumWeight < 1L)
+      throw new IllegalArgumentException("maximumWeight must be positive");
+    if (weigher == null)
+      throw new NullPointerException();
+    if (concurrencyLevel < 1)
+      throw new IllegalArgumentException("concurrencyLevel must be positive");
+    this.maximumSize = maximumSize;
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+    this.weight = new AtomicLong();
+    this.hitCount = new LongAdder();
+    this.missCount = new LongAdder();
+    this.evictionCount = new LongAdder();
+
+    // Small caches get fewer segments, so that every segment can hold at least one entry
+    int segmentCount = Math.min(concurrencyLevel, maximumSize);
+    @SuppressWarnings("unchecked")
+    Segment[] ss = (Segment[]) new BoundedCache.Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int size = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+      ss[i] = new Segment(size);
+    }
+    this.segments = ss;
+  }
+
+  /**
+   * Returns the value cached for the given key, loading and caching it first if there is none
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    if (key == null)
+      throw new NullPointerException();
+    if (loader == null)
+      throw new NullPointerException();
+
+    int index = segmentFor(key);
+    Segment segment = segments[index];
+
+    V result = segment.get(key);
+    if (result != null) {
+      hitCount.increment();
+      return result;
+    }
+
+    missCount.increment();
+    result = loader.apply(key);
+    if (result == null)
+      throw new NullPointerException("loader returned null");
+
+    int weight = weigher.applyAsInt(key, result);
+    if (weight < 0)
+      throw new IllegalStateException("negative weight");
+
+    if (weight > maximumWeight) {
+      // This entry would evict everything else and still not fit, so don't cache it
+      return result;
+    }
+
+    result = segment.put(key, result, weight);
+    evictByWeight(index, key);
+
+    return result;
+  }
+
+  /**
+   * Removes every entry from the cache. Statistics are not reset.
+   */
+  public void clear() {
+    for (Segment segment : segments)
+      segment.clear();
+  }
+
+  /**
+   * @return the number of entries in the cache
+   */
+  public int size() {
+    int result = 0;
+    for (Segment segment : segments)
+      result = result + segment.size();
+    return result;
+  }
+
+  /**
+   * @return the total weight of the entries in the cache
+   */
+  public long weight() {
+    return weight.get();
+  }
+
+  public CacheStats getStats() {
+    return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+  }
+
+  /**
+   * @return the maximumSize
+   */
+  @Generated
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * @return the maximumWeight
+   */
+  @Generated
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  private int segmentFor(K key) {
+    // Spread the hash so that segments are chosen by high bits, too
+    int h = key.hashCode();
+    h = h ^ (h >>> 16);
+    return Math.floorMod(h, segments.length);
+  }
+
+  /**
+   * Evicts entries until the cache is within its weight bound, starting with the given segment,
+   * which just grew. Never evicts the given key, which was just added. Holds one segment's lock at
+   * a time, so threads evicting from different segments cannot deadlock.
+   */
+  private void evictByWeight(int first, K key) {
+    int i = 0;
+    while (i < segments.length && weight.get() > maximumWeight) {
+      if (!segments[(first + i) % segments.length].evictEldest(key))
+        i = i + 1;
+    }
+  }
+
+  private static final class Entry<V> {
+    public final V value;
+    public final int weight;
+
+    public Entry(V value, int weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * One lock's worth of the cache, in least recently used order
+   */
+  private final class Segment {
+    private final int maximumSize;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public Segment(int maximumSize) {
+      this.maximumSize = maximumSize;
+      this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized V get(K key) {
+      Entry<V> entry = entries.get(key);
+      return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Adds the given entry, unless another thread got there first, and returns the cached value
+     */
+    public synchronized V put(K key, V value, int entryWeight) {
+      Entry<V> existing = entries.get(key);
+      if (existing != null)
+        return existing.value;
+
+      entries.put(key, new Entry<>(value, entryWeight));
+      weight.addAndGet(entryWeight);
+
+      // The new entry is the most recently used, so it is never evicted here
+      Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+      while (entries.size() > maximumSize) {
+        Entry<V> eldest = iterator.next().getValue();
+        iterator.remove();
+        weight.addAndGet(-eldest.weight);
+        evictionCount.increment();
+      }
+
+      return value;
+    }
+
+    /**
+     * Evicts the least recently used entry other than the given key, and returns true if there was
+     * one
+     */
+    public synchronized boolean evictEldest(K key) {
+      Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<K, Entry<V>> eldest = iterator.next();
+        if (!eldest.getKey().equals(key)) {
+          iterator.remove();
+          weight.addAndGet(-eldest.getValue().weight);
+          evictionCount.increment();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    public synchronized void clear() {
+      long cleared = 0L;
+      for (Entry<V> entry : entries.values())
+        cleared = cleared + entry.weight;
+      entries.clear();
+      weight.addAndGet(-cleared);
+    }
+
+    public synchronized int size() {
+      return entries.size();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import java.util.Objects;
+import com.sigpwned.litecene.core.linting.Generated;
+
+/**
+ * A snapshot of a cache's statistics
+ */
+public class CacheStats {
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+
+  public CacheStats(long hitCount, long missCount, long evictionCount) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+  }
+
+  /**
+   * @return the number of lookups answered from the cache
+   */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of lookups that had to compute their value, including those that failed
+   */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the number of entries evicted to stay within the cache's bounds
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the fraction of lookups answered from the cache, or 1.0 if there have been none
+   */
+  public double getHitRate() {
+    long requestCount = hitCount + missCount;
+    return requestCount == 0L ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  @Override
+  @Generated
+  public int hashCode() {
+    return Objects.hash(evictionCount, hitCount, missCount);
+  }
+
+  @Override
+  @Generated
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    CacheStats other = (CacheStats) obj;
+    return evictionCount == other.evictionCount && hitCount == other.hitCount
+        && missCount == other.missCount;
+  }
+
+  @Override
+  @Generated
+  public String toString() {
+    return "CacheStats [hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount="
+        + evictionCount + "]";
+  }
+}
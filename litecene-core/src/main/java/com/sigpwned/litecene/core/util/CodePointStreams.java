@@ -29,8 +29,12 @@ public final class CodePointStreams {
    */
   public static String toString(CodePointStream cps) {
     StringBuilder result = new StringBuilder();
-    while (cps.hasNext())
-      result.appendCodePoint(cps.next());
+    int[] buf = new int[256];
+    for (int count = cps.read(buf, 0, buf.length); count != CodePointStream.EOF; count =
+        cps.read(buf, 0, buf.length)) {
+      for (int i = 0; i < count; i++)
+        result.appendCodePoint(buf[i]);
+    }
     return result.toString();
   }
 }
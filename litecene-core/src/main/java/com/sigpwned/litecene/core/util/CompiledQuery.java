@@ -0,0 +1,575 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.linting.Generated;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+/**
+ * A query flattened into parallel arrays, for passes that visit every node many times, e.g.
+ * matching one query against many documents. Nodes are numbered in post-order, so every node comes
+ * after its children and the root is the last node. For each node, the arrays record:
+ *
+ * <ul>
+ * <li>its opcode, one of {@link #AND}, {@link #OR}, {@link #LIST}, {@link #NOT}, {@link #PAREN},
+ * {@link #TEXT}, or {@link #VACUOUS}</li>
+ * <li>its arity, i.e., how many children it has</li>
+ * <li>its start, i.e., the number of its first descendant, so its subtree is the nodes from its
+ * start to itself, inclusive</li>
+ * <li>its terms, as a range of the shared term table, which is empty for all but text nodes</li>
+ * <li>its proximity, or 0 if it has none</li>
+ * <li>its span</li>
+ * </ul>
+ *
+ * The last child of node {@code n} is {@code n-1}, and the child before child {@code c} is
+ * {@code getStart(c)-1}. Compiling, decompiling, and evaluating compiled queries do not recurse,
+ * so they work on queries of any depth. Compiled queries are immutable and thread-safe.
+ */
+public final class CompiledQuery {
+  public static final byte AND = 0;
+  public static final byte OR = 1;
+  public static final byte LIST = 2;
+  public static final byte NOT = 3;
+  public static final byte PAREN = 4;
+  public static final byte TEXT = 5;
+  public static final byte VACUOUS = 6;
+
+  /**
+   * Folds a compiled query into a single value, from the leaves up. Each method gets the value of
+   * each of its node's children.
+   */
+  public static interface Folder<T> {
+    default T and(CompiledQuery query, int node, Operands<T> operands) {
+      return null;
+    }
+
+    default T or(CompiledQuery query, int node, Operands<T> operands) {
+      return null;
+    }
+
+    default T list(CompiledQuery query, int node, Operands<T> operands) {
+      return null;
+    }
+
+    default T not(CompiledQuery query, int node, T operand) {
+      return null;
+    }
+
+    default T paren(CompiledQuery query, int node, T operand) {
+      return null;
+    }
+
+    default T text(CompiledQuery query, int node) {
+      return null;
+    }
+
+    default T vacuous(CompiledQuery query, int node) {
+      return null;
+    }
+  }
+
+  /**
+   * The values of the children of a node being folded, in order. The same object is reused for
+   * every node, so it is only valid during the call it is passed to.
+   */
+  public static final class Operands<T> {
+    private final Object[] stack;
+    private int offset;
+    private int size;
+
+    private Operands(Object[] stack) {
+      this.stack = stack;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+      if (index < 0 || index >= size)
+        throw new IndexOutOfBoundsException(Integer.toString(index));
+      return (T) stack[offset + index];
+    }
+  }
+
+  /**
+   * Decides whether a text node matches, e.g., whether its terms appear in a given document
+   */
+  @FunctionalInterface
+  public static interface TextMatcher {
+    public boolean matches(CompiledQuery query, int node);
+  }
+
+  public static CompiledQuery compile(Query query) {
+    return new Compiler().compile(query);
+  }
+
+  private final byte[] opcodes;
+  private final int[] arities;
+  private final int[] starts;
+  private final int[] termOffsets;
+  private final int[] proximities;
+  private final long[] spans;
+  private final Term[] terms;
+
+  /**
+   * The most values on the operand stack at once while evaluating this query
+   */
+  private final int maxStack;
+
+  private CompiledQuery(byte[] opcodes, int[] arities, int[] starts, int[] termOffsets,
+      int[] proximities, long[] spans, Term[] terms) {
+    this.opcodes = opcodes;
+    this.arities = arities;
+    this.starts = starts;
+    this.termOffsets = termOffsets;
+    this.proximities = proximities;
+    this.spans = spans;
+    this.terms = terms;
+
+    int height = 0;
+    int max = 0;
+    for (int i = 0; i < opcodes.length; i++) {
+      height = height - arities[i] + 1;
+      max = Math.max(max, height);
+    }
+    this.maxStack = max;
+  }
+
+  /**
+   * @return the number of nodes
+   */
+  public int size() {
+    return opcodes.length;
+  }
+
+  /**
+   * @return the number of the root node, which is always the last
+   */
+  public int getRoot() {
+    return opcodes.length - 1;
+  }
+
+  public byte getOpcode(int node) {
+    return opcodes[node];
+  }
+
+  public int getArity(int node) {
+    return arities[node];
+  }
+
+  /**
+   * Returns the number of the first node in the subtree rooted at the given node
+   */
+  public int getStart(int node) {
+    return starts[node];
+  }
+
+  /**
+   * Returns the index of the given node's first term in the term table
+   */
+  public int getTermStart(int node) {
+    return termOffsets[node];
+  }
+
+  /**
+   * Returns the index just past the given node's last term in the term table
+   */
+  public int getTermEnd(int node) {
+    return termOffsets[node + 1];
+  }
+
+  /**
+   * Returns the given node's proximity, or 0 if it has none
+   */
+  public int getProximity(int node) {
+    return proximities[node];
+  }
+
+  public long getSpan(int node) {
+    return spans[node];
+  }
+
+  /**
+   * @return the number of terms in the term table
+   */
+  public int getTermCount() {
+    return terms.length;
+  }
+
+  public Term getTerm(int index) {
+    return terms[index];
+  }
+
+  /**
+   * Folds this query from the leaves up, and returns the value of the root
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T fold(Folder<T> folder) {
+    Object[] stack = new Object[maxStack];
+    Operands<T> operands = new Operands<>(stack);
+    int top = 0;
+    for (int i = 0; i < opcodes.length; i++) {
+      int arity = arities[i];
+      operands.offset = top - arity;
+      operands.size = arity;
+
+      T value;
+      switch (opcodes[i]) {
+        case AND:
+          value = folder.and(this, i, operands);
+          break;
+        case OR:
+          value = folder.or(this, i, operands);
+          break;
+        case LIST:
+          value = folder.list(this, i, operands);
+          break;
+        case NOT:
+          value = folder.not(this, i, (T) stack[top - 1]);
+          break;
+        case PAREN:
+          value = folder.paren(this, i, (T) stack[top - 1]);
+          break;
+        case TEXT:
+          value = folder.text(this, i);
+          break;
+        case VACUOUS:
+          value = folder.vacuous(this, i);
+          break;
+        default:
+          throw new AssertionError(opcodes[i]);
+      }
+
+      for (int j = top - arity; j < top; j++)
+        stack[j] = null;
+      top = top - arity;
+      stack[top] = value;
+      top = top + 1;
+    }
+    return (T) stack[0];
+  }
+
+  /**
+   * Returns true if this query matches, given which of its text nodes match. Vacuous nodes match
+   * everything, like the empty query does in BigQuery. The matcher is called once for each text
+   * node, in order.
+   */
+  public boolean matches(TextMatcher matcher) {
+    boolean[] stack = new boolean[maxStack];
+    int top = 0;
+    for (int i = 0; i < opcodes.length; i++) {
+      int arity = arities[i];
+      boolean value;
+      switch (opcodes[i]) {
+        case AND:
+        case LIST:
+          value = true;
+          for (int j = top - arity; j < top; j++)
+            value = value & stack[j];
+          break;
+        case OR:
+          value = false;
+          for (int j = top - arity; j < top; j++)
+            value = value | stack[j];
+          break;
+        case NOT:
+          value = !stack[top - 1];
+          break;
+        case PAREN:
+          value = stack[top - 1];
+          break;
+        case TEXT:
+          value = matcher.matches(this, i);
+          break;
+        case VACUOUS:
+          value = true;
+          break;
+        default:
+          throw new AssertionError(opcodes[i]);
+      }
+      top = top - arity;
+      stack[top] = value;
+      top = top + 1;
+    }
+    return stack[0];
+  }
+
+  /**
+   * Rebuilds the query this was compiled from, spans and all
+   */
+  public Query toQuery() {
+    return fold(new Folder<Query>() {
+      @Override
+      public Query and(CompiledQuery query, int node, Operands<Query> operands) {
+        return new AndQuery(children(operands), spans[node]);
+      }
+
+      @Override
+      public Query or(CompiledQuery query, int node, Operands<Query> operands) {
+        return new OrQuery(children(operands), spans[node]);
+      }
+
+      @Override
+      public Query list(CompiledQuery query, int node, Operands<Query> operands) {
+        return new ListQuery(children(operands), spans[node]);
+      }
+
+      @Override
+      public Query not(CompiledQuery query, int node, Query operand) {
+        return new NotQuery(operand, spans[node]);
+      }
+
+      @Override
+      public Query paren(CompiledQuery query, int node, Query operand) {
+        return new ParenQuery(operand, spans[node]);
+      }
+
+      @Override
+      public Query text(CompiledQuery query, int node) {
+        List<Term> ts =
+            Arrays.asList(Arrays.copyOfRange(terms, termOffsets[node], termOffsets[node + 1]));
+        Integer proximity = proximities[node] != 0 ? proximities[node] : null;
+        return new TextQuery(ts, proximity, spans[node]);
+      }
+
+      @Override
+      public Query vacuous(CompiledQuery query, int node) {
+        return Spans.isPresent(spans[node]) ? new VacuousQuery(spans[node])
+            : VacuousQuery.INSTANCE;
+      }
+
+      private List<Query> children(Operands<Query> operands) {
+        List<Query> result = new ArrayList<>(operands.size());
+        for (int i = 0; i < operands.size(); i++)
+          result.add(operands.get(i));
+        return result;
+      }
+    });
+  }
+
+  /**
+   * Compiled queries are equal if they were compiled from equal queries. Like queries, they ignore
+   * spans.
+   */
+  @Override
+  public int hashCode() {
+    int result = Arrays.hashCode(opcodes);
+    result = 31 * result + Arrays.hashCode(arities);
+    result = 31 * result + Arrays.hashCode(termOffsets);
+    result = 31 * result + Arrays.hashCode(proximities);
+    result = 31 * result + Arrays.hashCode(terms);
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    CompiledQuery other = (CompiledQuery) obj;
+    return Arrays.equals(opcodes, other.opcodes) && Arrays.equals(arities, other.arities)
+        && Arrays.equals(termOffsets, other.termOffsets)
+        && Arrays.equals(proximities, other.proximities) && Arrays.equals(terms, other.terms);
+  }
+
+  @Override
+  @Generated
+  public String toString() {
+    return "CompiledQuery [opcodes=" + Arrays.toString(opcodes) + ", arities="
+        + Arrays.toString(arities) + ", terms=" + Arrays.toString(terms) + "]";
+  }
+
+  /**
+   * Walks a query in post-order with an explicit stack and appends each node to growable arrays.
+   * Each node is dispatched once, when it is pushed, to find its opcode and children, and the stack
+   * frame keeps them until the node is emitted.
+   */
+  private static final class Compiler implements QueryVisitor<Byte> {
+    private byte[] opcodes = new byte[16];
+    private int[] arities = new int[16];
+    private int[] starts = new int[16];
+    private int[] termOffsets = new int[17];
+    private int[] proximities = new int[16];
+    private long[] spans = new long[16];
+    private int size = 0;
+    private final List<Term> terms = new ArrayList<>();
+
+    /**
+     * The nodes being walked, from the root down, with their opcodes, their arities, their
+     * children, how many of their children have been emitted, and where their subtrees start. A
+     * node with exactly one child keeps it in frameChild rather than frameChildren.
+     */
+    private Query[] frameQueries = new Query[16];
+    private byte[] frameOpcodes = new byte[16];
+    private int[] frameArities = new int[16];
+    @SuppressWarnings("unchecked")
+    private List<Query>[] frameChildren = new List[16];
+    private Query[] frameChild = new Query[16];
+    private int[] frameVisited = new int[16];
+    private int[] frameStarts = new int[16];
+    private int depth = 0;
+
+    /**
+     * The children of the node last dispatched, set by the visitor methods
+     */
+    private List<Query> children;
+    private Query child;
+    private int arity;
+
+    public CompiledQuery compile(Query root) {
+      if (root == null)
+        throw new NullPointerException();
+
+      push(root);
+      while (depth > 0) {
+        int top = depth - 1;
+        int visited = frameVisited[top];
+        if (visited < frameArities[top]) {
+          frameVisited[top] = visited + 1;
+          List<Query> cs = frameChildren[top];
+          push(cs != null ? cs.get(visited) : frameChild[top]);
+        } else {
+          emit(frameQueries[top], frameOpcodes[top], frameArities[top], frameStarts[top]);
+          frameQueries[top] = null;
+          frameChildren[top] = null;
+          frameChild[top] = null;
+          depth = top;
+        }
+      }
+
+      return new CompiledQuery(Arrays.copyOf(opcodes, size), Arrays.copyOf(arities, size),
+          Arrays.copyOf(starts, size), Arrays.copyOf(termOffsets, size + 1),
+          Arrays.copyOf(proximities, size), Arrays.copyOf(spans, size),
+          terms.toArray(new Term[0]));
+    }
+
+    private void push(Query q) {
+      if (depth == frameQueries.length) {
+        int capacity = 2 * depth;
+        frameQueries = Arrays.copyOf(frameQueries, capacity);
+        frameOpcodes = Arrays.copyOf(frameOpcodes, capacity);
+        frameArities = Arrays.copyOf(frameArities, capacity);
+        frameChildren = Arrays.copyOf(frameChildren, capacity);
+        frameChild = Arrays.copyOf(frameChild, capacity);
+        frameVisited = Arrays.copyOf(frameVisited, capacity);
+        frameStarts = Arrays.copyOf(frameStarts, capacity);
+      }
+
+      children = null;
+      child = null;
+      arity = 0;
+      frameOpcodes[depth] = q.accept(this);
+      frameQueries[depth] = q;
+      frameArities[depth] = arity;
+      frameChildren[depth] = children;
+      frameChild[depth] = child;
+      frameVisited[depth] = 0;
+      frameStarts[depth] = size;
+      depth = depth + 1;
+    }
+
+    private void emit(Query q, byte opcode, int arity, int start) {
+      if (size == opcodes.length) {
+        int capacity = 2 * size;
+        opcodes = Arrays.copyOf(opcodes, capacity);
+        arities = Arrays.copyOf(arities, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        termOffsets = Arrays.copyOf(termOffsets, capacity + 1);
+        proximities = Arrays.copyOf(proximities, capacity);
+        spans = Arrays.copyOf(spans, capacity);
+      }
+
+      opcodes[size] = opcode;
+      arities[size] = arity;
+      starts[size] = start;
+      spans[size] = q.getSpan();
+      if (opcode == TEXT) {
+        TextQuery text = (TextQuery) q;
+        terms.addAll(text.getTerms());
+        proximities[size] = text.getProximity().orElse(0);
+      }
+      termOffsets[size + 1] = terms.size();
+      size = size + 1;
+    }
+
+    @Override
+    public Byte and(AndQuery and) {
+      children = and.getChildren();
+      arity = children.size();
+      return AND;
+    }
+
+    @Override
+    public Byte or(OrQuery or) {
+      children = or.getChildren();
+      arity = children.size();
+      return OR;
+    }
+
+    @Override
+    public Byte not(NotQuery not) {
+      child = not.getChild();
+      arity = 1;
+      return NOT;
+    }
+
+    @Override
+    public Byte list(ListQuery list) {
+      children = list.getChildren();
+      arity = children.size();
+      return LIST;
+    }
+
+    @Override
+    public Byte paren(ParenQuery paren) {
+      child = paren.getChild();
+      arity = 1;
+      return PAREN;
+    }
+
+    @Override
+    public Byte text(TextQuery text) {
+      return TEXT;
+    }
+
+    @Override
+    public Byte vacuous(VacuousQuery vacuous) {
+      return VACUOUS;
+    }
+  }
+}
@@ -0,0 +1,533 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of document ordinals, i.e., dense non-negative numbers standing in for
+ * documents, for evaluating boolean queries over a corpus a set at a time. Mapping each document to
+ * an ordinal up front and back to its ID at the end keeps the sets small and the set operations
+ * cheap.
+ *
+ * Sets are compressed in the style of Roaring bitmaps. Ordinals are split into chunks of 65536 by
+ * their high 16 bits, and each non-empty chunk keeps its low 16 bits in a container: a sorted array
+ * when the chunk has at most {@value #MAX_ARRAY_SIZE} ordinals, and a bitmap of 65536 bits
+ * otherwise, so no container takes more than 8 KiB. {@link #and(DocSet)}, {@link #or(DocSet)}, and
+ * {@link #andNot(DocSet)} walk the chunks of both sets in order and combine them container by
+ * container, merging arrays, probing bitmaps with arrays, or combining bitmaps a word at a time.
+ */
+public final class DocSet {
+  /**
+   * The most ordinals a chunk keeps in an array container
+   */
+  static final int MAX_ARRAY_SIZE = 4096;
+
+  /**
+   * The number of 64-bit words in a bitmap container
+   */
+  private static final int WORDS = 1024;
+
+  private static final DocSet EMPTY = new DocSet(new char[0], new Container[0]);
+
+  public static DocSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns the set of ordinals from 0, inclusive, to the given size, exclusive
+   */
+  public static DocSet range(int size) {
+    if (size < 0)
+      throw new IllegalArgumentException("size must not be negative");
+
+    int chunks = (int) ((size + 65535L) >>> 16);
+    char[] keys = new char[chunks];
+    Container[] containers = new Container[chunks];
+    for (int i = 0; i < chunks; i++) {
+      int count = Math.min(size - (i << 16), 1 << 16);
+      long[] words = new long[WORDS];
+      Arrays.fill(words, 0, count >>> 6, -1L);
+      if ((count & 63) != 0)
+        words[count >>> 6] = (1L << count) - 1L;
+      keys[i] = (char) i;
+      containers[i] = Container.fromWords(words);
+    }
+
+    return create(keys, containers, chunks);
+  }
+
+  public static DocSet of(int... ordinals) {
+    int[] sorted = ordinals.clone();
+    Arrays.sort(sorted);
+    Builder result = builder();
+    for (int i = 0; i < sorted.length; i++)
+      if (i == 0 || sorted[i] != sorted[i - 1])
+        result.add(sorted[i]);
+    return result.build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builds a set one ordinal at a time, in ascending order
+   */
+  public static final class Builder {
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * The chunk being built, as a bitmap
+     */
+    private final long[] words;
+    private int key;
+    private int last;
+
+    private Builder() {
+      this.keys = new char[4];
+      this.containers = new Container[4];
+      this.words = new long[WORDS];
+      this.key = -1;
+      this.last = -1;
+    }
+
+    public Builder add(int ordinal) {
+      if (ordinal < 0)
+        throw new IllegalArgumentException("ordinal must not be negative");
+      if (ordinal <= last)
+        throw new IllegalArgumentException("ordinals must be added in ascending order");
+
+      if (ordinal >>> 16 != key) {
+        flush();
+        key = ordinal >>> 16;
+      }
+      words[(ordinal & 0xFFFF) >>> 6] |= 1L << ordinal;
+      last = ordinal;
+
+      return this;
+    }
+
+    public DocSet build() {
+      flush();
+      key = -1;
+      DocSet result = create(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size), size);
+      size = 0;
+      last = -1;
+      return result;
+    }
+
+    private void flush() {
+      if (key == -1)
+        return;
+
+      Container container = Container.fromWords(words.clone());
+      Arrays.fill(words, 0L);
+      if (container == null)
+        return;
+
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, 2 * size);
+        containers = Arrays.copyOf(containers, 2 * size);
+      }
+      keys[size] = (char) key;
+      containers[size] = container;
+      size = size + 1;
+    }
+  }
+
+  /**
+   * The high 16 bits of each non-empty chunk, in ascending order
+   */
+  private final char[] keys;
+
+  /**
+   * The low 16 bits of each chunk's ordinals
+   */
+  private final Container[] containers;
+
+  private DocSet(char[] keys, Container[] containers) {
+    this.keys = keys;
+    this.containers = containers;
+  }
+
+  public boolean contains(int ordinal) {
+    if (ordinal < 0)
+      return false;
+    int index = Arrays.binarySearch(keys, (char) (ordinal >>> 16));
+    if (index < 0)
+      return false;
+    return containers[index].contains((char) ordinal);
+  }
+
+  /**
+   * @return the number of ordinals in this set
+   */
+  public int cardinality() {
+    int result = 0;
+    for (Container container : containers)
+      result = result + container.cardinality;
+    return result;
+  }
+
+  public boolean isEmpty() {
+    return keys.length == 0;
+  }
+
+  /**
+   * Calls the given consumer with each ordinal in this set, in ascending order
+   */
+  public void forEach(IntConsumer consumer) {
+    for (int i = 0; i < keys.length; i++)
+      containers[i].forEach(keys[i] << 16, consumer);
+  }
+
+  /**
+   * Returns the ordinals in this set, in ascending order
+   */
+  public int[] toArray() {
+    int[] result = new int[cardinality()];
+    int[] count = new int[1];
+    forEach(ordinal -> result[count[0]++] = ordinal);
+    return result;
+  }
+
+  /**
+   * Returns the ordinals in both this set and the given set
+   */
+  public DocSet and(DocSet that) {
+    char[] resultKeys = new char[Math.min(keys.length, that.keys.length)];
+    Container[] resultContainers = new Container[resultKeys.length];
+    int size = 0;
+
+    int i = 0;
+    int j = 0;
+    while (i < keys.length && j < that.keys.length) {
+      if (keys[i] < that.keys[j]) {
+        i = i + 1;
+      } else if (keys[i] > that.keys[j]) {
+        j = j + 1;
+      } else {
+        Container container = Container.and(containers[i], that.containers[j]);
+        if (container != null) {
+          resultKeys[size] = keys[i];
+          resultContainers[size] = container;
+          size = size + 1;
+        }
+        i = i + 1;
+        j = j + 1;
+      }
+    }
+
+    return create(resultKeys, resultContainers, size);
+  }
+
+  /**
+   * Returns the ordinals in either this set or the given set
+   */
+  public DocSet or(DocSet that) {
+    char[] resultKeys = new char[keys.length + that.keys.length];
+    Container[] resultContainers = new Container[resultKeys.length];
+    int size = 0;
+
+    // Containers are immutable, so chunks in only one set are shared rather than copied
+    int i = 0;
+    int j = 0;
+    while (i < keys.length || j < that.keys.length) {
+      if (j == that.keys.length || i < keys.length && keys[i] < that.keys[j]) {
+        resultKeys[size] = keys[i];
+        resultContainers[size] = containers[i];
+        i = i + 1;
+      } else if (i == keys.length || keys[i] > that.keys[j]) {
+        resultKeys[size] = that.keys[j];
+        resultContainers[size] = that.containers[j];
+        j = j + 1;
+      } else {
+        resultKeys[size] = keys[i];
+        resultContainers[size] = Container.or(containers[i], that.containers[j]);
+        i = i + 1;
+        j = j + 1;
+      }
+      size = size + 1;
+    }
+
+    return create(resultKeys, resultContainers, size);
+  }
+
+  /**
+   * Returns the ordinals in this set but not the given set
+   */
+  public DocSet andNot(DocSet that) {
+    char[] resultKeys = new char[keys.length];
+    Container[] resultContainers = new Container[resultKeys.length];
+    int size = 0;
+
+    int j = 0;
+    for (int i = 0; i < keys.length; i++) {
+      while (j < that.keys.length && that.keys[j] < keys[i])
+        j = j + 1;
+
+      Container container;
+      if (j < that.keys.length && that.keys[j] == keys[i])
+        container = Container.andNot(containers[i], that.containers[j]);
+      else
+        container = containers[i];
+
+      if (container != null) {
+        resultKeys[size] = keys[i];
+        resultContainers[size] = container;
+        size = size + 1;
+      }
+    }
+
+    return create(resultKeys, resultContainers, size);
+  }
+
+  private static DocSet create(char[] keys, Container[] containers, int size) {
+    if (size == 0)
+      return EMPTY;
+    if (size < keys.length) {
+      keys = Arrays.copyOf(keys, size);
+      containers = Arrays.copyOf(containers, size);
+    }
+    return new DocSet(keys, containers);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(keys) + Arrays.hashCode(containers);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    DocSet other = (DocSet) obj;
+    return Arrays.equals(keys, other.keys) && Arrays.equals(containers, other.containers);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder().append('[');
+    forEach(ordinal -> {
+      if (result.length() > 1)
+        result.append(", ");
+      result.append(ordinal);
+    });
+    return result.append(']').toString();
+  }
+
+  /**
+   * The low 16 bits of the ordinals in one chunk. Exactly one of values and words is present: a
+   * chunk with at most {@value #MAX_ARRAY_SIZE} ordinals is always an array, and one with more is
+   * always a bitmap, so equal chunks have equal containers. Containers are never empty.
+   */
+  private static final class Container {
+    /**
+     * Returns a container for the given bitmap, which it may keep, or null if it is empty
+     */
+    public static Container fromWords(long[] words) {
+      int cardinality = 0;
+      for (long word : words)
+        cardinality = cardinality + Long.bitCount(word);
+      if (cardinality == 0)
+        return null;
+      if (cardinality > MAX_ARRAY_SIZE)
+        return new Container(null, words, cardinality);
+
+      char[] values = new char[cardinality];
+      int size = 0;
+      for (int i = 0; i < words.length; i++) {
+        for (long word = words[i]; word != 0L; word = word & word - 1)
+          values[size++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+      }
+      return new Container(values, null, cardinality);
+    }
+
+    /**
+     * Returns a container for the first size values of the given sorted array, or null if there
+     * are none
+     */
+    public static Container fromValues(char[] values, int size) {
+      if (size == 0)
+        return null;
+      if (size > MAX_ARRAY_SIZE) {
+        long[] words = new long[WORDS];
+        for (int i = 0; i < size; i++)
+          words[values[i] >>> 6] |= 1L << values[i];
+        return new Container(null, words, size);
+      }
+      return new Container(size == values.length ? values : Arrays.copyOf(values, size), null,
+          size);
+    }
+
+    public static Container and(Container a, Container b) {
+      if (a.values != null && b.values != null) {
+        char[] result = new char[Math.min(a.cardinality, b.cardinality)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.cardinality && j < b.cardinality) {
+          if (a.values[i] < b.values[j]) {
+            i = i + 1;
+          } else if (a.values[i] > b.values[j]) {
+            j = j + 1;
+          } else {
+            result[size++] = a.values[i];
+            i = i + 1;
+            j = j + 1;
+          }
+        }
+        return fromValues(result, size);
+      }
+
+      if (a.values != null || b.values != null) {
+        Container array = a.values != null ? a : b;
+        Container bitmap = a.values != null ? b : a;
+        char[] result = new char[array.cardinality];
+        int size = 0;
+        for (char value : array.values)
+          if (bitmap.contains(value))
+            result[size++] = value;
+        return fromValues(result, size);
+      }
+
+      long[] result = new long[WORDS];
+      for (int i = 0; i < WORDS; i++)
+        result[i] = a.words[i] & b.words[i];
+      return fromWords(result);
+    }
+
+    public static Container or(Container a, Container b) {
+      if (a.values != null && b.values != null) {
+        char[] result = new char[a.cardinality + b.cardinality];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.cardinality || j < b.cardinality) {
+          if (j == b.cardinality || i < a.cardinality && a.values[i] < b.values[j]) {
+            result[size++] = a.values[i++];
+          } else if (i == a.cardinality || a.values[i] > b.values[j]) {
+            result[size++] = b.values[j++];
+          } else {
+            result[size++] = a.values[i];
+            i = i + 1;
+            j = j + 1;
+          }
+        }
+        return fromValues(result, size);
+      }
+
+      long[] result = a.values != null ? b.words.clone() : a.words.clone();
+      Container other = a.values != null ? a : b;
+      if (other.values != null) {
+        for (char value : other.values)
+          result[value >>> 6] |= 1L << value;
+      } else {
+        for (int i = 0; i < WORDS; i++)
+          result[i] = result[i] | other.words[i];
+      }
+      return fromWords(result);
+    }
+
+    public static Container andNot(Container a, Container b) {
+      if (a.values != null) {
+        char[] result = new char[a.cardinality];
+        int size = 0;
+        if (b.values != null) {
+          int j = 0;
+          for (char value : a.values) {
+            while (j < b.cardinality && b.values[j] < value)
+              j = j + 1;
+            if (j == b.cardinality || b.values[j] != value)
+              result[size++] = value;
+          }
+        } else {
+          for (char value : a.values)
+            if (!b.contains(value))
+              result[size++] = value;
+        }
+        return fromValues(result, size);
+      }
+
+      long[] result = a.words.clone();
+      if (b.values != null) {
+        for (char value : b.values)
+          result[value >>> 6] &= ~(1L << value);
+      } else {
+        for (int i = 0; i < WORDS; i++)
+          result[i] = result[i] & ~b.words[i];
+      }
+      return fromWords(result);
+    }
+
+    public final char[] values;
+    public final long[] words;
+    public final int cardinality;
+
+    private Container(char[] values, long[] words, int cardinality) {
+      this.values = values;
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    public boolean contains(char value) {
+      if (values != null)
+        return Arrays.binarySearch(values, value) >= 0;
+      return (words[value >>> 6] & 1L << value) != 0L;
+    }
+
+    public void forEach(int base, IntConsumer consumer) {
+      if (values != null) {
+        for (char value : values)
+          consumer.accept(base | value);
+      } else {
+        for (int i = 0; i < words.length; i++) {
+          for (long word = words[i]; word != 0L; word = word & word - 1)
+            consumer.accept(base | i << 6 | Long.numberOfTrailingZeros(word));
+        }
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      return values != null ? Arrays.hashCode(values) : Arrays.hashCode(words);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      Container other = (Container) obj;
+      return Arrays.equals(values, other.values) && Arrays.equals(words, other.words);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+/**
+ * Finds the narrowest window of positions that covers at least one position from each of several
+ * lists, e.g., the positions where each term of a proximity query appears in a document. The width
+ * of a window is the number of positions it spans, i.e., {@code max - min + 1}, so a proximity
+ * query {@code "a b"~n} matches exactly when the narrowest window has width at most {@code n}.
+ *
+ * The lists are swept in a single merged pass in ascending order, with a heap picking the list
+ * whose current position is smallest. Every window that could be the narrowest ends at some
+ * position, and the sweep visits the narrowest window ending at each one, so it finds the answer
+ * in O(n log k) time for n positions in k lists, rather than trying every combination of one
+ * position from each list. Positions may repeat within and across lists, so the same position can
+ * cover more than one list.
+ */
+public final class ProximityWindows {
+  private ProximityWindows() {}
+
+  /**
+   * The width returned when no window covers every list, i.e., when some list is empty
+   */
+  public static final int NONE = -1;
+
+  /**
+   * Returns the width of the narrowest window that covers at least one position from each of the
+   * given lists, or {@link #NONE} if some list is empty. Each list must be in ascending order.
+   *
+   * @throws IllegalArgumentException if there are no lists
+   */
+  public static int minimumWidth(int[][] positions) {
+    return sweep(positions, 0);
+  }
+
+  /**
+   * Returns true if some window of at most the given width covers at least one position from each
+   * of the given lists. Each list must be in ascending order. Stops as soon as it finds one.
+   *
+   * @throws IllegalArgumentException if there are no lists
+   */
+  public static boolean fits(int[][] positions, int width) {
+    int result = sweep(positions, width);
+    return result != NONE && result <= width;
+  }
+
+  /**
+   * Returns the narrowest width, or the first width found that is at most the given target
+   */
+  private static int sweep(int[][] positions, int target) {
+    int k = positions.length;
+    if (k == 0)
+      throw new IllegalArgumentException("no positions");
+
+    int max = Integer.MIN_VALUE;
+    for (int[] list : positions) {
+      if (list.length == 0)
+        return NONE;
+      max = Math.max(max, list[0]);
+    }
+
+    int[] cursors = new int[k];
+    int[] heap = new int[k];
+    for (int i = 0; i < k; i++)
+      heap[i] = i;
+    for (int i = k / 2 - 1; i >= 0; i--)
+      siftDown(positions, cursors, heap, i);
+
+    int result = Integer.MAX_VALUE;
+    while (true) {
+      int list = heap[0];
+      int width = max - positions[list][cursors[list]] + 1;
+      if (width < result) {
+        result = width;
+        if (result <= target)
+          return result;
+      }
+
+      // Any window with the same minimum ends at or after max, so move the minimum along
+      int cursor = cursors[list] + 1;
+      if (cursor == positions[list].length)
+        return result;
+      cursors[list] = cursor;
+      max = Math.max(max, positions[list][cursor]);
+      siftDown(positions, cursors, heap, 0);
+    }
+  }
+
+  private static void siftDown(int[][] positions, int[] cursors, int[] heap, int index) {
+    int k = heap.length;
+    int list = heap[index];
+    int value = positions[list][cursors[list]];
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= k)
+        break;
+      int childValue = positions[heap[child]][cursors[heap[child]]];
+      if (child + 1 < k) {
+        int rightValue = positions[heap[child + 1]][cursors[heap[child + 1]]];
+        if (rightValue < childValue) {
+          child = child + 1;
+          childValue = rightValue;
+        }
+      }
+      if (value <= childValue)
+        break;
+      heap[index] = heap[child];
+      index = child;
+    }
+    heap[index] = list;
+  }
+}
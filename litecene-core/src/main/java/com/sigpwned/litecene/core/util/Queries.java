@@ -20,6 +20,7 @@
 package com.sigpwned.litecene.core.util;
 
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.query.AndQuery;
 import com.sigpwned.litecene.core.query.ListQuery;
 import com.sigpwned.litecene.core.query.NotQuery;
@@ -36,41 +37,43 @@ public final class Queries {
    * filtering text. Example: a list query with no queries in it
    */
   public static boolean isVacuous(Query q) {
-    return new QueryProcessor<Boolean>(new QueryProcessor.Processor<Boolean>() {
-      @Override
-      public Boolean and(AndQuery and) {
-        return and.getChildren().stream().allMatch(Queries::isVacuous);
-      }
+    return q.accept(IS_VACUOUS);
+  }
 
-      @Override
-      public Boolean or(OrQuery or) {
-        return or.getChildren().stream().allMatch(Queries::isVacuous);
-      }
+  private static final QueryVisitor<Boolean> IS_VACUOUS = new QueryVisitor<Boolean>() {
+    @Override
+    public Boolean and(AndQuery and) {
+      return and.getChildren().stream().allMatch(Queries::isVacuous);
+    }
 
-      @Override
-      public Boolean not(NotQuery not) {
-        return isVacuous(not.getChild());
-      }
+    @Override
+    public Boolean or(OrQuery or) {
+      return or.getChildren().stream().allMatch(Queries::isVacuous);
+    }
 
-      @Override
-      public Boolean list(ListQuery list) {
-        return list.getChildren().stream().allMatch(Queries::isVacuous);
-      }
+    @Override
+    public Boolean not(NotQuery not) {
+      return isVacuous(not.getChild());
+    }
 
-      @Override
-      public Boolean paren(ParenQuery paren) {
-        return isVacuous(paren.getChild());
-      }
+    @Override
+    public Boolean list(ListQuery list) {
+      return list.getChildren().stream().allMatch(Queries::isVacuous);
+    }
 
-      @Override
-      public Boolean text(TextQuery text) {
-        return text.getTerms().stream().allMatch(Terms::isVacuous);
-      }
+    @Override
+    public Boolean paren(ParenQuery paren) {
+      return isVacuous(paren.getChild());
+    }
 
-      @Override
-      public Boolean vacuous(VacuousQuery vacuous) {
-        return true;
-      }
-    }).process(q);
-  }
+    @Override
+    public Boolean text(TextQuery text) {
+      return text.getTerms().stream().allMatch(Terms::isVacuous);
+    }
+
+    @Override
+    public Boolean vacuous(VacuousQuery vacuous) {
+      return true;
+    }
+  };
 }
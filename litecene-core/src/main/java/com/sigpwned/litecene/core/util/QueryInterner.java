@@ -0,0 +1,138 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+/**
+ * Hash-conses terms and queries. Interning a query returns the one canonical node for its
+ * structure, built from canonical children, so structurally identical subtrees, e.g. the same
+ * clause repeated across a large OR query or across many queries, share memory, and any two
+ * queries interned with the same interner are equal if and only if they are the same object.
+ *
+ * A canonical node stands for every place its structure appears, so canonical nodes do not record
+ * spans. Intern queries after anything that needs spans, e.g. error reporting, is done with them.
+ *
+ * Interners are thread-safe. They hold on to every distinct node they have seen, so scope each one
+ * to a body of queries that shares structure, e.g. a batch of saved searches, rather than to the
+ * whole life of an application.
+ */
+public class QueryInterner {
+  private final ConcurrentMap<Term, Term> terms;
+  private final ConcurrentMap<Query, Query> queries;
+  private final QueryVisitor<Query> visitor;
+
+  public QueryInterner() {
+    this.terms = new ConcurrentHashMap<>();
+    this.queries = new ConcurrentHashMap<>();
+    this.visitor = new QueryVisitor<Query>() {
+      @Override
+      public Query and(AndQuery and) {
+        return new AndQuery(internAll(and.getChildren()));
+      }
+
+      @Override
+      public Query or(OrQuery or) {
+        return new OrQuery(internAll(or.getChildren()));
+      }
+
+      @Override
+      public Query not(NotQuery not) {
+        return new NotQuery(intern(not.getChild()));
+      }
+
+      @Override
+      public Query list(ListQuery list) {
+        return new ListQuery(internAll(list.getChildren()));
+      }
+
+      @Override
+      public Query paren(ParenQuery paren) {
+        return new ParenQuery(intern(paren.getChild()));
+      }
+
+      @Override
+      public Query text(TextQuery text) {
+        List<Term> ts = new ArrayList<>(text.getTerms().size());
+        for (Term t : text.getTerms())
+          ts.add(intern(t));
+        return new TextQuery(ts, text.getProximity());
+      }
+
+      @Override
+      public Query vacuous(VacuousQuery vacuous) {
+        return VacuousQuery.INSTANCE;
+      }
+    };
+  }
+
+  public Term intern(Term t) {
+    Term result = terms.putIfAbsent(t, t);
+    return result != null ? result : t;
+  }
+
+  /**
+   * Returns the canonical node for the given query's structure, which has no span
+   */
+  public Query intern(Query q) {
+    // Most lookups of a repeated clause hit, and a hit needs no new nodes
+    Query result = queries.get(q);
+    if (result != null)
+      return result;
+
+    Query canonical = q.accept(visitor);
+    result = queries.putIfAbsent(canonical, canonical);
+    return result != null ? result : canonical;
+  }
+
+  private List<Query> internAll(List<Query> qs) {
+    List<Query> result = new ArrayList<>(qs.size());
+    for (Query q : qs)
+      result.add(intern(q));
+    return result;
+  }
+
+  /**
+   * @return the number of distinct terms interned
+   */
+  public int getTermCount() {
+    return terms.size();
+  }
+
+  /**
+   * @return the number of distinct query nodes interned
+   */
+  public int getQueryCount() {
+    return queries.size();
+  }
+}
@@ -20,6 +20,7 @@
 package com.sigpwned.litecene.core.util;
 
 import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
 import com.sigpwned.litecene.core.linting.Generated;
 import com.sigpwned.litecene.core.query.AndQuery;
 import com.sigpwned.litecene.core.query.ListQuery;
@@ -29,32 +30,47 @@ import com.sigpwned.litecene.core.query.ParenQuery;
 import com.sigpwned.litecene.core.query.TextQuery;
 import com.sigpwned.litecene.core.query.VacuousQuery;
 
+/**
+ * Adapts a {@link Processor}, a {@link QueryVisitor} that only handles some types of nodes, to
+ * process whole queries. New code should implement {@link QueryVisitor} and call
+ * {@link Query#accept(QueryVisitor)} directly.
+ */
 public class QueryProcessor<T> {
-  public static interface Processor<T> {
+  /**
+   * A visitor that returns null for any type of node it does not handle
+   */
+  public static interface Processor<T> extends QueryVisitor<T> {
+    @Override
     default T and(AndQuery and) {
       return null;
     }
 
+    @Override
     default T or(OrQuery or) {
       return null;
     }
 
+    @Override
     default T not(NotQuery not) {
       return null;
     }
 
+    @Override
     default T list(ListQuery list) {
       return null;
     }
 
+    @Override
     default T paren(ParenQuery paren) {
       return null;
     }
 
+    @Override
     default T text(TextQuery text) {
       return null;
     }
 
+    @Override
     default T vacuous(VacuousQuery vacuous) {
       return null;
     }
@@ -69,30 +85,7 @@ public class QueryProcessor<T> {
   }
 
   public T process(Query q) {
-    if (q instanceof AndQuery) {
-      AndQuery and = (AndQuery) q;
-      return getHandler().and(and);
-    } else if (q instanceof OrQuery) {
-      OrQuery or = (OrQuery) q;
-      return getHandler().or(or);
-    } else if (q instanceof NotQuery) {
-      NotQuery not = (NotQuery) q;
-      return getHandler().not(not);
-    } else if (q instanceof ListQuery) {
-      ListQuery list = (ListQuery) q;
-      return getHandler().list(list);
-    } else if (q instanceof ParenQuery) {
-      ParenQuery paren = (ParenQuery) q;
-      return getHandler().paren(paren);
-    } else if (q instanceof TextQuery) {
-      TextQuery text = (TextQuery) q;
-      return getHandler().text(text);
-    } else if (q instanceof VacuousQuery) {
-      VacuousQuery vacuous = (VacuousQuery) q;
-      return getHandler().vacuous(vacuous);
-    } else {
-      throw new AssertionError("unrecognized query " + q);
-    }
+    return q.accept(getHandler());
   }
 
   /**
@@ -0,0 +1,102 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+/**
+ * A span is a range of query text, packed into a single {@code long} so that tokens, query nodes,
+ * and exceptions can record where they came from without allocating. The start offset (inclusive)
+ * is kept in the high 32 bits and the end offset (exclusive) in the low 32 bits. Offsets are in
+ * UTF-16 code units, so they can be used with {@link String#substring(int, int)} directly.
+ *
+ * Things that did not come from query text, e.g., query nodes built by hand, have the span
+ * {@link #NONE}.
+ */
+public final class Spans {
+  private Spans() {}
+
+  /**
+   * The span of something that did not come from query text
+   */
+  public static final long NONE = -1L;
+
+  public static long of(int start, int end) {
+    if (start < 0)
+      throw new IllegalArgumentException("start must not be negative");
+    if (end < start)
+      throw new IllegalArgumentException("end must not be less than start");
+    return ((long) start << 32) | (end & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns an empty span at the given offset
+   */
+  public static long at(int offset) {
+    return of(offset, offset);
+  }
+
+  public static boolean isPresent(long span) {
+    return span != NONE;
+  }
+
+  /**
+   * Returns the start offset of the given span, inclusive, or -1 for {@link #NONE}
+   */
+  public static int start(long span) {
+    return (int) (span >> 32);
+  }
+
+  /**
+   * Returns the end offset of the given span, exclusive, or -1 for {@link #NONE}
+   */
+  public static int end(long span) {
+    return (int) span;
+  }
+
+  public static int length(long span) {
+    return isPresent(span) ? end(span) - start(span) : 0;
+  }
+
+  /**
+   * Returns the smallest span that covers both of the given spans. If either span is
+   * {@link #NONE}, then returns the other.
+   */
+  public static long union(long a, long b) {
+    if (!isPresent(a))
+      return b;
+    if (!isPresent(b))
+      return a;
+    return of(Math.min(start(a), start(b)), Math.max(end(a), end(b)));
+  }
+
+  /**
+   * Returns the given span moved by the given number of code units. {@link #NONE} stays put.
+   */
+  public static long shift(long span, int delta) {
+    if (!isPresent(span))
+      return span;
+    return of(start(span) + delta, end(span) + delta);
+  }
+
+  public static String toString(long span) {
+    if (!isPresent(span))
+      return "none";
+    return "[" + start(span) + ", " + end(span) + ")";
+  }
+}
@@ -48,10 +48,36 @@ public final class Terms {
    * Example: text="what s up pussycat", wildcard=true -> 4
    */
   public static int size(Term t) {
-    if (t.getText().isEmpty() && t.isWildcard()) {
+    return size(t.getText());
+  }
+
+  /**
+   * Returns the number of "tokens" inside the given term text. This is always the same as
+   * {@code Syntax.WHITESPACE.splitAsStream(text).count()}, which is 1 for the empty string, but
+   * avoids the regex machinery. In particular, leading whitespace produces an empty leading token,
+   * trailing whitespace does not produce a token, and text that is all whitespace has no tokens.
+   */
+  public static int size(String text) {
+    if (text.isEmpty())
       return 1;
-    } else {
-      return Math.toIntExact(Syntax.WHITESPACE.splitAsStream(t.getText()).count());
+
+    int runs = 0;
+    boolean inRun = false;
+    for (int i = 0; i < text.length();) {
+      int cp = text.codePointAt(i);
+      if (Character.isWhitespace(cp)) {
+        inRun = false;
+      } else {
+        if (!inRun)
+          runs = runs + 1;
+        inRun = true;
+      }
+      i = i + Character.charCount(cp);
     }
+
+    if (runs == 0)
+      return 0;
+
+    return Character.isWhitespace(text.codePointAt(0)) ? runs + 1 : runs;
   }
 }
@@ -0,0 +1,96 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+import com.sigpwned.litecene.core.util.CacheStats;
+
+public class CachingQueryTranspilerTest {
+  private static final QueryAnalyzer ANALYZER =
+      new QueryAnalyzer(singletonList(SmartQuotesCodePointFilter::new), emptyList(),
+          singletonList(SimplifyQueryFilterPipeline::new));
+
+  @Test
+  public void shouldShareOutputForEquivalentQueries() {
+    AtomicInteger calls = new AtomicInteger();
+    CachingQueryTranspiler transpiler = new CachingQueryTranspiler(q -> {
+      calls.incrementAndGet();
+      return new String(q.toString());
+    });
+
+    String a = transpiler.transpile(ANALYZER.parse("\"hello world\" OR goodbye"));
+    String b = transpiler.transpile(ANALYZER.parse("((“hello   world”)) OR (goodbye)"));
+    assertThat(b, sameInstance(a));
+    assertThat(calls.get(), is(1));
+    assertThat(transpiler.size(), is(1));
+    assertThat(transpiler.getStats(), is(new CacheStats(1L, 1L, 0L)));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() {
+    CachingQueryTranspiler transpiler = new CachingQueryTranspiler(Object::toString, 1);
+
+    transpiler.transpile(ANALYZER.parse("a"));
+    transpiler.transpile(ANALYZER.parse("b"));
+    assertThat(transpiler.size(), is(1));
+    assertThat(transpiler.getStats().getEvictionCount(), is(1L));
+
+    transpiler.transpile(ANALYZER.parse("b"));
+    assertThat(transpiler.getStats().getHitCount(), is(1L));
+  }
+
+  /**
+   * Transpiled SQL is routinely much longer than its share of one segment's weight
+   */
+  @Test
+  public void shouldCacheLongOutput() {
+    CachingQueryTranspiler transpiler = new CachingQueryTranspiler(q -> "x".repeat(500), 10, 1000);
+
+    String a = transpiler.transpile(ANALYZER.parse("a"));
+    assertThat(transpiler.transpile(ANALYZER.parse("a")), sameInstance(a));
+    assertThat(transpiler.size(), is(1));
+    assertThat(transpiler.getStats(), is(new CacheStats(1L, 1L, 0L)));
+  }
+
+  @Test
+  public void shouldNotCacheErrors() {
+    CachingQueryTranspiler transpiler = new CachingQueryTranspiler(q -> {
+      throw new IllegalArgumentException();
+    });
+    for (int i = 0; i < 2; i++) {
+      try {
+        transpiler.transpile(ANALYZER.parse("a"));
+        throw new AssertionError("expected failure");
+      } catch (IllegalArgumentException e) {
+        // This is expected
+      }
+    }
+    assertThat(transpiler.size(), is(0));
+    assertThat(transpiler.getStats().getMissCount(), is(2L));
+  }
+}
@@ -0,0 +1,172 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import org.junit.Test;
+import com.sigpwned.litecene.core.exception.EofException;
+import com.sigpwned.litecene.core.exception.InvalidWildcardException;
+import com.sigpwned.litecene.core.exception.UnmatchedParenthesisException;
+import com.sigpwned.litecene.core.exception.UnparsedTokenException;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+import com.sigpwned.litecene.core.stream.token.filter.text.LowercaseTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.NormalizeTokenFilter;
+
+public class IncrementalQueryParserTest {
+  private static Object parse(String s) {
+    return parse(s, QueryParser.Limits.DEFAULT);
+  }
+
+  private static Object parse(String s, QueryParser.Limits limits) {
+    try {
+      return new QueryParser(new Tokenizer(new StringCodePointSource(s)), limits).query();
+    } catch (LiteceneException | IllegalArgumentException e) {
+      // Some invalid proximities, e.g. "a"~2, are not reported as LiteceneExceptions
+      return e.getClass();
+    }
+  }
+
+  private static Object outcome(IncrementalQueryParser.Result result) {
+    if (result.isValid())
+      return result.getQuery().get();
+    return result.getError().get().getClass();
+  }
+
+  @Test
+  public void shouldParseLikeQueryParser() {
+    IncrementalQueryParser parser = new IncrementalQueryParser();
+    for (String q : asList("", "hello", "hello world", "(a AND NOT b) OR c", "((x))",
+        "\"a b c\"~10 d", "a OR (b AND (c OR \"d e\")) f")) {
+      assertThat(q, outcome(parser.parse(q)), is(parse(q)));
+    }
+  }
+
+  @Test
+  public void shouldMatchQueryParserWhileTyping() {
+    String q = "(smartphone OR \"smart phone\" OR iphone) AND (call OR (dial AND NOT app*) OR "
+        + "\"phone app\"~8)";
+
+    IncrementalQueryParser parser = new IncrementalQueryParser();
+    for (int i = 0; i < q.length(); i++) {
+      Object outcome = outcome(parser.insert(i, q.substring(i, i + 1)));
+      assertThat(q.substring(0, i + 1), outcome, is(parse(q.substring(0, i + 1))));
+    }
+    for (int i = q.length(); i > 0; i--) {
+      Object outcome = outcome(parser.delete(i - 1, 1));
+      assertThat(q.substring(0, i - 1), outcome, is(parse(q.substring(0, i - 1))));
+    }
+  }
+
+  @Test
+  public void shouldMatchQueryParserAfterRandomEdits() {
+    shouldMatchQueryParserAfterRandomEdits(QueryParser.Limits.DEFAULT, 1L);
+  }
+
+  @Test
+  public void shouldMatchQueryParserLimitsAfterRandomEdits() {
+    shouldMatchQueryParserAfterRandomEdits(new QueryParser.Limits(3, 16, 8), 2L);
+  }
+
+  private void shouldMatchQueryParserAfterRandomEdits(QueryParser.Limits limits, long seed) {
+    List<String> snippets = asList("a", "bb", "c*", " ", "  ", "(", ")", "\"", "~", "~3", "AND",
+        " AND ", " OR ", " NOT ", "NOT ", "*", "x y", "é", "😀");
+
+    Random rand = new Random(seed);
+    IncrementalQueryParser parser = new IncrementalQueryParser(List.of(), List.of(), limits);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      if (rand.nextInt(200) == 0) {
+        text.setLength(0);
+        parser.parse("");
+      }
+
+      int offset = rand.nextInt(text.length() + 1);
+      int length = rand.nextInt(3) == 0 ? rand.nextInt(text.length() - offset + 1) : 0;
+      if (length > 2)
+        length = rand.nextInt(3);
+      String replacement =
+          rand.nextInt(4) == 0 ? "" : snippets.get(rand.nextInt(snippets.size()));
+
+      text.replace(offset, offset + length, replacement);
+      Object outcome;
+      try {
+        outcome = outcome(parser.edit(offset, length, replacement));
+      } catch (IllegalArgumentException e) {
+        outcome = e.getClass();
+      }
+
+      assertThat(parser.getText(), is(text.toString()));
+      assertThat(text.toString(), outcome, is(parse(text.toString(), limits)));
+    }
+  }
+
+  @Test
+  public void shouldReportErrorPositions() {
+    IncrementalQueryParser parser = new IncrementalQueryParser();
+
+    IncrementalQueryParser.Result unparsed = parser.parse("a OR b) c");
+    assertThat(unparsed.getError().get() instanceof UnparsedTokenException, is(true));
+    assertThat(unparsed.getErrorPosition(), is(OptionalInt.of(6)));
+
+    IncrementalQueryParser.Result unmatched = parser.parse("(a OR b");
+    assertThat(unmatched.getError().get() instanceof UnmatchedParenthesisException, is(true));
+    assertThat(unmatched.getErrorPosition(), is(OptionalInt.of(7)));
+
+    IncrementalQueryParser.Result eof = parser.parse("a   \"b c");
+    assertThat(eof.getError().get() instanceof EofException, is(true));
+    assertThat(eof.getErrorPosition(), is(OptionalInt.of(4)));
+
+    IncrementalQueryParser.Result wildcard = parser.parse("a b*c");
+    assertThat(wildcard.getError().get() instanceof InvalidWildcardException, is(true));
+    assertThat(wildcard.getErrorPosition(), is(OptionalInt.of(2)));
+  }
+
+  @Test
+  public void shouldRecoverAfterError() {
+    IncrementalQueryParser parser = new IncrementalQueryParser();
+    assertThat(parser.parse("a \"b c OR d").isValid(), is(false));
+    assertThat(outcome(parser.insert(6, "\"")), is(parse("a \"b c\" OR d")));
+    assertThat(parser.getResult().getErrorPosition(), is(OptionalInt.empty()));
+  }
+
+  @Test
+  public void shouldApplyFilters() {
+    IncrementalQueryParser parser =
+        new IncrementalQueryParser(singletonList(SmartQuotesCodePointFilter::new),
+            asList(NormalizeTokenFilter::new, LowercaseTokenFilter::new));
+
+    String q = "“Thë råįñ”~4 OR (Crow's AND Nest)";
+    for (int i = 0; i < q.length(); i++)
+      parser.insert(i, q.substring(i, i + 1));
+
+    assertThat(parser.getResult().getQuery().get(),
+        is(new QueryParser(new LowercaseTokenFilter(new NormalizeTokenFilter(new Tokenizer(
+            new SmartQuotesCodePointFilter(new StringCodePointSource(q)))))).query()));
+  }
+}
@@ -0,0 +1,140 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import com.sigpwned.litecene.core.exception.EofException;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.codepoint.Utf8CodePointSource;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+import com.sigpwned.litecene.core.stream.token.filter.text.LowercaseTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.NormalizeTokenFilter;
+
+public class QueryAnalyzerTest {
+  private static final List<String> QUERIES = asList("", "hello", "Hello World",
+      "“Thë råįñ”~4 OR crow's", "(a AND NOT b) OR c", "developer* AND (iphone OR android)",
+      "((x))", "\"a b c\"~10 d");
+
+  private static final QueryAnalyzer ANALYZER =
+      new QueryAnalyzer(singletonList(SmartQuotesCodePointFilter::new),
+          asList(NormalizeTokenFilter::new, LowercaseTokenFilter::new),
+          singletonList(SimplifyQueryFilterPipeline::new));
+
+  private static Query pipeline(String s) {
+    return new SimplifyQueryFilterPipeline(new QueryParser(new LowercaseTokenFilter(
+        new NormalizeTokenFilter(new Tokenizer(new SmartQuotesCodePointFilter(
+            new StringCodePointSource(s))))))).query();
+  }
+
+  @Test
+  public void shouldMatchPipeline() {
+    for (String q : QUERIES)
+      assertThat(q, ANALYZER.parse(q), is(pipeline(q)));
+  }
+
+  @Test
+  public void shouldParseRepeatedly() {
+    for (int i = 0; i < 3; i++)
+      for (String q : QUERIES)
+        assertThat(q, ANALYZER.parse(q), is(pipeline(q)));
+  }
+
+  @Test
+  public void shouldRecoverAfterError() {
+    try {
+      ANALYZER.parse("\"unterminated");
+      throw new AssertionError("expected failure");
+    } catch (EofException e) {
+      // This is expected
+    }
+    assertThat(ANALYZER.parse("hello"), is(pipeline("hello")));
+  }
+
+  @Test
+  public void shouldParseCharSequence() {
+    assertThat(ANALYZER.parse(new StringBuilder("Hello World")), is(pipeline("Hello World")));
+  }
+
+  @Test
+  public void shouldParseUtf8() {
+    byte[] bytes = "“Thë råįñ”~4 OR crow's".getBytes(StandardCharsets.UTF_8);
+    assertThat(ANALYZER.parse(new Utf8CodePointSource(bytes)),
+        is(pipeline("“Thë råįñ”~4 OR crow's")));
+  }
+
+  @Test
+  public void shouldParseWithEmptyPipeline() {
+    QueryAnalyzer analyzer = new QueryAnalyzer(emptyList(), emptyList(), emptyList());
+    assertThat(analyzer.parse(""), is(VacuousQuery.INSTANCE));
+    assertThat(analyzer.parse("a OR b"),
+        is(new QueryParser(Tokenizer.forString("a OR b")).query()));
+  }
+
+  @Test
+  public void shouldSupportReentrantParse() {
+    QueryAnalyzer inner = ANALYZER;
+    QueryAnalyzer outer = new QueryAnalyzer(emptyList(), emptyList(), singletonList(
+        upstream -> () -> inner.parse(upstream.query().toString().toUpperCase())));
+    assertThat(outer.parse("hello world"), is(pipeline("hello world")));
+
+    QueryAnalyzer[] self = new QueryAnalyzer[1];
+    self[0] = new QueryAnalyzer(emptyList(), emptyList(), singletonList(upstream -> () -> {
+      Query result = upstream.query();
+      return result.toString().equals("x") ? self[0].parse("y") : result;
+    }));
+    assertThat(self[0].parse("x"), is(self[0].parse("y")));
+  }
+
+  @Test
+  public void shouldParseConcurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        results.add(executor.submit(() -> {
+          for (int j = 0; j < 1000; j++)
+            for (String q : QUERIES)
+              if (!ANALYZER.parse(q).equals(pipeline(q)))
+                return false;
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results)
+        assertThat(result.get(), is(true));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
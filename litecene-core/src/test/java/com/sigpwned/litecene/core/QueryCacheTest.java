@@ -0,0 +1,206 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import com.sigpwned.litecene.core.exception.EofException;
+import com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline;
+import com.sigpwned.litecene.core.stream.token.filter.text.LowercaseTokenFilter;
+import com.sigpwned.litecene.core.util.CacheStats;
+
+public class QueryCacheTest {
+  private static final QueryAnalyzer ANALYZER = new QueryAnalyzer(emptyList(),
+      singletonList(LowercaseTokenFilter::new), singletonList(SimplifyQueryFilterPipeline::new));
+
+  @Test
+  public void shouldReturnCachedQuery() {
+    QueryCache cache = new QueryCache(100);
+
+    Query q1 = cache.parse(ANALYZER, "hello OR world");
+    Query q2 = cache.parse(ANALYZER, new StringBuilder("hello OR world"));
+    assertThat(q1, is(ANALYZER.parse("hello OR world")));
+    assertThat(q2, sameInstance(q1));
+    assertThat(cache.size(), is(1));
+    assertThat(cache.getStats(), is(new CacheStats(1L, 1L, 0L)));
+    assertThat(cache.getStats().getHitRate(), is(0.5));
+  }
+
+  @Test
+  public void shouldKeyByAnalyzer() {
+    QueryAnalyzer other =
+        new QueryAnalyzer(emptyList(), emptyList(), singletonList(SimplifyQueryFilterPipeline::new));
+    QueryCache cache = new QueryCache(100);
+
+    Query lower = cache.parse(ANALYZER, "Hello");
+    Query upper = cache.parse(other, "Hello");
+    assertThat(lower, not(upper));
+    assertThat(cache.parse(ANALYZER, "Hello"), sameInstance(lower));
+    assertThat(cache.parse(other, "Hello"), sameInstance(upper));
+    assertThat(cache.size(), is(2));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() {
+    QueryCache cache = new QueryCache(2, Long.MAX_VALUE, QueryCache.TEXT_LENGTH, 1);
+
+    Query a = cache.parse(ANALYZER, "a");
+    cache.parse(ANALYZER, "b");
+    cache.parse(ANALYZER, "a");
+    cache.parse(ANALYZER, "c");
+
+    // b was least recently used
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getStats().getEvictionCount(), is(1L));
+    assertThat(cache.parse(ANALYZER, "a"), sameInstance(a));
+    assertThat(cache.getStats().getHitCount(), is(2L));
+    cache.parse(ANALYZER, "b");
+    assertThat(cache.getStats().getMissCount(), is(4L));
+  }
+
+  @Test
+  public void shouldEvictByWeight() {
+    QueryCache cache = new QueryCache(100, 10, QueryCache.TEXT_LENGTH, 1);
+
+    cache.parse(ANALYZER, "aaaa");
+    cache.parse(ANALYZER, "bbbb");
+    assertThat(cache.weight(), is(8L));
+
+    cache.parse(ANALYZER, "cccc");
+    assertThat(cache.size(), is(2));
+    assertThat(cache.weight(), is(8L));
+    assertThat(cache.getStats().getEvictionCount(), is(1L));
+
+    // Too heavy to cache at all
+    cache.parse(ANALYZER, "dddddddddddd");
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getStats().getEvictionCount(), is(1L));
+  }
+
+  /**
+   * The weight bound is shared by all segments, so an entry heavier than one segment's share of it
+   * is still cached
+   */
+  @Test
+  public void shouldCacheEntriesHeavierThanSegmentShare() {
+    QueryCache cache = new QueryCache(1000, 1000, QueryCache.TEXT_LENGTH);
+
+    String q = "a" + " OR b".repeat(40);
+    assertThat(q.length() > 1000 / QueryCache.DEFAULT_CONCURRENCY_LEVEL, is(true));
+    Query first = cache.parse(ANALYZER, q);
+    assertThat(cache.parse(ANALYZER, q), sameInstance(first));
+    assertThat(cache.size(), is(1));
+    assertThat(cache.weight(), is((long) q.length()));
+    assertThat(cache.getStats(), is(new CacheStats(1L, 1L, 0L)));
+  }
+
+  @Test
+  public void shouldEvictByWeightAcrossSegments() {
+    QueryCache cache = new QueryCache(1000, 1000, QueryCache.TEXT_LENGTH);
+
+    // Every query has the same length, so exactly 1000 / length of them fit
+    int length = 0;
+    for (int i = 0; i < 20; i++) {
+      String q = String.format("term%02d", i) + " OR c".repeat(19);
+      length = q.length();
+      cache.parse(ANALYZER, q);
+    }
+    assertThat(cache.weight() <= 1000L, is(true));
+    assertThat(cache.size(), is(1000 / length));
+    assertThat(cache.getStats().getEvictionCount(), is((long) (20 - 1000 / length)));
+  }
+
+  @Test
+  public void shouldUseWeigher() {
+    AtomicInteger calls = new AtomicInteger();
+    QueryCache cache = new QueryCache(100, 100, (text, query) -> {
+      calls.incrementAndGet();
+      return 7;
+    }, 1);
+
+    cache.parse(ANALYZER, "a");
+    cache.parse(ANALYZER, "a");
+    assertThat(cache.weight(), is(7L));
+    assertThat(calls.get(), is(1));
+  }
+
+  @Test
+  public void shouldNotCacheErrors() {
+    QueryCache cache = new QueryCache(100);
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.parse(ANALYZER, "\"unterminated");
+        throw new AssertionError("expected failure");
+      } catch (EofException e) {
+        // This is expected
+      }
+    }
+    assertThat(cache.size(), is(0));
+    assertThat(cache.getStats().getMissCount(), is(2L));
+  }
+
+  @Test
+  public void shouldClear() {
+    QueryCache cache = new QueryCache(100);
+    cache.parse(ANALYZER, "a");
+    cache.clear();
+    assertThat(cache.size(), is(0));
+    assertThat(cache.weight(), is(0L));
+    cache.parse(ANALYZER, "a");
+    assertThat(cache.getStats().getMissCount(), is(2L));
+  }
+
+  @Test
+  public void shouldStayBoundedAcrossThreads() throws Exception {
+    QueryCache cache = new QueryCache(64);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        int seed = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 2000; i++) {
+            String q = "term" + ((i * 7 + seed) % 200);
+            assertThat(cache.parse(ANALYZER, q), is(ANALYZER.parse(q)));
+          }
+        }));
+      }
+      for (Future<?> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(cache.size() <= 64, is(true));
+    CacheStats stats = cache.getStats();
+    assertThat(stats.getHitCount() + stats.getMissCount(), is(16000L));
+  }
+}
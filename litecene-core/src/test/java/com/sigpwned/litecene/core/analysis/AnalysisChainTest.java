@@ -0,0 +1,97 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.Random;
+import org.junit.Test;
+
+public class AnalysisChainTest {
+  public static AnalysisChain recommendedChain() {
+    return AnalysisChain.of(new NormalizeAnalysisStage(), new PrintableAsciiAnalysisStage(),
+        new LetterNumberAnalysisStage(), new LowercaseAnalysisStage());
+  }
+
+  /**
+   * The reference result, which applies each stage to the whole text in turn
+   */
+  public static String chained(AnalysisChain chain, String text) {
+    String result = text;
+    for (AnalysisStage stage : chain.getStages())
+      result = stage.analyze(result);
+    return result;
+  }
+
+  @Test
+  public void shouldMatchChainedStages() {
+    AnalysisChain chain = recommendedChain();
+    for (String text : new String[] {"", " ", "hello", "Hello World", "  padded  ", "füñkÿ",
+        "Thë råįñ ïń Špâîñ", "crow's nest", "á̖b", " x ", "①②",
+        "ﬁne", "İstanbul", "ΟΔΥΣΣΕΥΣ",
+        "𝐀𝟎", "tab\tand\nnewline", "a--b__c", "　　", "x　"}) {
+      assertThat(text, chain.analyze(text), is(chained(chain, text)));
+    }
+  }
+
+  @Test
+  public void shouldMatchChainedStagesOnRandomText() {
+    AnalysisChain chain = recommendedChain();
+    Random rand = new Random(0L);
+    for (int i = 0; i < 10000; i++) {
+      StringBuilder text = new StringBuilder();
+      int length = rand.nextInt(12);
+      for (int j = 0; j < length; j++) {
+        int cp;
+        switch (rand.nextInt(4)) {
+          case 0:
+            cp = rand.nextInt(0x80);
+            break;
+          case 1:
+            cp = rand.nextInt(0x800);
+            break;
+          case 2:
+            cp = rand.nextInt(0x10000);
+            break;
+          default:
+            cp = rand.nextInt(Character.MAX_CODE_POINT + 1);
+            break;
+        }
+        if (Character.getType(cp) != Character.SURROGATE)
+          text.appendCodePoint(cp);
+      }
+      assertThat(text.toString(), chain.analyze(text.toString()),
+          is(chained(chain, text.toString())));
+    }
+  }
+
+  @Test
+  public void shouldReturnSameInstanceWhenUnchanged() {
+    String text = "hello world";
+    assertThat(recommendedChain().analyze(text), sameInstance(text));
+  }
+
+  @Test
+  public void shouldApplyOneStage() {
+    assertThat(AnalysisChain.of(new PrintableAsciiAnalysisStage()).analyze(" a  b "),
+        is("a b"));
+  }
+}
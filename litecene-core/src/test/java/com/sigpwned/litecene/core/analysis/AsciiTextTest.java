@@ -0,0 +1,87 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.analysis;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+public class AsciiTextTest {
+  private static final Pattern MARK = Pattern.compile("\\p{M}");
+
+  private static final Pattern NON_PRINTABLE_ASCII = Pattern.compile("[^\\u0020-\\u007E]+");
+
+  private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  @Test
+  public void stagesShouldMatchRegexesOnAsciiText() {
+    NormalizeAnalysisStage normalize = new NormalizeAnalysisStage();
+    PrintableAsciiAnalysisStage printableAscii = new PrintableAsciiAnalysisStage();
+    LetterNumberAnalysisStage letterNumber = new LetterNumberAnalysisStage();
+    LowercaseAnalysisStage lowercase = new LowercaseAnalysisStage();
+
+    Random rand = new Random(0L);
+    for (int i = 0; i < 100000; i++) {
+      char[] chars = new char[rand.nextInt(10)];
+      for (int j = 0; j < chars.length; j++) {
+        // Favor the interesting characters
+        switch (rand.nextInt(4)) {
+          case 0:
+            chars[j] = ' ';
+            break;
+          case 1:
+            chars[j] = "\t\n\u0000\u001F\u007F-'".charAt(rand.nextInt(7));
+            break;
+          default:
+            chars[j] = (char) rand.nextInt(0x80);
+            break;
+        }
+      }
+      String text = new String(chars);
+
+      assertThat(text, normalize.analyze(text),
+          is(MARK.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")));
+      assertThat(text, printableAscii.analyze(text),
+          is(NON_PRINTABLE_ASCII.matcher(text).replaceAll(" ").strip()));
+      assertThat(text, letterNumber.analyze(text),
+          is(NON_ALNUM.matcher(text).replaceAll(" ").strip()));
+      assertThat(text, lowercase.analyze(text), is(text.toLowerCase(Locale.US)));
+    }
+  }
+
+  @Test
+  public void stagesShouldReturnSameInstanceWhenUnchanged() {
+    String text = "hello world 42";
+    assertThat(new NormalizeAnalysisStage().analyze(text), sameInstance(text));
+    assertThat(new PrintableAsciiAnalysisStage().analyze(text), sameInstance(text));
+    assertThat(new LetterNumberAnalysisStage().analyze(text), sameInstance(text));
+    assertThat(new LowercaseAnalysisStage().analyze(text), sameInstance(text));
+  }
+
+  @Test
+  public void printableAsciiShouldKeepInteriorSpaces() {
+    assertThat(new PrintableAsciiAnalysisStage().analyze(" a \t b  "), is("a   b"));
+  }
+}
@@ -26,19 +26,37 @@ import java.util.OptionalInt;
 import org.junit.Test;
 import com.sigpwned.litecene.core.Query;
 import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.exception.EofException;
+import com.sigpwned.litecene.core.exception.QueryTooComplexException;
+import com.sigpwned.litecene.core.exception.UnmatchedParenthesisException;
+import com.sigpwned.litecene.core.exception.UnparsedTokenException;
 import com.sigpwned.litecene.core.query.AndQuery;
 import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
 import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
 import com.sigpwned.litecene.core.query.TextQuery;
 import com.sigpwned.litecene.core.query.VacuousQuery;
 import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
 import com.sigpwned.litecene.core.stream.token.Tokenizer;
+import com.sigpwned.litecene.core.util.Spans;
 
 public class QueryParserTest {
   public static Query parseQuery(String s) {
     return new QueryParser(new Tokenizer(new StringCodePointSource(s))).query();
   }
 
+  public static Query parseQuery(String s, QueryParser.Limits limits) {
+    return new QueryParser(new Tokenizer(new StringCodePointSource(s)), limits).query();
+  }
+
+  private static String repeat(String s, int count) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < count; i++)
+      result.append(s);
+    return result.toString();
+  }
+
   @Test
   public void shouldParseEmptySearch() {
     Query q = parseQuery("");
@@ -117,4 +135,145 @@ public class QueryParserTest {
     String s = parseQuery(queryString).toString();
     assertThat(s, is(queryString));
   }
+
+  @Test
+  public void shouldRecordSpans() {
+    String queryString = "NOT hello OR (\"big world\"~4 AND x*)";
+    OrQuery q = (OrQuery) parseQuery(queryString);
+    assertThat(q.getSpan(), is(Spans.of(0, queryString.length())));
+
+    NotQuery not = (NotQuery) q.getChildren().get(0);
+    assertThat(not.getSpan(), is(Spans.of(0, 9)));
+    assertThat(not.getChild().getSpan(), is(Spans.of(4, 9)));
+
+    ParenQuery paren = (ParenQuery) q.getChildren().get(1);
+    assertThat(paren.getSpan(), is(Spans.of(13, queryString.length())));
+
+    AndQuery and = (AndQuery) paren.getChild();
+    assertThat(and.getSpan(), is(Spans.of(14, queryString.length() - 1)));
+    assertThat(and.getChildren().get(0).getSpan(), is(Spans.of(14, 27)));
+    assertThat(and.getChildren().get(1).getSpan(), is(Spans.of(32, 34)));
+  }
+
+  @Test
+  public void shouldIgnoreSpansInEquality() {
+    assertThat(parseQuery("  hello   world"), is(parseQuery("hello world")));
+  }
+
+  @Test
+  public void shouldRecordUnparsedTokenSpan() {
+    try {
+      parseQuery("a OR b) c");
+      throw new AssertionError("expected failure");
+    } catch (UnparsedTokenException e) {
+      assertThat(e.getSpan(), is(Spans.of(6, 7)));
+    }
+  }
+
+  @Test
+  public void shouldRecordUnmatchedParenthesisSpan() {
+    try {
+      parseQuery("x (a OR (b)");
+      throw new AssertionError("expected failure");
+    } catch (UnmatchedParenthesisException e) {
+      assertThat(e.getSpan(), is(Spans.of(2, 3)));
+    }
+  }
+
+  @Test
+  public void shouldRecordEofSpan() {
+    try {
+      parseQuery("a AND  ");
+      throw new AssertionError("expected failure");
+    } catch (EofException e) {
+      assertThat(e.getSpan(), is(Spans.at(5)));
+    }
+  }
+
+  @Test
+  public void shouldParseDeeplyNestedQueryWithoutLimits() {
+    int depth = 100000;
+    Query q = parseQuery(repeat("(", depth) + "a" + repeat(")", depth),
+        QueryParser.Limits.UNLIMITED);
+
+    // Walk down rather than compare, since equals recurses
+    for (int i = 0; i < depth; i++) {
+      assertThat(q.getSpan(), is(Spans.of(i, 2 * depth + 1 - i)));
+      q = ((ParenQuery) q).getChild();
+    }
+    assertThat(q, is(new TextQuery(asList(Term.fromString("a")), OptionalInt.empty())));
+  }
+
+  @Test
+  public void shouldParseLongNotChainWithoutLimits() {
+    int depth = 100000;
+    Query q = parseQuery(repeat("NOT ", depth) + "a", QueryParser.Limits.UNLIMITED);
+    for (int i = 0; i < depth; i++)
+      q = ((NotQuery) q).getChild();
+    assertThat(q, is(new TextQuery(asList(Term.fromString("a")), OptionalInt.empty())));
+  }
+
+  @Test
+  public void shouldParseQueryAtLimits() {
+    QueryParser.Limits limits = new QueryParser.Limits(2, 7, 4);
+    Query q = parseQuery("NOT (\"a b\" AND c) d", limits);
+    assertThat(q,
+        is(new ListQuery(asList(
+            new NotQuery(new ParenQuery(new AndQuery(asList(
+                new TextQuery(asList(Term.fromString("a"), Term.fromString("b")),
+                    OptionalInt.empty()),
+                new TextQuery(asList(Term.fromString("c")), OptionalInt.empty()))))),
+            new TextQuery(asList(Term.fromString("d")), OptionalInt.empty())))));
+  }
+
+  @Test
+  public void shouldRejectQueryTooDeep() {
+    try {
+      parseQuery(repeat("(", 100000) + "a" + repeat(")", 100000));
+      throw new AssertionError("expected failure");
+    } catch (QueryTooComplexException e) {
+      assertThat(e.getLimit(), is(QueryTooComplexException.Limit.DEPTH));
+      assertThat(e.getSpan(), is(Spans.of(256, 257)));
+    }
+
+    try {
+      parseQuery("NOT (a)", new QueryParser.Limits(2, 100, 100));
+      parseQuery("NOT (NOT a)", new QueryParser.Limits(2, 100, 100));
+      throw new AssertionError("expected failure");
+    } catch (QueryTooComplexException e) {
+      assertThat(e.getLimit(), is(QueryTooComplexException.Limit.DEPTH));
+      assertThat(e.getSpan(), is(Spans.of(5, 8)));
+    }
+  }
+
+  @Test
+  public void shouldRejectQueryWithTooManyNodes() {
+    try {
+      parseQuery("NOT (\"a b\" AND c) d", new QueryParser.Limits(2, 6, 4));
+      throw new AssertionError("expected failure");
+    } catch (QueryTooComplexException e) {
+      assertThat(e.getLimit(), is(QueryTooComplexException.Limit.NODES));
+    }
+  }
+
+  @Test
+  public void shouldRejectQueryWithTooManyTerms() {
+    try {
+      parseQuery("a OR \"b c\" OR \"d e f\"~10 OR g", new QueryParser.Limits(2, 100, 5));
+      throw new AssertionError("expected failure");
+    } catch (QueryTooComplexException e) {
+      assertThat(e.getLimit(), is(QueryTooComplexException.Limit.TERMS));
+      assertThat(e.getSpan(), is(Spans.of(14, 24)));
+    }
+  }
+
+  @Test
+  public void shouldReportSyntaxErrorsBeforeLaterLimits() {
+    try {
+      parseQuery("a ) " + repeat("(", 1000), new QueryParser.Limits(2, 100, 100));
+      throw new AssertionError("expected failure");
+    } catch (UnparsedTokenException e) {
+      assertThat(e.getSpan(), is(Spans.of(2, 3)));
+    }
+  }
 }
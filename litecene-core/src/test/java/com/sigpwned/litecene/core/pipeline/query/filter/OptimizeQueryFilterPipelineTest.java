@@ -0,0 +1,120 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.pipeline.query.filter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+
+public class OptimizeQueryFilterPipelineTest {
+  public static Query parseQuery(String s) {
+    return new OptimizeQueryFilterPipeline(new SimplifyQueryFilterPipeline(
+        new QueryParser(new Tokenizer(new StringCodePointSource(s))))).query();
+  }
+
+  @Test
+  public void shouldSortChildren() {
+    assertThat(parseQuery("c OR a OR b"), is(parseQuery("a OR b OR c")));
+    assertThat(parseQuery("c OR a OR b").toString(), is("a OR b OR c"));
+  }
+
+  @Test
+  public void shouldRemoveDuplicateChildren() {
+    assertThat(parseQuery("a OR b OR a").toString(), is("a OR b"));
+    assertThat(parseQuery("a AND b AND a").toString(), is("a AND b"));
+    assertThat(parseQuery("a b a").toString(), is("a b"));
+    assertThat(parseQuery("a OR a").toString(), is("a"));
+  }
+
+  @Test
+  public void shouldFlattenConjunctions() {
+    assertThat(parseQuery("a (b AND c)").toString(), is("a b c"));
+    assertThat(parseQuery("a AND (b c)").toString(), is("a AND b AND c"));
+  }
+
+  @Test
+  public void shouldAbsorbConjunctionInDisjunction() {
+    assertThat(parseQuery("a OR (a AND b)").toString(), is("a"));
+    assertThat(parseQuery("(a AND b) OR (a AND b AND c) OR d").toString(), is("(a AND b) OR d"));
+  }
+
+  @Test
+  public void shouldOptimizePastedQuery() {
+    assertThat(parseQuery("(a AND b) OR (a AND c) OR a OR a").toString(), is("a"));
+  }
+
+  @Test
+  public void shouldAbsorbDisjunctionInConjunction() {
+    assertThat(parseQuery("a AND (a OR b)").toString(), is("a"));
+    assertThat(parseQuery("(a OR b) AND (a OR b OR c) AND d").toString(), is("(a OR b) AND d"));
+  }
+
+  @Test
+  public void shouldMergeTermsWithPrefixes() {
+    assertThat(parseQuery("app* OR apple OR apply").toString(), is("app*"));
+    assertThat(parseQuery("app* AND apple").toString(), is("apple"));
+    assertThat(parseQuery("app* OR apple* OR apricot").toString(), is("app* OR apricot"));
+    assertThat(parseQuery("app* OR (apple AND pie)").toString(), is("app*"));
+  }
+
+  @Test
+  public void shouldNotMergePhrases() {
+    assertThat(parseQuery("app* OR \"apple pie\"").toString(), is("\"apple pie\" OR app*"));
+    assertThat(parseQuery("app* OR \"apple pie\"~2").toString(), is("\"apple pie\"~2 OR app*"));
+  }
+
+  @Test
+  public void shouldFactorCommonConjuncts() {
+    assertThat(parseQuery("(a AND b) OR (a AND c)").toString(), is("(b OR c) AND a"));
+    assertThat(parseQuery("(a AND b AND c) OR (b AND a AND d)").toString(),
+        is("(c OR d) AND a AND b"));
+    assertThat(parseQuery("(a AND b) OR (a AND c) OR d").toString(),
+        is("(a AND b) OR (a AND c) OR d"));
+  }
+
+  @Test
+  public void shouldFactorNestedDisjunctions() {
+    assertThat(parseQuery("(a AND b AND c) OR (a AND e) OR (a AND b AND d)").toString(),
+        is("(b AND c OR b AND d OR e) AND a"));
+    assertThat(parseQuery("(a AND ((b AND c) OR (b AND d))) OR (a AND e)").toString(),
+        is("((c OR d) AND b OR e) AND a"));
+  }
+
+  @Test
+  public void shouldOptimizeUnderNot() {
+    assertThat(parseQuery("x AND NOT (b OR a OR b)").toString(), is("NOT (a OR b) AND x"));
+  }
+
+  @Test
+  public void shouldReturnOptimalQueryUnchanged() {
+    Query q = new SimplifyQueryFilterPipeline(
+        new QueryParser(new Tokenizer(new StringCodePointSource("a AND (b OR c) AND NOT d"))))
+            .query();
+    Query optimized = new OptimizeQueryFilterPipeline(() -> q).query();
+    assertThat(optimized.toString(), is("(b OR c) AND NOT d AND a"));
+
+    assertThat(new OptimizeQueryFilterPipeline(() -> optimized).query(), sameInstance(optimized));
+  }
+}
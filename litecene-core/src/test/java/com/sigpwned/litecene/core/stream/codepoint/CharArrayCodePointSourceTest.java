@@ -0,0 +1,61 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.util.CodePointStreams;
+
+public class CharArrayCodePointSourceTest {
+  @Test
+  public void shouldReturnAllCodePointsInOrder() {
+    String input = "Hello, 😀 world!";
+
+    CodePointStream cps = new CharArrayCodePointSource(input.toCharArray());
+
+    String output = CodePointStreams.toString(cps);
+
+    assertThat(output, is(input));
+    assertThat(cps.peek(), is(CodePointStream.EOF));
+  }
+
+  @Test
+  public void shouldReturnRange() {
+    CodePointStream cps = new CharArrayCodePointSource("Hello, world!".toCharArray(), 7, 5);
+
+    assertThat(CodePointStreams.toString(cps), is("world"));
+  }
+
+  @Test
+  public void shouldNotCombineSurrogatePairAcrossEndOfRange() {
+    CodePointStream cps = new CharArrayCodePointSource("a😀".toCharArray(), 0, 2);
+
+    assertThat(cps.next(), is((int) 'a'));
+    assertThat(cps.next(), is(0xD83D));
+    assertThat(cps.next(), is(CodePointStream.EOF));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldRejectInvalidRange() {
+    new CharArrayCodePointSource("Hello".toCharArray(), 3, 3);
+  }
+}
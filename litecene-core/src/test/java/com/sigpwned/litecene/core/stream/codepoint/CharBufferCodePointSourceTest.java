@@ -0,0 +1,65 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import org.junit.Test;
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.util.CodePointStreams;
+
+public class CharBufferCodePointSourceTest {
+  @Test
+  public void shouldReturnRemainingCodePointsInOrder() {
+    CharBuffer input = CharBuffer.wrap("Hello, 😀 world!");
+    input.position(7);
+
+    CodePointStream cps = new CharBufferCodePointSource(input);
+
+    assertThat(CodePointStreams.toString(cps), is("😀 world!"));
+    assertThat(cps.peek(), is(CodePointStream.EOF));
+    assertThat(input.position(), is(7));
+  }
+
+  @Test
+  public void shouldReadDirectBuffer() {
+    String text = "Hello, 😀 world!";
+    CharBuffer input = ByteBuffer.allocateDirect(2 * text.length()).asCharBuffer();
+    input.put(text).flip();
+
+    CodePointStream cps = new CharBufferCodePointSource(input);
+
+    assertThat(CodePointStreams.toString(cps), is(text));
+  }
+
+  @Test
+  public void shouldNotCombineSurrogatePairAcrossLimit() {
+    CharBuffer input = CharBuffer.wrap("a😀");
+    input.limit(2);
+
+    CodePointStream cps = new CharBufferCodePointSource(input);
+
+    assertThat(cps.next(), is((int) 'a'));
+    assertThat(cps.next(), is(0xD83D));
+    assertThat(cps.next(), is(CodePointStream.EOF));
+  }
+}
@@ -39,6 +39,25 @@ public class StringCodePointSourceTest {
     assertThat(cps.peek(), is(CodePointStream.EOF));
   }
 
+  @Test
+  public void bulkReadShouldMatchNext() {
+    String input = "Hello, 😀 world!";
+
+    CodePointStream cps = new StringCodePointSource(input);
+
+    int[] buf = new int[4];
+    StringBuilder output = new StringBuilder();
+    output.appendCodePoint(cps.next());
+    for (int count = cps.read(buf, 1, 3); count != CodePointStream.EOF; count =
+        cps.read(buf, 1, 3)) {
+      for (int i = 1; i <= count; i++)
+        output.appendCodePoint(buf[i]);
+    }
+
+    assertThat(output.toString(), is(input));
+    assertThat(cps.read(buf, 0, 0), is(0));
+  }
+
   @Test
   public void twoPeeksShouldReturnSameValue() {
     String input = "Hello, world!";
@@ -0,0 +1,92 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.util.CodePointStreams;
+
+public class Utf8CodePointSourceTest {
+  @Test
+  public void shouldDecodeAllCodePointsInOrder() {
+    String input = "Hello, wörld € 😀!";
+
+    CodePointStream cps = new Utf8CodePointSource(input.getBytes(UTF_8));
+
+    assertThat(CodePointStreams.toString(cps), is(input));
+    assertThat(cps.peek(), is(CodePointStream.EOF));
+  }
+
+  @Test
+  public void shouldDecodeRange() {
+    byte[] input = "Hello, world!".getBytes(UTF_8);
+
+    CodePointStream cps = new Utf8CodePointSource(input, 7, 5);
+
+    assertThat(CodePointStreams.toString(cps), is("world"));
+  }
+
+  @Test
+  public void shouldDecodeDirectBufferWithoutMovingIt() {
+    byte[] bytes = "Hello, wörld!".getBytes(UTF_8);
+    ByteBuffer input = ByteBuffer.allocateDirect(bytes.length);
+    input.put(bytes).flip();
+    input.position(7);
+
+    CodePointStream cps = new Utf8CodePointSource(input);
+
+    assertThat(CodePointStreams.toString(cps), is("wörld!"));
+    assertThat(input.position(), is(7));
+  }
+
+  @Test
+  public void shouldReplaceMalformedInput() {
+    // Truncated sequence, stray continuation, surrogate, overlong encoding
+    byte[] input = {'a', (byte) 0xE2, (byte) 0x82, 'b', (byte) 0x80, 'c', (byte) 0xED,
+        (byte) 0xA0, (byte) 0x80, 'd', (byte) 0xC0, (byte) 0xAF, 'e', (byte) 0xF0, (byte) 0x9F};
+
+    CodePointStream cps = new Utf8CodePointSource(input);
+
+    assertThat(CodePointStreams.toString(cps), is(new String(input, UTF_8)));
+  }
+
+  @Test
+  public void shouldDecodeRandomBytesLikeString() {
+    Random rand = new Random(0L);
+    for (int i = 0; i < 10000; i++) {
+      byte[] input = new byte[rand.nextInt(16)];
+      for (int j = 0; j < input.length; j++) {
+        // Favor bytes that start and continue multibyte sequences
+        input[j] = (byte) (rand.nextBoolean() ? 0x80 + rand.nextInt(0x80) : rand.nextInt(0x100));
+      }
+
+      CodePointStream cps = new Utf8CodePointSource(input);
+
+      assertThat(Arrays.toString(input), CodePointStreams.toString(cps),
+          is(new String(input, UTF_8)));
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint.filter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import com.sigpwned.litecene.core.CodePointStream;
+
+public class CodePointMappingTest {
+  @Test
+  public void shouldMapBmpAndSupplementaryCodePoints() {
+    CodePointMapping mapping = CodePointMapping.of(Map.of(0x2014, (int) '-', 0xFF21, (int) 'A',
+        0x1D400, (int) 'A', 0x1D41A, (int) 'a'));
+
+    assertThat(mapping.map(0x2014), is((int) '-'));
+    assertThat(mapping.map(0xFF21), is((int) 'A'));
+    assertThat(mapping.map(0x1D400), is((int) 'A'));
+    assertThat(mapping.map(0x1D41A), is((int) 'a'));
+    assertThat(mapping.map('x'), is((int) 'x'));
+    assertThat(mapping.map(0x2015), is(0x2015));
+    assertThat(mapping.map(0x1D401), is(0x1D401));
+    assertThat(mapping.map(CodePointStream.EOF), is(CodePointStream.EOF));
+  }
+
+  @Test
+  public void shouldMatchMap() {
+    Random rand = new Random(0L);
+    Map<Integer, Integer> map = new HashMap<>();
+    for (int i = 0; i < 1000; i++)
+      map.put(0x80 + rand.nextInt(Character.MAX_CODE_POINT - 0x80), rand.nextInt(0x80));
+
+    CodePointMapping mapping = CodePointMapping.of(map);
+
+    for (int cp = 0; cp <= Character.MAX_CODE_POINT; cp++)
+      assertThat(mapping.map(cp), is(map.getOrDefault(cp, cp)));
+  }
+
+  @Test
+  public void shouldUnionMappings() {
+    CodePointMapping mapping = CodePointMapping.union(SmartQuotesCodePointFilter.MAPPING,
+        CodePointMapping.of(Map.of(0x2014, (int) '-')));
+
+    assertThat(mapping.map(0x201C), is((int) '"'));
+    assertThat(mapping.map(0x2014), is((int) '-'));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectConflictingUnion() {
+    CodePointMapping.union(CodePointMapping.of(Map.of(0x2014, (int) '-')),
+        CodePointMapping.of(Map.of(0x2014, (int) '_')));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNonIdempotentMapping() {
+    CodePointMapping.of(Map.of((int) 'a', (int) 'b', (int) 'b', (int) 'c'));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidCodePoint() {
+    CodePointMapping.of(Map.of((int) 'a', CodePointStream.EOF));
+  }
+}
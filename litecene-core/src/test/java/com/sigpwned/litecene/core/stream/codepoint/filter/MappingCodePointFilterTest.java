@@ -0,0 +1,53 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.codepoint.filter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.Map;
+import org.junit.Test;
+import com.sigpwned.litecene.core.CodePointStream;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.util.CodePointStreams;
+
+public class MappingCodePointFilterTest {
+  private static final CodePointMapping DASHES =
+      CodePointMapping.of(Map.of(0x2013, (int) '-', 0x2014, (int) '-'));
+
+  @Test
+  public void shouldMapCodePoints() {
+    CodePointStream cps =
+        new MappingCodePointFilter(new StringCodePointSource("a–b—c-d"), DASHES);
+
+    StringBuilder buf = new StringBuilder();
+    while (cps.hasNext())
+      buf.appendCodePoint(cps.next());
+
+    assertThat(buf.toString(), is("a-b-c-d"));
+  }
+
+  @Test
+  public void shouldMapCodePointsInBulk() {
+    CodePointStream cps =
+        new MappingCodePointFilter(new StringCodePointSource("a–b—c-d"), DASHES);
+
+    assertThat(CodePointStreams.toString(cps), is("a-b-c-d"));
+  }
+}
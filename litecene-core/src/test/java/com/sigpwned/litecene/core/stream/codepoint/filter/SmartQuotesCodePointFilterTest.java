@@ -24,6 +24,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import org.junit.Test;
 import com.sigpwned.litecene.core.CodePointStream;
 import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.util.CodePointStreams;
 
 public class SmartQuotesCodePointFilterTest {
   @Test
@@ -37,4 +38,27 @@ public class SmartQuotesCodePointFilterTest {
 
     assertThat(buf.toString(), is("\"hello world\""));
   }
+
+  @Test
+  public void shouldReplaceSmartquotesInBulk() {
+    CodePointStream cps =
+        new SmartQuotesCodePointFilter(new StringCodePointSource("\u201Chello world\u201D"));
+
+    assertThat(CodePointStreams.toString(cps), is("\"hello world\""));
+  }
+
+  @Test
+  public void bulkReadShouldStartWithPeekedCodePoint() {
+    CodePointStream cps = new SmartQuotesCodePointFilter(new StringCodePointSource("\u201Cab"));
+
+    assertThat(cps.peek(), is((int) '"'));
+    assertThat(cps.peek(), is((int) '"'));
+
+    int[] buf = new int[2];
+    assertThat(cps.read(buf, 0, 2), is(2));
+    assertThat(buf[0], is((int) '"'));
+    assertThat(buf[1], is((int) 'a'));
+    assertThat(cps.next(), is((int) 'b'));
+    assertThat(cps.read(buf, 0, 2), is(CodePointStream.EOF));
+  }
 }
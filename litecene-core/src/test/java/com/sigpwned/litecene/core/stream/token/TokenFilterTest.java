@@ -0,0 +1,91 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.token;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.List;
+import java.util.OptionalInt;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.Token;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.query.token.TextToken;
+import com.sigpwned.litecene.core.util.TokenStreams;
+
+public class TokenFilterTest {
+  private static class CountingTokenFilter extends TokenFilter {
+    public int count;
+
+    public CountingTokenFilter(TokenStream upstream) {
+      super(upstream);
+    }
+
+    @Override
+    protected Token filter(Token token) {
+      count = count + 1;
+      return token;
+    }
+  }
+
+  @Test
+  public void shouldFilterEachTokenOnceWhenPeeking() {
+    List<Token> inputTokens =
+        asList(new TextToken(asList(Term.fromString("hello")), OptionalInt.empty()), Token.AND,
+            new TextToken(asList(Term.fromString("world")), OptionalInt.empty()));
+
+    CountingTokenFilter ts = new CountingTokenFilter(new ListTokenSource(inputTokens));
+
+    ts.peek();
+    ts.peek();
+    ts.next();
+    ts.peek();
+    ts.next();
+    ts.next();
+
+    assertThat(ts.count, is(3));
+  }
+
+  @Test
+  public void shouldFilterEachTokenOnceWhenChained() {
+    CountingTokenFilter ts1 = new CountingTokenFilter(Tokenizer.forString("a OR b c AND (d)"));
+    CountingTokenFilter ts2 = new CountingTokenFilter(ts1);
+
+    new QueryParser(ts2).query();
+
+    // There are 8 tokens plus EOF
+    assertThat(ts1.count, is(9));
+    assertThat(ts2.count, is(9));
+  }
+
+  @Test
+  public void shouldReturnAllTokens() {
+    List<Token> inputTokens =
+        asList(new TextToken(asList(Term.fromString("hello")), OptionalInt.empty()), Token.AND,
+            new TextToken(asList(Term.fromString("world")), OptionalInt.empty()));
+
+    List<Token> outputTokens =
+        TokenStreams.toList(new CountingTokenFilter(new ListTokenSource(inputTokens)));
+
+    assertThat(outputTokens, is(inputTokens));
+  }
+}
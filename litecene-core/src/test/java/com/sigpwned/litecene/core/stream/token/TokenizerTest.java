@@ -28,7 +28,10 @@ import org.junit.Test;
 import com.sigpwned.litecene.core.Term;
 import com.sigpwned.litecene.core.Token;
 import com.sigpwned.litecene.core.exception.EofException;
+import com.sigpwned.litecene.core.exception.InvalidProximityException;
+import com.sigpwned.litecene.core.exception.InvalidWildcardException;
 import com.sigpwned.litecene.core.query.token.TextToken;
+import com.sigpwned.litecene.core.util.Spans;
 import com.sigpwned.litecene.core.util.TokenStreams;
 
 public class TokenizerTest {
@@ -51,6 +54,24 @@ public class TokenizerTest {
 
   }
 
+  @Test
+  public void shouldParseTokensAcrossWindows() {
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 1000; i++)
+      input.append(i % 3 == 0 ? "\"alpha beta\"~5 " : "gamma" + i + " ");
+
+    List<Token> tokens = TokenStreams.toList(Tokenizer.forString(input.toString()));
+
+    assertThat(tokens.size(), is(1000));
+    for (int i = 0; i < 1000; i++) {
+      assertThat(tokens.get(i),
+          is(i % 3 == 0
+              ? new TextToken(asList(Term.fromString("alpha"), Term.fromString("beta")),
+                  OptionalInt.of(5))
+              : new TextToken(asList(Term.fromString("gamma" + i)), OptionalInt.empty())));
+    }
+  }
+
   @Test
   public void shouldPerformWhitespaceTokenization() {
     Tokenizer ts =
@@ -82,4 +103,96 @@ public class TokenizerTest {
       // Ignore...
     }
   }
+
+  @Test
+  public void shouldParseWildcards() {
+    List<Token> tokens = TokenStreams.toList(Tokenizer.forString("dev* \"big dat* set\" * AND*"));
+
+    assertThat(tokens,
+        is(asList(new TextToken(asList(new Term("dev", true)), OptionalInt.empty()),
+            new TextToken(
+                asList(new Term("big", false), new Term("dat", true), new Term("set", false)),
+                OptionalInt.empty()),
+            new TextToken(asList(new Term("", true)), OptionalInt.empty()),
+            new TextToken(asList(new Term("AND", true)), OptionalInt.empty()))));
+  }
+
+  @Test
+  public void shouldParseEmptyPhraseAsEmptyTerm() {
+    List<Token> tokens = TokenStreams.toList(Tokenizer.forString("\"\" \"  \"~1"));
+
+    assertThat(tokens, is(asList(new TextToken(asList(new Term("", false)), OptionalInt.empty()),
+        new TextToken(asList(new Term("", false)), OptionalInt.of(1)))));
+  }
+
+  @Test(expected = InvalidWildcardException.class)
+  public void shouldFailToParseInteriorWildcard() {
+    TokenStreams.toList(Tokenizer.forString("a*b"));
+  }
+
+  @Test(expected = InvalidWildcardException.class)
+  public void shouldFailToParseInteriorWildcardInPhrase() {
+    TokenStreams.toList(Tokenizer.forString("\"a **\"~2"));
+  }
+
+  @Test(expected = InvalidProximityException.class)
+  public void shouldReportProximityErrorBeforeWildcardError() {
+    TokenStreams.toList(Tokenizer.forString("\"a*b\"~0"));
+  }
+
+  @Test(expected = InvalidProximityException.class)
+  public void shouldFailToParseOverflowingProximity() {
+    TokenStreams.toList(Tokenizer.forString("\"a b\"~99999999999"));
+  }
+
+  @Test(expected = InvalidProximityException.class)
+  public void shouldFailToParseProximityTooSmallForTerms() {
+    TokenStreams.toList(Tokenizer.forString("\"a b c\"~2"));
+  }
+
+  @Test
+  public void shouldParseNonAsciiProximityDigits() {
+    List<Token> tokens = TokenStreams.toList(Tokenizer.forString("\"a b\"~\u0661\u0662"));
+
+    assertThat(tokens, is(asList(new TextToken(asList(new Term("a", false), new Term("b", false)),
+        OptionalInt.of(12)))));
+  }
+
+  @Test
+  public void shouldRecordSpans() {
+    String text = "  hello (\"a b\"~2) \uD83D\uDE00x AND";
+    List<Token> tokens = TokenStreams.toList(Tokenizer.forString(text));
+
+    assertThat(tokens.get(0).getSpan(), is(Spans.of(2, 7)));
+    assertThat(tokens.get(1).getSpan(), is(Spans.of(8, 9)));
+    assertThat(tokens.get(2).getSpan(), is(Spans.of(9, 16)));
+    assertThat(tokens.get(3).getSpan(), is(Spans.of(16, 17)));
+    assertThat(tokens.get(4).getSpan(), is(Spans.of(18, 21)));
+    assertThat(tokens.get(5).getSpan(), is(Spans.of(22, 25)));
+  }
+
+  @Test
+  public void shouldRecordSpansFromResetOffset() {
+    Tokenizer ts = Tokenizer.forString("a b");
+    ts.reset(10);
+    assertThat(ts.next().getSpan(), is(Spans.of(10, 11)));
+    assertThat(ts.next().getSpan(), is(Spans.of(12, 13)));
+  }
+
+  @Test
+  public void shouldRecordErrorSpans() {
+    try {
+      TokenStreams.toList(Tokenizer.forString("a  \"b c"));
+      throw new AssertionError("expected failure");
+    } catch (EofException e) {
+      assertThat(e.getSpan(), is(Spans.of(3, 7)));
+    }
+
+    try {
+      TokenStreams.toList(Tokenizer.forString("a b*c d"));
+      throw new AssertionError("expected failure");
+    } catch (InvalidWildcardException e) {
+      assertThat(e.getSpan(), is(Spans.of(2, 5)));
+    }
+  }
 }
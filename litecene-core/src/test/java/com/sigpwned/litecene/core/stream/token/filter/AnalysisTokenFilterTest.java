@@ -0,0 +1,87 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.stream.token.filter;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.List;
+import java.util.OptionalInt;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.Token;
+import com.sigpwned.litecene.core.TokenStream;
+import com.sigpwned.litecene.core.analysis.AnalysisChainTest;
+import com.sigpwned.litecene.core.query.token.TextToken;
+import com.sigpwned.litecene.core.stream.codepoint.StringCodePointSource;
+import com.sigpwned.litecene.core.stream.token.ListTokenSource;
+import com.sigpwned.litecene.core.stream.token.Tokenizer;
+import com.sigpwned.litecene.core.stream.token.filter.text.LetterNumberTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.LowercaseTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.NormalizeTokenFilter;
+import com.sigpwned.litecene.core.stream.token.filter.text.PrintableAsciiTokenFilter;
+import com.sigpwned.litecene.core.util.TokenStreams;
+
+public class AnalysisTokenFilterTest {
+  @Test
+  public void shouldMatchChainedFilters() {
+    for (String q : new String[] {"hello", "Hello World", "\"Thë råįñ ïń Špâîñ\"~10",
+        "crow's nest", "\"crow's nest\"~4", "developer* OR dev*", "(A AND NOT b) OR c",
+        "\"It wa* the best of times\"", "#selfie OR @twitter", "\" leading\"",
+        "\"ΟΔΥΣΣΕΥΣ\"", "İstanbul", "\"a -- b\"~3"}) {
+      List<Token> fused = TokenStreams.toList(new AnalysisTokenFilter(
+          new Tokenizer(new StringCodePointSource(q)), AnalysisChainTest.recommendedChain()));
+      List<Token> chained =
+          TokenStreams.toList(new LowercaseTokenFilter(new LetterNumberTokenFilter(
+              new PrintableAsciiTokenFilter(new NormalizeTokenFilter(
+                  new Tokenizer(new StringCodePointSource(q)))))));
+      assertThat(q, fused, is(chained));
+    }
+  }
+
+  @Test
+  public void shouldReturnUnchangedTokens() {
+    Token token = new TextToken(asList(Term.fromString("hello"), Term.fromString("world")), 4);
+    TokenStream ts = new AnalysisTokenFilter(new ListTokenSource(asList(token)),
+        AnalysisChainTest.recommendedChain());
+    assertThat(ts.next(), sameInstance(token));
+  }
+
+  @Test
+  public void shouldDropVacuousTerms() {
+    TokenStream ts = new AnalysisTokenFilter(
+        new ListTokenSource(
+            asList(new TextToken(asList(Term.fromString("--"), Term.fromString("Hi")), 4))),
+        AnalysisChainTest.recommendedChain());
+    assertThat(ts.next(), is(new TextToken(asList(Term.fromString("hi")), 3)));
+    assertThat(ts.next(), is(Token.EOF));
+  }
+
+  @Test
+  public void shouldNotTouchNonTextTokens() {
+    TokenStream ts = new AnalysisTokenFilter(
+        new ListTokenSource(asList(Token.AND, Token.LPAREN, Token.OR, Token.NOT, Token.RPAREN,
+            new TextToken(asList(Term.fromString("füñkÿ")), OptionalInt.empty()))),
+        AnalysisChainTest.recommendedChain());
+    assertThat(TokenStreams.toList(ts), is(asList(Token.AND, Token.LPAREN, Token.OR, Token.NOT,
+        Token.RPAREN, new TextToken(asList(Term.fromString("funky")), OptionalInt.empty()))));
+  }
+}
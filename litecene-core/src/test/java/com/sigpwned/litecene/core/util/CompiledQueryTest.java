@@ -0,0 +1,181 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.pipeline.query.QueryParser;
+import com.sigpwned.litecene.core.pipeline.query.QueryParserTest;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+public class CompiledQueryTest {
+  /**
+   * Matches text nodes whose terms all appear in the given words, ignoring order and proximity
+   */
+  private static CompiledQuery.TextMatcher words(String... words) {
+    Set<String> ws = Set.of(words);
+    return (query, node) -> {
+      for (int i = query.getTermStart(node); i < query.getTermEnd(node); i++) {
+        Term term = query.getTerm(i);
+        if (term.isWildcard() ? ws.stream().noneMatch(w -> w.startsWith(term.getText()))
+            : !ws.contains(term.getText()))
+          return false;
+      }
+      return true;
+    };
+  }
+
+  @Test
+  public void shouldLayOutNodesInPostOrder() {
+    CompiledQuery q = CompiledQuery.compile(QueryParserTest.parseQuery("a OR (\"b c\"~3 NOT d)"));
+
+    assertThat(q.size(), is(7));
+    byte[] opcodes = new byte[q.size()];
+    int[] arities = new int[q.size()];
+    int[] starts = new int[q.size()];
+    for (int i = 0; i < q.size(); i++) {
+      opcodes[i] = q.getOpcode(i);
+      arities[i] = q.getArity(i);
+      starts[i] = q.getStart(i);
+    }
+    assertThat(opcodes, is(new byte[] {CompiledQuery.TEXT, CompiledQuery.TEXT, CompiledQuery.TEXT,
+        CompiledQuery.NOT, CompiledQuery.LIST, CompiledQuery.PAREN, CompiledQuery.OR}));
+    assertThat(arities, is(new int[] {0, 0, 0, 1, 2, 1, 2}));
+    assertThat(starts, is(new int[] {0, 1, 2, 2, 1, 1, 0}));
+
+    assertThat(q.getRoot(), is(6));
+    assertThat(q.getTermCount(), is(4));
+    assertThat(q.getTermStart(1), is(1));
+    assertThat(q.getTermEnd(1), is(3));
+    assertThat(q.getTerm(1), is(Term.fromString("b")));
+    assertThat(q.getProximity(1), is(3));
+    assertThat(q.getProximity(0), is(0));
+    assertThat(q.getTermStart(3), is(q.getTermEnd(3)));
+    assertThat(q.getSpan(3), is(Spans.of(14, 19)));
+  }
+
+  @Test
+  public void shouldRoundTrip() {
+    for (String s : new String[] {"", "a", "a b* c", "\"a b\"~4 AND (c OR NOT d) AND e",
+        "NOT NOT (x OR (y z))", "\"\" OR a"}) {
+      Query q = QueryParserTest.parseQuery(s);
+      Query r = CompiledQuery.compile(q).toQuery();
+      assertThat(s, r, is(q));
+      assertThat(s, r.getSpan(), is(q.getSpan()));
+      assertThat(s, CompiledQuery.compile(r), is(CompiledQuery.compile(q)));
+    }
+  }
+
+  @Test
+  public void shouldFold() {
+    CompiledQuery q = CompiledQuery.compile(QueryParserTest.parseQuery("a OR (b AND NOT c) d"));
+
+    // Count the text nodes
+    int count = q.fold(new CompiledQuery.Folder<Integer>() {
+      @Override
+      public Integer and(CompiledQuery query, int node, CompiledQuery.Operands<Integer> operands) {
+        return sum(operands);
+      }
+
+      @Override
+      public Integer or(CompiledQuery query, int node, CompiledQuery.Operands<Integer> operands) {
+        return sum(operands);
+      }
+
+      @Override
+      public Integer list(CompiledQuery query, int node, CompiledQuery.Operands<Integer> operands) {
+        return sum(operands);
+      }
+
+      @Override
+      public Integer not(CompiledQuery query, int node, Integer operand) {
+        return operand;
+      }
+
+      @Override
+      public Integer paren(CompiledQuery query, int node, Integer operand) {
+        return operand;
+      }
+
+      @Override
+      public Integer text(CompiledQuery query, int node) {
+        return 1;
+      }
+
+      private int sum(CompiledQuery.Operands<Integer> operands) {
+        int result = 0;
+        for (int i = 0; i < operands.size(); i++)
+          result = result + operands.get(i);
+        return result;
+      }
+    });
+
+    assertThat(count, is(4));
+  }
+
+  @Test
+  public void shouldMatch() {
+    CompiledQuery q =
+        CompiledQuery.compile(QueryParserTest.parseQuery("(apple OR pear*) AND NOT \"red fruit\""));
+
+    assertThat(q.matches(words("apple")), is(true));
+    assertThat(q.matches(words("pears", "fruit")), is(true));
+    assertThat(q.matches(words("apple", "red", "fruit")), is(false));
+    assertThat(q.matches(words("banana")), is(false));
+  }
+
+  @Test
+  public void shouldMatchVacuousQuery() {
+    assertThat(CompiledQuery.compile(QueryParserTest.parseQuery("")).matches(words("a")),
+        is(true));
+    assertThat(CompiledQuery.compile(new AndQuery(
+        List.of(new TextQuery(List.of(new Term("a", false)), OptionalInt.empty()),
+            VacuousQuery.INSTANCE)))
+        .matches(words("a")), is(true));
+    assertThat(CompiledQuery.compile(new NotQuery(VacuousQuery.INSTANCE)).matches(words("a")),
+        is(false));
+  }
+
+  @Test
+  public void shouldHandleDeepQueries() {
+    StringBuilder s = new StringBuilder();
+    for (int i = 0; i < 100000; i++)
+      s.append("(NOT ");
+    s.append("a");
+    for (int i = 0; i < 100000; i++)
+      s.append(")");
+
+    CompiledQuery q = CompiledQuery
+        .compile(QueryParserTest.parseQuery(s.toString(), QueryParser.Limits.UNLIMITED));
+
+    assertThat(q.size(), is(200001));
+    assertThat(q.matches(words("a")), is(true));
+    assertThat(q.toQuery().getSpan(), is(Spans.of(0, s.length())));
+  }
+}
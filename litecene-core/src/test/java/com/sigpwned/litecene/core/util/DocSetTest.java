@@ -0,0 +1,111 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.Test;
+
+public class DocSetTest {
+  @Test
+  public void shouldContainOrdinals() {
+    DocSet set = DocSet.of(70000, 3, 1, 3, 65536);
+    assertThat(set.cardinality(), is(4));
+    assertThat(set.contains(1), is(true));
+    assertThat(set.contains(2), is(false));
+    assertThat(set.contains(65536), is(true));
+    assertThat(set.contains(-1), is(false));
+    assertThat(set.toArray(), is(new int[] {1, 3, 65536, 70000}));
+    assertThat(set.toString(), is("[1, 3, 65536, 70000]"));
+  }
+
+  @Test
+  public void shouldBuildRanges() {
+    assertThat(DocSet.range(0), is(DocSet.empty()));
+    assertThat(DocSet.range(0).isEmpty(), is(true));
+    for (int size : new int[] {1, 63, 64, 4096, 4097, 65536, 65537, 200000}) {
+      DocSet.Builder expected = DocSet.builder();
+      for (int i = 0; i < size; i++)
+        expected.add(i);
+      assertThat(DocSet.range(size), is(expected.build()));
+      assertThat(DocSet.range(size).cardinality(), is(size));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectDescendingOrdinals() {
+    DocSet.builder().add(2).add(1);
+  }
+
+  /**
+   * Checks set operations on sets of different densities, which use every combination of array
+   * and bitmap containers, against {@link BitSet}
+   */
+  @Test
+  public void shouldAgreeWithBitSet() {
+    double[] densities = {0.0, 0.001, 0.05, 0.0625, 0.07, 0.5, 1.0};
+    Random rand = new Random(1L);
+    for (int i = 0; i < 50; i++) {
+      BitSet a = random(rand, densities[rand.nextInt(densities.length)]);
+      BitSet b = random(rand, densities[rand.nextInt(densities.length)]);
+      DocSet x = docSet(a);
+      DocSet y = docSet(b);
+
+      assertThat(x.cardinality(), is(a.cardinality()));
+
+      BitSet and = (BitSet) a.clone();
+      and.and(b);
+      assertThat(x.and(y), is(docSet(and)));
+      assertThat(x.and(y).toArray(), is(and.stream().toArray()));
+
+      BitSet or = (BitSet) a.clone();
+      or.or(b);
+      assertThat(x.or(y), is(docSet(or)));
+      assertThat(x.or(y).toArray(), is(or.stream().toArray()));
+
+      BitSet andNot = (BitSet) a.clone();
+      andNot.andNot(b);
+      assertThat(x.andNot(y), is(docSet(andNot)));
+      assertThat(x.andNot(y).toArray(), is(andNot.stream().toArray()));
+    }
+  }
+
+  /**
+   * Returns a random set over three chunks, with a different density in each
+   */
+  private static BitSet random(Random rand, double density) {
+    BitSet result = new BitSet();
+    for (int chunk = 0; chunk < 3; chunk++) {
+      double d = rand.nextBoolean() ? density : rand.nextDouble() * 0.1;
+      for (int i = chunk << 16; i < (chunk + 1) << 16; i++)
+        if (rand.nextDouble() < d)
+          result.set(i);
+    }
+    return result;
+  }
+
+  private static DocSet docSet(BitSet bits) {
+    DocSet.Builder result = DocSet.builder();
+    bits.stream().forEach(result::add);
+    return result.build();
+  }
+}
@@ -0,0 +1,91 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class ProximityWindowsTest {
+  @Test
+  public void shouldFindMinimumWidth() {
+    assertThat(ProximityWindows.minimumWidth(new int[][] {{0, 6}, {3}}), is(4));
+    assertThat(ProximityWindows.minimumWidth(new int[][] {{0, 10, 20}, {5, 17}, {14, 30}}), is(7));
+    assertThat(ProximityWindows.minimumWidth(new int[][] {{4}}), is(1));
+  }
+
+  @Test
+  public void shouldShareRepeatedPositions() {
+    assertThat(ProximityWindows.minimumWidth(new int[][] {{2}, {2}, {2}}), is(1));
+  }
+
+  @Test
+  public void shouldReportEmptyList() {
+    assertThat(ProximityWindows.minimumWidth(new int[][] {{1, 2}, {}}), is(ProximityWindows.NONE));
+    assertThat(ProximityWindows.fits(new int[][] {{1, 2}, {}}, 100), is(false));
+  }
+
+  @Test
+  public void shouldFit() {
+    int[][] positions = {{0, 6}, {3}};
+    assertThat(ProximityWindows.fits(positions, 3), is(false));
+    assertThat(ProximityWindows.fits(positions, 4), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNoLists() {
+    ProximityWindows.minimumWidth(new int[0][]);
+  }
+
+  @Test
+  public void shouldAgreeWithCartesianProduct() {
+    Random rand = new Random(1L);
+    for (int i = 0; i < 5000; i++) {
+      int[][] positions = new int[1 + rand.nextInt(4)][];
+      for (int j = 0; j < positions.length; j++) {
+        positions[j] = new int[rand.nextInt(6)];
+        for (int k = 0; k < positions[j].length; k++)
+          positions[j][k] = rand.nextInt(30);
+        Arrays.sort(positions[j]);
+      }
+
+      int expected = cartesian(positions, 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+      if (expected == Integer.MAX_VALUE)
+        expected = ProximityWindows.NONE;
+      assertThat(Arrays.deepToString(positions), ProximityWindows.minimumWidth(positions),
+          is(expected));
+      for (int width = 1; width <= 31; width++)
+        assertThat(ProximityWindows.fits(positions, width),
+            is(expected != ProximityWindows.NONE && expected <= width));
+    }
+  }
+
+  private static int cartesian(int[][] positions, int index, int min, int max) {
+    if (index == positions.length)
+      return max - min + 1;
+    int result = Integer.MAX_VALUE;
+    for (int position : positions[index])
+      result = Math.min(result,
+          cartesian(positions, index + 1, Math.min(min, position), Math.max(max, position)));
+    return result;
+  }
+}
@@ -0,0 +1,84 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.pipeline.query.QueryParserTest;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+public class QueryInternerTest {
+  @Test
+  public void shouldInternEqualQueriesToSameInstance() {
+    QueryInterner interner = new QueryInterner();
+
+    Query q1 = QueryParserTest.parseQuery("(a AND \"b c\"~4) OR NOT d*");
+    Query q2 = QueryParserTest.parseQuery("(a  AND  \"b c\"~4)  OR  NOT  d*");
+    assertThat(q1, is(q2));
+    assertThat(q1, not(sameInstance(q2)));
+
+    Query i1 = interner.intern(q1);
+    Query i2 = interner.intern(q2);
+    assertThat(i1, sameInstance(i2));
+    assertThat(i1, is(q1));
+    assertThat(i1.getSpan(), is(Spans.NONE));
+  }
+
+  @Test
+  public void shouldShareRepeatedSubtrees() {
+    QueryInterner interner = new QueryInterner();
+
+    OrQuery q = (OrQuery) interner
+        .intern(QueryParserTest.parseQuery("(alpha AND bravo) OR charlie OR (alpha AND bravo)"));
+    assertThat(q.getChildren().get(0), sameInstance(q.getChildren().get(2)));
+
+    AndQuery and = (AndQuery) ((ParenQuery) q.getChildren().get(0)).getChild();
+    TextQuery alpha = (TextQuery) interner.intern(QueryParserTest.parseQuery("alpha"));
+    assertThat(and.getChildren().get(0), sameInstance(alpha));
+
+    // alpha, bravo, alpha AND bravo, (alpha AND bravo), charlie, and the OR itself
+    assertThat(interner.getQueryCount(), is(6));
+    assertThat(interner.getTermCount(), is(3));
+  }
+
+  @Test
+  public void shouldShareTermsAcrossQueries() {
+    QueryInterner interner = new QueryInterner();
+
+    TextQuery phrase = (TextQuery) interner.intern(QueryParserTest.parseQuery("\"x y\""));
+    TextQuery term = (TextQuery) interner.intern(QueryParserTest.parseQuery("y"));
+    assertThat(phrase.getTerms().get(1), sameInstance(term.getTerms().get(0)));
+  }
+
+  @Test
+  public void shouldInternVacuousQuery() {
+    QueryInterner interner = new QueryInterner();
+    assertThat(interner.intern(new VacuousQuery(Spans.of(0, 2))),
+        sameInstance(VacuousQuery.INSTANCE));
+  }
+}
@@ -0,0 +1,55 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+import com.sigpwned.litecene.core.pipeline.query.QueryParserTest;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+
+public class QueryProcessorTest {
+  private static final QueryProcessor<String> PROCESSOR =
+      new QueryProcessor<>(new QueryProcessor.Processor<String>() {
+        @Override
+        public String or(OrQuery or) {
+          return "or";
+        }
+
+        @Override
+        public String text(TextQuery text) {
+          return "text";
+        }
+      });
+
+  @Test
+  public void shouldDispatchToHandler() {
+    assertThat(PROCESSOR.process(QueryParserTest.parseQuery("a OR b")), is("or"));
+    assertThat(PROCESSOR.process(QueryParserTest.parseQuery("a")), is("text"));
+  }
+
+  @Test
+  public void shouldReturnNullForUnhandledNodes() {
+    assertThat(PROCESSOR.process(QueryParserTest.parseQuery("a AND b")), is(nullValue()));
+    assertThat(PROCESSOR.process(QueryParserTest.parseQuery("NOT a")), is(nullValue()));
+  }
+}
@@ -0,0 +1,61 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+
+public class SpansTest {
+  @Test
+  public void shouldRoundTrip() {
+    long span = Spans.of(3, Integer.MAX_VALUE);
+    assertThat(Spans.start(span), is(3));
+    assertThat(Spans.end(span), is(Integer.MAX_VALUE));
+    assertThat(Spans.length(span), is(Integer.MAX_VALUE - 3));
+    assertThat(Spans.isPresent(span), is(true));
+  }
+
+  @Test
+  public void shouldNotConfuseEmptySpanWithNone() {
+    assertThat(Spans.isPresent(Spans.at(0)), is(true));
+    assertThat(Spans.isPresent(Spans.NONE), is(false));
+    assertThat(Spans.length(Spans.NONE), is(0));
+  }
+
+  @Test
+  public void shouldUnion() {
+    assertThat(Spans.union(Spans.of(5, 7), Spans.of(1, 2)), is(Spans.of(1, 7)));
+    assertThat(Spans.union(Spans.NONE, Spans.of(1, 2)), is(Spans.of(1, 2)));
+    assertThat(Spans.union(Spans.of(1, 2), Spans.NONE), is(Spans.of(1, 2)));
+    assertThat(Spans.union(Spans.NONE, Spans.NONE), is(Spans.NONE));
+  }
+
+  @Test
+  public void shouldShift() {
+    assertThat(Spans.shift(Spans.of(5, 7), -2), is(Spans.of(3, 5)));
+    assertThat(Spans.shift(Spans.NONE, 2), is(Spans.NONE));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectBackwardsSpan() {
+    Spans.of(2, 1);
+  }
+}
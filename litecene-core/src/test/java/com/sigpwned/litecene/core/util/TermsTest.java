@@ -0,0 +1,41 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-core
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Term;
+
+public class TermsTest {
+  @Test
+  public void sizeShouldMatchWhitespaceSplit() {
+    for (String text : new String[] {"", " ", "   ", "a", " a", "a ", " a ", "a b", "  a  b  ",
+        "what s up pussycat", " a", "　a　b", "\ta\n"}) {
+      assertThat(text, Terms.size(text),
+          is(Math.toIntExact(Syntax.WHITESPACE.splitAsStream(text).count())));
+    }
+  }
+
+  @Test
+  public void sizeShouldCountEmptyWildcardAsOne() {
+    assertThat(Terms.size(new Term("", true)), is(1));
+  }
+}
@@ -0,0 +1,330 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import com.sigpwned.litecene.core.util.ProximityWindows;
+
+/**
+ * Iterates over the documents that match some part of a query, by ascending document number. Every
+ * iterator starts before its first document, so {@link #docId()} is -1 until the first call to
+ * {@link #nextDoc()} or {@link #advance(int)}, and is {@link #NO_MORE_DOCS} once it is exhausted.
+ *
+ * Iterators over terms and phrases also know where they matched in the current document, which is
+ * what phrase and proximity queries are built on.
+ */
+abstract class DocIterator {
+  public static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+  protected int doc = -1;
+
+  public final int docId() {
+    return doc;
+  }
+
+  /**
+   * Moves to the next document and returns it
+   */
+  public abstract int nextDoc();
+
+  /**
+   * Moves to the first document at or after the given target, which must be after the current
+   * document, and returns it
+   */
+  public abstract int advance(int target);
+
+  /**
+   * Returns an estimate of the number of documents this iterator will visit, for choosing which
+   * iterator should lead a conjunction
+   */
+  public abstract long cost();
+
+  /**
+   * Returns the ascending positions where this iterator matched in the current document. The
+   * result must not be modified.
+   *
+   * @throws UnsupportedOperationException if this iterator does not track positions
+   */
+  public int[] positions() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static DocIterator empty() {
+    return new Empty();
+  }
+
+  public static DocIterator all(int maxDoc) {
+    return new All(maxDoc);
+  }
+
+  private static final class Empty extends DocIterator {
+    @Override
+    public int nextDoc() {
+      return doc = NO_MORE_DOCS;
+    }
+
+    @Override
+    public int advance(int target) {
+      return doc = NO_MORE_DOCS;
+    }
+
+    @Override
+    public long cost() {
+      return 0L;
+    }
+  }
+
+  private static final class All extends DocIterator {
+    private final int maxDoc;
+
+    public All(int maxDoc) {
+      this.maxDoc = maxDoc;
+    }
+
+    @Override
+    public int nextDoc() {
+      return advance(doc + 1);
+    }
+
+    @Override
+    public int advance(int target) {
+      return doc = target < maxDoc ? target : NO_MORE_DOCS;
+    }
+
+    @Override
+    public long cost() {
+      return maxDoc;
+    }
+  }
+
+  /**
+   * Matches the documents that all required iterators match and no excluded iterator matches. The
+   * cheapest required iterator leads, and the others are advanced to its documents, so the cost is
+   * driven by the rarest clause, and each iterator can skip ahead rather than visit every document.
+   */
+  public static class Conjunction extends DocIterator {
+    private final DocIterator lead;
+    private final DocIterator[] others;
+    private final DocIterator[] excluded;
+
+    public Conjunction(DocIterator[] required, DocIterator[] excluded) {
+      if (required.length == 0)
+        throw new IllegalArgumentException("no required iterators");
+      DocIterator[] sorted = required.clone();
+      Arrays.sort(sorted, Comparator.comparingLong(DocIterator::cost));
+      this.lead = sorted[0];
+      this.others = Arrays.copyOfRange(sorted, 1, sorted.length);
+      this.excluded = excluded;
+    }
+
+    @Override
+    public int nextDoc() {
+      return doNext(lead.nextDoc());
+    }
+
+    @Override
+    public int advance(int target) {
+      return doNext(lead.advance(target));
+    }
+
+    private int doNext(int target) {
+      outer: while (target != NO_MORE_DOCS) {
+        for (DocIterator other : others) {
+          int d = other.docId() < target ? other.advance(target) : other.docId();
+          if (d > target) {
+            target = d == NO_MORE_DOCS ? NO_MORE_DOCS : lead.advance(d);
+            continue outer;
+          }
+        }
+        for (DocIterator exclusion : excluded) {
+          int d = exclusion.docId() < target ? exclusion.advance(target) : exclusion.docId();
+          if (d == target) {
+            target = lead.nextDoc();
+            continue outer;
+          }
+        }
+        if (!matches()) {
+          target = lead.nextDoc();
+          continue outer;
+        }
+        return doc = target;
+      }
+      return doc = NO_MORE_DOCS;
+    }
+
+    /**
+     * Returns true if the current document, which every required iterator is on, really matches
+     */
+    protected boolean matches() {
+      return true;
+    }
+
+    @Override
+    public long cost() {
+      return lead.cost();
+    }
+  }
+
+  /**
+   * Matches the documents that any child matches
+   */
+  public static class Disjunction extends DocIterator {
+    protected final DocIterator[] children;
+
+    public Disjunction(DocIterator[] children) {
+      this.children = children;
+    }
+
+    @Override
+    public int nextDoc() {
+      int result = NO_MORE_DOCS;
+      for (DocIterator child : children) {
+        int d = child.docId() <= doc ? child.nextDoc() : child.docId();
+        result = Math.min(result, d);
+      }
+      return doc = result;
+    }
+
+    @Override
+    public int advance(int target) {
+      int result = NO_MORE_DOCS;
+      for (DocIterator child : children) {
+        int d = child.docId() < target ? child.advance(target) : child.docId();
+        result = Math.min(result, d);
+      }
+      return doc = result;
+    }
+
+    @Override
+    public long cost() {
+      long result = 0L;
+      for (DocIterator child : children)
+        result = result + child.cost();
+      return result;
+    }
+  }
+
+  /**
+   * Matches the documents where any child matches, with the positions of all the children that
+   * match there, e.g., every term that starts with a given prefix
+   */
+  public static final class PositionalDisjunction extends Disjunction {
+    private int positionsDoc;
+    private int[] positions;
+
+    public PositionalDisjunction(DocIterator[] children) {
+      super(children);
+      this.positionsDoc = -1;
+    }
+
+    @Override
+    public int[] positions() {
+      if (positionsDoc != doc) {
+        int size = 0;
+        for (DocIterator child : children)
+          if (child.docId() == doc)
+            size = size + child.positions().length;
+        int[] result = new int[size];
+        size = 0;
+        for (DocIterator child : children) {
+          if (child.docId() == doc) {
+            int[] ps = child.positions();
+            System.arraycopy(ps, 0, result, size, ps.length);
+            size = size + ps.length;
+          }
+        }
+        Arrays.sort(result);
+        positions = result;
+        positionsDoc = doc;
+      }
+      return positions;
+    }
+  }
+
+  /**
+   * Matches the documents where the given parts appear at adjacent positions, in order. Its
+   * positions are where the phrase starts.
+   */
+  public static final class PhraseJoin extends Conjunction {
+    private final DocIterator[] parts;
+    private int[] starts;
+
+    public PhraseJoin(DocIterator[] parts) {
+      super(parts, new DocIterator[0]);
+      this.parts = parts;
+    }
+
+    @Override
+    protected boolean matches() {
+      int[] result = parts[0].positions();
+      int size = result.length;
+      for (int i = 1; i < parts.length && size > 0; i++) {
+        // Keep the starts where part i appears i positions later. Both lists are sorted.
+        int[] ps = parts[i].positions();
+        int[] next = new int[Math.min(size, ps.length)];
+        int n = 0;
+        for (int a = 0, b = 0; a < size && b < ps.length;) {
+          int want = result[a] + i;
+          if (ps[b] < want) {
+            b = b + 1;
+          } else if (ps[b] > want) {
+            a = a + 1;
+          } else {
+            next[n++] = result[a];
+            a = a + 1;
+            b = b + 1;
+          }
+        }
+        result = next;
+        size = n;
+      }
+      starts = size == result.length ? result : Arrays.copyOf(result, size);
+      return size > 0;
+    }
+
+    @Override
+    public int[] positions() {
+      return starts;
+    }
+  }
+
+  /**
+   * Matches the documents where the given terms all start within a window of the given width
+   */
+  public static final class Proximity extends Conjunction {
+    private final DocIterator[] terms;
+    private final int width;
+
+    public Proximity(DocIterator[] terms, int width) {
+      super(terms, new DocIterator[0]);
+      this.terms = terms;
+      this.width = width;
+    }
+
+    @Override
+    protected boolean matches() {
+      int[][] positions = new int[terms.length][];
+      for (int i = 0; i < terms.length; i++)
+        positions[i] = terms[i].positions();
+      return ProximityWindows.fits(positions, width);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import com.sigpwned.litecene.core.analysis.AnalysisChain;
+
+/**
+ * Prepares text for searching in memory by running it through an {@link AnalysisChain} and then
+ * splitting the result into tokens at whitespace. To match the way a data store integration
+ * searches, the chain should match the way that integration prepares its data.
+ *
+ * Analysis chains are not thread-safe, so the analyzer is given a factory for them instead. Each
+ * thread builds its own chain the first time it analyzes a document, and then reuses it, so one
+ * analyzer can be shared by the whole application.
+ */
+public class DocumentAnalyzer {
+  private final Supplier<AnalysisChain> analysisChainFactory;
+  private final ThreadLocal<AnalysisChain> analysisChains;
+
+  public DocumentAnalyzer(Supplier<AnalysisChain> analysisChainFactory) {
+    if (analysisChainFactory == null)
+      throw new NullPointerException();
+    this.analysisChainFactory = analysisChainFactory;
+    this.analysisChains = ThreadLocal.withInitial(analysisChainFactory);
+  }
+
+  public MemoryDocument analyze(CharSequence text) {
+    if (text == null)
+      throw new NullPointerException();
+    return MemoryDocument.of(tokenize(analysisChains.get().analyze(text.toString())));
+  }
+
+  private static List<String> tokenize(String text) {
+    List<String> result = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i < text.length(); i++) {
+      if (Character.isWhitespace(text.charAt(i))) {
+        if (start != -1) {
+          result.add(text.substring(start, i));
+          start = -1;
+        }
+      } else if (start == -1) {
+        start = i;
+      }
+    }
+    if (start != -1)
+      result.add(text.substring(start));
+    return result;
+  }
+
+  /**
+   * @return the analysisChainFactory
+   */
+  public Supplier<AnalysisChain> getAnalysisChainFactory() {
+    return analysisChainFactory;
+  }
+}
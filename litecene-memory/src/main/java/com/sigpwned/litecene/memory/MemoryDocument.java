@@ -0,0 +1,167 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A document that has been analyzed and tokenized for searching in memory. Along with its tokens in
+ * order, a document keeps the sorted list of its distinct tokens and, for each one, the ascending
+ * positions where it appears, so that finding a term costs a binary search instead of a scan.
+ *
+ * Documents are immutable and thread-safe, so they can be analyzed once and then matched against
+ * any number of queries.
+ */
+public class MemoryDocument {
+  private static final int[] NO_POSITIONS = new int[0];
+
+  /**
+   * Creates a document with the given tokens, which should already be analyzed
+   */
+  public static MemoryDocument of(List<String> tokens) {
+    return new MemoryDocument(tokens.toArray(new String[0]));
+  }
+
+  private final String[] tokens;
+
+  /**
+   * The distinct tokens, in ascending order
+   */
+  private final String[] vocabulary;
+
+  /**
+   * The ascending positions of each token in the vocabulary
+   */
+  private final int[][] postings;
+
+  private MemoryDocument(String[] tokens) {
+    for (String token : tokens)
+      if (token == null)
+        throw new NullPointerException();
+    this.tokens = tokens;
+
+    String[] sorted = tokens.clone();
+    Arrays.sort(sorted);
+    int distinct = 0;
+    for (int i = 0; i < sorted.length; i++)
+      if (i == 0 || !sorted[i].equals(sorted[distinct - 1]))
+        sorted[distinct++] = sorted[i];
+    this.vocabulary = Arrays.copyOf(sorted, distinct);
+
+    int[] ids = new int[tokens.length];
+    int[] counts = new int[distinct];
+    for (int i = 0; i < tokens.length; i++) {
+      ids[i] = Arrays.binarySearch(vocabulary, tokens[i]);
+      counts[ids[i]] = counts[ids[i]] + 1;
+    }
+    this.postings = new int[distinct][];
+    for (int i = 0; i < distinct; i++)
+      postings[i] = new int[counts[i]];
+    Arrays.fill(counts, 0);
+    for (int i = 0; i < tokens.length; i++)
+      postings[ids[i]][counts[ids[i]]++] = i;
+  }
+
+  /**
+   * @return the number of tokens
+   */
+  public int size() {
+    return tokens.length;
+  }
+
+  public String getToken(int position) {
+    return tokens[position];
+  }
+
+  /**
+   * @return the tokens, in order
+   */
+  public List<String> getTokens() {
+    return unmodifiableList(asList(tokens));
+  }
+
+  /**
+   * Returns the ascending positions where the given token appears. The result must not be modified.
+   */
+  int[] positions(String token) {
+    int index = Arrays.binarySearch(vocabulary, token);
+    return index >= 0 ? postings[index] : NO_POSITIONS;
+  }
+
+  /**
+   * @return the number of distinct tokens
+   */
+  int vocabularySize() {
+    return vocabulary.length;
+  }
+
+  /**
+   * Returns the distinct token at the given index, in ascending order
+   */
+  String vocabularyToken(int index) {
+    return vocabulary[index];
+  }
+
+  /**
+   * Returns the ascending positions of the distinct token at the given index. The result must not
+   * be modified.
+   */
+  int[] vocabularyPositions(int index) {
+    return postings[index];
+  }
+
+  /**
+   * Returns true if any token starts with the given prefix
+   */
+  boolean containsPrefix(String prefix) {
+    int index = firstAtOrAfter(prefix);
+    return index < vocabulary.length && vocabulary[index].startsWith(prefix);
+  }
+
+  private int firstAtOrAfter(String text) {
+    int index = Arrays.binarySearch(vocabulary, text);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(tokens);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    MemoryDocument other = (MemoryDocument) obj;
+    return Arrays.equals(tokens, other.tokens);
+  }
+
+  @Override
+  public String toString() {
+    return "MemoryDocument [tokens=" + Arrays.toString(tokens) + "]";
+  }
+}
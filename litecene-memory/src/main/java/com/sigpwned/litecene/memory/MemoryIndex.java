@@ -0,0 +1,297 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import static java.util.Collections.unmodifiableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+/**
+ * A positional inverted index over a fixed set of documents, for answering queries without
+ * visiting every document. Documents are numbered in the order they are added. For each distinct
+ * token, the index keeps a {@link PostingList compressed posting list} of the documents it appears
+ * in and its positions in each, so the cost of a search grows with the postings it touches rather
+ * than the size of the corpus. Matching follows the same semantics as {@link MemoryQuery}.
+ *
+ * The tokens are kept in a sorted {@link TermDictionary}, so a wildcard term expands to the range
+ * of tokens that start with its prefix, and costs one dictionary lookup and a union of their
+ * posting lists. Prefixes that expand to more than {@link Builder#maxExpansions(int) the maximum
+ * number of expansions} are answered from a merged posting list built ahead of time instead.
+ *
+ * Queries are answered by iterators over posting lists: conjunctions advance all clauses to the
+ * rarest clause's documents, disjunctions merge their clauses, negations exclude documents,
+ * phrases join the positions of adjacent tokens, and proximity merges positions into windows.
+ * Indexes are immutable and thread-safe.
+ */
+public class MemoryIndex {
+  /**
+   * The default maximum number of tokens a wildcard expands to before the index uses a merged
+   * posting list for its prefix instead
+   */
+  public static final int DEFAULT_MAX_EXPANSIONS = 64;
+
+  public static Builder builder() {
+    return new Builder(MemorySearching.recommendedDocumentAnalyzer());
+  }
+
+  public static Builder builder(DocumentAnalyzer analyzer) {
+    return new Builder(analyzer);
+  }
+
+  public static class Builder {
+    private final DocumentAnalyzer analyzer;
+    private final List<String> ids;
+    private final Map<String, PostingList.Writer> postings;
+    private int maxExpansions;
+
+    private Builder(DocumentAnalyzer analyzer) {
+      if (analyzer == null)
+        throw new NullPointerException();
+      this.analyzer = analyzer;
+      this.ids = new ArrayList<>();
+      this.postings = new HashMap<>();
+      this.maxExpansions = DEFAULT_MAX_EXPANSIONS;
+    }
+
+    /**
+     * Sets the maximum number of tokens a wildcard expands to. Every prefix of an indexed token
+     * that expands to more gets a merged posting list of its own, so a smaller maximum makes broad
+     * wildcards faster to search but the index larger and slower to build.
+     */
+    public Builder maxExpansions(int maxExpansions) {
+      if (maxExpansions < 1)
+        throw new IllegalArgumentException("maxExpansions must be positive");
+      this.maxExpansions = maxExpansions;
+      return this;
+    }
+
+    /**
+     * Analyzes the given text with this builder's analyzer and adds it to the index
+     */
+    public Builder add(String id, CharSequence text) {
+      return add(id, analyzer.analyze(text));
+    }
+
+    public Builder add(String id, MemoryDocument document) {
+      if (id == null)
+        throw new NullPointerException();
+      if (document == null)
+        throw new NullPointerException();
+
+      int doc = ids.size();
+      ids.add(id);
+      for (int i = 0; i < document.vocabularySize(); i++) {
+        postings.computeIfAbsent(document.vocabularyToken(i), k -> new PostingList.Writer())
+            .add(doc, document.vocabularyPositions(i));
+      }
+
+      return this;
+    }
+
+    public MemoryIndex build() {
+      String[] terms = postings.keySet().toArray(new String[0]);
+      Arrays.sort(terms);
+
+      PostingList[] lists = new PostingList[terms.length];
+      for (int i = 0; i < terms.length; i++)
+        lists[i] = postings.get(terms[i]).build();
+
+      return new MemoryIndex(ids.toArray(new String[0]),
+          new TermDictionary(terms, lists, maxExpansions));
+    }
+  }
+
+  private final String[] ids;
+
+  /**
+   * The distinct tokens of all documents
+   */
+  private final TermDictionary dictionary;
+
+  private MemoryIndex(String[] ids, TermDictionary dictionary) {
+    this.ids = ids;
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * @return the number of documents
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Returns the ID of the document with the given number
+   */
+  public String getId(int doc) {
+    return ids[doc];
+  }
+
+  /**
+   * Returns the IDs of the documents that match the given query, in the order they were added
+   */
+  public List<String> search(Query query) {
+    if (query == null)
+      throw new NullPointerException();
+
+    DocIterator iterator = query.accept(new Compiler());
+    List<String> result = new ArrayList<>();
+    for (int doc = iterator.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = iterator.nextDoc())
+      result.add(ids[doc]);
+
+    return unmodifiableList(result);
+  }
+
+  /**
+   * @return the number of distinct tokens across all documents
+   */
+  public int getTermCount() {
+    return dictionary.size();
+  }
+
+  /**
+   * Returns the number of documents the given token appears in
+   */
+  public int getDocFreq(String term) {
+    PostingList postings = dictionary.get(term);
+    return postings != null ? postings.getDocFreq() : 0;
+  }
+
+  /**
+   * @return the maximum number of tokens a wildcard expands to
+   */
+  public int getMaxExpansions() {
+    return dictionary.getMaxExpansions();
+  }
+
+  /**
+   * Builds a fresh tree of iterators for each search, since iterators keep their place
+   */
+  private final class Compiler implements QueryVisitor<DocIterator> {
+    @Override
+    public DocIterator and(AndQuery and) {
+      return conjunction(and.getChildren());
+    }
+
+    @Override
+    public DocIterator or(OrQuery or) {
+      DocIterator[] children = new DocIterator[or.getChildren().size()];
+      for (int i = 0; i < children.length; i++)
+        children[i] = or.getChildren().get(i).accept(this);
+      return new DocIterator.Disjunction(children);
+    }
+
+    @Override
+    public DocIterator not(NotQuery not) {
+      return new DocIterator.Conjunction(new DocIterator[] {DocIterator.all(size())},
+          new DocIterator[] {not.getChild().accept(this)});
+    }
+
+    @Override
+    public DocIterator list(ListQuery list) {
+      return conjunction(list.getChildren());
+    }
+
+    @Override
+    public DocIterator paren(ParenQuery paren) {
+      return paren.getChild().accept(this);
+    }
+
+    @Override
+    public DocIterator text(TextQuery text) {
+      if (text.getProximity().isPresent()) {
+        DocIterator[] children = new DocIterator[text.getTerms().size()];
+        for (int i = 0; i < children.length; i++)
+          children[i] = phrase(List.of(text.getTerms().get(i)));
+        return new DocIterator.Proximity(children, text.getProximity().getAsInt());
+      } else {
+        return phrase(text.getTerms());
+      }
+    }
+
+    @Override
+    public DocIterator vacuous(VacuousQuery vacuous) {
+      return DocIterator.all(size());
+    }
+
+    /**
+     * Negated children are excluded from the conjunction rather than iterated on their own
+     */
+    private DocIterator conjunction(List<Query> children) {
+      List<DocIterator> required = new ArrayList<>();
+      List<DocIterator> excluded = new ArrayList<>();
+      for (Query child : children) {
+        if (child instanceof NotQuery)
+          excluded.add(((NotQuery) child).getChild().accept(this));
+        else
+          required.add(child.accept(this));
+      }
+      if (required.isEmpty())
+        required.add(DocIterator.all(size()));
+      if (required.size() == 1 && excluded.isEmpty())
+        return required.get(0);
+      return new DocIterator.Conjunction(required.toArray(new DocIterator[0]),
+          excluded.toArray(new DocIterator[0]));
+    }
+
+    private DocIterator phrase(List<Term> terms) {
+      Phrase phrase = Phrase.of(terms);
+      if (phrase.size() == 0)
+        return DocIterator.empty();
+
+      DocIterator[] parts = new DocIterator[phrase.size()];
+      for (int i = 0; i < parts.length; i++)
+        parts[i] = phrase.isPrefix(i) ? prefix(phrase.getPart(i)) : term(phrase.getPart(i));
+
+      return parts.length == 1 ? parts[0] : new DocIterator.PhraseJoin(parts);
+    }
+
+    private DocIterator term(String text) {
+      PostingList postings = dictionary.get(text);
+      return postings != null ? postings.iterator() : DocIterator.empty();
+    }
+
+    private DocIterator prefix(String text) {
+      PostingList[] expansions = dictionary.expand(text);
+      if (expansions.length == 0)
+        return DocIterator.empty();
+      if (expansions.length == 1)
+        return expansions[0].iterator();
+
+      DocIterator[] children = new DocIterator[expansions.length];
+      for (int i = 0; i < expansions.length; i++)
+        children[i] = expansions[i].iterator();
+      return new DocIterator.PositionalDisjunction(children);
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.util.List;
+import java.util.function.Predicate;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+import com.sigpwned.litecene.core.util.ProximityWindows;
+
+/**
+ * A query prepared for matching {@link MemoryDocument}s. Matching follows the same semantics as
+ * the predicates {@code BigQuerySearchCompiler} generates, so a document matches in memory exactly
+ * when the same text, prepared the same way, would match in BigQuery:
+ *
+ * <ul>
+ * <li>A term matches a run of adjacent tokens, one for each whitespace-separated part of its text.
+ * Each part must equal its token, except that the last part of a wildcard term need only be a
+ * prefix of its token.</li>
+ * <li>A text query without proximity matches where its terms match one after another, with no
+ * other tokens in between.</li>
+ * <li>A text query with proximity {@code n} matches if each of its terms matches somewhere such
+ * that the first tokens of all the matches fall within a window of {@code n} tokens, in any
+ * order.</li>
+ * <li>A vacuous query matches every document.</li>
+ * </ul>
+ *
+ * Matching does not scan the document. Terms are found by binary search on the document's sorted
+ * tokens, phrases are checked only at the positions of their rarest token, and proximity is decided
+ * by {@link ProximityWindows} in one pass over the terms' positions. Boolean operators stop as
+ * soon as their result is known. Queries are immutable and thread-safe.
+ */
+public class MemoryQuery implements Predicate<MemoryDocument> {
+  public static MemoryQuery compile(Query query) {
+    if (query == null)
+      throw new NullPointerException();
+    return new MemoryQuery(query, query.accept(COMPILER));
+  }
+
+  private final Query query;
+  private final Node root;
+
+  private MemoryQuery(Query query, Node root) {
+    this.query = query;
+    this.root = root;
+  }
+
+  /**
+   * Returns true if the given document matches this query
+   */
+  @Override
+  public boolean test(MemoryDocument document) {
+    if (document == null)
+      throw new NullPointerException();
+    return root.matches(document);
+  }
+
+  /**
+   * @return the query this was compiled from
+   */
+  public Query getQuery() {
+    return query;
+  }
+
+  @Override
+  public String toString() {
+    return "MemoryQuery [query=" + query + "]";
+  }
+
+  private static final QueryVisitor<Node> COMPILER = new QueryVisitor<Node>() {
+    @Override
+    public Node and(AndQuery and) {
+      return new AndNode(compileAll(and.getChildren()));
+    }
+
+    @Override
+    public Node or(OrQuery or) {
+      return new OrNode(compileAll(or.getChildren()));
+    }
+
+    @Override
+    public Node not(NotQuery not) {
+      return new NotNode(not.getChild().accept(this));
+    }
+
+    @Override
+    public Node list(ListQuery list) {
+      return new AndNode(compileAll(list.getChildren()));
+    }
+
+    @Override
+    public Node paren(ParenQuery paren) {
+      return paren.getChild().accept(this);
+    }
+
+    @Override
+    public Node text(TextQuery text) {
+      if (text.getProximity().isPresent()) {
+        Phrase[] terms = new Phrase[text.getTerms().size()];
+        for (int i = 0; i < terms.length; i++)
+          terms[i] = Phrase.of(List.of(text.getTerms().get(i)));
+        return new ProximityNode(terms, text.getProximity().getAsInt());
+      } else {
+        return new PhraseNode(Phrase.of(text.getTerms()));
+      }
+    }
+
+    @Override
+    public Node vacuous(VacuousQuery vacuous) {
+      return AllNode.INSTANCE;
+    }
+
+    private Node[] compileAll(List<Query> children) {
+      Node[] result = new Node[children.size()];
+      for (int i = 0; i < result.length; i++)
+        result[i] = children.get(i).accept(this);
+      return result;
+    }
+  };
+
+  private abstract static class Node {
+    public abstract boolean matches(MemoryDocument document);
+  }
+
+  private static final class AndNode extends Node {
+    private final Node[] children;
+
+    public AndNode(Node[] children) {
+      this.children = children;
+    }
+
+    @Override
+    public boolean matches(MemoryDocument document) {
+      for (Node child : children)
+        if (!child.matches(document))
+          return false;
+      return true;
+    }
+  }
+
+  private static final class OrNode extends Node {
+    private final Node[] children;
+
+    public OrNode(Node[] children) {
+      this.children = children;
+    }
+
+    @Override
+    public boolean matches(MemoryDocument document) {
+      for (Node child : children)
+        if (child.matches(document))
+          return true;
+      return false;
+    }
+  }
+
+  private static final class NotNode extends Node {
+    private final Node child;
+
+    public NotNode(Node child) {
+      this.child = child;
+    }
+
+    @Override
+    public boolean matches(MemoryDocument document) {
+      return !child.matches(document);
+    }
+  }
+
+  private static final class AllNode extends Node {
+    public static final AllNode INSTANCE = new AllNode();
+
+    @Override
+    public boolean matches(MemoryDocument document) {
+      return true;
+    }
+  }
+
+  private static final class PhraseNode extends Node {
+    private final Phrase phrase;
+
+    public PhraseNode(Phrase phrase) {
+      this.phrase = phrase;
+    }
+
+    @Override
+    public boolean matches(MemoryDocument document) {
+      return phrase.occursIn(document);
+    }
+  }
+
+  private static final class ProximityNode extends Node {
+    private final Phrase[] terms;
+    private final int proximity;
+
+    public ProximityNode(Phrase[] terms, int proximity) {
+      this.terms = terms;
+      this.proximity = proximity;
+    }
+
+    @Override
+    public boolean matches(MemoryDocument document) {
+      // Cheap rejection first, since most documents miss at least one term
+      for (Phrase term : terms)
+        if (!term.occursIn(document))
+          return false;
+
+      int[][] positions = new int[terms.length][];
+      for (int i = 0; i < terms.length; i++)
+        positions[i] = terms[i].startsIn(document);
+
+      return ProximityWindows.fits(positions, proximity);
+    }
+  }
+}
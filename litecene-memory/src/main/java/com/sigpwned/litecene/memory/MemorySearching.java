@@ -0,0 +1,95 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import static java.util.Collections.singletonList;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryAnalyzer;
+import com.sigpwned.litecene.core.analysis.AnalysisChain;
+import com.sigpwned.litecene.core.analysis.LetterNumberAnalysisStage;
+import com.sigpwned.litecene.core.analysis.LowercaseAnalysisStage;
+import com.sigpwned.litecene.core.analysis.NormalizeAnalysisStage;
+import com.sigpwned.litecene.core.analysis.PrintableAsciiAnalysisStage;
+import com.sigpwned.litecene.core.pipeline.query.filter.SimplifyQueryFilterPipeline;
+import com.sigpwned.litecene.core.stream.codepoint.filter.SmartQuotesCodePointFilter;
+import com.sigpwned.litecene.core.stream.token.filter.AnalysisTokenFilter;
+
+/**
+ * The recommended way to search in memory, which agrees with the recommended way to search in
+ * BigQuery: both queries and documents are normalized, limited to ASCII letters and numbers, and
+ * lowercased.
+ */
+public final class MemorySearching {
+  private MemorySearching() {}
+
+  private static final QueryAnalyzer RECOMMENDED_QUERY_ANALYZER =
+      new QueryAnalyzer(singletonList(SmartQuotesCodePointFilter::new),
+          singletonList(ts -> new AnalysisTokenFilter(ts, recommendedAnalysisChain())),
+          singletonList(SimplifyQueryFilterPipeline::new));
+
+  private static final DocumentAnalyzer RECOMMENDED_DOCUMENT_ANALYZER =
+      new DocumentAnalyzer(MemorySearching::recommendedAnalysisChain);
+
+  /**
+   * Returns a new analysis chain that performs NFKD normalization and mark removal, replaces runs
+   * of anything other than ASCII letters and numbers with a single space, and lowercases, in that
+   * order. This is the same analysis as {@code BigQuerySearching#recommendedAnalysisChain()}.
+   */
+  public static AnalysisChain recommendedAnalysisChain() {
+    return AnalysisChain.of(new NormalizeAnalysisStage(), new PrintableAsciiAnalysisStage(),
+        new LetterNumberAnalysisStage(), new LowercaseAnalysisStage());
+  }
+
+  /**
+   * Returns a shared, thread-safe analyzer for queries
+   */
+  public static QueryAnalyzer recommendedQueryAnalyzer() {
+    return RECOMMENDED_QUERY_ANALYZER;
+  }
+
+  /**
+   * Returns a shared, thread-safe analyzer for documents that agrees with
+   * {@link #recommendedQueryAnalyzer()}
+   */
+  public static DocumentAnalyzer recommendedDocumentAnalyzer() {
+    return RECOMMENDED_DOCUMENT_ANALYZER;
+  }
+
+  /**
+   * Parses and compiles a query using the recommended query analyzer
+   */
+  public static MemoryQuery recommendedCompileQuery(String q) {
+    return MemoryQuery.compile(recommendedParseQuery(q));
+  }
+
+  /**
+   * Parses a query using the recommended query analyzer
+   */
+  public static Query recommendedParseQuery(String q) {
+    return recommendedQueryAnalyzer().parse(q);
+  }
+
+  /**
+   * Analyzes a document using the recommended document analyzer
+   */
+  public static MemoryDocument recommendedAnalyzeDocument(String text) {
+    return recommendedDocumentAnalyzer().analyze(text);
+  }
+}
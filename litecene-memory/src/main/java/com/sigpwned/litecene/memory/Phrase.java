@@ -0,0 +1,162 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.util.Syntax;
+
+/**
+ * A run of adjacent tokens to find in a document. Each part must equal its token, or just be a
+ * prefix of it if the part is a prefix.
+ */
+final class Phrase {
+  public static Phrase of(List<Term> terms) {
+    List<String> parts = new ArrayList<>();
+    List<Boolean> prefixes = new ArrayList<>();
+    for (Term term : terms) {
+      for (String part : Syntax.WHITESPACE.split(term.getText())) {
+        if (part.isEmpty())
+          continue;
+        parts.add(part);
+        prefixes.add(false);
+      }
+      if (term.isWildcard() && !prefixes.isEmpty())
+        prefixes.set(prefixes.size() - 1, true);
+    }
+
+    boolean[] prefix = new boolean[prefixes.size()];
+    for (int i = 0; i < prefix.length; i++)
+      prefix[i] = prefixes.get(i);
+
+    return new Phrase(parts.toArray(new String[0]), prefix);
+  }
+
+  private final String[] parts;
+  private final boolean[] prefix;
+
+  private Phrase(String[] parts, boolean[] prefix) {
+    this.parts = parts;
+    this.prefix = prefix;
+  }
+
+  /**
+   * @return the number of parts, i.e., adjacent tokens
+   */
+  public int size() {
+    return parts.length;
+  }
+
+  public String getPart(int index) {
+    return parts[index];
+  }
+
+  /**
+   * Returns true if the given part need only be a prefix of its token
+   */
+  public boolean isPrefix(int index) {
+    return prefix[index];
+  }
+
+  public boolean occursIn(MemoryDocument document) {
+    int anchor = anchor(document);
+    if (anchor == -1)
+      return false;
+    if (anchor == parts.length) {
+      for (int p = 0; p + parts.length <= document.size(); p++)
+        if (occursAt(document, p))
+          return true;
+      return false;
+    }
+    for (int position : document.positions(parts[anchor]))
+      if (occursAt(document, position - anchor))
+        return true;
+    return false;
+  }
+
+  /**
+   * Returns every position where this phrase starts, in ascending order
+   */
+  public int[] startsIn(MemoryDocument document) {
+    int anchor = anchor(document);
+    if (anchor == -1)
+      return new int[0];
+
+    int[] result;
+    int size = 0;
+    if (anchor == parts.length) {
+      result = new int[Math.max(document.size() - parts.length + 1, 0)];
+      for (int p = 0; p + parts.length <= document.size(); p++)
+        if (occursAt(document, p))
+          result[size++] = p;
+    } else {
+      int[] positions = document.positions(parts[anchor]);
+      result = new int[positions.length];
+      for (int position : positions)
+        if (occursAt(document, position - anchor))
+          result[size++] = position - anchor;
+    }
+
+    return size == result.length ? result : Arrays.copyOf(result, size);
+  }
+
+  /**
+   * Returns the index of the exact part with the fewest positions in the given document, which
+   * is where to look for this phrase; the number of parts if all parts are prefixes, in which
+   * case the document must be scanned; or -1 if some part does not appear in the document at
+   * all.
+   */
+  private int anchor(MemoryDocument document) {
+    if (parts.length == 0)
+      return -1;
+
+    int result = parts.length;
+    int fewest = Integer.MAX_VALUE;
+    for (int i = 0; i < parts.length; i++) {
+      if (prefix[i]) {
+        if (!document.containsPrefix(parts[i]))
+          return -1;
+      } else {
+        int count = document.positions(parts[i]).length;
+        if (count == 0)
+          return -1;
+        if (count < fewest) {
+          result = i;
+          fewest = count;
+        }
+      }
+    }
+
+    return result;
+  }
+
+  private boolean occursAt(MemoryDocument document, int start) {
+    if (start < 0 || start + parts.length > document.size())
+      return false;
+    for (int i = 0; i < parts.length; i++) {
+      String token = document.getToken(start + i);
+      if (prefix[i] ? !token.startsWith(parts[i]) : !token.equals(parts[i]))
+        return false;
+    }
+    return true;
+  }
+}
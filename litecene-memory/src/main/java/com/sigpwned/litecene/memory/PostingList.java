@@ -0,0 +1,208 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * The documents a term appears in, and its positions in each, in ascending order of document.
+ * Each posting is the gap from the previous document number, the number of positions, the length
+ * of the encoded positions, and then the gaps between positions, all as {@link VarInts
+ * variable-byte integers}. After every {@value #SKIP_INTERVAL} postings there is a skip entry, so
+ * that iterators can jump over whole blocks of postings.
+ */
+final class PostingList {
+  /**
+   * The number of postings between skip entries
+   */
+  static final int SKIP_INTERVAL = 16;
+
+  private final byte[] bytes;
+  private final int docFreq;
+
+  /**
+   * The document number of every {@value #SKIP_INTERVAL}th posting, and the offset of the posting
+   * after it
+   */
+  private final int[] skipDocs;
+  private final int[] skipOffsets;
+
+  private PostingList(byte[] bytes, int docFreq, int[] skipDocs, int[] skipOffsets) {
+    this.bytes = bytes;
+    this.docFreq = docFreq;
+    this.skipDocs = skipDocs;
+    this.skipOffsets = skipOffsets;
+  }
+
+  /**
+   * @return the number of documents
+   */
+  public int getDocFreq() {
+    return docFreq;
+  }
+
+  /**
+   * Returns a new iterator over this list, which tracks positions
+   */
+  public DocIterator iterator() {
+    return new Iterator();
+  }
+
+  /**
+   * Writes a posting list one document at a time, in ascending order of document
+   */
+  public static final class Writer {
+    private final ByteArrayOutputStream bytes;
+    private int docFreq;
+    private int lastDoc;
+    private int[] skipDocs;
+    private int[] skipOffsets;
+    private int skipCount;
+
+    public Writer() {
+      this.bytes = new ByteArrayOutputStream();
+      this.lastDoc = -1;
+      this.skipDocs = new int[0];
+      this.skipOffsets = new int[0];
+    }
+
+    public void add(int doc, int[] positions) {
+      if (doc <= lastDoc)
+        throw new IllegalArgumentException("documents must be added in ascending order");
+
+      VarInts.write(bytes, doc - lastDoc);
+      VarInts.write(bytes, positions.length);
+
+      int length = 0;
+      for (int i = 0; i < positions.length; i++)
+        length = length + VarInts.size(i == 0 ? positions[i] : positions[i] - positions[i - 1]);
+      VarInts.write(bytes, length);
+      for (int i = 0; i < positions.length; i++)
+        VarInts.write(bytes, i == 0 ? positions[i] : positions[i] - positions[i - 1]);
+
+      lastDoc = doc;
+      docFreq = docFreq + 1;
+      if (docFreq % SKIP_INTERVAL == 0) {
+        if (skipCount == skipDocs.length) {
+          skipDocs = Arrays.copyOf(skipDocs, Math.max(4, 2 * skipCount));
+          skipOffsets = Arrays.copyOf(skipOffsets, skipDocs.length);
+        }
+        skipDocs[skipCount] = doc;
+        skipOffsets[skipCount] = bytes.size();
+        skipCount = skipCount + 1;
+      }
+    }
+
+    public PostingList build() {
+      return new PostingList(bytes.toByteArray(), docFreq, Arrays.copyOf(skipDocs, skipCount),
+          Arrays.copyOf(skipOffsets, skipCount));
+    }
+  }
+
+  private final class Iterator extends DocIterator {
+    /**
+     * The offset of the next posting
+     */
+    private int offset;
+
+    /**
+     * The number of postings read so far
+     */
+    private int count;
+
+    /**
+     * The next skip entry that might be ahead of us
+     */
+    private int skip;
+
+    private int freq;
+    private int positionsOffset;
+    private int[] positions;
+
+    @Override
+    public int nextDoc() {
+      if (count == docFreq)
+        return doc = NO_MORE_DOCS;
+
+      doc = doc + readVarInt();
+      freq = readVarInt();
+      int length = readVarInt();
+      positionsOffset = offset;
+      offset = offset + length;
+      count = count + 1;
+      positions = null;
+
+      return doc;
+    }
+
+    @Override
+    public int advance(int target) {
+      // Jump to the last skip entry before the target, if it is ahead of us
+      while (skip < skipDocs.length && skipDocs[skip] < target) {
+        if (skipDocs[skip] > doc) {
+          doc = skipDocs[skip];
+          offset = skipOffsets[skip];
+          count = (skip + 1) * SKIP_INTERVAL;
+        }
+        skip = skip + 1;
+      }
+
+      int result = doc;
+      do {
+        result = nextDoc();
+      } while (result < target);
+
+      return result;
+    }
+
+    @Override
+    public long cost() {
+      return docFreq;
+    }
+
+    @Override
+    public int[] positions() {
+      if (positions == null) {
+        int[] result = new int[freq];
+        int saved = offset;
+        offset = positionsOffset;
+        int position = 0;
+        for (int i = 0; i < freq; i++) {
+          position = position + readVarInt();
+          result[i] = position;
+        }
+        offset = saved;
+        positions = result;
+      }
+      return positions;
+    }
+
+    private int readVarInt() {
+      byte b = bytes[offset++];
+      int result = b & 0x7F;
+      for (int shift = 7; b < 0; shift = shift + 7) {
+        b = bytes[offset++];
+        result = result | (b & 0x7F) << shift;
+      }
+      return result;
+    }
+  }
+}
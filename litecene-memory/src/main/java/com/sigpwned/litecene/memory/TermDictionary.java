@@ -0,0 +1,157 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The distinct terms of an index in ascending order, with the posting list of each. Because the
+ * terms are sorted, the terms that start with a given prefix form a contiguous range, which a
+ * wildcard expands to with two binary searches.
+ *
+ * A broad prefix, e.g., a single letter, can expand to thousands of terms, and a union of
+ * thousands of posting lists is slow to iterate. So when the dictionary is built, every prefix
+ * that expands to more than the maximum number of expansions also gets a posting list of its own,
+ * which merges the postings of all its terms. A wildcard with a broad prefix then costs one posting
+ * list instead of many. Only prefixes that are broad get a list, so the extra space is bounded by
+ * the postings of the broad prefixes' terms times the number of broad prefixes above each term.
+ */
+final class TermDictionary {
+  private final String[] terms;
+  private final PostingList[] postings;
+  private final int maxExpansions;
+
+  /**
+   * The merged posting list of each prefix that matches more than maxExpansions terms
+   */
+  private final Map<String, PostingList> prefixPostings;
+
+  /**
+   * @param terms the distinct terms, in ascending order
+   * @param postings the posting list of each term
+   */
+  public TermDictionary(String[] terms, PostingList[] postings, int maxExpansions) {
+    if (terms.length != postings.length)
+      throw new IllegalArgumentException("terms and postings must have the same length");
+    if (maxExpansions < 1)
+      throw new IllegalArgumentException("maxExpansions must be positive");
+    this.terms = terms;
+    this.postings = postings;
+    this.maxExpansions = maxExpansions;
+    this.prefixPostings = new HashMap<>();
+    addPrefixPostings(0, terms.length, 1);
+  }
+
+  /**
+   * @return the number of distinct terms
+   */
+  public int size() {
+    return terms.length;
+  }
+
+  /**
+   * Returns the posting list of the given term, or null if no document contains it
+   */
+  public PostingList get(String term) {
+    int index = Arrays.binarySearch(terms, term);
+    return index >= 0 ? postings[index] : null;
+  }
+
+  /**
+   * Returns the posting lists of the terms that start with the given prefix, or a single merged
+   * posting list if there are more than the maximum number of expansions
+   */
+  public PostingList[] expand(String prefix) {
+    int start = start(prefix, 0, terms.length);
+    int end = end(prefix, start, terms.length);
+    if (end - start > maxExpansions)
+      return new PostingList[] {prefixPostings.get(prefix)};
+    return Arrays.copyOfRange(postings, start, end);
+  }
+
+  /**
+   * @return the maxExpansions
+   */
+  public int getMaxExpansions() {
+    return maxExpansions;
+  }
+
+  /**
+   * Adds a merged posting list for each broad prefix of the given length or longer among the given
+   * range of terms, which all share their first length - 1 characters
+   */
+  private void addPrefixPostings(int start, int end, int length) {
+    int i = start;
+
+    // Terms that are too short for a prefix of this length sort first
+    while (i < end && terms[i].length() < length)
+      i = i + 1;
+
+    while (i < end) {
+      String prefix = terms[i].substring(0, length);
+      int j = end(prefix, i, end);
+      if (j - i > maxExpansions) {
+        prefixPostings.put(prefix, merge(i, j));
+        addPrefixPostings(i, j, length + 1);
+      }
+      i = j;
+    }
+  }
+
+  private PostingList merge(int start, int end) {
+    DocIterator[] children = new DocIterator[end - start];
+    for (int i = start; i < end; i++)
+      children[i - start] = postings[i].iterator();
+
+    DocIterator union = new DocIterator.PositionalDisjunction(children);
+    PostingList.Writer writer = new PostingList.Writer();
+    for (int doc = union.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = union.nextDoc())
+      writer.add(doc, union.positions());
+
+    return writer.build();
+  }
+
+  /**
+   * Returns the index of the first term in the given range at or after the given prefix
+   */
+  private int start(String prefix, int from, int to) {
+    int index = Arrays.binarySearch(terms, from, to, prefix);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Returns the index of the first term in the given range, which must start at or before the
+   * first term with the given prefix, that is after every term with the given prefix
+   */
+  private int end(String prefix, int from, int to) {
+    int lo = from;
+    int hi = to;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (terms[mid].compareTo(prefix) < 0 || terms[mid].startsWith(prefix))
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+}
@@ -0,0 +1,53 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Variable-byte encoding of non-negative integers, seven bits to a byte, least significant first.
+ * The high bit of each byte is set if more bytes follow. Small numbers, e.g., the gaps between
+ * sorted document numbers or positions, take a single byte.
+ */
+final class VarInts {
+  private VarInts() {}
+
+  public static void write(ByteArrayOutputStream out, int value) {
+    if (value < 0)
+      throw new IllegalArgumentException("value must not be negative");
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value = value >>> 7;
+    }
+    out.write(value);
+  }
+
+  /**
+   * Returns the number of bytes the given value takes
+   */
+  public static int size(int value) {
+    int result = 1;
+    while ((value & ~0x7F) != 0) {
+      value = value >>> 7;
+      result = result + 1;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,37 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import java.util.HashSet;
+import java.util.Set;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.test.Corpus;
+import com.sigpwned.litecene.test.CorpusMatcher;
+import com.sigpwned.litecene.test.Document;
+
+public class MemoryIndexCorpusMatcher implements CorpusMatcher {
+  @Override
+  public Set<String> match(Corpus corpus, Query query) {
+    MemoryIndex.Builder builder = MemoryIndex.builder();
+    for (Document document : corpus.getDocuments())
+      builder.add(document.getId(), document.getText());
+    return new HashSet<>(builder.build().search(query));
+  }
+}
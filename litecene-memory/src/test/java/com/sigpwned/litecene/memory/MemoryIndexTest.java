@@ -0,0 +1,106 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Query;
+
+public class MemoryIndexTest {
+  private static final MemoryIndex INDEX = MemoryIndex.builder().add("0", "The crow's nest")
+      .add("1", "Crème brûlée").add("2", "a b c d e f a g").add("3", "").build();
+
+  private static List<String> search(String q) {
+    return INDEX.search(MemorySearching.recommendedParseQuery(q));
+  }
+
+  @Test
+  public void shouldIndexTerms() {
+    assertThat(INDEX.size(), is(4));
+    assertThat(INDEX.getId(1), is("1"));
+    assertThat(INDEX.getDocFreq("a"), is(1));
+    assertThat(INDEX.getDocFreq("crow"), is(1));
+    assertThat(INDEX.getDocFreq("missing"), is(0));
+  }
+
+  @Test
+  public void shouldSearch() {
+    assertThat(search("crow's"), is(List.of("0")));
+    assertThat(search("\"the crow's* n*\""), is(List.of("0")));
+    assertThat(search("creme OR \"a e\"~3"), is(List.of("1", "2")));
+    assertThat(search("\"a d\"~3"), is(List.of()));
+    assertThat(search("NOT b*"), is(List.of("0", "3")));
+    assertThat(search("NOT a AND NOT the"), is(List.of("1", "3")));
+    assertThat(search(""), is(List.of("0", "1", "2", "3")));
+  }
+
+  /**
+   * Checks random queries over a corpus with long posting lists, so that intersections use skip
+   * entries, against matching each document directly
+   */
+  @Test
+  public void shouldAgreeWithMemoryQuery() {
+    shouldAgreeWithMemoryQuery(MemoryIndex.DEFAULT_MAX_EXPANSIONS);
+  }
+
+  /**
+   * Same as above, but every wildcard that matches more than one token uses a merged posting list
+   */
+  @Test
+  public void shouldAgreeWithMemoryQueryWithPrefixPostings() {
+    shouldAgreeWithMemoryQuery(1);
+  }
+
+  private void shouldAgreeWithMemoryQuery(int maxExpansions) {
+    List<String> vocabulary = List.of("a", "ab", "abc", "b", "ba", "c", "d", "e", "f", "g");
+    Random rand = new Random(1L);
+
+    List<MemoryDocument> documents = new ArrayList<>();
+    MemoryIndex.Builder builder = MemoryIndex.builder().maxExpansions(maxExpansions);
+    for (int i = 0; i < 500; i++) {
+      // Skew term frequencies, so some terms are rare and others are everywhere
+      int length = rand.nextInt(20);
+      List<String> tokens = new ArrayList<>();
+      for (int j = 0; j < length; j++)
+        tokens.add(vocabulary.get((int) (vocabulary.size() * Math.pow(rand.nextDouble(), 2.0))));
+      MemoryDocument document = MemoryDocument.of(tokens);
+      documents.add(document);
+      builder.add(Integer.toString(i), document);
+    }
+    MemoryIndex index = builder.build();
+    assertThat(index.getMaxExpansions(), is(maxExpansions));
+
+    for (int i = 0; i < 2000; i++) {
+      String q = MemoryQueryTest.randomQuery(rand, vocabulary, 3);
+      Query query = MemorySearching.recommendedParseQuery(q);
+      MemoryQuery compiled = MemoryQuery.compile(query);
+      List<String> expected = IntStream.range(0, documents.size())
+          .filter(d -> compiled.test(documents.get(d))).mapToObj(Integer::toString)
+          .collect(toList());
+      assertThat(q, index.search(query), is(expected));
+    }
+  }
+}
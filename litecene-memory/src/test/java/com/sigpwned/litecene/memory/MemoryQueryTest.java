@@ -0,0 +1,236 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import com.sigpwned.litecene.core.Query;
+import com.sigpwned.litecene.core.QueryVisitor;
+import com.sigpwned.litecene.core.Term;
+import com.sigpwned.litecene.core.query.AndQuery;
+import com.sigpwned.litecene.core.query.ListQuery;
+import com.sigpwned.litecene.core.query.NotQuery;
+import com.sigpwned.litecene.core.query.OrQuery;
+import com.sigpwned.litecene.core.query.ParenQuery;
+import com.sigpwned.litecene.core.query.TextQuery;
+import com.sigpwned.litecene.core.query.VacuousQuery;
+
+public class MemoryQueryTest {
+  private static boolean matches(String query, String document) {
+    return MemorySearching.recommendedCompileQuery(query)
+        .test(MemorySearching.recommendedAnalyzeDocument(document));
+  }
+
+  @Test
+  public void shouldAnalyzeDocuments() {
+    assertThat(MemorySearching.recommendedAnalyzeDocument("  Crème Brûlée, crow's nest!! ")
+        .getTokens(), is(List.of("creme", "brulee", "crow", "s", "nest")));
+  }
+
+  @Test
+  public void shouldMatchTerms() {
+    assertThat(matches("nest", "The crow's nest"), is(true));
+    assertThat(matches("nes", "The crow's nest"), is(false));
+    assertThat(matches("nes*", "The crow's nest"), is(true));
+    assertThat(matches("crow's", "The crow's nest"), is(true));
+    assertThat(matches("crow's", "The crow nest"), is(false));
+    assertThat(matches("CRÈME", "creme brulee"), is(true));
+  }
+
+  @Test
+  public void shouldMatchPhrases() {
+    assertThat(matches("\"crow's nest\"", "The crow's nest"), is(true));
+    assertThat(matches("\"nest crow's\"", "The crow's nest"), is(false));
+    assertThat(matches("\"the crow* n*\"", "The crow's nest"), is(false));
+    assertThat(matches("\"the crow's* n*\"", "The crow's nest"), is(true));
+    assertThat(matches("\"the* crow\"", "The crow's nest"), is(true));
+  }
+
+  @Test
+  public void shouldMatchProximity() {
+    String text = "a b c d e f a g";
+    assertThat(matches("\"a d\"~4", text), is(true));
+    assertThat(matches("\"a d\"~3", text), is(false));
+    assertThat(matches("\"a e\"~3", text), is(true));
+    assertThat(matches("\"c f\"~3", text), is(false));
+    assertThat(matches("\"f b\"~5", text), is(true));
+    assertThat(matches("\"a a\"~2", "a"), is(true));
+    assertThat(matches("\"x* a\"~2", text), is(false));
+  }
+
+  @Test
+  public void shouldMatchBooleans() {
+    String text = "hello world";
+    assertThat(matches("hello AND NOT world", text), is(false));
+    assertThat(matches("hello AND NOT goodbye", text), is(true));
+    assertThat(matches("goodbye OR (world hello)", text), is(true));
+    assertThat(matches("NOT (goodbye OR world)", text), is(false));
+  }
+
+  @Test
+  public void shouldMatchVacuousLikeBigQuery() {
+    // BigQuery transpiles vacuous queries to TRUE
+    assertThat(matches("", "anything"), is(true));
+    assertThat(matches("!!!", ""), is(true));
+  }
+
+  /**
+   * Checks random queries against a direct translation of the BigQuery predicates to Java regular
+   * expressions, including the cross join for proximity
+   */
+  @Test
+  public void shouldAgreeWithBigQuerySemantics() {
+    List<String> vocabulary = List.of("a", "ab", "abc", "b", "ba", "c");
+    Random rand = new Random(1L);
+    for (int i = 0; i < 3000; i++) {
+      List<String> documents = new ArrayList<>();
+      for (int j = 0; j < 5; j++) {
+        int length = rand.nextInt(12);
+        List<String> tokens = new ArrayList<>();
+        for (int k = 0; k < length; k++)
+          tokens.add(vocabulary.get(rand.nextInt(vocabulary.size())));
+        documents.add(String.join(" ", tokens));
+      }
+
+      String q = randomQuery(rand, vocabulary, 2);
+      Query query = MemorySearching.recommendedParseQuery(q);
+      MemoryQuery compiled = MemoryQuery.compile(query);
+      for (String document : documents) {
+        assertThat(q + " / " + document,
+            compiled.test(MemorySearching.recommendedAnalyzeDocument(document)),
+            is(query.accept(new Reference(document))));
+      }
+    }
+  }
+
+  static String randomQuery(Random rand, List<String> vocabulary, int depth) {
+    switch (depth == 0 ? 0 : rand.nextInt(5)) {
+      case 1:
+        return randomQuery(rand, vocabulary, depth - 1) + " AND "
+            + randomQuery(rand, vocabulary, depth - 1);
+      case 2:
+        return "(" + randomQuery(rand, vocabulary, depth - 1) + " OR "
+            + randomQuery(rand, vocabulary, depth - 1) + ")";
+      case 3:
+        return "NOT " + randomQuery(rand, vocabulary, depth - 1);
+      default: {
+        int length = 1 + rand.nextInt(3);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+          String term = vocabulary.get(rand.nextInt(vocabulary.size()));
+          if (rand.nextInt(4) == 0)
+            term = term + "'" + vocabulary.get(rand.nextInt(vocabulary.size()));
+          if (rand.nextInt(3) == 0)
+            term = term + "*";
+          terms.add(term);
+        }
+        String result = "\"" + String.join(" ", terms) + "\"";
+        if (length > 1 && rand.nextBoolean())
+          result = result + "~" + (length + rand.nextInt(4));
+        return result;
+      }
+    }
+  }
+
+  private static class Reference implements QueryVisitor<Boolean> {
+    private final String document;
+    private final List<String> tokens;
+
+    public Reference(String document) {
+      this.document = document;
+      this.tokens = List.of(document.split(" ")).stream().filter(s -> !s.isEmpty())
+          .collect(toList());
+    }
+
+    @Override
+    public Boolean and(AndQuery and) {
+      return and.getChildren().stream().allMatch(c -> c.accept(this));
+    }
+
+    @Override
+    public Boolean or(OrQuery or) {
+      return or.getChildren().stream().anyMatch(c -> c.accept(this));
+    }
+
+    @Override
+    public Boolean not(NotQuery not) {
+      return !not.getChild().accept(this);
+    }
+
+    @Override
+    public Boolean list(ListQuery list) {
+      return list.getChildren().stream().allMatch(c -> c.accept(this));
+    }
+
+    @Override
+    public Boolean paren(ParenQuery paren) {
+      return paren.getChild().accept(this);
+    }
+
+    @Override
+    public Boolean text(TextQuery text) {
+      if (!text.getProximity().isPresent()) {
+        return Pattern.compile(text.getTerms().stream().map(Reference::pattern).collect(joining(" ")))
+            .matcher(document).find();
+      }
+
+      // Offsets of the n-grams that match each term, like ML.NGRAMS WITH OFFSET
+      List<List<Integer>> offsets = new ArrayList<>();
+      for (Term term : text.getTerms()) {
+        int n = term.getText().split(" ").length;
+        Pattern p = Pattern.compile(pattern(term));
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i + n <= tokens.size(); i++)
+          if (p.matcher(String.join(" ", tokens.subList(i, i + n))).find())
+            matches.add(i);
+        offsets.add(matches);
+      }
+      return cross(offsets, 0, Integer.MAX_VALUE, Integer.MIN_VALUE,
+          text.getProximity().getAsInt());
+    }
+
+    @Override
+    public Boolean vacuous(VacuousQuery vacuous) {
+      return true;
+    }
+
+    private static boolean cross(List<List<Integer>> offsets, int index, int least, int greatest,
+        int proximity) {
+      if (index == offsets.size())
+        return greatest - least + 1 <= proximity;
+      for (int offset : offsets.get(index))
+        if (cross(offsets, index + 1, Math.min(least, offset), Math.max(greatest, offset),
+            proximity))
+          return true;
+      return false;
+    }
+
+    private static String pattern(Term term) {
+      return "\\b\\Q" + term.getText() + "\\E" + (term.isWildcard() ? "[a-z0-9]*" : "") + "\\b";
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*-
+ * =================================LICENSE_START==================================
+ * litecene-memory
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2026 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.litecene.memory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TermDictionaryTest {
+  private static final String[] TERMS = {"a", "ab", "abc", "abd", "b", "ba", "bb", "c"};
+
+  /**
+   * Term i appears at position 0 of documents i and i + 1
+   */
+  private static TermDictionary dictionary(int maxExpansions) {
+    PostingList[] postings = new PostingList[TERMS.length];
+    for (int i = 0; i < TERMS.length; i++) {
+      PostingList.Writer writer = new PostingList.Writer();
+      writer.add(i, new int[] {0});
+      writer.add(i + 1, new int[] {0});
+      postings[i] = writer.build();
+    }
+    return new TermDictionary(TERMS, postings, maxExpansions);
+  }
+
+  private static List<Integer> docs(PostingList postings) {
+    List<Integer> result = new ArrayList<>();
+    DocIterator iterator = postings.iterator();
+    for (int doc = iterator.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = iterator.nextDoc())
+      result.add(doc);
+    return result;
+  }
+
+  @Test
+  public void shouldGetTerms() {
+    TermDictionary dictionary = dictionary(8);
+    assertThat(dictionary.size(), is(8));
+    assertThat(docs(dictionary.get("abd")), is(List.of(3, 4)));
+    assertThat(dictionary.get("abe"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldExpandPrefixes() {
+    TermDictionary dictionary = dictionary(8);
+    assertThat(dictionary.expand("a").length, is(4));
+    assertThat(dictionary.expand("ab").length, is(3));
+    assertThat(dictionary.expand("abc").length, is(1));
+    assertThat(dictionary.expand("b").length, is(3));
+    assertThat(dictionary.expand("d").length, is(0));
+    assertThat(dictionary.expand("aa").length, is(0));
+  }
+
+  @Test
+  public void shouldMergeBroadPrefixes() {
+    TermDictionary dictionary = dictionary(2);
+    assertThat(dictionary.expand("a").length, is(1));
+    assertThat(docs(dictionary.expand("a")[0]), is(List.of(0, 1, 2, 3, 4)));
+    assertThat(docs(dictionary.expand("ab")[0]), is(List.of(1, 2, 3, 4)));
+    assertThat(docs(dictionary.expand("b")[0]), is(List.of(4, 5, 6, 7)));
+    assertThat(dictionary.expand("abc").length, is(1));
+    assertThat(dictionary.expand("c").length, is(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNonPositiveMaxExpansions() {
+    dictionary(0);
+  }
+}
@@ -19,10 +19,8 @@
  */
 package com.sigpwned.litecene.test.example;
 
-import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 import java.text.Normalizer;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,8 +30,6 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import com.google.common.collect.Lists;
 import com.sigpwned.litecene.core.Query;
 import com.sigpwned.litecene.core.Term;
 import com.sigpwned.litecene.core.query.AndQuery;
@@ -43,6 +39,8 @@ import com.sigpwned.litecene.core.query.OrQuery;
 import com.sigpwned.litecene.core.query.ParenQuery;
 import com.sigpwned.litecene.core.query.TextQuery;
 import com.sigpwned.litecene.core.query.VacuousQuery;
+import com.sigpwned.litecene.core.util.DocSet;
+import com.sigpwned.litecene.core.util.ProximityWindows;
 import com.sigpwned.litecene.core.util.QueryProcessor;
 import com.sigpwned.litecene.test.Corpus;
 import com.sigpwned.litecene.test.CorpusMatcher;
@@ -79,68 +77,68 @@ public class ExampleCorpusMatcher implements CorpusMatcher {
     return TOKEN.matcher(unmarked).results().map(MatchResult::group).collect(joining(" "));
   }
 
+  /**
+   * Evaluates the query over sets of document ordinals, i.e., positions in the corpus, and only maps
+   * them back to document IDs at the end
+   */
   protected Set<String> match2(Corpus corpus, Query query) {
-    return new QueryProcessor<Set<String>>(new QueryProcessor.Processor<Set<String>>() {
+    List<Document> documents = corpus.getDocuments();
+    Set<String> result = new HashSet<>();
+    evaluate(documents, query).forEach(ordinal -> result.add(documents.get(ordinal).getId()));
+    return result;
+  }
+
+  private DocSet evaluate(List<Document> documents, Query query) {
+    return new QueryProcessor<DocSet>(new QueryProcessor.Processor<DocSet>() {
       @Override
-      public Set<String> and(AndQuery and) {
+      public DocSet and(AndQuery and) {
         if (and.getChildren().isEmpty())
-          return emptySet();
-
-        Set<String> ids = corpus.getDocuments().stream().map(Document::getId)
-            .collect(Collectors.toCollection(HashSet::new));
+          return DocSet.empty();
 
+        DocSet ordinals = DocSet.range(documents.size());
         for (Query child : and.getChildren())
-          ids.retainAll(match2(corpus, child));
+          ordinals = ordinals.and(evaluate(documents, child));
 
-        return ids;
+        return ordinals;
       }
 
       @Override
-      public Set<String> or(OrQuery or) {
-        if (or.getChildren().isEmpty())
-          return emptySet();
-
-        Set<String> ids = new HashSet<>();
+      public DocSet or(OrQuery or) {
+        DocSet ordinals = DocSet.empty();
         for (Query child : or.getChildren())
-          ids.addAll(match2(corpus, child));
+          ordinals = ordinals.or(evaluate(documents, child));
 
-        return ids;
+        return ordinals;
       }
 
       @Override
-      public Set<String> not(NotQuery not) {
-        Set<String> ids = corpus.getDocuments().stream().map(Document::getId)
-            .collect(Collectors.toCollection(HashSet::new));
-
-        ids.removeAll(match2(corpus, not));
-
-        return ids;
+      public DocSet not(NotQuery not) {
+        return DocSet.range(documents.size()).andNot(evaluate(documents, not.getChild()));
       }
 
       @Override
-      public Set<String> list(ListQuery list) {
+      public DocSet list(ListQuery list) {
         if (list.getChildren().isEmpty())
-          return emptySet();
-
-        Set<String> ids = corpus.getDocuments().stream().map(Document::getId)
-            .collect(Collectors.toCollection(HashSet::new));
+          return DocSet.empty();
 
+        DocSet ordinals = DocSet.range(documents.size());
         for (Query child : list.getChildren())
-          ids.retainAll(match2(corpus, child));
+          ordinals = ordinals.and(evaluate(documents, child));
 
-        return ids;
+        return ordinals;
       }
 
       @Override
-      public Set<String> paren(ParenQuery paren) {
-        return match2(corpus, paren.getChild());
+      public DocSet paren(ParenQuery paren) {
+        return evaluate(documents, paren.getChild());
       }
 
       @Override
-      public Set<String> text(TextQuery text) {
+      public DocSet text(TextQuery text) {
+        DocSet.Builder result = DocSet.builder();
         if (text.getProximity().isPresent()) {
-          Set<String> result = new HashSet<>();
-          documents: for (Document doc : corpus.getDocuments()) {
+          for (int i = 0; i < documents.size(); i++) {
+            Document doc = documents.get(i);
             // These are the tokens in our document string
             String doctext = TOKEN.matcher(doc.getText()).results().map(MatchResult::group)
                 .collect(joining(" "));
@@ -159,28 +157,22 @@ public class ExampleCorpusMatcher implements CorpusMatcher {
                   .collect(toList());
             }).collect(toList());
 
-            // If any permutation of matches fits in the given proximity, then this document
-            // matches. Add its ID to the results and move onto the next document. Otherwise, we'll
-            // just fall through, and the ID won't get added. Note that if any of the lists are
-            // empty, then we will never match by definition of the cartesian product.
-            for (List<Integer> permutation : Lists.cartesianProduct(matches)) {
-              int min = permutation.stream().mapToInt(Integer::intValue).min()
-                  .orElseThrow(AssertionError::new);
-              int max = permutation.stream().mapToInt(Integer::intValue).max()
-                  .orElseThrow(AssertionError::new);
-              if (max - min + 1 <= text.getProximity().getAsInt()) {
-                result.add(doc.getId());
-                continue documents;
-              }
-            }
+            // If some window of the given proximity covers a match of every term, then this
+            // document matches. Add its ordinal to the results. Note that if any of the lists are
+            // empty, then no window covers them all.
+            int[][] positions = matches.stream()
+                .map(ms -> ms.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+            if (ProximityWindows.fits(positions, text.getProximity().getAsInt()))
+              result.add(i);
           }
-          return result;
         } else {
           Pattern p = Pattern.compile(text.getTerms().stream().map(this::compile)
               .map(Pattern::pattern).collect(joining(" ")), Pattern.CASE_INSENSITIVE);
-          return corpus.getDocuments().stream().filter(d -> p.matcher(d.getText()).find())
-              .map(Document::getId).collect(toSet());
+          for (int i = 0; i < documents.size(); i++)
+            if (p.matcher(documents.get(i).getText()).find())
+              result.add(i);
         }
+        return result.build();
       }
 
       private Pattern compile(Term term) {
@@ -196,9 +188,9 @@ public class ExampleCorpusMatcher implements CorpusMatcher {
       }
 
       @Override
-      public Set<String> vacuous(VacuousQuery vacuous) {
+      public DocSet vacuous(VacuousQuery vacuous) {
         // By definition
-        return emptySet();
+        return DocSet.empty();
       }
     }).process(query);
   }